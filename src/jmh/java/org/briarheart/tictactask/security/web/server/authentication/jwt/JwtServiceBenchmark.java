@@ -0,0 +1,70 @@
+package org.briarheart.tictactask.security.web.server.authentication.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.briarheart.tictactask.security.web.server.authentication.accesstoken.AccessToken;
+import org.openjdk.jmh.annotations.*;
+
+import javax.crypto.SecretKey;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares cost of access token verification with and without parser reuse and token caching.
+ * <p>
+ * Run with {@code ./gradlew jmh}.
+ *
+ * @author Roman Chigvintsev
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtServiceBenchmark {
+    private SecretKey signingKey;
+    private JwtParser sharedParser;
+    private JwtService jwtService;
+    private String tokenValue;
+
+    @Setup
+    public void setUp() {
+        signingKey = Keys.secretKeyFor(SignatureAlgorithm.HS512);
+        sharedParser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        String encodedSigningKey = Base64.getEncoder().encodeToString(signingKey.getEncoded());
+        jwtService = new JwtService(new CookieJwtRepository("localhost"), encodedSigningKey);
+
+        Instant now = Instant.now();
+        tokenValue = Jwts.builder()
+                .setSubject("1")
+                .claim(JwtClaim.EMAIL.getName(), "alice@mail.com")
+                .claim(JwtClaim.FULL_NAME.getName(), "Alice")
+                .claim(JwtClaim.ADMIN.getName(), false)
+                .setIssuedAt(Date.from(now))
+                .setExpiration(Date.from(now.plus(1, ChronoUnit.DAYS)))
+                .signWith(signingKey, SignatureAlgorithm.HS512)
+                .compact();
+    }
+
+    /**
+     * Previous behaviour: new parser is built and signature is verified for every request.
+     */
+    @Benchmark
+    public Claims parseWithNewParser() {
+        return Jwts.parserBuilder().setSigningKey(signingKey).build().parseClaimsJws(tokenValue).getBody();
+    }
+
+    @Benchmark
+    public Claims parseWithSharedParser() {
+        return sharedParser.parseClaimsJws(tokenValue).getBody();
+    }
+
+    @Benchmark
+    public AccessToken parseWithJwtService() {
+        return jwtService.parseAccessToken(tokenValue).block();
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.context.annotation.Configuration;
 
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
+import java.util.List;
 
 @Configuration
 @ConfigurationProperties("application")
@@ -17,6 +18,11 @@ public class ApplicationProperties {
     private String version;
     private String domain;
     private Security security = new Security();
+    private Email email = new Email();
+    private ProfilePictureStorage profilePictureStorage = new ProfilePictureStorage();
+    private ProfilePictureThumbnails profilePictureThumbnails = new ProfilePictureThumbnails();
+    private TaskRecurrence taskRecurrence = new TaskRecurrence();
+    private TaskCollectionCache taskCollectionCache = new TaskCollectionCache();
 
     @Getter
     @Setter
@@ -25,6 +31,8 @@ public class ApplicationProperties {
         private Authentication authentication = new Authentication();
         private PasswordReset passwordReset = new PasswordReset();
         private EmailConfirmation emailConfirmation = new EmailConfirmation();
+        private PasswordHashing passwordHashing = new PasswordHashing();
+        private UserDetailsCache userDetailsCache = new UserDetailsCache();
 
         @Getter
         @Setter
@@ -36,12 +44,20 @@ public class ApplicationProperties {
         @Setter
         public static class Authentication {
             private AccessToken accessToken = new AccessToken();
+            private RefreshToken refreshToken = new RefreshToken();
 
             @Getter
             @Setter
             public static class AccessToken {
                 private String signingKey;
                 private long validitySeconds = 60_4800L; // Seven days
+                private Duration revocationListRefreshInterval = Duration.of(30, ChronoUnit.SECONDS);
+            }
+
+            @Getter
+            @Setter
+            public static class RefreshToken {
+                private long validitySeconds = 2_592_000L; // Thirty days
             }
         }
 
@@ -56,5 +72,79 @@ public class ApplicationProperties {
         public static class EmailConfirmation {
             private Duration tokenExpirationTimeout = Duration.of(24, ChronoUnit.HOURS);
         }
+
+        @Getter
+        @Setter
+        public static class PasswordHashing {
+            private int threads = Runtime.getRuntime().availableProcessors();
+            private int maxPendingTasks = 256;
+        }
+
+        @Getter
+        @Setter
+        public static class UserDetailsCache {
+            // Caching is disabled by default
+            private Duration timeToLive = Duration.ZERO;
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Email {
+        private Outbox outbox = new Outbox();
+
+        @Getter
+        @Setter
+        public static class Outbox {
+            private boolean enabled = true;
+            private Duration pollInterval = Duration.of(5, ChronoUnit.SECONDS);
+            private int batchSize = 50;
+            private int senderThreads = 2;
+            private int maxAttempts = 10;
+            private Duration initialBackoff = Duration.of(30, ChronoUnit.SECONDS);
+            private Duration maxBackoff = Duration.of(1, ChronoUnit.HOURS);
+            private Duration lease = Duration.of(5, ChronoUnit.MINUTES);
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class ProfilePictureStorage {
+        private String directory = "profile-pictures";
+        private boolean cleanupEnabled = true;
+        private Duration cleanupInterval = Duration.of(1, ChronoUnit.HOURS);
+        // Content that is saved but not referenced yet by any profile picture is not deleted within this period
+        private Duration cleanupGracePeriod = Duration.of(1, ChronoUnit.HOURS);
+    }
+
+    @Getter
+    @Setter
+    public static class ProfilePictureThumbnails {
+        private List<Integer> sizes = List.of(32, 64, 128);
+        private int threads = 2;
+        private int maxPendingTasks = 100;
+    }
+
+    @Getter
+    @Setter
+    public static class TaskRecurrence {
+        private boolean enabled = true;
+        private Duration pollInterval = Duration.of(1, ChronoUnit.MINUTES);
+        private int batchSize = 100;
+        // Number of partitions of users whose recurring tasks are processed by the sweeper one after another
+        private int partitions = 16;
+        private int maxOccurrencesPerTask = 400;
+        // Maximum number of days in range of dates within which occurrences of recurring tasks are requested
+        private int maxOccurrenceRangeDays = 366;
+        private int occurrenceCacheMaxSize = 10_000;
+        private Duration occurrenceCacheTimeToLive = Duration.of(10, ChronoUnit.MINUTES);
+    }
+
+    @Getter
+    @Setter
+    public static class TaskCollectionCache {
+        // Maximum total number of cached entities of every collection
+        private long maxSize = 100_000L;
+        private Duration timeToLive = Duration.of(10, ChronoUnit.MINUTES);
     }
 }
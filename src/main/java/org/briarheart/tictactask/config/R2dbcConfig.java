@@ -1,9 +1,12 @@
 package org.briarheart.tictactask.config;
 
+import io.r2dbc.postgresql.codec.Json;
 import org.briarheart.tictactask.data.convert.converter.CustomConverter;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.convert.CustomConversions.StoreConversions;
+import org.springframework.data.mapping.model.SimpleTypeHolder;
 import org.springframework.data.r2dbc.convert.R2dbcCustomConversions;
 import org.springframework.data.r2dbc.dialect.DialectResolver;
 import org.springframework.data.r2dbc.dialect.R2dbcDialect;
@@ -11,6 +14,7 @@ import org.springframework.r2dbc.core.DatabaseClient;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 @Configuration
 public class R2dbcConfig {
@@ -21,11 +25,14 @@ public class R2dbcConfig {
     }
 
     @Bean
-    public R2dbcCustomConversions r2dbcCustomConversions(List<CustomConverter> customConverters) {
+    public R2dbcCustomConversions r2dbcCustomConversions(ObjectProvider<CustomConverter> customConverters) {
         List<Object> converters = new ArrayList<>(dialect.getConverters());
         converters.addAll(R2dbcCustomConversions.STORE_CONVERTERS);
-        converters.addAll(customConverters);
-        StoreConversions conversions = StoreConversions.of(dialect.getSimpleTypeHolder(), converters);
+        customConverters.orderedStream().forEach(converters::add);
+        // JSONB values are passed to database driver as is so that custom converters could read and write them
+        SimpleTypeHolder simpleTypeHolder = new SimpleTypeHolder(Set.of(Json.class),
+                dialect.getSimpleTypeHolder());
+        StoreConversions conversions = StoreConversions.of(simpleTypeHolder, converters);
         return new R2dbcCustomConversions(conversions, List.of());
     }
 }
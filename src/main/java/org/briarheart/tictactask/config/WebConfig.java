@@ -7,6 +7,9 @@ import org.briarheart.tictactask.controller.format.LocalDateTimeFormatter;
 import org.briarheart.tictactask.data.EntityAlreadyExistsException;
 import org.briarheart.tictactask.data.EntityNotFoundException;
 import org.briarheart.tictactask.model.validation.NoFallbackResourceBundleLocator;
+import org.briarheart.tictactask.security.crypto.password.PasswordEncoderOverloadedException;
+import org.briarheart.tictactask.task.InvalidTaskCursorException;
+import org.briarheart.tictactask.task.recurrence.OccurrenceRangeTooLongException;
 import org.briarheart.tictactask.user.FileTooLargeException;
 import org.briarheart.tictactask.web.error.ApiErrorAttributes;
 import org.briarheart.tictactask.web.error.HttpStatusExceptionTypeMapper;
@@ -77,9 +80,14 @@ public class WebConfig implements WebFluxConfigurer {
             if (exceptionType == EntityNotFoundException.class) {
                 return HttpStatus.NOT_FOUND;
             }
-            if (exceptionType == EntityAlreadyExistsException.class || exceptionType == FileTooLargeException.class) {
+            if (exceptionType == EntityAlreadyExistsException.class || exceptionType == FileTooLargeException.class
+                    || exceptionType == InvalidTaskCursorException.class
+                    || exceptionType == OccurrenceRangeTooLongException.class) {
                 return HttpStatus.BAD_REQUEST;
             }
+            if (exceptionType == PasswordEncoderOverloadedException.class) {
+                return HttpStatus.SERVICE_UNAVAILABLE;
+            }
             return null;
         };
     }
@@ -1,26 +1,41 @@
 package org.briarheart.tictactask.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.briarheart.tictactask.config.ApplicationProperties.Security.Authentication.AccessToken;
+import org.briarheart.tictactask.config.ApplicationProperties.Security.Authentication.RefreshToken;
 import org.briarheart.tictactask.config.ApplicationProperties.Security.EmailConfirmation;
+import org.briarheart.tictactask.config.ApplicationProperties.Security.PasswordHashing;
 import org.briarheart.tictactask.config.ApplicationProperties.Security.PasswordReset;
+import org.briarheart.tictactask.config.ApplicationProperties.Security.UserDetailsCache;
 import org.briarheart.tictactask.email.EmailService;
+import org.briarheart.tictactask.security.crypto.password.BoundedReactivePasswordEncoder;
+import org.briarheart.tictactask.security.crypto.password.ReactivePasswordEncoder;
 import org.briarheart.tictactask.security.oauth2.client.endpoint.ReactiveAccessTokenTypeWebClientFilter;
 import org.briarheart.tictactask.security.oauth2.client.userinfo.*;
 import org.briarheart.tictactask.security.oauth2.client.web.server.CookieOAuth2ServerAuthorizationRequestRepository;
 import org.briarheart.tictactask.security.oauth2.client.web.server.CustomServerOAuth2AuthorizationCodeAuthenticationTokenConverter;
 import org.briarheart.tictactask.security.oauth2.client.web.server.FacebookOAuth2AuthorizationResponseConverter;
 import org.briarheart.tictactask.security.oauth2.client.web.server.OAuth2AuthorizationResponseConverter;
+import org.briarheart.tictactask.security.oauth2.core.userdetails.CachingReactiveUserDetailsService;
 import org.briarheart.tictactask.security.oauth2.core.userdetails.DatabaseReactiveUserDetailsService;
 import org.briarheart.tictactask.security.web.server.authentication.*;
+import org.briarheart.tictactask.security.web.server.authentication.accesstoken.AccessTokenRevocationService;
 import org.briarheart.tictactask.security.web.server.authentication.accesstoken.AccessTokenService;
+import org.briarheart.tictactask.security.web.server.authentication.accesstoken.BloomFilterAccessTokenRevocationService;
+import org.briarheart.tictactask.security.web.server.authentication.accesstoken.RevokedAccessTokenRepository;
 import org.briarheart.tictactask.security.web.server.authentication.accesstoken.ServerAccessTokenRepository;
 import org.briarheart.tictactask.security.web.server.authentication.jwt.CookieJwtRepository;
 import org.briarheart.tictactask.security.web.server.authentication.jwt.JwtService;
 import org.briarheart.tictactask.security.web.server.authentication.logout.AccessTokenLogoutHandler;
+import org.briarheart.tictactask.security.web.server.authentication.logout.AccessTokenRevocationLogoutHandler;
+import org.briarheart.tictactask.security.web.server.authentication.logout.RefreshTokenLogoutHandler;
+import org.briarheart.tictactask.security.web.server.authentication.refreshtoken.CookieRefreshTokenRepository;
+import org.briarheart.tictactask.security.web.server.authentication.refreshtoken.DefaultRefreshTokenService;
+import org.briarheart.tictactask.security.web.server.authentication.refreshtoken.RefreshTokenRepository;
+import org.briarheart.tictactask.security.web.server.authentication.refreshtoken.RefreshTokenService;
 import org.briarheart.tictactask.user.UserRepository;
-import org.briarheart.tictactask.user.authority.UserAuthorityRelationRepository;
 import org.briarheart.tictactask.user.email.DefaultEmailConfirmationService;
 import org.briarheart.tictactask.user.email.EmailConfirmationService;
 import org.briarheart.tictactask.user.email.EmailConfirmationTokenRepository;
@@ -36,7 +51,6 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.server.reactive.ServerHttpRequest;
-import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
 import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
@@ -65,6 +79,7 @@ import org.springframework.security.web.server.SecurityWebFilterChain;
 import org.springframework.security.web.server.ServerAuthenticationEntryPoint;
 import org.springframework.security.web.server.ServerRedirectStrategy;
 import org.springframework.security.web.server.authentication.*;
+import org.springframework.security.web.server.authentication.logout.DelegatingServerLogoutHandler;
 import org.springframework.security.web.server.authentication.logout.HttpStatusReturningServerLogoutSuccessHandler;
 import org.springframework.security.web.server.authentication.logout.ServerLogoutHandler;
 import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
@@ -108,6 +123,7 @@ public class WebSecurityConfig {
             ServerLogoutHandler logoutHandler,
             AuthenticationWebFilter accessTokenAuthenticationWebFilter,
             AuthenticationWebFilter formLoginAuthenticationWebFilter,
+            AuthenticationWebFilter refreshTokenAuthenticationWebFilter,
             ServerSecurityContextRepository securityContextRepository,
             ReactiveClientRegistrationRepository clientRegistrationRepository
     ) {
@@ -156,6 +172,8 @@ public class WebSecurityConfig {
                         .logoutSuccessHandler(new HttpStatusReturningServerLogoutSuccessHandler(HttpStatus.OK))
                 .and()
                     .addFilterAt(formLoginAuthenticationWebFilter, SecurityWebFiltersOrder.FORM_LOGIN)
+                    // Refresh is requested when access token is already expired so it must precede access token filter
+                    .addFilterBefore(refreshTokenAuthenticationWebFilter, SecurityWebFiltersOrder.AUTHENTICATION)
                     .addFilterAt(accessTokenAuthenticationWebFilter, SecurityWebFiltersOrder.AUTHENTICATION)
                 .build();
     }
@@ -189,12 +207,14 @@ public class WebSecurityConfig {
             ServerAuthorizationRequestRepository<OAuth2AuthorizationRequest> authorizationRequestRepository,
             UserRepository userRepository,
             AccessTokenService accessTokenService,
+            RefreshTokenService refreshTokenService,
             ObjectMapper objectMapper,
             ServerRedirectStrategy redirectStrategy
     ) {
         ClientRedirectOAuth2LoginServerAuthenticationSuccessHandler handler;
         handler = new ClientRedirectOAuth2LoginServerAuthenticationSuccessHandler(authorizationRequestRepository,
                 clientRedirectUriTemplate, userRepository, accessTokenService, objectMapper);
+        handler.setRefreshTokenService(refreshTokenService);
         handler.setRedirectStrategy(redirectStrategy);
         return handler;
     }
@@ -214,9 +234,13 @@ public class WebSecurityConfig {
     @Bean
     public ServerAuthenticationSuccessHandler formLoginAuthenticationSuccessHandler(
             AccessTokenService accessTokenService,
+            RefreshTokenService refreshTokenService,
             ObjectMapper objectMapper
     ) {
-        return new HttpStatusFormLoginServerAuthenticationSuccessHandler(accessTokenService, objectMapper);
+        HttpStatusFormLoginServerAuthenticationSuccessHandler handler;
+        handler = new HttpStatusFormLoginServerAuthenticationSuccessHandler(accessTokenService, objectMapper);
+        handler.setRefreshTokenService(refreshTokenService);
+        return handler;
     }
 
     @Bean
@@ -245,10 +269,11 @@ public class WebSecurityConfig {
     @Bean
     public AuthenticationWebFilter accessTokenAuthenticationWebFilter(
             AccessTokenService accessTokenService,
+            AccessTokenRevocationService accessTokenRevocationService,
             ServerAccessTokenRepository accessTokenRepository
     ) {
         AccessTokenReactiveAuthenticationManager authenticationManager
-                = new AccessTokenReactiveAuthenticationManager(accessTokenService);
+                = new AccessTokenReactiveAuthenticationManager(accessTokenService, accessTokenRevocationService);
         AuthenticationWebFilter filter = new AuthenticationWebFilter(authenticationManager);
         filter.setServerAuthenticationConverter(new AccessTokenServerAuthenticationConverter(accessTokenRepository));
         return filter;
@@ -257,12 +282,11 @@ public class WebSecurityConfig {
     @Bean
     public AuthenticationWebFilter formLoginAuthenticationWebFilter(
             ReactiveUserDetailsService userDetailsService,
-            PasswordEncoder passwordEncoder,
+            ReactivePasswordEncoder reactivePasswordEncoder,
             ServerAuthenticationSuccessHandler formLoginAuthenticationSuccessHandler
     ) {
-        UserDetailsRepositoryReactiveAuthenticationManager authenticationManager
-                = new UserDetailsRepositoryReactiveAuthenticationManager(userDetailsService);
-        authenticationManager.setPasswordEncoder(passwordEncoder);
+        PasswordReactiveAuthenticationManager authenticationManager
+                = new PasswordReactiveAuthenticationManager(userDetailsService, reactivePasswordEncoder);
 
         ServerAuthenticationConverter authenticationConverter = new ServerFormLoginAuthenticationConverter();
 
@@ -282,8 +306,41 @@ public class WebSecurityConfig {
     }
 
     @Bean
-    public AccessTokenLogoutHandler accessTokenLogoutHandler(ServerAccessTokenRepository accessTokenRepository) {
-        return new AccessTokenLogoutHandler(accessTokenRepository);
+    public AuthenticationWebFilter refreshTokenAuthenticationWebFilter(
+            RefreshTokenService refreshTokenService,
+            CookieRefreshTokenRepository cookieRefreshTokenRepository,
+            UserRepository userRepository,
+            ServerAuthenticationSuccessHandler formLoginAuthenticationSuccessHandler
+    ) {
+        RefreshTokenReactiveAuthenticationManager authenticationManager
+                = new RefreshTokenReactiveAuthenticationManager(refreshTokenService, userRepository);
+
+        ServerWebExchangeMatcher requiresAuthenticationMatcher
+                = new PathPatternParserServerWebExchangeMatcher("/api/token/refresh", HttpMethod.POST);
+
+        ServerAuthenticationEntryPoint entryPoint = new HttpStatusServerEntryPoint(HttpStatus.UNAUTHORIZED);
+        ServerAuthenticationFailureHandler failureHandler
+                = new ServerAuthenticationEntryPointFailureHandler(entryPoint);
+
+        AuthenticationWebFilter filter = new AuthenticationWebFilter(authenticationManager);
+        filter.setServerAuthenticationConverter(
+                new RefreshTokenServerAuthenticationConverter(cookieRefreshTokenRepository));
+        filter.setRequiresAuthenticationMatcher(requiresAuthenticationMatcher);
+        // Issues new pair of access and refresh tokens exactly like after login with username and password
+        filter.setAuthenticationSuccessHandler(formLoginAuthenticationSuccessHandler);
+        filter.setAuthenticationFailureHandler(failureHandler);
+        return filter;
+    }
+
+    @Bean
+    public ServerLogoutHandler logoutHandler(ServerAccessTokenRepository accessTokenRepository,
+                                             AccessTokenRevocationService accessTokenRevocationService,
+                                             RefreshTokenService refreshTokenService) {
+        return new DelegatingServerLogoutHandler(
+                new AccessTokenRevocationLogoutHandler(accessTokenRevocationService),
+                new RefreshTokenLogoutHandler(refreshTokenService),
+                new AccessTokenLogoutHandler(accessTokenRepository)
+        );
     }
 
     @Bean
@@ -300,11 +357,34 @@ public class WebSecurityConfig {
     }
 
     @Bean
-    public ReactiveUserDetailsService userDetailsService(
-            UserRepository userRepository,
-            UserAuthorityRelationRepository userAuthorityRelationRepository
+    public BloomFilterAccessTokenRevocationService accessTokenRevocationService(
+            RevokedAccessTokenRepository revokedAccessTokenRepository
     ) {
-        return new DatabaseReactiveUserDetailsService(userRepository, userAuthorityRelationRepository);
+        AccessToken accessTokenProps = applicationProperties.getSecurity().getAuthentication().getAccessToken();
+        return new BloomFilterAccessTokenRevocationService(revokedAccessTokenRepository,
+                accessTokenProps.getRevocationListRefreshInterval());
+    }
+
+    @Bean
+    public RefreshTokenService refreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                                                   CookieRefreshTokenRepository cookieRefreshTokenRepository) {
+        RefreshToken refreshTokenProps = applicationProperties.getSecurity().getAuthentication().getRefreshToken();
+        DefaultRefreshTokenService refreshTokenService = new DefaultRefreshTokenService(refreshTokenRepository,
+                cookieRefreshTokenRepository);
+        refreshTokenService.setRefreshTokenValiditySeconds(refreshTokenProps.getValiditySeconds());
+        return refreshTokenService;
+    }
+
+    @Bean
+    public CookieRefreshTokenRepository cookieRefreshTokenRepository() {
+        return new CookieRefreshTokenRepository(applicationProperties.getDomain());
+    }
+
+    @Bean
+    public CachingReactiveUserDetailsService userDetailsService(UserRepository userRepository) {
+        UserDetailsCache userDetailsCacheProps = applicationProperties.getSecurity().getUserDetailsCache();
+        return new CachingReactiveUserDetailsService(new DatabaseReactiveUserDetailsService(userRepository),
+                userDetailsCacheProps.getTimeToLive());
     }
 
     @Bean
@@ -334,14 +414,22 @@ public class WebSecurityConfig {
         return passwordEncoder;
     }
 
+    @Bean
+    public ReactivePasswordEncoder reactivePasswordEncoder(PasswordEncoder passwordEncoder,
+                                                           MeterRegistry meterRegistry) {
+        PasswordHashing passwordHashingProps = applicationProperties.getSecurity().getPasswordHashing();
+        return new BoundedReactivePasswordEncoder(passwordEncoder, passwordHashingProps.getThreads(),
+                passwordHashingProps.getMaxPendingTasks(), meterRegistry);
+    }
+
     @Bean
     public PasswordService passwordService(PasswordResetConfirmationTokenRepository tokenRepository,
                                            UserRepository userRepository,
                                            MessageSourceAccessor messages,
                                            EmailService emailService,
-                                           PasswordEncoder passwordEncoder) {
+                                           ReactivePasswordEncoder reactivePasswordEncoder) {
         DefaultPasswordService passwordService = new DefaultPasswordService(tokenRepository, userRepository,
-                applicationProperties, messages, emailService, passwordEncoder);
+                applicationProperties, messages, emailService, reactivePasswordEncoder);
         PasswordReset passwordResetProps = applicationProperties.getSecurity().getPasswordReset();
         passwordService.setPasswordResetTokenExpirationTimeout(passwordResetProps.getTokenExpirationTimeout());
         return passwordService;
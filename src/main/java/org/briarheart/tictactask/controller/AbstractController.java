@@ -1,7 +1,16 @@
 package org.briarheart.tictactask.controller;
 
 import org.briarheart.tictactask.user.User;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * Base class for all controllers.
@@ -9,7 +18,58 @@ import org.springframework.security.core.Authentication;
  * @author Roman Chigvintsev
  */
 public abstract class AbstractController {
+    // Collection may be changed at any time, so cached collection is revalidated with ETag on every request
+    private static final CacheControl COLLECTION_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
     protected User getUser(Authentication authentication) {
         return (User) authentication.getPrincipal();
     }
+
+    /**
+     * Creates response with collection of entities belonging to the given user. Version of collection is exposed as
+     * weak ETag. When client already has actual version of collection response with status "304 Not Modified" is
+     * returned and collection is not loaded at all.
+     *
+     * @param user       owner of collection
+     * @param version    current version of collection
+     * @param exchange   current server exchange
+     * @param collection supplier of collection that is called only when collection is modified
+     * @param <T>        type of collection elements
+     * @return response with collection or response with status "304 Not Modified"
+     */
+    protected <T> Mono<ResponseEntity<Flux<T>>> getCollection(User user,
+                                                              Mono<Long> version,
+                                                              ServerWebExchange exchange,
+                                                              Supplier<Flux<T>> collection) {
+        // Version must be obtained before collection is loaded: otherwise change made in between would be missed
+        return version.map(v -> {
+            // Id of user is included since client may keep collection of another user logged in earlier
+            String eTag = "W/\"" + user.getId() + "-" + v + "\"";
+            if (isNotModified(exchange.getRequest().getHeaders().getIfNoneMatch(), eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(eTag)
+                        .cacheControl(COLLECTION_CACHE_CONTROL)
+                        .build();
+            }
+            return ResponseEntity.ok().eTag(eTag).cacheControl(COLLECTION_CACHE_CONTROL).body(collection.get());
+        });
+    }
+
+    /**
+     * Checks whether client already has actual version of resource using weak comparison of entity tags from
+     * "If-None-Match" header with the given entity tag.
+     *
+     * @param ifNoneMatch entity tags from "If-None-Match" header
+     * @param eTag        current entity tag of resource
+     * @return {@code true} if resource is not modified, {@code false} otherwise
+     */
+    protected static boolean isNotModified(List<String> ifNoneMatch, String eTag) {
+        // Weak comparison is used for GET requests
+        String opaqueTag = stripWeakIndicator(eTag);
+        return ifNoneMatch.stream().anyMatch(tag -> "*".equals(tag) || opaqueTag.equals(stripWeakIndicator(tag)));
+    }
+
+    private static String stripWeakIndicator(String eTag) {
+        return eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+    }
 }
@@ -1,34 +1,44 @@
 package org.briarheart.tictactask.email;
 
 import io.jsonwebtoken.lang.Assert;
-import org.springframework.boot.autoconfigure.mail.MailProperties;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+import lombok.extern.slf4j.Slf4j;
+import org.briarheart.tictactask.util.DateTimeUtils;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
 
+import java.time.LocalDateTime;
+
+/**
+ * Implementation of {@link EmailService} that puts emails into the outbox. Outbox is drained by
+ * {@link EmailOutboxProcessor}, so sending of email does not block the caller and is committed or rolled back
+ * together with the caller's transaction.
+ */
 @Service
+@Slf4j
 public class DefaultEmailService implements EmailService {
-    private final MailProperties mailProperties;
-    private final JavaMailSender mailSender;
-
-    public DefaultEmailService(MailProperties mailProperties, JavaMailSender mailSender) {
-        Assert.notNull(mailProperties, "Mail properties must not be null");
-        Assert.notNull(mailSender, "Mail sender must not be null");
+    private final EmailMessageRepository emailMessageRepository;
 
-        this.mailProperties = mailProperties;
-        this.mailSender = mailSender;
+    public DefaultEmailService(EmailMessageRepository emailMessageRepository) {
+        Assert.notNull(emailMessageRepository, "Email message repository must not be null");
+        this.emailMessageRepository = emailMessageRepository;
     }
 
     @Override
-    public void sendEmail(String to, String subject, String text) {
+    public Mono<Void> sendEmail(String to, String subject, String text) {
         Assert.hasLength(to, "Email address must not be null or empty");
         Assert.hasLength(subject, "Email subject must not be null or empty");
 
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setFrom(mailProperties.getUsername());
-        message.setTo(to);
-        message.setSubject(subject);
-        message.setText(text);
-        mailSender.send(message);
+        return Mono.defer(() -> {
+            LocalDateTime now = DateTimeUtils.currentDateTimeUtc();
+            EmailMessage message = EmailMessage.builder()
+                    .recipient(to)
+                    .subject(subject)
+                    .text(text)
+                    .createdAt(now)
+                    .nextAttemptAt(now)
+                    .build();
+            return emailMessageRepository.save(message)
+                    .doOnSuccess(m -> log.debug("Email message with id {} is queued", m.getId()));
+        }).then();
     }
 }
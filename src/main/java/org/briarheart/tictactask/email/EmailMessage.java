@@ -0,0 +1,30 @@
+package org.briarheart.tictactask.email;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * Email waiting in the outbox to be sent.
+ *
+ * @author Roman Chigvintsev
+ * @see EmailOutboxProcessor
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Builder
+@Table("email_message")
+public class EmailMessage {
+    @Id
+    private Long id;
+    private String recipient;
+    private String subject;
+    private String text;
+    private int attempts;
+    private LocalDateTime nextAttemptAt;
+    private String lastError;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,35 @@
+package org.briarheart.tictactask.email;
+
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * @author Roman Chigvintsev
+ */
+public interface EmailMessageRepository extends ReactiveCrudRepository<EmailMessage, Long> {
+    /**
+     * Claims next batch of messages that are due to be sent. Claimed messages will not be returned by this method
+     * again until the given lease time expires, so several application instances may drain the outbox concurrently.
+     *
+     * @param now        current time
+     * @param leaseUntil time until which claimed messages are reserved for the caller
+     * @param limit      maximum number of messages to claim
+     * @return claimed messages
+     */
+    @Query("UPDATE email_message SET attempts = attempts + 1, next_attempt_at = :leaseUntil WHERE id IN ("
+            + "SELECT id FROM email_message WHERE next_attempt_at <= :now ORDER BY next_attempt_at LIMIT :limit "
+            + "FOR UPDATE SKIP LOCKED) RETURNING *")
+    Flux<EmailMessage> claimByNextAttemptAtBefore(LocalDateTime now, LocalDateTime leaseUntil, int limit);
+
+    @Modifying
+    @Query("UPDATE email_message SET next_attempt_at = :nextAttemptAt, last_error = :lastError WHERE id = :id")
+    Mono<Integer> updateNextAttemptAtAndLastErrorById(Long id, LocalDateTime nextAttemptAt, String lastError);
+
+    @Query("SELECT COUNT(*) FROM email_message WHERE next_attempt_at IS NOT NULL")
+    Mono<Long> countPending();
+}
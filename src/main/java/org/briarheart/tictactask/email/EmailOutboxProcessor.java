@@ -0,0 +1,250 @@
+package org.briarheart.tictactask.email;
+
+import com.google.common.collect.Lists;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.briarheart.tictactask.config.ApplicationProperties;
+import org.briarheart.tictactask.util.DateTimeUtils;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.mail.MailProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background worker that drains email outbox. Outbox is polled periodically, due messages are claimed in batches and
+ * sent with {@link JavaMailSender} on a dedicated bounded pool of threads, so that blocking SMTP conversation never
+ * occupies event loop threads. Sent messages are removed from the outbox. Failed messages are retried with
+ * exponential backoff until the maximum number of attempts is reached.
+ *
+ * @author Roman Chigvintsev
+ * @see DefaultEmailService
+ */
+@Component
+@ConditionalOnProperty(name = "application.email.outbox.enabled", matchIfMissing = true)
+@Slf4j
+public class EmailOutboxProcessor implements SmartLifecycle {
+    private final EmailMessageRepository emailMessageRepository;
+    private final MailProperties mailProperties;
+    private final JavaMailSender mailSender;
+    private final ApplicationProperties.Email.Outbox outboxProperties;
+
+    private final Timer sendTimer;
+    private final Counter sentCounter;
+    private final Counter retriedCounter;
+    private final Counter droppedCounter;
+    private final AtomicLong pendingCount = new AtomicLong();
+
+    private Scheduler scheduler;
+    private Disposable subscription;
+
+    public EmailOutboxProcessor(EmailMessageRepository emailMessageRepository,
+                                MailProperties mailProperties,
+                                JavaMailSender mailSender,
+                                ApplicationProperties applicationProperties,
+                                MeterRegistry meterRegistry) {
+        Assert.notNull(emailMessageRepository, "Email message repository must not be null");
+        Assert.notNull(mailProperties, "Mail properties must not be null");
+        Assert.notNull(mailSender, "Mail sender must not be null");
+        Assert.notNull(applicationProperties, "Application properties must not be null");
+        Assert.notNull(meterRegistry, "Meter registry must not be null");
+
+        this.emailMessageRepository = emailMessageRepository;
+        this.mailProperties = mailProperties;
+        this.mailSender = mailSender;
+        this.outboxProperties = applicationProperties.getEmail().getOutbox();
+
+        this.sendTimer = meterRegistry.timer("email.outbox.send");
+        this.sentCounter = meterRegistry.counter("email.outbox.sent");
+        this.retriedCounter = meterRegistry.counter("email.outbox.retried");
+        this.droppedCounter = meterRegistry.counter("email.outbox.dropped");
+        meterRegistry.gauge("email.outbox.pending", pendingCount);
+    }
+
+    @Override
+    public synchronized void start() {
+        if (isRunning()) {
+            return;
+        }
+        subscription = Flux.interval(Duration.ZERO, outboxProperties.getPollInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> drain().onErrorResume(e -> {
+                    log.error("Failed to process email outbox", e);
+                    return Mono.empty();
+                }), 1)
+                .subscribe();
+        log.debug("Email outbox processor is started");
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+            subscription = null;
+        }
+        if (scheduler != null) {
+            scheduler.dispose();
+            scheduler = null;
+        }
+        log.debug("Email outbox processor is stopped");
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return subscription != null && !subscription.isDisposed();
+    }
+
+    /**
+     * Sends all messages that are currently due. Batches are claimed one after another while outbox returns full
+     * batches.
+     *
+     * @return number of processed messages
+     */
+    Mono<Integer> drain() {
+        int batchSize = outboxProperties.getBatchSize();
+        return processBatch()
+                .expand(count -> count >= batchSize ? processBatch() : Mono.empty())
+                .reduce(0, Integer::sum)
+                .flatMap(count -> emailMessageRepository.countPending()
+                        .doOnNext(pendingCount::set)
+                        .thenReturn(count));
+    }
+
+    protected LocalDateTime getCurrentTime() {
+        return DateTimeUtils.currentDateTimeUtc();
+    }
+
+    private Mono<Integer> processBatch() {
+        LocalDateTime now = getCurrentTime();
+        LocalDateTime leaseUntil = now.plus(outboxProperties.getLease());
+        return emailMessageRepository.claimByNextAttemptAtBefore(now, leaseUntil, outboxProperties.getBatchSize())
+                .collectList()
+                .flatMap(messages -> {
+                    if (messages.isEmpty()) {
+                        return Mono.just(0);
+                    }
+                    log.debug("{} email message(s) are claimed for sending", messages.size());
+                    return send(messages).flatMap(failures -> Flux.fromIterable(messages)
+                            .concatMap(message -> {
+                                Exception failure = failures.get(message.getId());
+                                if (failure == null) {
+                                    return onSent(message);
+                                }
+                                return onFailed(message, failure);
+                            })
+                            .then(Mono.just(messages.size())));
+                });
+    }
+
+    private Mono<Map<Long, Exception>> send(List<EmailMessage> messages) {
+        int threads = Math.max(outboxProperties.getSenderThreads(), 1);
+        int chunkSize = (messages.size() + threads - 1) / threads;
+        return Flux.fromIterable(Lists.partition(messages, chunkSize))
+                .flatMap(chunk -> Mono.fromCallable(() -> sendChunk(chunk)).subscribeOn(getScheduler()), threads)
+                .<Map<Long, Exception>>reduce(new HashMap<>(), (result, failures) -> {
+                    result.putAll(failures);
+                    return result;
+                });
+    }
+
+    private Map<Long, Exception> sendChunk(List<EmailMessage> messages) {
+        Map<SimpleMailMessage, EmailMessage> mailMessages = new IdentityHashMap<>();
+        for (EmailMessage message : messages) {
+            mailMessages.put(createMailMessage(message), message);
+        }
+
+        Map<Long, Exception> failures = new HashMap<>();
+        Timer.Sample sample = Timer.start();
+        try {
+            // Messages are sent using single connection to mail server
+            mailSender.send(mailMessages.keySet().toArray(new SimpleMailMessage[0]));
+        } catch (MailSendException e) {
+            Map<Object, Exception> failedMessages = e.getFailedMessages();
+            if (failedMessages.isEmpty()) {
+                messages.forEach(message -> failures.put(message.getId(), e));
+            } else {
+                failedMessages.forEach((mailMessage, failure) -> {
+                    EmailMessage message = mailMessages.get(mailMessage);
+                    if (message != null) {
+                        failures.put(message.getId(), failure);
+                    }
+                });
+            }
+        } catch (MailException e) {
+            messages.forEach(message -> failures.put(message.getId(), e));
+        } finally {
+            sample.stop(sendTimer);
+        }
+        return failures;
+    }
+
+    private SimpleMailMessage createMailMessage(EmailMessage message) {
+        SimpleMailMessage mailMessage = new SimpleMailMessage();
+        mailMessage.setFrom(mailProperties.getUsername());
+        mailMessage.setTo(message.getRecipient());
+        mailMessage.setSubject(message.getSubject());
+        mailMessage.setText(message.getText());
+        return mailMessage;
+    }
+
+    private Mono<Void> onSent(EmailMessage message) {
+        sentCounter.increment();
+        return emailMessageRepository.delete(message)
+                .doOnSuccess(v -> log.debug("Email message with id {} is sent", message.getId()));
+    }
+
+    private Mono<Void> onFailed(EmailMessage message, Exception failure) {
+        String error = Objects.requireNonNullElse(failure.getMessage(), failure.getClass().getName());
+        LocalDateTime nextAttemptAt;
+        if (message.getAttempts() >= outboxProperties.getMaxAttempts()) {
+            log.error("Failed to send email message with id {} after {} attempt(s), giving up",
+                    message.getId(), message.getAttempts(), failure);
+            droppedCounter.increment();
+            nextAttemptAt = null;
+        } else {
+            nextAttemptAt = getCurrentTime().plus(getBackoff(message.getAttempts()));
+            log.warn("Failed to send email message with id {} (attempt {}), next attempt is scheduled at {}: {}",
+                    message.getId(), message.getAttempts(), nextAttemptAt, error);
+            retriedCounter.increment();
+        }
+        return emailMessageRepository.updateNextAttemptAtAndLastErrorById(message.getId(), nextAttemptAt, error)
+                .then();
+    }
+
+    private Duration getBackoff(int attempts) {
+        Duration backoff = outboxProperties.getInitialBackoff();
+        Duration maxBackoff = outboxProperties.getMaxBackoff();
+        for (int i = 1; i < attempts && backoff.compareTo(maxBackoff) < 0; i++) {
+            backoff = backoff.multipliedBy(2);
+        }
+        return backoff.compareTo(maxBackoff) < 0 ? backoff : maxBackoff;
+    }
+
+    private synchronized Scheduler getScheduler() {
+        if (scheduler == null) {
+            scheduler = Schedulers.newBoundedElastic(outboxProperties.getSenderThreads(),
+                    outboxProperties.getBatchSize(), "email-outbox");
+        }
+        return scheduler;
+    }
+}
@@ -1,15 +1,18 @@
 package org.briarheart.tictactask.email;
 
+import reactor.core.publisher.Mono;
+
 /**
  * Service to send simple emails on behalf of application.
  */
 public interface EmailService {
     /**
-     * Sends simple email to the given user.
+     * Queues simple email to the given user. Email is sent asynchronously, so completion of the returned
+     * {@link Mono} does not mean that email is already delivered.
      *
      * @param to user email address (must not be {@code null} or empty)
      * @param subject email subject (must not be {@code null} or empty)
      * @param text email text
      */
-    void sendEmail(String to, String subject, String text);
+    Mono<Void> sendEmail(String to, String subject, String text);
 }
@@ -0,0 +1,106 @@
+package org.briarheart.tictactask.security.crypto.password;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Implementation of {@link ReactivePasswordEncoder} that delegates to the blocking {@link PasswordEncoder} running on
+ * a dedicated scheduler with fixed number of threads. Number of pending requests is limited: when the limit is
+ * reached new requests are rejected immediately with {@link PasswordEncoderOverloadedException} instead of waiting in
+ * the queue.
+ * <p>
+ * Time spent in the queue and time spent on hashing are recorded to "security.password.queue-wait" and
+ * "security.password.hash" timers respectively.
+ *
+ * @author Roman Chigvintsev
+ */
+@Slf4j
+public class BoundedReactivePasswordEncoder implements ReactivePasswordEncoder, DisposableBean {
+    private final PasswordEncoder delegate;
+    private final int maxPendingTasks;
+    private final Scheduler scheduler;
+
+    private final AtomicInteger pendingTasks = new AtomicInteger();
+    private final Timer queueWaitTimer;
+    private final Timer encodeTimer;
+    private final Timer matchTimer;
+    private final Counter rejectedCounter;
+
+    /**
+     * Creates new instance of this class.
+     *
+     * @param delegate        password encoder doing actual work (must not be {@code null})
+     * @param threads         number of threads used for password hashing (must be positive)
+     * @param maxPendingTasks maximum number of requests that are executing or waiting in the queue (must be positive)
+     * @param meterRegistry   meter registry (must not be {@code null})
+     */
+    public BoundedReactivePasswordEncoder(PasswordEncoder delegate,
+                                          int threads,
+                                          int maxPendingTasks,
+                                          MeterRegistry meterRegistry) {
+        Assert.notNull(delegate, "Password encoder must not be null");
+        Assert.isTrue(threads > 0, "Number of threads must be positive");
+        Assert.isTrue(maxPendingTasks > 0, "Maximum number of pending tasks must be positive");
+        Assert.notNull(meterRegistry, "Meter registry must not be null");
+
+        this.delegate = delegate;
+        this.maxPendingTasks = maxPendingTasks;
+        this.scheduler = Schedulers.newBoundedElastic(threads, maxPendingTasks, "password-encoder");
+
+        this.queueWaitTimer = meterRegistry.timer("security.password.queue-wait");
+        this.encodeTimer = meterRegistry.timer("security.password.hash", "operation", "encode");
+        this.matchTimer = meterRegistry.timer("security.password.hash", "operation", "matches");
+        this.rejectedCounter = meterRegistry.counter("security.password.rejected");
+        meterRegistry.gauge("security.password.pending", pendingTasks);
+    }
+
+    @Override
+    public Mono<String> encode(CharSequence rawPassword) throws PasswordEncoderOverloadedException {
+        Assert.notNull(rawPassword, "Raw password must not be null");
+        return execute(encodeTimer, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public Mono<Boolean> matches(CharSequence rawPassword, String encodedPassword)
+            throws PasswordEncoderOverloadedException {
+        return execute(matchTimer, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.dispose();
+    }
+
+    private <T> Mono<T> execute(Timer timer, Supplier<T> task) {
+        return Mono.defer(() -> {
+            if (pendingTasks.incrementAndGet() > maxPendingTasks) {
+                pendingTasks.decrementAndGet();
+                rejectedCounter.increment();
+                log.warn("Password encoding request is rejected: there are already {} pending request(s)",
+                        maxPendingTasks);
+                return Mono.error(new PasswordEncoderOverloadedException("Too many pending password encoding "
+                        + "requests"));
+            }
+
+            long queuedAt = System.nanoTime();
+            return Mono.fromSupplier(() -> {
+                        queueWaitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                        return timer.record(task);
+                    })
+                    .subscribeOn(scheduler)
+                    .doFinally(signal -> pendingTasks.decrementAndGet());
+        });
+    }
+}
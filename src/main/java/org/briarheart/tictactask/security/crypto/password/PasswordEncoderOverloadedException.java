@@ -0,0 +1,19 @@
+package org.briarheart.tictactask.security.crypto.password;
+
+/**
+ * Exception indicating that password cannot be encoded or checked right now because there are too many pending
+ * requests.
+ *
+ * @author Roman Chigvintsev
+ * @see ReactivePasswordEncoder
+ */
+public class PasswordEncoderOverloadedException extends RuntimeException {
+    /**
+     * Creates new instance of this class with the given error message.
+     *
+     * @param message error message
+     */
+    public PasswordEncoderOverloadedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,31 @@
+package org.briarheart.tictactask.security.crypto.password;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link PasswordEncoder}. Password hashing is deliberately slow, so implementations
+ * must not perform it on the calling thread.
+ *
+ * @author Roman Chigvintsev
+ */
+public interface ReactivePasswordEncoder {
+    /**
+     * Encodes the given raw password.
+     *
+     * @param rawPassword raw password (must not be {@code null})
+     * @return encoded password
+     * @throws PasswordEncoderOverloadedException if there are too many pending password encoding requests
+     */
+    Mono<String> encode(CharSequence rawPassword) throws PasswordEncoderOverloadedException;
+
+    /**
+     * Verifies that the given raw password matches the given encoded password.
+     *
+     * @param rawPassword     raw password to check
+     * @param encodedPassword encoded password
+     * @return {@code true} if passwords match, {@code false} otherwise
+     * @throws PasswordEncoderOverloadedException if there are too many pending password encoding requests
+     */
+    Mono<Boolean> matches(CharSequence rawPassword, String encodedPassword) throws PasswordEncoderOverloadedException;
+}
@@ -0,0 +1,97 @@
+package org.briarheart.tictactask.security.oauth2.core.userdetails;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.briarheart.tictactask.user.User;
+import org.briarheart.tictactask.util.Transactions;
+import org.reactivestreams.Publisher;
+import org.springframework.data.r2dbc.mapping.OutboundRow;
+import org.springframework.data.r2dbc.mapping.event.AfterSaveCallback;
+import org.springframework.data.relational.core.sql.SqlIdentifier;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Implementation of {@link ReactiveUserDetailsService} that caches users found by delegate for a short period of
+ * time. Cached user is evicted as soon as user is saved by this application instance (for example when user's
+ * password is changed) and once again after completion of transaction in which user is saved, so that user loaded
+ * concurrently before commit is not cached in its old state. Changes made by other application instances become
+ * visible when cached user expires.
+ * <p>
+ * Caching is disabled when time to live is zero.
+ *
+ * @author Roman Chigvintsev
+ */
+public class CachingReactiveUserDetailsService implements ReactiveUserDetailsService, AfterSaveCallback<User> {
+    private static final long CACHE_MAX_SIZE = 10_000;
+
+    private final ReactiveUserDetailsService delegate;
+    private final Cache<String, User> userCache;
+    /**
+     * Number of evictions since creation of this service. User is not cached when any user was evicted while user was
+     * being loaded, since loaded user may be already stale.
+     */
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    /**
+     * Creates new instance of this class.
+     *
+     * @param delegate   service to load users that are not cached (must not be {@code null})
+     * @param timeToLive time to live of cached users (must not be {@code null} or negative)
+     */
+    public CachingReactiveUserDetailsService(ReactiveUserDetailsService delegate, Duration timeToLive) {
+        Assert.notNull(delegate, "Delegate must not be null");
+        Assert.notNull(timeToLive, "Time to live must not be null");
+        Assert.isTrue(!timeToLive.isNegative(), "Time to live must not be negative");
+
+        this.delegate = delegate;
+        this.userCache = timeToLive.isZero() ? null : Caffeine.newBuilder()
+                .maximumSize(CACHE_MAX_SIZE)
+                .expireAfterWrite(timeToLive)
+                .build();
+    }
+
+    @Override
+    public Mono<UserDetails> findByUsername(String username) {
+        if (userCache == null) {
+            return delegate.findByUsername(username);
+        }
+        return Mono.defer(() -> {
+            User cachedUser = userCache.getIfPresent(username);
+            if (cachedUser != null) {
+                return Mono.just(new User(cachedUser));
+            }
+            long evictions = evictionCount.get();
+            return delegate.findByUsername(username).doOnNext(userDetails -> {
+                if (userDetails instanceof User && evictionCount.get() == evictions) {
+                    userCache.put(username, new User((User) userDetails));
+                }
+            });
+        });
+    }
+
+    @Override
+    public Publisher<User> onAfterSave(User user, OutboundRow outboundRow, SqlIdentifier table) {
+        return Mono.defer(() -> {
+            evict(user.getEmail());
+            return Transactions.runAfterCompletion(() -> evict(user.getEmail()));
+        }).thenReturn(user);
+    }
+
+    /**
+     * Removes user with the given username from cache.
+     *
+     * @param username username of user to be removed from cache
+     */
+    public void evict(String username) {
+        if (userCache != null && username != null) {
+            evictionCount.incrementAndGet();
+            userCache.invalidate(username);
+        }
+    }
+}
@@ -2,39 +2,22 @@ package org.briarheart.tictactask.security.oauth2.core.userdetails;
 
 import lombok.RequiredArgsConstructor;
 import org.briarheart.tictactask.user.UserRepository;
-import org.briarheart.tictactask.user.authority.UserAuthorityRelation;
-import org.briarheart.tictactask.user.authority.UserAuthorityRelationRepository;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
 import org.springframework.security.core.userdetails.UserDetails;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.util.List;
-
 /**
- * Implementation of {@link ReactiveUserDetailsService} that load users from database.
+ * Implementation of {@link ReactiveUserDetailsService} that load users from database. User is loaded along with its
+ * authorities using single query.
  *
  * @author Roman Chigvintsev
  */
 @RequiredArgsConstructor
 public class DatabaseReactiveUserDetailsService implements ReactiveUserDetailsService {
     private final UserRepository userRepository;
-    private final UserAuthorityRelationRepository userAuthorityRelationRepository;
 
     @Override
     public Mono<UserDetails> findByUsername(String username) {
-        return userRepository.findByEmail(username)
-                .flatMap(user -> loadAuthorities(user.getId()).map(authorities -> {
-                    user.setAuthorities(authorities);
-                    return user;
-                }))
-                .cast(UserDetails.class);
-    }
-
-    private Mono<List<SimpleGrantedAuthority>> loadAuthorities(Long userId) {
-        Flux<UserAuthorityRelation> userAuthorityRelations = userAuthorityRelationRepository.findByUserId(userId);
-        return userAuthorityRelations.map(relations -> new SimpleGrantedAuthority(relations.getAuthority()))
-                .collectList();
+        return userRepository.findByEmailWithAuthorities(username).cast(UserDetails.class);
     }
 }
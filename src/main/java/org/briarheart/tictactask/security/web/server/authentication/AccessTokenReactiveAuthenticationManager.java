@@ -1,40 +1,110 @@
 package org.briarheart.tictactask.security.web.server.authentication;
 
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import org.briarheart.tictactask.security.web.server.authentication.accesstoken.AccessToken;
+import org.briarheart.tictactask.security.web.server.authentication.accesstoken.AccessTokenRevocationService;
 import org.briarheart.tictactask.security.web.server.authentication.accesstoken.AccessTokenService;
+import org.briarheart.tictactask.security.web.server.authentication.accesstoken.InvalidAccessTokenException;
 import org.briarheart.tictactask.user.User;
 import org.springframework.security.authentication.ReactiveAuthenticationManager;
 import org.springframework.security.core.Authentication;
+import org.springframework.util.Assert;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.time.Instant;
+
 /**
  * Implementation of {@link ReactiveAuthenticationManager} that performs authentication based on the access token.
- * This authentication manager expects only instances of {@link AccessTokenAuthentication}.
+ * This authentication manager expects only instances of {@link AccessTokenAuthentication}. Access tokens revoked with
+ * {@link AccessTokenRevocationService} are rejected.
+ * <p>
+ * Since the same access token is presented with every request until it expires, authentications are cached by token
+ * values until token expiration. Revocation of access token is checked on every request.
  *
  * @author Roman Chigvintsev
  * @see AccessToken
  * @see AccessTokenAuthentication
  */
-@RequiredArgsConstructor
 public class AccessTokenReactiveAuthenticationManager implements ReactiveAuthenticationManager {
+    private static final long AUTHENTICATION_CACHE_MAX_SIZE = 10_000;
+
     private final AccessTokenService accessTokenService;
+    private final AccessTokenRevocationService accessTokenRevocationService;
+    private final Cache<String, AccessTokenAuthentication> authenticationCache;
+
+    public AccessTokenReactiveAuthenticationManager(AccessTokenService accessTokenService,
+                                                    AccessTokenRevocationService accessTokenRevocationService) {
+        Assert.notNull(accessTokenService, "Access token service must not be null");
+        Assert.notNull(accessTokenRevocationService, "Access token revocation service must not be null");
+
+        this.accessTokenService = accessTokenService;
+        this.accessTokenRevocationService = accessTokenRevocationService;
+        this.authenticationCache = Caffeine.newBuilder()
+                .maximumSize(AUTHENTICATION_CACHE_MAX_SIZE)
+                .expireAfter(new AuthenticationExpiry())
+                .build();
+    }
 
     @Override
     public Mono<Authentication> authenticate(Authentication authentication) {
         String accessTokenValue = ((AccessTokenAuthentication) authentication).getTokenValue();
-        return accessTokenService.parseAccessToken(accessTokenValue)
-                .map(accessToken -> {
-                    User principal = User.builder()
-                            .id(Long.parseLong(accessToken.getSubject()))
-                            .email(accessToken.getEmail())
-                            .emailConfirmed(true)
-                            .enabled(true)
-                            .fullName(accessToken.getFullName())
-                            .profilePictureUrl(accessToken.getProfilePictureUrl())
-                            .admin(accessToken.isAdmin())
-                            .build();
-                    return new AccessTokenAuthentication(accessToken, principal);
-                });
+        return Mono.justOrEmpty(authenticationCache.getIfPresent(accessTokenValue))
+                .switchIfEmpty(Mono.defer(() -> accessTokenService.parseAccessToken(accessTokenValue)
+                        .map(accessToken -> createAuthentication(accessTokenValue, accessToken))))
+                .<Authentication>flatMap(accessTokenAuthentication -> accessTokenRevocationService
+                        .isRevoked(accessTokenAuthentication.getToken())
+                        .map(revoked -> {
+                            if (revoked) {
+                                throw new InvalidAccessTokenException("Access token is revoked");
+                            }
+                            return accessTokenAuthentication;
+                        }));
+    }
+
+    private AccessTokenAuthentication createAuthentication(String accessTokenValue, AccessToken accessToken) {
+        User principal = User.builder()
+                .id(Long.parseLong(accessToken.getSubject()))
+                .email(accessToken.getEmail())
+                .emailConfirmed(true)
+                .enabled(true)
+                .fullName(accessToken.getFullName())
+                .profilePictureUrl(accessToken.getProfilePictureUrl())
+                .admin(accessToken.isAdmin())
+                .build();
+        AccessTokenAuthentication authentication = new AccessTokenAuthentication(accessToken, principal);
+        // Authentications based on tokens without expiration time are never cached
+        if (accessToken.getExpiration() != null) {
+            authenticationCache.put(accessTokenValue, authentication);
+        }
+        return authentication;
+    }
+
+    private static class AuthenticationExpiry implements Expiry<String, AccessTokenAuthentication> {
+        @Override
+        public long expireAfterCreate(String tokenValue,
+                                      AccessTokenAuthentication authentication,
+                                      long currentTime) {
+            Duration expiresAfter = Duration.between(Instant.now(), authentication.getToken().getExpiration());
+            return expiresAfter.isNegative() ? 0L : expiresAfter.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String tokenValue,
+                                      AccessTokenAuthentication authentication,
+                                      long currentTime,
+                                      long currentDuration) {
+            return expireAfterCreate(tokenValue, authentication, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String tokenValue,
+                                    AccessTokenAuthentication authentication,
+                                    long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
+        }
     }
 }
@@ -2,9 +2,11 @@ package org.briarheart.tictactask.security.web.server.authentication;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Setter;
 import org.briarheart.tictactask.security.oauth2.core.user.OAuth2UserAttributeAccessor;
 import org.briarheart.tictactask.security.web.server.authentication.accesstoken.AccessToken;
 import org.briarheart.tictactask.security.web.server.authentication.accesstoken.AccessTokenService;
+import org.briarheart.tictactask.security.web.server.authentication.refreshtoken.RefreshTokenService;
 import org.briarheart.tictactask.user.User;
 import org.briarheart.tictactask.user.UserRepository;
 import org.springframework.security.core.Authentication;
@@ -27,7 +29,7 @@ import java.util.Collections;
 /**
  * This handler issues an access token and then performs a redirect passing token value in the response.
  * Additionally it includes BASE64-encoded JSON-representation of access token claims in redirect URI as
- * a query parameter with name "access_token_claims".
+ * a query parameter with name "access_token_claims". If refresh token service is set refresh token is issued as well.
  *
  * @author Roman Chigvintsev
  * @see OAuth2AuthorizationRequest
@@ -39,6 +41,9 @@ public class ClientRedirectOAuth2LoginServerAuthenticationSuccessHandler
     private final AccessTokenService accessTokenService;
     private final ObjectMapper objectMapper;
 
+    @Setter
+    private RefreshTokenService refreshTokenService;
+
     public ClientRedirectOAuth2LoginServerAuthenticationSuccessHandler(
             ServerAuthorizationRequestRepository<OAuth2AuthorizationRequest> authorizationRequestRepository,
             String clientRedirectUriTemplate,
@@ -65,7 +70,7 @@ public class ClientRedirectOAuth2LoginServerAuthenticationSuccessHandler
                     return new OAuth2AuthenticationException(oAuth2Error);
                 }))
                 .zipWhen(
-                        locationAndUser -> accessTokenService.createAccessToken(locationAndUser.getT2(), exchange),
+                        locationAndUser -> createTokens(locationAndUser.getT2(), exchange),
                         (locationAndUser, accessToken) -> Tuples.of(locationAndUser.getT1(), accessToken)
                 )
                 .flatMap(locationAndToken
@@ -82,6 +87,15 @@ public class ClientRedirectOAuth2LoginServerAuthenticationSuccessHandler
         return userRepository.findByEmail(((OAuth2UserAttributeAccessor) authentication.getPrincipal()).getEmail());
     }
 
+    private Mono<? extends AccessToken> createTokens(User user, ServerWebExchange exchange) {
+        return accessTokenService.createAccessToken(user, exchange).flatMap(accessToken -> {
+            if (refreshTokenService == null) {
+                return Mono.just(accessToken);
+            }
+            return refreshTokenService.createRefreshToken(user, exchange).thenReturn(accessToken);
+        });
+    }
+
     private Mono<URI> addClientPrincipalToRedirectUri(String redirectLocation, AccessToken accessToken) {
         return Mono.fromCallable(() -> {
             byte[] claims = objectMapper.writeValueAsBytes(accessToken.getClaims());
@@ -2,7 +2,9 @@ package org.briarheart.tictactask.security.web.server.authentication;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import org.briarheart.tictactask.security.web.server.authentication.accesstoken.AccessTokenService;
+import org.briarheart.tictactask.security.web.server.authentication.refreshtoken.RefreshTokenService;
 import org.briarheart.tictactask.user.User;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -16,7 +18,7 @@ import reactor.core.publisher.Mono;
 
 /**
  * This handler issues an access token and then writes access token claims to HTTP response body along with setting
- * HTTP status code to "200 OK".
+ * HTTP status code to "200 OK". If refresh token service is set refresh token is issued as well.
  *
  * @author Roman Chigvintsev
  */
@@ -25,11 +27,15 @@ public class HttpStatusFormLoginServerAuthenticationSuccessHandler implements Se
     private final AccessTokenService accessTokenService;
     private final ObjectMapper objectMapper;
 
+    @Setter
+    private RefreshTokenService refreshTokenService;
+
     @Override
     public Mono<Void> onAuthenticationSuccess(WebFilterExchange webFilterExchange, Authentication authentication) {
         User user = (User) authentication.getPrincipal();
         ServerWebExchange exchange = webFilterExchange.getExchange();
         return accessTokenService.createAccessToken(user, exchange)
+                .flatMap(accessToken -> createRefreshToken(user, exchange).thenReturn(accessToken))
                 .flatMap(accessToken
                         -> Mono.fromCallable(() -> objectMapper.writeValueAsBytes(accessToken.getClaims())))
                 .flatMap(encodedClaims -> {
@@ -41,4 +47,8 @@ public class HttpStatusFormLoginServerAuthenticationSuccessHandler implements Se
                     return response.writeWith(Mono.just(response.bufferFactory().wrap(encodedClaims)));
                 });
     }
+
+    private Mono<?> createRefreshToken(User user, ServerWebExchange exchange) {
+        return refreshTokenService != null ? refreshTokenService.createRefreshToken(user, exchange) : Mono.empty();
+    }
 }
@@ -0,0 +1,46 @@
+package org.briarheart.tictactask.security.web.server.authentication;
+
+import org.briarheart.tictactask.security.crypto.password.ReactivePasswordEncoder;
+import org.springframework.security.authentication.AccountStatusUserDetailsChecker;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetailsChecker;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Mono;
+
+/**
+ * Implementation of {@link ReactiveAuthenticationManager} that authenticates users by username and password. Unlike
+ * {@link org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager} password is
+ * checked with {@link ReactivePasswordEncoder}, so that the number of concurrent password checks is bounded.
+ *
+ * @author Roman Chigvintsev
+ */
+public class PasswordReactiveAuthenticationManager implements ReactiveAuthenticationManager {
+    private final ReactiveUserDetailsService userDetailsService;
+    private final ReactivePasswordEncoder passwordEncoder;
+    private final UserDetailsChecker userDetailsChecker = new AccountStatusUserDetailsChecker();
+
+    public PasswordReactiveAuthenticationManager(ReactiveUserDetailsService userDetailsService,
+                                                 ReactivePasswordEncoder passwordEncoder) {
+        Assert.notNull(userDetailsService, "User details service must not be null");
+        Assert.notNull(passwordEncoder, "Password encoder must not be null");
+
+        this.userDetailsService = userDetailsService;
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    @Override
+    public Mono<Authentication> authenticate(Authentication authentication) {
+        String username = authentication.getName();
+        String presentedPassword = (String) authentication.getCredentials();
+        return userDetailsService.findByUsername(username)
+                .doOnNext(userDetailsChecker::check)
+                .filterWhen(userDetails -> passwordEncoder.matches(presentedPassword, userDetails.getPassword()))
+                .switchIfEmpty(Mono.defer(() -> Mono.error(new BadCredentialsException("Invalid Credentials"))))
+                .map(userDetails -> new UsernamePasswordAuthenticationToken(userDetails, userDetails.getPassword(),
+                        userDetails.getAuthorities()));
+    }
+}
@@ -0,0 +1,58 @@
+package org.briarheart.tictactask.security.web.server.authentication;
+
+import lombok.Getter;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.util.Assert;
+
+/**
+ * Unauthenticated instance of {@link org.springframework.security.core.Authentication} that uses a refresh token as
+ * client credentials.
+ *
+ * @author Roman Chigvintsev
+ * @see RefreshTokenReactiveAuthenticationManager
+ */
+public final class RefreshTokenAuthentication extends AbstractAuthenticationToken {
+    @Getter
+    private final String tokenValue;
+
+    /**
+     * Creates new instance of this class with the given refresh token value.
+     *
+     * @param tokenValue refresh token value (must not be {@code null} or empty)
+     */
+    public RefreshTokenAuthentication(String tokenValue) {
+        super(null);
+        Assert.hasText(tokenValue, "Token value must not be null or empty");
+        this.tokenValue = tokenValue;
+    }
+
+    /**
+     * Returns refresh token value.
+     *
+     * @return refresh token value
+     */
+    @Override
+    public String getCredentials() {
+        return tokenValue;
+    }
+
+    @Override
+    public Object getPrincipal() {
+        return null;
+    }
+
+    /**
+     * Makes this token unauthenticated. This method forbids making token authenticated.
+     *
+     * @param isAuthenticated {@code false} if this token should be unauthenticated; {@code true} is forbidden
+     *
+     * @throws IllegalArgumentException if {@code true} is passed as method argument
+     */
+    @Override
+    public void setAuthenticated(boolean isAuthenticated) throws IllegalArgumentException {
+        if (isAuthenticated) {
+            throw new IllegalArgumentException("Cannot set this token to trusted");
+        }
+        super.setAuthenticated(false);
+    }
+}
@@ -0,0 +1,45 @@
+package org.briarheart.tictactask.security.web.server.authentication;
+
+import org.briarheart.tictactask.security.web.server.authentication.refreshtoken.InvalidRefreshTokenException;
+import org.briarheart.tictactask.security.web.server.authentication.refreshtoken.RefreshTokenService;
+import org.briarheart.tictactask.user.UserRepository;
+import org.springframework.security.authentication.AccountStatusUserDetailsChecker;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetailsChecker;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Mono;
+
+/**
+ * Implementation of {@link ReactiveAuthenticationManager} that authenticates users by refresh token. Refresh token is
+ * used up by successful authentication. This authentication manager expects only instances of
+ * {@link RefreshTokenAuthentication}.
+ *
+ * @author Roman Chigvintsev
+ * @see RefreshTokenService
+ */
+public class RefreshTokenReactiveAuthenticationManager implements ReactiveAuthenticationManager {
+    private final RefreshTokenService refreshTokenService;
+    private final UserRepository userRepository;
+    private final UserDetailsChecker userDetailsChecker = new AccountStatusUserDetailsChecker();
+
+    public RefreshTokenReactiveAuthenticationManager(RefreshTokenService refreshTokenService,
+                                                     UserRepository userRepository) {
+        Assert.notNull(refreshTokenService, "Refresh token service must not be null");
+        Assert.notNull(userRepository, "User repository must not be null");
+
+        this.refreshTokenService = refreshTokenService;
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    public Mono<Authentication> authenticate(Authentication authentication) {
+        String refreshTokenValue = ((RefreshTokenAuthentication) authentication).getTokenValue();
+        return refreshTokenService.useRefreshToken(refreshTokenValue)
+                .flatMap(refreshToken -> userRepository.findByIdWithAuthorities(refreshToken.getUserId()))
+                .switchIfEmpty(Mono.error(() -> new InvalidRefreshTokenException("Refresh token owner is not found")))
+                .doOnNext(userDetailsChecker::check)
+                .map(user -> new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+}
@@ -0,0 +1,30 @@
+package org.briarheart.tictactask.security.web.server.authentication;
+
+import lombok.RequiredArgsConstructor;
+import org.briarheart.tictactask.security.web.server.authentication.refreshtoken.CookieRefreshTokenRepository;
+import org.briarheart.tictactask.security.web.server.authentication.refreshtoken.InvalidRefreshTokenException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.server.authentication.ServerAuthenticationConverter;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Converts {@link ServerWebExchange} to instance of {@link RefreshTokenAuthentication} using refresh token loaded
+ * by {@link CookieRefreshTokenRepository}. Since this converter is used only for refresh requests missing refresh
+ * token is reported as authentication failure.
+ *
+ * @author Roman Chigvintsev
+ *
+ * @see RefreshTokenAuthentication
+ */
+@RequiredArgsConstructor
+public class RefreshTokenServerAuthenticationConverter implements ServerAuthenticationConverter {
+    private final CookieRefreshTokenRepository refreshTokenRepository;
+
+    @Override
+    public Mono<Authentication> convert(ServerWebExchange exchange) {
+        return refreshTokenRepository.loadRefreshToken(exchange)
+                .switchIfEmpty(Mono.error(() -> new InvalidRefreshTokenException("Refresh token is not provided")))
+                .map(RefreshTokenAuthentication::new);
+    }
+}
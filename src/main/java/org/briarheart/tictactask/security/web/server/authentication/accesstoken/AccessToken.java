@@ -10,6 +10,13 @@ import java.util.Map;
  * @author Roman Chigvintsev
  */
 public interface AccessToken extends Serializable {
+    /**
+     * Returns unique identifier of this token that allows to revoke it before it expires.
+     *
+     * @return token identifier or {@code null} if token was issued without identifier
+     */
+    String getId();
+
     String getTokenValue();
 
     String getSubject();
@@ -0,0 +1,28 @@
+package org.briarheart.tictactask.security.web.server.authentication.accesstoken;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Service to revoke access tokens before they expire.
+ *
+ * @author Roman Chigvintsev
+ * @see AccessToken
+ */
+public interface AccessTokenRevocationService {
+    /**
+     * Revokes the given access token. Revoked access token should not be accepted anymore even if it is not expired
+     * yet. Tokens without identifier cannot be revoked and are ignored.
+     *
+     * @param accessToken access token to be revoked (must not be {@code null})
+     * @return empty {@link Mono} that completes when token is revoked
+     */
+    Mono<Void> revokeAccessToken(AccessToken accessToken);
+
+    /**
+     * Checks whether the given access token is revoked.
+     *
+     * @param accessToken access token to be checked (must not be {@code null})
+     * @return {@code true} if access token is revoked, {@code false} otherwise
+     */
+    Mono<Boolean> isRevoked(AccessToken accessToken);
+}
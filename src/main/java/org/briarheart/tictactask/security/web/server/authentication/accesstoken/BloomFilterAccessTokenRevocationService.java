@@ -0,0 +1,167 @@
+package org.briarheart.tictactask.security.web.server.authentication.accesstoken;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import lombok.extern.slf4j.Slf4j;
+import org.briarheart.tictactask.util.DateTimeUtils;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.util.Assert;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Implementation of {@link AccessTokenRevocationService} that keeps identifiers of revoked access tokens in memory so
+ * that checking of access token does not require a round-trip to the database.
+ * <p>
+ * Identifiers of revoked tokens are stored in the database and periodically loaded into a Bloom filter by every
+ * application instance. Tokens that are not contained in the filter are definitely not revoked. Since Bloom filter
+ * may give false positive answers, token found in the filter is additionally checked in the database. Tokens revoked
+ * by other application instances become rejected after the next reload of the filter.
+ *
+ * @author Roman Chigvintsev
+ */
+@Slf4j
+public class BloomFilterAccessTokenRevocationService implements AccessTokenRevocationService, SmartLifecycle {
+    private static final int MIN_EXPECTED_INSERTIONS = 10_000;
+    private static final double FALSE_POSITIVE_PROBABILITY = 0.001;
+
+    private final RevokedAccessTokenRepository revokedAccessTokenRepository;
+    private final Duration refreshInterval;
+
+    /**
+     * Tokens revoked by this application instance since the last reload of the filter mapped to the time of revocation.
+     * They are checked separately since they may be missing from the filter that is being reloaded at the moment.
+     */
+    private final Map<String, LocalDateTime> recentlyRevokedTokens = new ConcurrentHashMap<>();
+
+    private volatile BloomFilter<CharSequence> revokedTokenFilter;
+    private Disposable subscription;
+
+    /**
+     * Creates new instance of this class.
+     *
+     * @param revokedAccessTokenRepository repository of revoked access tokens (must not be {@code null})
+     * @param refreshInterval              interval between reloads of revoked access tokens (must not be
+     *                                     {@code null})
+     */
+    public BloomFilterAccessTokenRevocationService(RevokedAccessTokenRepository revokedAccessTokenRepository,
+                                                   Duration refreshInterval) {
+        Assert.notNull(revokedAccessTokenRepository, "Revoked access token repository must not be null");
+        Assert.notNull(refreshInterval, "Refresh interval must not be null");
+
+        this.revokedAccessTokenRepository = revokedAccessTokenRepository;
+        this.refreshInterval = refreshInterval;
+    }
+
+    @Override
+    public Mono<Void> revokeAccessToken(AccessToken accessToken) {
+        Assert.notNull(accessToken, "Access token must not be null");
+        String tokenId = accessToken.getId();
+        if (tokenId == null) {
+            return Mono.empty();
+        }
+        LocalDateTime expiresAt = LocalDateTime.ofInstant(accessToken.getExpiration(), ZoneOffset.UTC);
+        return revokedAccessTokenRepository.insert(tokenId, expiresAt)
+                .doOnSuccess(inserted -> {
+                    recentlyRevokedTokens.put(tokenId, getCurrentTime());
+                    BloomFilter<CharSequence> filter = revokedTokenFilter;
+                    if (filter != null) {
+                        filter.put(tokenId);
+                    }
+                    log.debug("Access token with id {} is revoked", tokenId);
+                })
+                .then();
+    }
+
+    @Override
+    public Mono<Boolean> isRevoked(AccessToken accessToken) {
+        Assert.notNull(accessToken, "Access token must not be null");
+        String tokenId = accessToken.getId();
+        if (tokenId == null) {
+            return Mono.just(false);
+        }
+        if (recentlyRevokedTokens.containsKey(tokenId)) {
+            return Mono.just(true);
+        }
+        BloomFilter<CharSequence> filter = revokedTokenFilter;
+        if (filter != null && !filter.mightContain(tokenId)) {
+            return Mono.just(false);
+        }
+        // Either token is really revoked, filter gave false positive answer or filter is not loaded yet
+        return revokedAccessTokenRepository.existsById(tokenId);
+    }
+
+    @Override
+    public synchronized void start() {
+        if (isRunning()) {
+            return;
+        }
+        subscription = Flux.interval(Duration.ZERO, refreshInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> reload().onErrorResume(e -> {
+                    log.error("Failed to reload revoked access tokens", e);
+                    return Mono.empty();
+                }), 1)
+                .subscribe();
+        log.debug("Access token revocation service is started");
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+            subscription = null;
+        }
+        log.debug("Access token revocation service is stopped");
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return subscription != null && !subscription.isDisposed();
+    }
+
+    /**
+     * Removes expired tokens from the database and rebuilds the filter from the remaining ones.
+     *
+     * @return number of revoked access tokens that are loaded into the filter
+     */
+    Mono<Integer> reload() {
+        return Mono.defer(() -> {
+            LocalDateTime reloadStartedAt = getCurrentTime();
+            return revokedAccessTokenRepository.deleteByExpiresAtBefore(reloadStartedAt)
+                    .thenMany(revokedAccessTokenRepository.findByExpiresAtAfter(reloadStartedAt))
+                    .map(RevokedAccessToken::getTokenId)
+                    .collectList()
+                    .map(tokenIds -> {
+                        revokedTokenFilter = createFilter(tokenIds);
+                        // Tokens revoked before reload are already loaded from the database
+                        recentlyRevokedTokens.values().removeIf(revokedAt -> revokedAt.isBefore(reloadStartedAt));
+                        log.debug("{} revoked access token(s) are loaded", tokenIds.size());
+                        return tokenIds.size();
+                    });
+        });
+    }
+
+    protected LocalDateTime getCurrentTime() {
+        return DateTimeUtils.currentDateTimeUtc();
+    }
+
+    private BloomFilter<CharSequence> createFilter(List<String> tokenIds) {
+        // Leave room for tokens that will be revoked before the next reload
+        int expectedInsertions = Math.max(tokenIds.size() * 2, MIN_EXPECTED_INSERTIONS);
+        BloomFilter<CharSequence> filter = BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8),
+                expectedInsertions, FALSE_POSITIVE_PROBABILITY);
+        tokenIds.forEach(filter::put);
+        recentlyRevokedTokens.keySet().forEach(filter::put);
+        return filter;
+    }
+}
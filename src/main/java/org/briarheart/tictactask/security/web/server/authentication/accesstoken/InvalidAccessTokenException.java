@@ -8,6 +8,10 @@ import org.springframework.security.authentication.BadCredentialsException;
  * @author Roman Chigvintsev
  */
 public class InvalidAccessTokenException extends BadCredentialsException {
+    public InvalidAccessTokenException(String msg) {
+        super(msg);
+    }
+
     public InvalidAccessTokenException(String msg, Throwable t) {
         super(msg, t);
     }
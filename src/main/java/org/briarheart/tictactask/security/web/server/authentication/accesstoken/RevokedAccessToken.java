@@ -0,0 +1,24 @@
+package org.briarheart.tictactask.security.web.server.authentication.accesstoken;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * Access token that was revoked before its expiration.
+ *
+ * @author Roman Chigvintsev
+ * @see AccessTokenRevocationService
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table("revoked_access_token")
+public class RevokedAccessToken {
+    @Id
+    private String tokenId;
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,26 @@
+package org.briarheart.tictactask.security.web.server.authentication.accesstoken;
+
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * @author Roman Chigvintsev
+ */
+public interface RevokedAccessTokenRepository extends ReactiveCrudRepository<RevokedAccessToken, String> {
+    // Identifier is assigned by the application so "save" would try to update non-existent row
+    @Modifying
+    @Query("INSERT INTO revoked_access_token (token_id, expires_at) VALUES (:tokenId, :expiresAt) "
+            + "ON CONFLICT DO NOTHING")
+    Mono<Integer> insert(String tokenId, LocalDateTime expiresAt);
+
+    Flux<RevokedAccessToken> findByExpiresAtAfter(LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("DELETE FROM revoked_access_token WHERE expires_at <= :expiresAt")
+    Mono<Integer> deleteByExpiresAtBefore(LocalDateTime expiresAt);
+}
@@ -8,6 +8,7 @@ import org.briarheart.tictactask.security.web.server.authentication.accesstoken.
 import org.springframework.util.Assert;
 
 import java.time.Instant;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -24,6 +25,11 @@ public class Jwt implements AccessToken {
     private final String tokenValue;
     private final Map<String, Object> claims = new HashMap<>();
 
+    @Override
+    public String getId() {
+        return (String) claims.get(Claims.ID);
+    }
+
     @Override
     public String getSubject() {
         return (String) claims.get(Claims.SUBJECT);
@@ -62,7 +68,8 @@ public class Jwt implements AccessToken {
 
     @Override
     public Map<String, Object> getClaims() {
-        return claims;
+        // Tokens are cached and shared between requests
+        return Collections.unmodifiableMap(claims);
     }
 
     public static class Builder {
@@ -6,6 +6,7 @@ package org.briarheart.tictactask.security.web.server.authentication.jwt;
  * @author Roman Chigvintsev
  */
 public enum JwtClaim {
+    ID("jti"),
     EMAIL("email"),
     ISSUED_AT("iat"),
     EXPIRATION_TIME("exp"),
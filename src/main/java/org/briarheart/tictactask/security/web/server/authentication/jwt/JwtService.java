@@ -1,5 +1,8 @@
 package org.briarheart.tictactask.security.web.server.authentication.jwt;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
@@ -15,15 +18,21 @@ import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
 import javax.crypto.SecretKey;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
 import java.util.Base64;
 import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 /**
  * JWT based implementation of {@link AccessTokenService}. By default this service issues signed JWTs with expiration
  * timeout of ten minutes.
+ * <p>
+ * Since the same access token is presented with every request until it expires, successfully verified tokens are
+ * cached by their values. Cached token is evicted when it expires, so expired tokens are never returned from cache.
  *
  * @author Roman Chigvintsev
  *
@@ -31,9 +40,12 @@ import java.util.Date;
  */
 public class JwtService implements AccessTokenService {
     private static final long DEFAULT_ACCESS_TOKEN_VALIDITY_SECONDS = 300;
+    private static final long ACCESS_TOKEN_CACHE_MAX_SIZE = 10_000;
 
     private final ServerAccessTokenRepository accessTokenRepository;
     private final SecretKey accessTokenSigningKey;
+    private final JwtParser accessTokenParser;
+    private final Cache<String, Jwt> verifiedAccessTokenCache;
 
     @Setter
     private long accessTokenValiditySeconds = DEFAULT_ACCESS_TOKEN_VALIDITY_SECONDS;
@@ -50,6 +62,12 @@ public class JwtService implements AccessTokenService {
 
         this.accessTokenRepository = accessTokenRepository;
         this.accessTokenSigningKey = Keys.hmacShaKeyFor(Base64.getDecoder().decode(accessTokenSigningKey));
+        // Parser is immutable and thread-safe so it can be shared
+        this.accessTokenParser = Jwts.parserBuilder().setSigningKey(this.accessTokenSigningKey).build();
+        this.verifiedAccessTokenCache = Caffeine.newBuilder()
+                .maximumSize(ACCESS_TOKEN_CACHE_MAX_SIZE)
+                .expireAfter(new AccessTokenExpiry())
+                .build();
     }
 
     @Override
@@ -59,6 +77,7 @@ public class JwtService implements AccessTokenService {
 
         return Mono.defer(() -> {
             Claims claims = Jwts.claims();
+            claims.setId(UUID.randomUUID().toString());
             claims.setSubject(user.getId().toString());
             claims.put(JwtClaim.EMAIL.getName(), user.getEmail());
             claims.put(JwtClaim.FULL_NAME.getName(), user.getFullName());
@@ -84,12 +103,19 @@ public class JwtService implements AccessTokenService {
     public Mono<? extends AccessToken> parseAccessToken(String tokenValue) {
         Assert.hasText(tokenValue, "Access token value must not be null or empty");
         return Mono.fromCallable(() -> {
+            Jwt cachedToken = verifiedAccessTokenCache.getIfPresent(tokenValue);
+            if (cachedToken != null) {
+                return cachedToken;
+            }
+
             try {
-                Claims claims = Jwts.parser()
-                        .setSigningKey(accessTokenSigningKey)
-                        .parseClaimsJws(tokenValue)
-                        .getBody();
-                return new Jwt.Builder(tokenValue).claims(claims).build();
+                Claims claims = accessTokenParser.parseClaimsJws(tokenValue).getBody();
+                Jwt token = new Jwt.Builder(tokenValue).claims(claims).build();
+                // Tokens without expiration time are never cached
+                if (claims.getExpiration() != null) {
+                    verifiedAccessTokenCache.put(tokenValue, token);
+                }
+                return token;
             } catch (ExpiredJwtException e) {
                 throw new InvalidAccessTokenException("Access token is expired", e);
             } catch (UnsupportedJwtException e) {
@@ -101,4 +127,23 @@ public class JwtService implements AccessTokenService {
             }
         });
     }
+
+    private static class AccessTokenExpiry implements Expiry<String, Jwt> {
+        @Override
+        public long expireAfterCreate(String tokenValue, Jwt token, long currentTime) {
+            Number expiration = (Number) token.getClaims().get(Claims.EXPIRATION);
+            long expiresAfter = expiration.longValue() - Instant.now().getEpochSecond();
+            return TimeUnit.SECONDS.toNanos(Math.max(expiresAfter, 0L));
+        }
+
+        @Override
+        public long expireAfterUpdate(String tokenValue, Jwt token, long currentTime, long currentDuration) {
+            return expireAfterCreate(tokenValue, token, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String tokenValue, Jwt token, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
@@ -0,0 +1,33 @@
+package org.briarheart.tictactask.security.web.server.authentication.logout;
+
+import lombok.RequiredArgsConstructor;
+import org.briarheart.tictactask.security.web.server.authentication.AccessTokenAuthentication;
+import org.briarheart.tictactask.security.web.server.authentication.accesstoken.AccessTokenRevocationService;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.server.WebFilterExchange;
+import org.springframework.security.web.server.authentication.logout.ServerLogoutHandler;
+import reactor.core.publisher.Mono;
+
+/**
+ * Implementation of {@link ServerLogoutHandler} that revokes access token of the current user using
+ * {@link AccessTokenRevocationService}, so that the token cannot be used anymore even if it was copied before logout.
+ *
+ * @author Roman Chigvintsev
+ *
+ * @see AccessTokenRevocationService
+ */
+@RequiredArgsConstructor
+public class AccessTokenRevocationLogoutHandler implements ServerLogoutHandler {
+    private final AccessTokenRevocationService accessTokenRevocationService;
+
+    @Override
+    public Mono<Void> logout(WebFilterExchange exchange, Authentication authentication) {
+        if (authentication instanceof AccessTokenAuthentication) {
+            AccessTokenAuthentication accessTokenAuthentication = (AccessTokenAuthentication) authentication;
+            if (accessTokenAuthentication.getToken() != null) {
+                return accessTokenRevocationService.revokeAccessToken(accessTokenAuthentication.getToken());
+            }
+        }
+        return Mono.empty();
+    }
+}
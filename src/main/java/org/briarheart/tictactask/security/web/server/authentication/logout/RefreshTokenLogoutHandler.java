@@ -0,0 +1,26 @@
+package org.briarheart.tictactask.security.web.server.authentication.logout;
+
+import lombok.RequiredArgsConstructor;
+import org.briarheart.tictactask.security.web.server.authentication.refreshtoken.RefreshTokenService;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.server.WebFilterExchange;
+import org.springframework.security.web.server.authentication.logout.ServerLogoutHandler;
+import reactor.core.publisher.Mono;
+
+/**
+ * Implementation of {@link ServerLogoutHandler} that revokes refresh token associated with current
+ * {@link org.springframework.web.server.ServerWebExchange} using {@link RefreshTokenService}.
+ *
+ * @author Roman Chigvintsev
+ *
+ * @see RefreshTokenService
+ */
+@RequiredArgsConstructor
+public class RefreshTokenLogoutHandler implements ServerLogoutHandler {
+    private final RefreshTokenService refreshTokenService;
+
+    @Override
+    public Mono<Void> logout(WebFilterExchange exchange, Authentication authentication) {
+        return refreshTokenService.revokeRefreshToken(exchange.getExchange());
+    }
+}
@@ -0,0 +1,91 @@
+package org.briarheart.tictactask.security.web.server.authentication.refreshtoken;
+
+import org.springframework.http.HttpCookie;
+import org.springframework.http.ResponseCookie;
+import org.springframework.http.ResponseCookie.ResponseCookieBuilder;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Stores values of refresh tokens in cookies.
+ * <p>
+ * This repository creates cookie with {@code httpOnly} flag being set to {@code true}. Cookie is sent only to API
+ * endpoints since it is not needed anywhere else.
+ *
+ * @author Roman Chigvintsev
+ */
+public class CookieRefreshTokenRepository {
+    private static final String DEFAULT_REFRESH_TOKEN_COOKIE_NAME = "refresh_token";
+    private static final String REFRESH_TOKEN_COOKIE_PATH = "/api";
+
+    private final String applicationDomain;
+
+    private String refreshTokenCookieName = DEFAULT_REFRESH_TOKEN_COOKIE_NAME;
+
+    public CookieRefreshTokenRepository(String applicationDomain) {
+        this.applicationDomain = applicationDomain;
+    }
+
+    /**
+     * Loads refresh token value from the given web exchange.
+     *
+     * @param exchange web exchange (must not be {@code null})
+     * @return refresh token value or empty {@link Mono} if refresh token cookie is not present
+     */
+    public Mono<String> loadRefreshToken(ServerWebExchange exchange) {
+        Assert.notNull(exchange, "Server web exchange must not be null");
+        return Mono.fromCallable(() -> {
+            HttpCookie refreshTokenCookie = exchange.getRequest().getCookies().getFirst(refreshTokenCookieName);
+            if (refreshTokenCookie != null && StringUtils.hasLength(refreshTokenCookie.getValue())) {
+                return refreshTokenCookie.getValue();
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Saves refresh token value in the given web exchange.
+     *
+     * @param tokenValue refresh token value (must not be {@code null} or empty)
+     * @param maxAge     maximum age of refresh token cookie (must not be {@code null})
+     * @param exchange   web exchange (must not be {@code null})
+     * @return empty {@link Mono} that completes when token is saved
+     */
+    public Mono<Void> saveRefreshToken(String tokenValue, Duration maxAge, ServerWebExchange exchange) {
+        Assert.hasText(tokenValue, "Refresh token value must not be null or empty");
+        Assert.notNull(maxAge, "Max age must not be null");
+        Assert.notNull(exchange, "Server web exchange must not be null");
+        return Mono.fromRunnable(() -> exchange.getResponse().addCookie(createCookie(tokenValue, maxAge)));
+    }
+
+    /**
+     * Removes refresh token from the given web exchange.
+     *
+     * @param exchange web exchange (must not be {@code null})
+     * @return removed refresh token value or empty {@link Mono} if refresh token cookie is not present
+     */
+    public Mono<String> removeRefreshToken(ServerWebExchange exchange) {
+        return loadRefreshToken(exchange).doOnNext(tokenValue
+                -> exchange.getResponse().addCookie(createCookie("", Duration.ZERO)));
+    }
+
+    public void setRefreshTokenCookieName(String refreshTokenCookieName) {
+        Assert.hasText(refreshTokenCookieName, "Refresh token cookie name must not be null or empty");
+        this.refreshTokenCookieName = refreshTokenCookieName;
+    }
+
+    private ResponseCookie createCookie(String value, Duration maxAge) {
+        ResponseCookieBuilder refreshTokenCookieBuilder = ResponseCookie.from(refreshTokenCookieName, value);
+        if (StringUtils.hasLength(applicationDomain)) {
+            refreshTokenCookieBuilder.domain("." + applicationDomain);
+        }
+        return refreshTokenCookieBuilder.path(REFRESH_TOKEN_COOKIE_PATH)
+                .httpOnly(true)
+                .maxAge(maxAge)
+                .build();
+    }
+}
@@ -0,0 +1,119 @@
+package org.briarheart.tictactask.security.web.server.authentication.refreshtoken;
+
+import com.google.common.hash.Hashing;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.briarheart.tictactask.user.User;
+import org.briarheart.tictactask.util.DateTimeUtils;
+import org.springframework.util.Assert;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Default implementation of {@link RefreshTokenService}. Refresh tokens issued by this service are random strings
+ * whose SHA-256 hashes are stored in the database. By default refresh tokens expire in thirty days.
+ *
+ * @author Roman Chigvintsev
+ */
+@Slf4j
+public class DefaultRefreshTokenService implements RefreshTokenService {
+    private static final long DEFAULT_REFRESH_TOKEN_VALIDITY_SECONDS = 2_592_000L; // Thirty days
+    private static final int REFRESH_TOKEN_LENGTH = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final CookieRefreshTokenRepository cookieRefreshTokenRepository;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    @Setter
+    private long refreshTokenValiditySeconds = DEFAULT_REFRESH_TOKEN_VALIDITY_SECONDS;
+
+    public DefaultRefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                                      CookieRefreshTokenRepository cookieRefreshTokenRepository) {
+        Assert.notNull(refreshTokenRepository, "Refresh token repository must not be null");
+        Assert.notNull(cookieRefreshTokenRepository, "Cookie refresh token repository must not be null");
+
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.cookieRefreshTokenRepository = cookieRefreshTokenRepository;
+    }
+
+    @Override
+    public Mono<RefreshToken> createRefreshToken(User user, ServerWebExchange exchange) {
+        Assert.notNull(user, "User must not be null");
+        Assert.notNull(exchange, "Server web exchange must not be null");
+
+        return Mono.defer(() -> {
+            String tokenValue = generateTokenValue();
+            Duration validity = Duration.ofSeconds(refreshTokenValiditySeconds);
+            LocalDateTime now = getCurrentTime();
+            RefreshToken refreshToken = RefreshToken.builder()
+                    .userId(user.getId())
+                    .tokenHash(hash(tokenValue))
+                    .createdAt(now)
+                    .expiresAt(now.plus(validity))
+                    .build();
+            // Expired tokens of the user are not needed anymore
+            return refreshTokenRepository.deleteByUserIdAndExpiresAtBefore(user.getId(), now)
+                    .then(refreshTokenRepository.save(refreshToken))
+                    .flatMap(savedToken -> cookieRefreshTokenRepository.saveRefreshToken(tokenValue, validity,
+                            exchange).thenReturn(savedToken));
+        });
+    }
+
+    @Override
+    public Mono<RefreshToken> useRefreshToken(String tokenValue) {
+        Assert.hasText(tokenValue, "Refresh token value must not be null or empty");
+        return refreshTokenRepository.findByTokenHash(hash(tokenValue))
+                .switchIfEmpty(Mono.error(() -> new InvalidRefreshTokenException("Refresh token is not found")))
+                .flatMap(refreshToken -> {
+                    if (refreshToken.isRevoked()) {
+                        return revokeAllRefreshTokens(refreshToken);
+                    }
+                    if (!refreshToken.getExpiresAt().isAfter(getCurrentTime())) {
+                        return Mono.error(new InvalidRefreshTokenException("Refresh token is expired"));
+                    }
+                    return refreshTokenRepository.revokeById(refreshToken.getId()).flatMap(updatedRows -> {
+                        if (updatedRows == 0) {
+                            // Token was used by concurrent request
+                            return revokeAllRefreshTokens(refreshToken);
+                        }
+                        refreshToken.setRevoked(true);
+                        return Mono.just(refreshToken);
+                    });
+                });
+    }
+
+    @Override
+    public Mono<Void> revokeRefreshToken(ServerWebExchange exchange) {
+        Assert.notNull(exchange, "Server web exchange must not be null");
+        return cookieRefreshTokenRepository.removeRefreshToken(exchange)
+                .flatMap(tokenValue -> refreshTokenRepository.revokeByTokenHash(hash(tokenValue)))
+                .then();
+    }
+
+    protected LocalDateTime getCurrentTime() {
+        return DateTimeUtils.currentDateTimeUtc();
+    }
+
+    private Mono<RefreshToken> revokeAllRefreshTokens(RefreshToken reusedToken) {
+        log.warn("Refresh token with id {} is used more than once, all refresh tokens of user with id {} "
+                + "are revoked", reusedToken.getId(), reusedToken.getUserId());
+        return refreshTokenRepository.revokeByUserId(reusedToken.getUserId())
+                .then(Mono.error(new InvalidRefreshTokenException("Refresh token is already used")));
+    }
+
+    private String generateTokenValue() {
+        byte[] bytes = new byte[REFRESH_TOKEN_LENGTH];
+        secureRandom.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static String hash(String tokenValue) {
+        return Hashing.sha256().hashString(tokenValue, StandardCharsets.UTF_8).toString();
+    }
+}
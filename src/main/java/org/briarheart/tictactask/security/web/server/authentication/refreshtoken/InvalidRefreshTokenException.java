@@ -0,0 +1,14 @@
+package org.briarheart.tictactask.security.web.server.authentication.refreshtoken;
+
+import org.springframework.security.authentication.BadCredentialsException;
+
+/**
+ * Thrown if an authentication request is rejected because the refresh token is invalid.
+ *
+ * @author Roman Chigvintsev
+ */
+public class InvalidRefreshTokenException extends BadCredentialsException {
+    public InvalidRefreshTokenException(String msg) {
+        super(msg);
+    }
+}
@@ -0,0 +1,29 @@
+package org.briarheart.tictactask.security.web.server.authentication.refreshtoken;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * Long-lived token that is used to obtain new access token when the current one expires. Only hash of token value is
+ * stored.
+ *
+ * @author Roman Chigvintsev
+ * @see RefreshTokenService
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Builder
+@Table("refresh_token")
+public class RefreshToken {
+    @Id
+    private Long id;
+    private Long userId;
+    private String tokenHash;
+    private boolean revoked;
+    private LocalDateTime createdAt;
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,32 @@
+package org.briarheart.tictactask.security.web.server.authentication.refreshtoken;
+
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * @author Roman Chigvintsev
+ */
+public interface RefreshTokenRepository extends ReactiveCrudRepository<RefreshToken, Long> {
+    Mono<RefreshToken> findByTokenHash(String tokenHash);
+
+    // Condition on "revoked" column guarantees that only one of concurrent refresh requests succeeds
+    @Modifying
+    @Query("UPDATE refresh_token SET revoked = TRUE WHERE id = :id AND revoked = FALSE")
+    Mono<Integer> revokeById(Long id);
+
+    @Modifying
+    @Query("UPDATE refresh_token SET revoked = TRUE WHERE token_hash = :tokenHash")
+    Mono<Integer> revokeByTokenHash(String tokenHash);
+
+    @Modifying
+    @Query("UPDATE refresh_token SET revoked = TRUE WHERE user_id = :userId AND revoked = FALSE")
+    Mono<Integer> revokeByUserId(Long userId);
+
+    @Modifying
+    @Query("DELETE FROM refresh_token WHERE user_id = :userId AND expires_at <= :expiresAt")
+    Mono<Integer> deleteByUserIdAndExpiresAtBefore(Long userId, LocalDateTime expiresAt);
+}
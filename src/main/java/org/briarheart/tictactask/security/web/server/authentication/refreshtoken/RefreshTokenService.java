@@ -0,0 +1,41 @@
+package org.briarheart.tictactask.security.web.server.authentication.refreshtoken;
+
+import org.briarheart.tictactask.user.User;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Service for issuing and rotating of refresh tokens.
+ *
+ * @author Roman Chigvintsev
+ * @see RefreshToken
+ */
+public interface RefreshTokenService {
+    /**
+     * Creates new refresh token for the given user and saves its value in the given web exchange.
+     *
+     * @param user     user for whom a refresh token should be created (must not be {@code null})
+     * @param exchange web exchange (must not be {@code null})
+     * @return new refresh token
+     */
+    Mono<RefreshToken> createRefreshToken(User user, ServerWebExchange exchange);
+
+    /**
+     * Uses refresh token with the given value. Every refresh token can be used only once. Repeated usage of the same
+     * refresh token is considered as a sign of token theft, so all refresh tokens of the token owner are revoked in
+     * this case.
+     *
+     * @param tokenValue refresh token value (must not be {@code null} or empty)
+     * @return used refresh token
+     * @throws InvalidRefreshTokenException if refresh token is not found, expired or already used
+     */
+    Mono<RefreshToken> useRefreshToken(String tokenValue);
+
+    /**
+     * Revokes refresh token associated with the given web exchange and removes it from the exchange.
+     *
+     * @param exchange web exchange (must not be {@code null})
+     * @return empty {@link Mono} that completes when token is revoked
+     */
+    Mono<Void> revokeRefreshToken(ServerWebExchange exchange);
+}
@@ -0,0 +1,36 @@
+package org.briarheart.tictactask.task;
+
+import lombok.Data;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * Request to apply the same operation to several tasks at once.
+ *
+ * @author Roman Chigvintsev
+ */
+@Data
+public class BatchTaskRequest {
+    @NotNull
+    private Operation operation;
+    @NotEmpty
+    @Size(max = 1_000)
+    private List<@NotNull Long> ids;
+    /**
+     * Id of task list to move tasks to. Used only with {@link Operation#MOVE} operation ({@code null} means that
+     * tasks should be removed from their task lists).
+     */
+    private Long taskListId;
+    /**
+     * Id of tag to be assigned to/removed from tasks. Required for {@link Operation#ASSIGN_TAG} and
+     * {@link Operation#REMOVE_TAG} operations and ignored otherwise.
+     */
+    private Long tagId;
+
+    public enum Operation {
+        COMPLETE, RESTORE, DELETE, MOVE, ASSIGN_TAG, REMOVE_TAG
+    }
+}
@@ -0,0 +1,34 @@
+package org.briarheart.tictactask.task;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Result of batch operation for a single task.
+ *
+ * @author Roman Chigvintsev
+ * @see BatchTaskRequest
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTaskResult {
+    private Long id;
+    private Status status;
+
+    public enum Status {
+        /**
+         * Operation is applied to task
+         */
+        OK,
+        /**
+         * Task is not found or does not belong to current user
+         */
+        NOT_FOUND,
+        /**
+         * Task is deleted as subtask of another task restored by the same operation
+         */
+        DELETED
+    }
+}
@@ -1,6 +1,7 @@
 package org.briarheart.tictactask.task;
 
 import org.briarheart.tictactask.user.User;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -9,4 +10,8 @@ public interface CustomizedTaskRepository {
     Mono<Long> count(GetTasksRequest request, User user);
 
     Flux<Task> find(GetTasksRequest request, User user, Pageable pageable);
+
+    Mono<Page<Task>> findPage(GetTasksRequest request, User user, Pageable pageable);
+
+    Flux<Task> findAfter(GetTasksRequest request, User user, TaskCursor cursor, Pageable pageable);
 }
@@ -3,10 +3,15 @@ package org.briarheart.tictactask.task;
 import io.jsonwebtoken.lang.Assert;
 import io.r2dbc.spi.Row;
 import io.r2dbc.spi.RowMetadata;
+import lombok.Value;
 import org.briarheart.tictactask.user.User;
 import org.briarheart.tictactask.util.Pageables;
 import org.jooq.*;
+import org.jooq.conf.ParamType;
+import org.jooq.conf.Settings;
 import org.jooq.impl.DSL;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
 import org.springframework.data.r2dbc.core.ReactiveDataAccessStrategy;
@@ -16,25 +21,47 @@ import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiFunction;
-import java.util.stream.Collectors;
 
 import static org.jooq.impl.DSL.field;
 import static org.jooq.impl.DSL.table;
 
 @Component
 public class CustomizedTaskRepositoryImpl implements CustomizedTaskRepository {
+    private static final Field<LocalDateTime> DEADLINE_FIELD = field("(case when deadline_date is not null "
+            + "then deadline_date::timestamp else deadline_date_time end)", LocalDateTime.class);
+    private static final Field<LocalDateTime> INFINITY = field("'infinity'::timestamp", LocalDateTime.class);
+    /**
+     * Never null sort key of task deadline. Tasks without deadline are ordered as if their deadline is infinitely far.
+     * The same expression is used in task indexes.
+     */
+    private static final Field<LocalDateTime> DEADLINE_SORT_KEY = DSL.coalesce(DEADLINE_FIELD, INFINITY);
+    private static final String TOTAL_COUNT_COLUMN = "total_count";
+
     private final R2dbcEntityTemplate entityTemplate;
+    private final DSLContext create;
+    /**
+     * Rendered SQL statements keyed by shape of the query. Number of possible shapes is limited by the number of
+     * filters in {@link GetTasksRequest} so this cache does not need an eviction policy.
+     */
+    private final Map<QueryShape, String> sqlCache = new ConcurrentHashMap<>();
 
     public CustomizedTaskRepositoryImpl(R2dbcEntityTemplate entityTemplate) {
         Assert.notNull(entityTemplate, "Entity template must not be null");
         this.entityTemplate = entityTemplate;
+        // Render bind parameters in the native PostgreSQL form ($1, $2, ...) so that they could be bound by index
+        Settings settings = new Settings().withParamType(ParamType.NAMED).withRenderNamedParamPrefix("$");
+        this.create = DSL.using(SQLDialect.POSTGRES, settings);
     }
 
     @Override
@@ -42,17 +69,8 @@ public class CustomizedTaskRepositoryImpl implements CustomizedTaskRepository {
         Assert.notNull(request, "Request must not be null");
         Assert.notNull(user, "User must not be null");
 
-        DSLContext create = DSL.using(SQLDialect.POSTGRES);
-        SelectConditionStep<Record1<Integer>> query = create.selectCount()
-                .from(table("task"))
-                .where(field("user_id").eq(user.getId()));
-        Condition statusCondition = DSL.noCondition();
-        for (TaskStatus status : request.getStatuses()) {
-            statusCondition = statusCondition.or(getTaskStatusCondition(status, request));
-        }
-        query = query.and(statusCondition);
-
-        DatabaseClient.GenericExecuteSpec executeSpec = createExecuteSpec(query);
+        QueryShape shape = new QueryShape(QueryType.COUNT, request, false, false, null);
+        DatabaseClient.GenericExecuteSpec executeSpec = createExecuteSpec(createCountQuery(request, user), shape);
         return executeSpec.map((row, rowMetadata) -> row.get(0, Long.class)).one();
     }
 
@@ -61,31 +79,130 @@ public class CustomizedTaskRepositoryImpl implements CustomizedTaskRepository {
         Assert.notNull(request, "Request must not be null");
         Assert.notNull(user, "User must not be null");
 
-        List<Field<Object>> taskFields = new ArrayList<>(getAllFields());
-        taskFields.add(field("(case when DEADLINE_DATE is not null then DEADLINE_DATE::timestamp "
-                + "else DEADLINE_DATE_TIME end) as DEADLINE"));
-        DSLContext create = DSL.using(SQLDialect.POSTGRES);
-        Query query = create.select(taskFields)
+        QueryShape shape = new QueryShape(QueryType.FIND, request, Pageables.getOffset(pageable) > 0L,
+                Pageables.getLimit(pageable) != null, null);
+        return executeSelectQuery(createFindQuery(request, user, pageable), shape);
+    }
+
+    @Override
+    public Mono<Page<Task>> findPage(GetTasksRequest request, User user, Pageable pageable) {
+        Assert.notNull(request, "Request must not be null");
+        Assert.notNull(user, "User must not be null");
+
+        Pageable nonNullPageable = pageable != null ? pageable : Pageable.unpaged();
+        // Total number of tasks is selected along with every task of the page using window function
+        long offset = Pageables.getOffset(nonNullPageable);
+        SelectLimitAfterOffsetStep<?> query = createSelectQuery(request, user, DSL.noCondition(), true)
+                .offset(offset);
+        Integer limit = Pageables.getLimit(nonNullPageable);
+        QueryShape shape = new QueryShape(QueryType.FIND_PAGE, request, offset > 0L, limit != null, null);
+
+        DatabaseClient.GenericExecuteSpec executeSpec = createExecuteSpec(limit != null ? query.limit(limit) : query,
+                shape);
+        BiFunction<Row, RowMetadata, Task> rowMapper = entityTemplate.getDataAccessStrategy().getRowMapper(Task.class);
+        return executeSpec.map((row, rowMetadata) -> Tuples.of(rowMapper.apply(row, rowMetadata),
+                        row.get(TOTAL_COUNT_COLUMN, Long.class)))
+                .all()
+                .collectList()
+                .<Page<Task>>flatMap(rows -> {
+                    List<Task> tasks = rows.stream().map(Tuple2::getT1).toList();
+                    if (!rows.isEmpty()) {
+                        return Mono.just(new PageImpl<>(tasks, nonNullPageable, rows.get(0).getT2()));
+                    }
+                    if (offset == 0L) {
+                        return Mono.just(new PageImpl<>(tasks, nonNullPageable, 0L));
+                    }
+                    // Page is beyond the last task so window function did not return total number of tasks
+                    return count(request, user).map(total -> new PageImpl<>(tasks, nonNullPageable, total));
+                });
+    }
+
+    @Override
+    public Flux<Task> findAfter(GetTasksRequest request, User user, TaskCursor cursor, Pageable pageable) {
+        Assert.notNull(request, "Request must not be null");
+        Assert.notNull(user, "User must not be null");
+
+        QueryShape shape = new QueryShape(QueryType.FIND_AFTER, request, false, Pageables.getLimit(pageable) != null,
+                cursor);
+        return executeSelectQuery(createFindAfterQuery(request, user, cursor, pageable), shape);
+    }
+
+    /**
+     * Creates query that is executed by {@link #count(GetTasksRequest, User)}.
+     */
+    public Query createCountQuery(GetTasksRequest request, User user) {
+        Assert.notNull(request, "Request must not be null");
+        Assert.notNull(user, "User must not be null");
+
+        return create.selectCount()
                 .from(table("task"))
-                .where(field("user_id").eq(user.getId()));
-        Condition statusCondition = DSL.noCondition();
-        for (TaskStatus status : request.getStatuses()) {
-            statusCondition = statusCondition.or(getTaskStatusCondition(status, request));
-        }
-        query = ((SelectConditionStep<?>) query).and(statusCondition)
-                .orderBy(field("deadline").asc(), field("created_at").desc())
+                .where(field("user_id").eq(user.getId()))
+                .and(getTaskStatusesCondition(request));
+    }
+
+    /**
+     * Creates query that is executed by {@link #find(GetTasksRequest, User, Pageable)}.
+     */
+    public Query createFindQuery(GetTasksRequest request, User user, Pageable pageable) {
+        Assert.notNull(request, "Request must not be null");
+        Assert.notNull(user, "User must not be null");
+
+        SelectLimitAfterOffsetStep<?> query = createSelectQuery(request, user, DSL.noCondition(), false)
                 .offset(Pageables.getOffset(pageable));
+        Integer limit = Pageables.getLimit(pageable);
+        return limit != null ? query.limit(limit) : query;
+    }
 
+    /**
+     * Creates query that is executed by {@link #findAfter(GetTasksRequest, User, TaskCursor, Pageable)}.
+     */
+    public Query createFindAfterQuery(GetTasksRequest request, User user, TaskCursor cursor, Pageable pageable) {
+        Assert.notNull(request, "Request must not be null");
+        Assert.notNull(user, "User must not be null");
+
+        Condition seekCondition = cursor != null ? getSeekCondition(cursor) : DSL.noCondition();
+        SelectLimitStep<?> query = createSelectQuery(request, user, seekCondition, false);
         Integer limit = Pageables.getLimit(pageable);
-        if (limit != null) {
-            query = ((SelectLimitAfterOffsetStep<?>) query).limit(limit);
+        return limit != null ? query.limit(limit) : query;
+    }
+
+    private SelectLimitStep<?> createSelectQuery(GetTasksRequest request,
+                                                 User user,
+                                                 Condition additionalCondition,
+                                                 boolean withTotalCount) {
+        List<Field<?>> taskFields = new ArrayList<>(getAllFields());
+        taskFields.add(DEADLINE_FIELD.as("deadline"));
+        if (withTotalCount) {
+            taskFields.add(DSL.count().over().as(TOTAL_COUNT_COLUMN));
         }
+        return create.select(taskFields)
+                .from(table("task"))
+                .where(field("user_id").eq(user.getId()))
+                .and(getTaskStatusesCondition(request))
+                .and(additionalCondition)
+                .orderBy(DEADLINE_SORT_KEY.asc(), field("created_at").desc(), field("id").desc());
+    }
 
-        DatabaseClient.GenericExecuteSpec executeSpec = createExecuteSpec(query);
+    private Flux<Task> executeSelectQuery(Query query, QueryShape shape) {
+        DatabaseClient.GenericExecuteSpec executeSpec = createExecuteSpec(query, shape);
         BiFunction<Row, RowMetadata, Task> rowMapper = entityTemplate.getDataAccessStrategy().getRowMapper(Task.class);
         return executeSpec.map((rowMapper)).all();
     }
 
+    /**
+     * Builds condition that selects only tasks following the task the given cursor points to. Tasks are ordered by
+     * deadline sort key in ascending order, then by creation time and id in descending order. Since directions of
+     * the ordering are not the same the condition cannot be expressed as a single row comparison. Instead it consists
+     * of the lower bound of deadline sort key that starts index range scan and the filter that skips tasks having the
+     * same deadline as the cursor task but preceding it.
+     */
+    private Condition getSeekCondition(TaskCursor cursor) {
+        Field<LocalDateTime> deadline = cursor.getDeadline() != null ? DSL.val(cursor.getDeadline()) : INFINITY;
+        Condition tieCondition = field("created_at").lt(cursor.getCreatedAt())
+                .or(field("created_at").eq(cursor.getCreatedAt()).and(field("id").lt(cursor.getId())));
+        return DEADLINE_SORT_KEY.ge(deadline).and(DEADLINE_SORT_KEY.gt(deadline).or(tieCondition));
+    }
+
     @SuppressWarnings("deprecation")
     private List<Field<Object>> getAllFields() {
         ReactiveDataAccessStrategy dataAccessStrategy = entityTemplate.getDataAccessStrategy();
@@ -95,14 +212,24 @@ public class CustomizedTaskRepositoryImpl implements CustomizedTaskRepository {
                 .toList();
     }
 
+    private Condition getTaskStatusesCondition(GetTasksRequest request) {
+        Condition condition = DSL.noCondition();
+        // Statuses are sorted to get the same order of bind parameters for the same query shape
+        for (TaskStatus status : new TreeSet<>(request.getStatuses())) {
+            condition = condition.or(getTaskStatusCondition(status, request));
+        }
+        return condition;
+    }
+
     private Condition getTaskStatusCondition(TaskStatus status, GetTasksRequest request) {
         Condition condition = field("status").eq(status.name());
         if (status == TaskStatus.PROCESSED || status == TaskStatus.COMPLETED) {
             if (status == TaskStatus.COMPLETED) {
-                Set<String> previousStatuses = request.getStatuses().stream()
+                List<String> previousStatuses = request.getStatuses().stream()
                         .filter(s -> s != TaskStatus.COMPLETED)
+                        .sorted()
                         .map(TaskStatus::name)
-                        .collect(Collectors.toSet());
+                        .toList();
                 if (!previousStatuses.isEmpty()) {
                     condition = condition.and(field("previous_status").in(previousStatuses));
                 }
@@ -122,36 +249,114 @@ public class CustomizedTaskRepositoryImpl implements CustomizedTaskRepository {
         return condition;
     }
 
+    /**
+     * Builds condition on task deadline. All the bounds are applied to the deadline sort key (the same expression that
+     * is used for ordering) so that the expression index on task table could serve both filtering and ordering.
+     */
     private Condition getTaskDeadlineCondition(GetTasksRequest request) {
         if (request.isWithoutDeadline()) {
-            return field("deadline_date").isNull().and(field("deadline_date_time").isNull());
+            return DEADLINE_SORT_KEY.eq(INFINITY);
         }
 
+        LocalDateTime dateFrom = request.getDeadlineDateFrom() != null
+                ? request.getDeadlineDateFrom().atStartOfDay() : null;
+        LocalDateTime dateTo = request.getDeadlineDateTo() != null
+                ? request.getDeadlineDateTo().atStartOfDay() : null;
+        LocalDateTime dateTimeFrom = request.getDeadlineDateTimeFrom();
+        LocalDateTime dateTimeTo = request.getDeadlineDateTimeTo();
+
         Condition dateCondition = DSL.noCondition();
-        LocalDate deadlineDateFrom = request.getDeadlineDateFrom();
-        if (deadlineDateFrom != null) {
-            dateCondition = dateCondition.and(field("deadline_date").ge(deadlineDateFrom));
-        }
-        LocalDate deadlineDateTo = request.getDeadlineDateTo();
-        if (deadlineDateTo != null) {
-            dateCondition = dateCondition.and(field("deadline_date").le(deadlineDateTo));
+        if (dateFrom != null || dateTo != null) {
+            dateCondition = field("deadline_date").isNotNull().and(getDeadlineRangeCondition(dateFrom, dateTo));
         }
 
         Condition dateTimeCondition = DSL.noCondition();
-        LocalDateTime deadlineDateTimeFrom = request.getDeadlineDateTimeFrom();
-        if (deadlineDateTimeFrom != null) {
-            dateTimeCondition = dateTimeCondition.and(field("deadline_date_time").ge(deadlineDateTimeFrom));
+        if (dateTimeFrom != null || dateTimeTo != null) {
+            // Sort key of task without deadline is infinity so it has to be excluded explicitly
+            dateTimeCondition = field("deadline_date").isNull()
+                    .and(field("deadline_date_time").isNotNull())
+                    .and(getDeadlineRangeCondition(dateTimeFrom, dateTimeTo));
         }
-        LocalDateTime deadlineDateTimeTo = request.getDeadlineDateTimeTo();
-        if (deadlineDateTimeTo != null) {
-            dateTimeCondition = dateTimeCondition.and(field("deadline_date_time").le(deadlineDateTimeTo));
+
+        // Range that covers both date and date/time conditions allows to use single index range scan
+        LocalDateTime from = dateFrom != null && dateTimeFrom != null ? min(dateFrom, dateTimeFrom) : null;
+        LocalDateTime to = dateTo != null && dateTimeTo != null ? max(dateTo, dateTimeTo) : null;
+        return getDeadlineRangeCondition(from, to).and(dateCondition.or(dateTimeCondition));
+    }
+
+    private Condition getDeadlineRangeCondition(LocalDateTime from, LocalDateTime to) {
+        Condition condition = DSL.noCondition();
+        if (from != null) {
+            condition = condition.and(DEADLINE_SORT_KEY.ge(from));
+        }
+        if (to != null) {
+            condition = condition.and(DEADLINE_SORT_KEY.le(to));
         }
+        return condition;
+    }
+
+    private static LocalDateTime min(LocalDateTime dateTime1, LocalDateTime dateTime2) {
+        return dateTime1.isBefore(dateTime2) ? dateTime1 : dateTime2;
+    }
 
-        return dateCondition.or(dateTimeCondition);
+    private static LocalDateTime max(LocalDateTime dateTime1, LocalDateTime dateTime2) {
+        return dateTime1.isAfter(dateTime2) ? dateTime1 : dateTime2;
     }
 
-    private DatabaseClient.GenericExecuteSpec createExecuteSpec(Query query) {
+    private DatabaseClient.GenericExecuteSpec createExecuteSpec(Query query, QueryShape shape) {
+        String sql = sqlCache.computeIfAbsent(shape, key -> create.render(query));
         DatabaseClient databaseClient = entityTemplate.getDatabaseClient();
-        return databaseClient.sql(query.toString());
+        DatabaseClient.GenericExecuteSpec executeSpec = databaseClient.sql(sql);
+        List<Object> bindValues = query.getBindValues();
+        for (int i = 0; i < bindValues.size(); i++) {
+            executeSpec = executeSpec.bind(i, bindValues.get(i));
+        }
+        return executeSpec;
+    }
+
+    private enum QueryType {
+        COUNT, FIND, FIND_PAGE, FIND_AFTER
+    }
+
+    /**
+     * Shape of the query to get tasks. Queries having the same shape are rendered into the same SQL statement and
+     * differ only in values of bind parameters.
+     */
+    @Value
+    private static class QueryShape {
+        QueryType type;
+        Set<TaskStatus> statuses;
+        boolean withoutDeadline;
+        boolean deadlineDateFromPresent;
+        boolean deadlineDateToPresent;
+        boolean deadlineDateTimeFromPresent;
+        boolean deadlineDateTimeToPresent;
+        boolean completedAtFromPresent;
+        boolean completedAtToPresent;
+        // jOOQ omits zero offset along with its bind parameter
+        boolean offsetPresent;
+        boolean limited;
+        boolean cursorPresent;
+        boolean cursorDeadlinePresent;
+
+        QueryShape(QueryType type,
+                   GetTasksRequest request,
+                   boolean offsetPresent,
+                   boolean limited,
+                   TaskCursor cursor) {
+            this.type = type;
+            this.statuses = Set.copyOf(request.getStatuses());
+            this.withoutDeadline = request.isWithoutDeadline();
+            this.deadlineDateFromPresent = request.getDeadlineDateFrom() != null;
+            this.deadlineDateToPresent = request.getDeadlineDateTo() != null;
+            this.deadlineDateTimeFromPresent = request.getDeadlineDateTimeFrom() != null;
+            this.deadlineDateTimeToPresent = request.getDeadlineDateTimeTo() != null;
+            this.completedAtFromPresent = request.getCompletedAtFrom() != null;
+            this.completedAtToPresent = request.getCompletedAtTo() != null;
+            this.offsetPresent = offsetPresent;
+            this.limited = limited;
+            this.cursorPresent = cursor != null;
+            this.cursorDeadlinePresent = cursor != null && cursor.getDeadline() != null;
+        }
     }
 }
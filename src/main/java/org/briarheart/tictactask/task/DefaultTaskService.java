@@ -6,20 +6,31 @@ import org.briarheart.tictactask.task.comment.TaskComment;
 import org.briarheart.tictactask.task.comment.TaskCommentRepository;
 import org.briarheart.tictactask.task.list.TaskList;
 import org.briarheart.tictactask.task.list.TaskListRepository;
+import org.briarheart.tictactask.task.recurrence.TaskRecurrenceService;
 import org.briarheart.tictactask.task.tag.TaskTag;
 import org.briarheart.tictactask.task.tag.TaskTagRelationRepository;
 import org.briarheart.tictactask.task.tag.TaskTagRepository;
+import org.briarheart.tictactask.task.version.EntityChangeService;
+import org.briarheart.tictactask.task.version.EntityType;
 import org.briarheart.tictactask.user.User;
 import org.briarheart.tictactask.util.DateTimeUtils;
 import org.briarheart.tictactask.util.Pageables;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Default implementation of {@link TaskService}.
@@ -34,23 +45,31 @@ public class DefaultTaskService implements TaskService {
     private final TaskTagRepository tagRepository;
     private final TaskListRepository taskListRepository;
     private final TaskCommentRepository taskCommentRepository;
+    private final EntityChangeService entityChangeService;
+    private final TaskRecurrenceService taskRecurrenceService;
 
     public DefaultTaskService(TaskRepository taskRepository,
                               TaskTagRelationRepository taskTagRelationRepository,
                               TaskTagRepository tagRepository,
                               TaskListRepository taskListRepository,
-                              TaskCommentRepository taskCommentRepository) {
+                              TaskCommentRepository taskCommentRepository,
+                              EntityChangeService entityChangeService,
+                              TaskRecurrenceService taskRecurrenceService) {
         Assert.notNull(taskRepository, "Task repository must not be null");
         Assert.notNull(taskTagRelationRepository, "Task-tag relation repository must not be null");
         Assert.notNull(tagRepository, "Tag repository must not be null");
         Assert.notNull(taskListRepository, "Task list repository must not be null");
         Assert.notNull(taskCommentRepository, "Task comment repository must not be null");
+        Assert.notNull(entityChangeService, "Entity change service must not be null");
+        Assert.notNull(taskRecurrenceService, "Task recurrence service must not be null");
 
         this.taskRepository = taskRepository;
         this.taskTagRelationRepository = taskTagRelationRepository;
         this.tagRepository = tagRepository;
         this.taskListRepository = taskListRepository;
         this.taskCommentRepository = taskCommentRepository;
+        this.entityChangeService = entityChangeService;
+        this.taskRecurrenceService = taskRecurrenceService;
     }
 
     @Override
@@ -63,16 +82,28 @@ public class DefaultTaskService implements TaskService {
         return taskRepository.find(request, user, pageable);
     }
 
+    @Override
+    public Mono<Page<Task>> getTaskPage(GetTasksRequest request, User user, Pageable pageable) {
+        return taskRepository.findPage(request, user, pageable);
+    }
+
+    @Override
+    public Flux<Task> getTasks(GetTasksRequest request, User user, TaskCursor cursor, Pageable pageable) {
+        return taskRepository.findAfter(request, user, cursor, pageable);
+    }
+
     @Override
     public Mono<Task> getTask(Long id, User user) throws EntityNotFoundException {
         Assert.notNull(user, "User must not be null");
         return findTask(id, user.getId());
     }
 
+    @Transactional
     @Override
     public Mono<Task> createTask(Task task) {
         Assert.notNull(task, "Task must not be null");
         return Mono.defer(() -> taskRepository.save(copyTask(task))
+                .flatMap(this::recordTaskChange)
                 .doOnSuccess(t -> log.debug("Task with id {} is created", t.getId())));
     }
 
@@ -90,6 +121,7 @@ public class DefaultTaskService implements TaskService {
             }
             updatedTask.setCreatedAt(existingTask.getCreatedAt());
             return taskRepository.save(updatedTask)
+                    .flatMap(this::recordTaskChange)
                     .doOnSuccess(t -> log.debug("Task with id {} is updated", t.getId()));
         });
     }
@@ -103,7 +135,9 @@ public class DefaultTaskService implements TaskService {
                     task.setPreviousStatus(task.getStatus());
                     task.setStatus(TaskStatus.COMPLETED);
                     task.setCompletedAt(getCurrentTime());
-                    return taskRepository.save(task)
+                    return taskRecurrenceService.createNextOccurrence(task)
+                            .then(Mono.defer(() -> taskRepository.save(task)))
+                            .flatMap(this::recordTaskChange)
                             .doOnSuccess(t -> log.debug("Task with id {} is completed", t.getId()));
                 });
     }
@@ -119,6 +153,7 @@ public class DefaultTaskService implements TaskService {
                     task.setStatus(task.getPreviousStatus());
                     task.setPreviousStatus(TaskStatus.COMPLETED);
                     return taskRepository.save(task)
+                            .flatMap(this::recordTaskChange)
                             .doOnSuccess(t -> log.debug("Task with id {} is restored", t.getId()));
                 });
     }
@@ -127,24 +162,66 @@ public class DefaultTaskService implements TaskService {
     @Override
     public Mono<Void> deleteTask(Long id, User user) throws EntityNotFoundException {
         return getTask(id, user)
-                .flatMap(taskRepository::delete)
+                .flatMap(task -> entityChangeService.recordDeletion(EntityType.TASK, task.getId(), task.getUserId())
+                        .then(taskRepository.delete(task)))
                 .doOnSuccess(v -> log.debug("Task with id {} is deleted", id));
     }
 
+    @Transactional
+    @Override
+    public Flux<BatchTaskResult> executeBatch(BatchTaskRequest request, User user) throws EntityNotFoundException {
+        Assert.notNull(request, "Request must not be null");
+        Assert.notNull(user, "User must not be null");
+        Assert.notNull(request.getOperation(), "Operation must not be null");
+        Assert.notEmpty(request.getIds(), "Task ids must not be null or empty");
+
+        if (request.getOperation() == BatchTaskRequest.Operation.ASSIGN_TAG
+                || request.getOperation() == BatchTaskRequest.Operation.REMOVE_TAG) {
+            Assert.notNull(request.getTagId(), "Tag id must not be null");
+        }
+
+        Set<Long> ids = new LinkedHashSet<>(request.getIds());
+        return taskRepository.findIdByIdInAndUserId(ids, user.getId())
+                .collect(Collectors.toSet())
+                .flatMapMany(foundIds -> {
+                    if (foundIds.isEmpty()) {
+                        return toBatchTaskResults(ids, foundIds, foundIds);
+                    }
+                    return executeBatchOperation(request, foundIds, user.getId())
+                            .doOnSuccess(count -> log.debug("Operation {} is applied to {} task(s)",
+                                    request.getOperation(), count))
+                            .then(getRemainingIds(request, foundIds, user.getId()))
+                            .flatMapMany(remainingIds -> toBatchTaskResults(ids, foundIds, remainingIds));
+                });
+    }
+
     @Override
     public Flux<TaskTag> getTags(Long taskId, User user) throws EntityNotFoundException {
         Assert.notNull(user, "User must not be null");
         return tagRepository.findByTaskIdAndUserIdOrderByCreatedAtDesc(taskId, user.getId());
     }
 
+    @Override
+    public Mono<Map<Long, List<TaskTag>>> getTags(Collection<Long> taskIds, User user) {
+        Assert.notNull(taskIds, "Task ids must not be null");
+        Assert.notNull(user, "User must not be null");
+        return tagRepository.findByTaskIdInAndUserId(taskIds, user.getId())
+                .collectMultimap(Tuple2::getT1, Tuple2::getT2)
+                .map(tags -> tags.entrySet().stream()
+                        .collect(Collectors.toMap(Map.Entry::getKey, entry -> List.copyOf(entry.getValue()))));
+    }
+
     @Transactional
     @Override
     public Mono<Void> assignTag(Long taskId, Long tagId, User user) throws EntityNotFoundException {
         return getTask(taskId, user)
                 .flatMap(task -> findTag(tagId, user.getId()))
                 .flatMap(tag -> taskTagRelationRepository.findByTaskIdAndTagId(taskId, tagId))
-                .switchIfEmpty(taskTagRelationRepository.create(taskId, tagId).doOnSuccess(relation
-                        -> log.debug("Tag with id {} is assigned to task with id {}", tagId, taskId)))
+                .switchIfEmpty(taskTagRelationRepository.create(taskId, tagId)
+                        .flatMap(relation -> entityChangeService.recordChange(EntityType.TASK, taskId, user.getId())
+                                .thenReturn(relation))
+                        .doOnSuccess(relation
+                                -> log.debug("Tag with id {} is assigned to task with id {}", tagId, taskId)))
                 .then();
     }
 
@@ -152,7 +229,9 @@ public class DefaultTaskService implements TaskService {
     @Override
     public Mono<Void> removeTag(Long taskId, Long tagId, User user) throws EntityNotFoundException {
         return getTask(taskId, user)
-                .flatMap(task -> taskTagRelationRepository.deleteByTaskIdAndTagId(taskId, tagId))
+                .flatMap(task -> taskTagRelationRepository.deleteByTaskIdAndTagId(taskId, tagId)
+                        .then(recordTaskChange(task)))
+                .then()
                 .doOnSuccess(v -> log.debug("Tag with id {} is removed from task with id {}", tagId, taskId));
     }
 
@@ -175,8 +254,11 @@ public class DefaultTaskService implements TaskService {
             newComment.setId(null);
             newComment.setCreatedAt(getCurrentTime());
             newComment.setUpdatedAt(null);
-            return taskCommentRepository.save(newComment).doOnSuccess(c
-                    -> log.debug("Comment with id {} is added to task with id {}", c.getId(), c.getTaskId()));
+            return taskCommentRepository.save(newComment)
+                    .flatMap(c -> entityChangeService.recordChange(EntityType.COMMENT, c.getId(), c.getUserId())
+                            .thenReturn(c))
+                    .doOnSuccess(c -> log.debug("Comment with id {} is added to task with id {}", c.getId(),
+                            c.getTaskId()));
         });
     }
 
@@ -221,16 +303,98 @@ public class DefaultTaskService implements TaskService {
                     .filter(TaskList::isCompleted)
                     .flatMap(taskList -> {
                         taskList.setCompleted(false);
-                        return taskListRepository.save(taskList);
+                        return taskListRepository.save(taskList)
+                                .flatMap(l -> entityChangeService.recordChange(EntityType.TASK_LIST, l.getId(),
+                                        l.getUserId()));
                     })
                     .then(Mono.just(task));
         }
         return Mono.just(task);
     }
 
+    private Mono<Integer> executeBatchOperation(BatchTaskRequest request, Set<Long> ids, Long userId) {
+        return switch (request.getOperation()) {
+            case COMPLETE -> taskRepository.completeByIdInAndUserId(ids, userId, getCurrentTime())
+                    .flatMap(count -> recordTaskChanges(ids, userId, count))
+                    .flatMap(count -> createNextOccurrences(ids, userId).thenReturn(count));
+            case RESTORE -> taskRepository.findIdByIdInAndUserIdAndStatus(ids, userId, TaskStatus.COMPLETED)
+                    .collectList()
+                    .filter(completedIds -> !completedIds.isEmpty())
+                    .flatMap(completedIds -> entityChangeService.recordSubtaskDeletions(completedIds, userId)
+                            .then(taskRepository.deleteByParentIdInAndUserId(completedIds, userId))
+                            .then(taskListRepository.restoreByTaskIdIn(completedIds))
+                            .then(entityChangeService.recordTaskListChangesByTaskIds(completedIds, userId))
+                            .then(taskRepository.restoreByIdInAndUserId(completedIds, userId))
+                            .flatMap(count -> recordTaskChanges(completedIds, userId, count)))
+                    .defaultIfEmpty(0);
+            case DELETE -> entityChangeService.recordTaskDeletions(ids, userId)
+                    .then(taskRepository.deleteByIdInAndUserId(ids, userId));
+            case MOVE -> {
+                Long taskListId = request.getTaskListId();
+                if (taskListId == null) {
+                    yield taskRepository.updateTaskListIdByIdInAndUserId(ids, userId, null)
+                            .flatMap(count -> recordTaskChanges(ids, userId, count));
+                }
+                yield taskListRepository.findByIdAndUserId(taskListId, userId)
+                        .switchIfEmpty(Mono.error(new EntityNotFoundException("Task list with id " + taskListId
+                                + " is not found")))
+                        .flatMap(taskList -> taskRepository.updateTaskListIdByIdInAndUserId(ids, userId,
+                                taskList.getId()))
+                        .flatMap(count -> recordTaskChanges(ids, userId, count));
+            }
+            case ASSIGN_TAG -> findTag(request.getTagId(), userId)
+                    .flatMap(tag -> taskTagRelationRepository.createByTaskIdIn(ids, tag.getId()))
+                    .flatMap(count -> recordTaskChanges(ids, userId, count));
+            case REMOVE_TAG -> findTag(request.getTagId(), userId)
+                    .flatMap(tag -> taskTagRelationRepository.deleteByTaskIdInAndTagId(ids, tag.getId()))
+                    .flatMap(count -> recordTaskChanges(ids, userId, count));
+        };
+    }
+
+    private Mono<Void> createNextOccurrences(Collection<Long> ids, Long userId) {
+        return taskRepository.findRecurringCompletedByIdInAndUserId(ids, userId)
+                .concatMap(taskRecurrenceService::createNextOccurrence)
+                .then();
+    }
+
+    private Mono<Set<Long>> getRemainingIds(BatchTaskRequest request, Set<Long> foundIds, Long userId) {
+        if (request.getOperation() == BatchTaskRequest.Operation.RESTORE) {
+            // Subtasks of restored tasks are deleted so they can be requested along with their parents
+            return taskRepository.findIdByIdInAndUserId(foundIds, userId).collect(Collectors.toSet());
+        }
+        return Mono.just(foundIds);
+    }
+
+    private Flux<BatchTaskResult> toBatchTaskResults(Set<Long> ids, Set<Long> foundIds, Set<Long> remainingIds) {
+        return Flux.fromIterable(ids).map(id -> {
+            BatchTaskResult.Status status;
+            if (remainingIds.contains(id)) {
+                status = BatchTaskResult.Status.OK;
+            } else if (foundIds.contains(id)) {
+                status = BatchTaskResult.Status.DELETED;
+            } else {
+                status = BatchTaskResult.Status.NOT_FOUND;
+            }
+            return new BatchTaskResult(id, status);
+        });
+    }
+
+    private Mono<Task> recordTaskChange(Task task) {
+        return entityChangeService.recordChange(EntityType.TASK, task.getId(), task.getUserId()).thenReturn(task);
+    }
+
+    private Mono<Integer> recordTaskChanges(Collection<Long> ids, Long userId, Integer count) {
+        if (count == 0) {
+            return Mono.just(count);
+        }
+        return entityChangeService.recordTaskChanges(ids, userId).thenReturn(count);
+    }
+
     private Mono<Task> deleteChildTasks(Task task) {
-        return taskRepository.findByParentIdAndUserId(task.getId(), task.getUserId())
-                .flatMap(taskRepository::delete)
-                .then(Mono.just(task));
+        return entityChangeService.recordSubtaskDeletions(List.of(task.getId()), task.getUserId())
+                .then(taskRepository.deleteByParentIdAndUserId(task.getId(), task.getUserId()))
+                .doOnSuccess(count -> log.debug("{} child task(s) of task with id {} are deleted", count,
+                        task.getId()))
+                .thenReturn(task);
     }
 }
@@ -0,0 +1,28 @@
+package org.briarheart.tictactask.task;
+
+/**
+ * Exception indicating that task cursor provided by client cannot be decoded.
+ *
+ * @author Roman Chigvintsev
+ * @see TaskCursor
+ */
+public class InvalidTaskCursorException extends RuntimeException {
+    /**
+     * Creates new instance of this class with the given error message.
+     *
+     * @param message error message
+     */
+    public InvalidTaskCursorException(String message) {
+        super(message);
+    }
+
+    /**
+     * Creates new instance of this class with the given error message and cause.
+     *
+     * @param message error message
+     * @param cause   error cause
+     */
+    public InvalidTaskCursorException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
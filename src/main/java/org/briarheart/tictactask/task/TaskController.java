@@ -1,5 +1,6 @@
 package org.briarheart.tictactask.task;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -12,13 +13,21 @@ import org.briarheart.tictactask.task.comment.TaskComment;
 import org.briarheart.tictactask.task.comment.TaskCommentController.CreateTaskCommentRequest;
 import org.briarheart.tictactask.task.comment.TaskCommentController.TaskCommentResponse;
 import org.briarheart.tictactask.task.recurrence.TaskRecurrenceStrategy;
+import org.briarheart.tictactask.task.tag.TaskTag;
 import org.briarheart.tictactask.task.tag.TaskTagController.TaskTagResponse;
+import org.briarheart.tictactask.task.version.TaskCollection;
+import org.briarheart.tictactask.task.version.TaskCollectionVersionService;
+import org.briarheart.tictactask.user.User;
+import org.briarheart.tictactask.util.Pageables;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.security.core.Authentication;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -30,6 +39,8 @@ import javax.validation.constraints.Size;
 import java.net.URI;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
 
 import static io.swagger.v3.oas.annotations.enums.ParameterIn.QUERY;
 
@@ -44,7 +55,10 @@ import static io.swagger.v3.oas.annotations.enums.ParameterIn.QUERY;
 @Tag(name = "Tasks", description = "Allows to manage tasks, add/remove task tags, add/remove task comments")
 @SecurityRequirement(name = "apiSecurityScheme")
 public class TaskController extends AbstractController {
+    private static final String INCLUDE_TAGS = "tags";
+
     private final TaskService taskService;
+    private final TaskCollectionVersionService versionService;
 
     @GetMapping("/count")
     @Operation(
@@ -81,7 +95,70 @@ public class TaskController extends AbstractController {
     @GetMapping
     @Operation(
             summary = "Get tasks",
-            description = "Returns tasks created by current user",
+            description = "Returns tasks created by current user. Response contains weak ETag that changes on "
+                    + "every change of user's tasks and can be sent in \"If-None-Match\" header to avoid "
+                    + "loading of unchanged tasks",
+            parameters = {
+                    @Parameter(
+                            name = "statuses",
+                            description = "Task statuses",
+                            in = QUERY,
+                            array = @ArraySchema(schema = @Schema(type = "string"), uniqueItems = true)
+                    ),
+                    @Parameter(name = "withoutDeadline", description = "Whether tasks must be without deadline "
+                            + "(if \"true\" all deadline date/time filters are ignored)", in = QUERY,
+                            schema = @Schema(type = "boolean")),
+                    @Parameter(name = "deadlineDateFrom", description = "Lower bound of task deadline date",
+                            in = QUERY, schema = @Schema(example = "2022-01-31")),
+                    @Parameter(name = "deadlineDateTo", description = "Upper bound of task deadline date",
+                            in = QUERY, schema = @Schema(example = "2022-01-31")),
+                    @Parameter(name = "deadlineDateTimeFrom", description = "Lower bound of task deadline date/time",
+                            in = QUERY, schema = @Schema(example = "2022-01-31T11:51")),
+                    @Parameter(name = "deadlineDateTimeTo", description = "Upper bound of task deadline date/time",
+                            in = QUERY, schema = @Schema(example = "2022-01-31T11:51")),
+                    @Parameter(name = "completedAtFrom", description = "Lower bound of task completion time",
+                            in = QUERY, schema = @Schema(example = "2022-01-31T11:51")),
+                    @Parameter(name = "completedAtTo", description = "Upper bound of task completion time",
+                            in = QUERY, schema = @Schema(example = "2022-01-31T11:51")),
+                    @Parameter(name = "page", description = "Number of requested page", in = QUERY),
+                    @Parameter(name = "size", description = "Requested page size", in = QUERY),
+                    @Parameter(name = "include", description = "Related entities to be included in response "
+                            + "(\"tags\" to include tags of every task)", in = QUERY,
+                            array = @ArraySchema(schema = @Schema(type = "string", allowableValues = INCLUDE_TAGS)))
+            }
+    )
+    public Mono<ResponseEntity<Flux<TaskResponse>>> getTasks(@Parameter(hidden = true) GetTasksRequest request,
+                                                             @Parameter(hidden = true)
+                                                             @RequestParam(name = "include", required = false)
+                                                                     Set<String> include,
+                                                             Authentication authentication,
+                                                             @Parameter(hidden = true) Pageable pageable,
+                                                             ServerWebExchange exchange) {
+        User user = getUser(authentication);
+        if (include == null || !include.contains(INCLUDE_TAGS)) {
+            return getCollection(user, versionService.getVersion(TaskCollection.TASKS, user.getId()), exchange,
+                    () -> taskService.getTasks(request, user, pageable).map(TaskResponse::new));
+        }
+
+        // Response depends on tags as well. Versions never decrease, so their sum changes on change of either
+        // collection.
+        Mono<Long> version = Mono.zip(versionService.getVersion(TaskCollection.TASKS, user.getId()),
+                versionService.getVersion(TaskCollection.TAGS, user.getId()), Long::sum);
+        return getCollection(user, version, exchange, () -> taskService.getTasks(request, user, pageable)
+                .collectList()
+                .flatMapMany(tasks -> {
+                    List<Long> taskIds = tasks.stream().map(Task::getId).toList();
+                    // Tags of the whole page are loaded with single query
+                    return taskService.getTags(taskIds, user).flatMapIterable(tags -> tasks.stream()
+                            .map(task -> new TaskResponse(task, tags.getOrDefault(task.getId(), List.of())))
+                            .toList());
+                }));
+    }
+
+    @GetMapping("/page")
+    @Operation(
+            summary = "Get page of tasks along with total number of tasks",
+            description = "Returns tasks created by current user and total number of tasks meeting the given criteria",
             parameters = {
                     @Parameter(
                             name = "statuses",
@@ -108,10 +185,63 @@ public class TaskController extends AbstractController {
                     @Parameter(name = "size", description = "Requested page size", in = QUERY)
             }
     )
-    public Flux<TaskResponse> getTasks(@Parameter(hidden = true) GetTasksRequest request,
-                                       Authentication authentication,
-                                       @Parameter(hidden = true) Pageable pageable) {
-        return taskService.getTasks(request, getUser(authentication), pageable).map(TaskResponse::new);
+    public Mono<TaskPageResponse> getTaskPageWithTotalCount(@Parameter(hidden = true) GetTasksRequest request,
+                                                            Authentication authentication,
+                                                            @Parameter(hidden = true) Pageable pageable) {
+        return taskService.getTaskPage(request, getUser(authentication), pageable).map(page -> {
+            List<TaskResponse> tasks = page.getContent().stream().map(TaskResponse::new).toList();
+            return new TaskPageResponse(tasks, null, page.getTotalElements());
+        });
+    }
+
+    @GetMapping(params = "cursor")
+    @Operation(
+            summary = "Get page of tasks using cursor",
+            description = "Returns tasks created by current user following the task the given cursor points to. "
+                    + "Response contains cursor that should be used to request next page of tasks",
+            parameters = {
+                    @Parameter(
+                            name = "statuses",
+                            description = "Task statuses",
+                            in = QUERY,
+                            array = @ArraySchema(schema = @Schema(type = "string"), uniqueItems = true)
+                    ),
+                    @Parameter(name = "withoutDeadline", description = "Whether tasks must be without deadline "
+                            + "(if \"true\" all deadline date/time filters are ignored)", in = QUERY,
+                            schema = @Schema(type = "boolean")),
+                    @Parameter(name = "deadlineDateFrom", description = "Lower bound of task deadline date",
+                            in = QUERY, schema = @Schema(example = "2022-01-31")),
+                    @Parameter(name = "deadlineDateTo", description = "Upper bound of task deadline date",
+                            in = QUERY, schema = @Schema(example = "2022-01-31")),
+                    @Parameter(name = "deadlineDateTimeFrom", description = "Lower bound of task deadline date/time",
+                            in = QUERY, schema = @Schema(example = "2022-01-31T11:51")),
+                    @Parameter(name = "deadlineDateTimeTo", description = "Upper bound of task deadline date/time",
+                            in = QUERY, schema = @Schema(example = "2022-01-31T11:51")),
+                    @Parameter(name = "completedAtFrom", description = "Lower bound of task completion time",
+                            in = QUERY, schema = @Schema(example = "2022-01-31T11:51")),
+                    @Parameter(name = "completedAtTo", description = "Upper bound of task completion time",
+                            in = QUERY, schema = @Schema(example = "2022-01-31T11:51")),
+                    @Parameter(name = "size", description = "Requested page size", in = QUERY)
+            }
+    )
+    public Mono<TaskPageResponse> getTaskPage(@Parameter(hidden = true) GetTasksRequest request,
+                                              @Parameter(description = "Cursor returned with the previous page "
+                                                      + "(empty value to get the first page)")
+                                              @RequestParam("cursor") String cursor,
+                                              Authentication authentication,
+                                              @Parameter(hidden = true) Pageable pageable) {
+        TaskCursor taskCursor = StringUtils.hasLength(cursor) ? TaskCursor.decode(cursor) : null;
+        Integer limit = Pageables.getLimit(pageable);
+        return taskService.getTasks(request, getUser(authentication), taskCursor, pageable)
+                .collectList()
+                .map(tasks -> {
+                    String nextCursor = null;
+                    if (limit != null && !tasks.isEmpty() && tasks.size() == limit) {
+                        nextCursor = TaskCursor.of(tasks.get(tasks.size() - 1)).encode();
+                    }
+                    List<TaskResponse> taskResponses = tasks.stream().map(TaskResponse::new).toList();
+                    return new TaskPageResponse(taskResponses, nextCursor, null);
+                });
     }
 
     @GetMapping("/{id}")
@@ -169,6 +299,22 @@ public class TaskController extends AbstractController {
         return taskService.deleteTask(id, getUser(authentication));
     }
 
+    @PostMapping("/batch")
+    @Operation(
+            summary = "Apply operation to several tasks",
+            description = "Allows to complete, restore, delete, move to task list, assign/remove tag to/from several "
+                    + "tasks at once. Returns result of operation for every requested task id"
+    )
+    public Flux<BatchTaskResult> executeBatch(@Valid @RequestBody BatchTaskRequest request,
+                                              Authentication authentication) {
+        if ((request.getOperation() == BatchTaskRequest.Operation.ASSIGN_TAG
+                || request.getOperation() == BatchTaskRequest.Operation.REMOVE_TAG) && request.getTagId() == null) {
+            return Flux.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Tag id must be specified for operation " + request.getOperation()));
+        }
+        return taskService.executeBatch(request, getUser(authentication));
+    }
+
     @GetMapping("/{taskId}/tags")
     @Operation(summary = "Get task tags", description = "Returns tags assigned to task")
     public Flux<TaskTagResponse> getTags(@Parameter(description = "Task id") @PathVariable("taskId") Long taskId,
@@ -237,6 +383,9 @@ public class TaskController extends AbstractController {
         private LocalDate deadlineDate;
         private LocalDateTime deadlineDateTime;
         private TaskRecurrenceStrategy recurrenceStrategy;
+        // Tags are included only on demand
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private List<TaskTagResponse> tags;
 
         public TaskResponse(Task task) {
             this.id = task.getId();
@@ -251,6 +400,20 @@ public class TaskController extends AbstractController {
             this.deadlineDateTime = task.getDeadlineDateTime();
             this.recurrenceStrategy = task.getRecurrenceStrategy();
         }
+
+        public TaskResponse(Task task, List<TaskTag> tags) {
+            this(task);
+            this.tags = tags.stream().map(TaskTagResponse::new).toList();
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TaskPageResponse {
+        private List<TaskResponse> tasks;
+        private String nextCursor;
+        private Long totalCount;
     }
 
     @Data
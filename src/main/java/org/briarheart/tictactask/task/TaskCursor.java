@@ -0,0 +1,108 @@
+package org.briarheart.tictactask.task;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.util.Assert;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of a task in the list of tasks ordered by deadline, creation time and id. Cursor is used for keyset
+ * pagination: instead of skipping some number of rows next page of tasks is requested starting right after the task
+ * this cursor points to.
+ * <p>
+ * To clients cursor is an opaque string produced by {@link #encode()}.
+ *
+ * @author Roman Chigvintsev
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public class TaskCursor {
+    private static final String SEPARATOR = "|";
+    private static final String NULL_VALUE = "";
+
+    private final LocalDateTime deadline;
+    private final LocalDateTime createdAt;
+    private final Long id;
+
+    /**
+     * Creates new instance of this class with the given task deadline, creation time and id.
+     *
+     * @param deadline  task deadline or {@code null} if task does not have deadline
+     * @param createdAt task creation time (must not be {@code null})
+     * @param id        task id (must not be {@code null})
+     */
+    public TaskCursor(LocalDateTime deadline, LocalDateTime createdAt, Long id) {
+        Assert.notNull(createdAt, "Task creation time must not be null");
+        Assert.notNull(id, "Task id must not be null");
+
+        this.deadline = deadline;
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    /**
+     * Creates cursor pointing to the given task.
+     *
+     * @param task task (must not be {@code null})
+     * @return new cursor
+     */
+    public static TaskCursor of(Task task) {
+        Assert.notNull(task, "Task must not be null");
+        LocalDateTime deadline;
+        if (task.getDeadlineDate() != null) {
+            deadline = task.getDeadlineDate().atStartOfDay();
+        } else {
+            deadline = task.getDeadlineDateTime();
+        }
+        return new TaskCursor(deadline, task.getCreatedAt(), task.getId());
+    }
+
+    /**
+     * Restores cursor from the string previously returned by {@link #encode()}.
+     *
+     * @param value encoded cursor (must not be {@code null} or empty)
+     * @return decoded cursor
+     * @throws InvalidTaskCursorException if the given string is not a valid cursor
+     */
+    public static TaskCursor decode(String value) throws InvalidTaskCursorException {
+        Assert.hasLength(value, "Cursor must not be null or empty");
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            String[] parts = decoded.split("\\" + SEPARATOR, -1);
+            if (parts.length != 3) {
+                throw new InvalidTaskCursorException("Task cursor \"" + value + "\" is not valid");
+            }
+            LocalDateTime deadline = parts[0].equals(NULL_VALUE) ? null : parseDateTime(parts[0]);
+            return new TaskCursor(deadline, parseDateTime(parts[1]), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidTaskCursorException("Task cursor \"" + value + "\" is not valid", e);
+        }
+    }
+
+    /**
+     * Encodes this cursor into the opaque URL-safe string.
+     *
+     * @return encoded cursor
+     */
+    public String encode() {
+        String value = (deadline != null ? formatDateTime(deadline) : NULL_VALUE)
+                + SEPARATOR + formatDateTime(createdAt)
+                + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static LocalDateTime parseDateTime(String s) {
+        return LocalDateTime.parse(s, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+    }
+
+    private static String formatDateTime(LocalDateTime dateTime) {
+        return dateTime.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+    }
+}
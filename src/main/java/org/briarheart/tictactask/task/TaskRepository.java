@@ -1,10 +1,14 @@
 package org.briarheart.tictactask.task;
 
+import org.springframework.data.r2dbc.repository.Modifying;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+
 /**
  * @author Roman Chigvintsev
  */
@@ -15,6 +19,11 @@ public interface TaskRepository extends ReactiveCrudRepository<Task, Long>, Cust
     @Query("SELECT * FROM task WHERE parent_id = :parent_id AND user_id = :userId")
     Flux<Task> findByParentIdAndUserId(Long parentId, Long userId);
 
+    @Query("SELECT * FROM task WHERE user_id = :userId AND id IN ("
+            + "SELECT entity_id FROM entity_change "
+            + "WHERE user_id = :userId AND entity_type = 'TASK' AND version > :version AND deleted = FALSE)")
+    Flux<Task> findChangedByUserIdAndVersionGreaterThan(Long userId, long version);
+
     @Query("SELECT * FROM task WHERE status <> :status AND id IN (SELECT task_id FROM tasks_tags WHERE tag_id = :tagId)"
             + " ORDER BY created_at ASC LIMIT :limit OFFSET :offset")
     Flux<Task> findByStatusNotAndTagIdOrderByCreatedAtAsc(TaskStatus status, Long tagId, long offset, Integer limit);
@@ -30,4 +39,89 @@ public interface TaskRepository extends ReactiveCrudRepository<Task, Long>, Cust
                                                                         TaskStatus status,
                                                                         long offset,
                                                                         Integer limit);
+
+    @Modifying
+    @Query("UPDATE task SET previous_status = status, status = 'COMPLETED', completed_at = :completedAt "
+            + "WHERE task_list_id = :taskListId AND user_id = :userId AND status <> 'COMPLETED'")
+    Mono<Integer> completeByTaskListIdAndUserId(Long taskListId, Long userId, LocalDateTime completedAt);
+
+    @Modifying
+    @Query("WITH RECURSIVE descendant AS ("
+            + "SELECT id FROM task WHERE parent_id = :parentId AND user_id = :userId "
+            + "UNION ALL "
+            + "SELECT t.id FROM task t INNER JOIN descendant d ON t.parent_id = d.id"
+            + ") DELETE FROM task WHERE id IN (SELECT id FROM descendant)")
+    Mono<Integer> deleteByParentIdAndUserId(Long parentId, Long userId);
+
+    @Modifying
+    @Query("DELETE FROM task WHERE task_list_id = :taskListId AND user_id = :userId")
+    Mono<Integer> deleteByTaskListIdAndUserId(Long taskListId, Long userId);
+
+    @Query("SELECT id FROM task WHERE id IN (:ids) AND user_id = :userId")
+    Flux<Long> findIdByIdInAndUserId(Collection<Long> ids, Long userId);
+
+    @Query("SELECT id FROM task WHERE id IN (:ids) AND user_id = :userId AND status = :status")
+    Flux<Long> findIdByIdInAndUserIdAndStatus(Collection<Long> ids, Long userId, TaskStatus status);
+
+    @Modifying
+    @Query("UPDATE task SET previous_status = status, status = 'COMPLETED', completed_at = :completedAt "
+            + "WHERE id IN (:ids) AND user_id = :userId AND status <> 'COMPLETED'")
+    Mono<Integer> completeByIdInAndUserId(Collection<Long> ids, Long userId, LocalDateTime completedAt);
+
+    /**
+     * Finds completed recurring tasks with the given ids whose next occurrence is not created yet. Tasks of completed
+     * task lists are skipped since such lists are archived.
+     */
+    @Query("SELECT * FROM task WHERE id IN (:ids) AND user_id = :userId AND status = 'COMPLETED' "
+            + "AND recurrence_strategy IS NOT NULL "
+            + "AND NOT EXISTS (SELECT 1 FROM task_list tl WHERE tl.id = task.task_list_id AND tl.completed = TRUE)")
+    Flux<Task> findRecurringCompletedByIdInAndUserId(Collection<Long> ids, Long userId);
+
+    @Modifying
+    @Query("UPDATE task SET status = previous_status, previous_status = 'COMPLETED' "
+            + "WHERE id IN (:ids) AND user_id = :userId AND status = 'COMPLETED'")
+    Mono<Integer> restoreByIdInAndUserId(Collection<Long> ids, Long userId);
+
+    @Modifying
+    @Query("UPDATE task SET task_list_id = :taskListId WHERE id IN (:ids) AND user_id = :userId")
+    Mono<Integer> updateTaskListIdByIdInAndUserId(Collection<Long> ids, Long userId, Long taskListId);
+
+    @Modifying
+    @Query("DELETE FROM task WHERE id IN (:ids) AND user_id = :userId")
+    Mono<Integer> deleteByIdInAndUserId(Collection<Long> ids, Long userId);
+
+    @Modifying
+    @Query("WITH RECURSIVE descendant AS ("
+            + "SELECT id FROM task WHERE parent_id IN (:parentIds) AND user_id = :userId "
+            + "UNION ALL "
+            + "SELECT t.id FROM task t INNER JOIN descendant d ON t.parent_id = d.id"
+            + ") DELETE FROM task WHERE id IN (SELECT id FROM descendant)")
+    Mono<Integer> deleteByParentIdInAndUserId(Collection<Long> parentIds, Long userId);
+
+    /**
+     * Finds and locks completed recurring tasks with deadline whose next occurrence is not created yet. Only tasks of
+     * users from the given partition ({@code user_id mod partitions}) are selected. Tasks of completed task lists are
+     * skipped since such lists are archived. Tasks that are already locked by another transaction are skipped as well.
+     */
+    @Query("SELECT * FROM task WHERE recurrence_strategy IS NOT NULL AND status = 'COMPLETED' "
+            + "AND (deadline_date IS NOT NULL OR deadline_date_time IS NOT NULL) "
+            + "AND MOD(user_id, :partitions) = :partition "
+            + "AND NOT EXISTS (SELECT 1 FROM task_list tl WHERE tl.id = task.task_list_id AND tl.completed = TRUE) "
+            + "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED")
+    Flux<Task> findRecurringForUpdateSkipLocked(int partition, int partitions, int limit);
+
+    /**
+     * Finds uncompleted recurring tasks of user with deadline before the given time. Deadline expression is the same as
+     * in index "idx_task_uncompleted_user_id_deadline" so that the index can be used. Tasks of completed task lists are
+     * skipped since such lists are archived.
+     */
+    @Query("SELECT * FROM task WHERE user_id = :userId AND status <> 'COMPLETED' AND recurrence_strategy IS NOT NULL "
+            + "AND COALESCE(CASE WHEN deadline_date IS NOT NULL THEN deadline_date::TIMESTAMP "
+            + "ELSE deadline_date_time END, 'infinity'::TIMESTAMP) < :deadlineBefore "
+            + "AND NOT EXISTS (SELECT 1 FROM task_list tl WHERE tl.id = task.task_list_id AND tl.completed = TRUE)")
+    Flux<Task> findRecurringByUserIdAndDeadlineBefore(Long userId, LocalDateTime deadlineBefore);
+
+    @Modifying
+    @Query("UPDATE task SET recurrence_strategy = NULL WHERE id = :id AND recurrence_strategy IS NOT NULL")
+    Mono<Integer> resetRecurrenceStrategyById(Long id);
 }
@@ -4,10 +4,15 @@ import org.briarheart.tictactask.data.EntityNotFoundException;
 import org.briarheart.tictactask.task.comment.TaskComment;
 import org.briarheart.tictactask.task.tag.TaskTag;
 import org.briarheart.tictactask.user.User;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Service for task managing.
  *
@@ -34,6 +39,30 @@ public interface TaskService {
      */
     Flux<Task> getTasks(GetTasksRequest request, User user, Pageable pageable);
 
+    /**
+     * Returns page of tasks belonging to the given user along with total number of tasks meeting the given criteria.
+     * Unlike separate calls of {@link #getTaskCount(GetTasksRequest, User)} and
+     * {@link #getTasks(GetTasksRequest, User, Pageable)} this method requires only one database query in most cases.
+     *
+     * @param request  request filters (must not be {@code null})
+     * @param user     task author (must not be {@code null})
+     * @param pageable paging restriction
+     * @return page of tasks
+     */
+    Mono<Page<Task>> getTaskPage(GetTasksRequest request, User user, Pageable pageable);
+
+    /**
+     * Returns tasks belonging to the given user and following the task the given cursor points to. Unlike
+     * {@link #getTasks(GetTasksRequest, User, Pageable)} this method ignores page number and uses only page size.
+     *
+     * @param request  request filters (must not be {@code null})
+     * @param user     task author (must not be {@code null})
+     * @param cursor   position of the last task from the previous page or {@code null} to get the first page
+     * @param pageable paging restriction
+     * @return tasks or empty stream when there is no task meeting the given criteria
+     */
+    Flux<Task> getTasks(GetTasksRequest request, User user, TaskCursor cursor, Pageable pageable);
+
     /**
      * Returns task with the given id and belonging to the given user.
      *
@@ -62,7 +91,8 @@ public interface TaskService {
     Mono<Task> updateTask(Task task) throws EntityNotFoundException;
 
     /**
-     * Completes task with the given id and belonging to the given user.
+     * Completes task with the given id and belonging to the given user. Next occurrence of recurring task is created
+     * in the same transaction.
      *
      * @param id   task id
      * @param user task author (must not be {@code null})
@@ -90,6 +120,18 @@ public interface TaskService {
      */
     Mono<Void> deleteTask(Long id, User user) throws EntityNotFoundException;
 
+    /**
+     * Applies operation specified in the given request to all tasks with the given ids and belonging to the given
+     * user. Tasks that are not found or do not belong to the given user are skipped. Next occurrences of completed
+     * recurring tasks are created in the same transaction.
+     *
+     * @param request batch request (must not be {@code null})
+     * @param user    task author (must not be {@code null})
+     * @return results of operation for every requested task id
+     * @throws EntityNotFoundException if task list or tag required for operation is not found
+     */
+    Flux<BatchTaskResult> executeBatch(BatchTaskRequest request, User user) throws EntityNotFoundException;
+
     /**
      * Returns tags for task with the given id and belonging to the given user.
      *
@@ -100,6 +142,16 @@ public interface TaskService {
      */
     Flux<TaskTag> getTags(Long taskId, User user) throws EntityNotFoundException;
 
+    /**
+     * Returns tags for tasks with the given ids and belonging to the given user. Tags of all tasks are loaded at once,
+     * so this method should be preferred to loading of tags of every task separately.
+     *
+     * @param taskIds task ids (must not be {@code null})
+     * @param user    task author (must not be {@code null})
+     * @return task tags grouped by task id; tasks without tags or not belonging to the given user are omitted
+     */
+    Mono<Map<Long, List<TaskTag>>> getTags(Collection<Long> taskIds, User user);
+
     /**
      * Assigns tag with the given id to task with the given id. Both task and tag must belong to the given user.
      *
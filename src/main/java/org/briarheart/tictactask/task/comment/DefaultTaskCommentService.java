@@ -2,6 +2,8 @@ package org.briarheart.tictactask.task.comment;
 
 import lombok.extern.slf4j.Slf4j;
 import org.briarheart.tictactask.data.EntityNotFoundException;
+import org.briarheart.tictactask.task.version.EntityChangeService;
+import org.briarheart.tictactask.task.version.EntityType;
 import org.briarheart.tictactask.user.User;
 import org.briarheart.tictactask.util.DateTimeUtils;
 import org.springframework.stereotype.Service;
@@ -20,10 +22,15 @@ import java.time.LocalDateTime;
 @Slf4j
 public class DefaultTaskCommentService implements TaskCommentService {
     private final TaskCommentRepository taskCommentRepository;
+    private final EntityChangeService entityChangeService;
 
-    public DefaultTaskCommentService(TaskCommentRepository taskCommentRepository) {
+    public DefaultTaskCommentService(TaskCommentRepository taskCommentRepository,
+                                     EntityChangeService entityChangeService) {
         Assert.notNull(taskCommentRepository, "Task comment repository must not be null");
+        Assert.notNull(entityChangeService, "Entity change service must not be null");
+
         this.taskCommentRepository = taskCommentRepository;
+        this.entityChangeService = entityChangeService;
     }
 
     @Transactional
@@ -39,14 +46,19 @@ public class DefaultTaskCommentService implements TaskCommentService {
                     updatedComment.setCreatedAt(existingComment.getCreatedAt());
                     updatedComment.setUpdatedAt(getCurrentTime());
                     return taskCommentRepository.save(updatedComment)
+                            .flatMap(c -> entityChangeService.recordChange(EntityType.COMMENT, c.getId(), c.getUserId())
+                                    .thenReturn(c))
                             .doOnSuccess(result -> log.debug("Task comment with id {} is updated", result.getId()));
                 });
     }
 
+    @Transactional
     @Override
     public Mono<Void> deleteComment(Long id, User user) {
         Assert.notNull(user, "User must not be null");
-        return taskCommentRepository.deleteByIdAndUserId(id, user.getId())
+        return taskCommentRepository.findByIdAndUserId(id, user.getId())
+                .flatMap(comment -> entityChangeService.recordDeletion(EntityType.COMMENT, id, user.getId()))
+                .then(taskCommentRepository.deleteByIdAndUserId(id, user.getId()))
                 .doOnSuccess(v -> log.debug("Task comment with id {} is deleted", id));
     }
 
@@ -15,6 +15,11 @@ public interface TaskCommentRepository extends ReactiveCrudRepository<TaskCommen
     @Query("SELECT * FROM task_comment WHERE id = :id AND user_id = :userId")
     Mono<TaskComment> findByIdAndUserId(Long id, Long userId);
 
+    @Query("SELECT * FROM task_comment WHERE user_id = :userId AND id IN ("
+            + "SELECT entity_id FROM entity_change "
+            + "WHERE user_id = :userId AND entity_type = 'COMMENT' AND version > :version AND deleted = FALSE)")
+    Flux<TaskComment> findChangedByUserIdAndVersionGreaterThan(Long userId, long version);
+
     @Query("DELETE FROM task_comment WHERE id = :id AND user_id = :userId")
     Mono<Void> deleteByIdAndUserId(Long id, Long userId);
 }
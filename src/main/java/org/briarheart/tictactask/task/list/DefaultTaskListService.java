@@ -5,6 +5,11 @@ import org.briarheart.tictactask.data.EntityNotFoundException;
 import org.briarheart.tictactask.task.Task;
 import org.briarheart.tictactask.task.TaskRepository;
 import org.briarheart.tictactask.task.TaskStatus;
+import org.briarheart.tictactask.task.version.EntityChangeService;
+import org.briarheart.tictactask.task.version.EntityType;
+import org.briarheart.tictactask.task.version.TaskCollection;
+import org.briarheart.tictactask.task.version.TaskCollectionCache;
+import org.briarheart.tictactask.task.version.TaskCollectionCacheManager;
 import org.briarheart.tictactask.user.User;
 import org.briarheart.tictactask.util.DateTimeUtils;
 import org.briarheart.tictactask.util.Pageables;
@@ -25,19 +30,29 @@ import reactor.core.publisher.Mono;
 public class DefaultTaskListService implements TaskListService {
     private final TaskListRepository taskListRepository;
     private final TaskRepository taskRepository;
+    private final EntityChangeService entityChangeService;
+    private final TaskCollectionCache<TaskList> uncompletedTaskListCache;
 
-    public DefaultTaskListService(TaskListRepository taskListRepository, TaskRepository taskRepository) {
+    public DefaultTaskListService(TaskListRepository taskListRepository,
+                                  TaskRepository taskRepository,
+                                  EntityChangeService entityChangeService,
+                                  TaskCollectionCacheManager cacheManager) {
         Assert.notNull(taskListRepository, "Task list repository must not be null");
         Assert.notNull(taskRepository, "Task repository must not be null");
+        Assert.notNull(entityChangeService, "Entity change service must not be null");
+        Assert.notNull(cacheManager, "Task collection cache manager must not be null");
 
         this.taskListRepository = taskListRepository;
         this.taskRepository = taskRepository;
+        this.entityChangeService = entityChangeService;
+        this.uncompletedTaskListCache = cacheManager.createCache(TaskCollection.TASK_LISTS, TaskList::new);
     }
 
     @Override
     public Flux<TaskList> getUncompletedTaskLists(User user) {
         Assert.notNull(user, "User must not be null");
-        return taskListRepository.findByCompletedAndUserId(false, user.getId());
+        return uncompletedTaskListCache.get(user.getId(),
+                () -> taskListRepository.findByCompletedAndUserId(false, user.getId()));
     }
 
     @Override
@@ -46,6 +61,7 @@ public class DefaultTaskListService implements TaskListService {
         return findTaskList(id, user.getId());
     }
 
+    @Transactional
     @Override
     public Mono<TaskList> createTaskList(TaskList taskList) {
         Assert.notNull(taskList, "Task list must not be null");
@@ -55,6 +71,7 @@ public class DefaultTaskListService implements TaskListService {
             newTaskList.setCompleted(false);
             newTaskList.setCreatedAt(DateTimeUtils.currentDateTimeUtc());
             return taskListRepository.save(newTaskList)
+                    .flatMap(this::recordTaskListChange)
                     .doOnSuccess(l -> log.debug("Task list with id {} is created", l.getId()));
         });
     }
@@ -68,7 +85,8 @@ public class DefaultTaskListService implements TaskListService {
                     TaskList updatedTaskList = new TaskList(taskList);
                     updatedTaskList.setCompleted(existingTaskList.isCompleted());
                     updatedTaskList.setCreatedAt(existingTaskList.getCreatedAt());
-                    return taskListRepository.save(updatedTaskList);
+                    return taskListRepository.save(updatedTaskList)
+                            .flatMap(this::recordTaskListChange);
                 })
                 .doOnSuccess(l -> log.debug("Task list with id {} is updated", l.getId()));
     }
@@ -78,20 +96,16 @@ public class DefaultTaskListService implements TaskListService {
     public Mono<Void> completeTaskList(Long id, User user) throws EntityNotFoundException {
         return getTaskList(id, user)
                 .filter(taskList -> !taskList.isCompleted())
-                .zipWhen(taskList -> {
-                    Flux<Task> taskFlux = taskRepository.findByTaskListIdAndUserIdAndStatusNotOrderByCreatedAtAsc(id,
-                            user.getId(), TaskStatus.COMPLETED, 0, null);
-                    return taskFlux.flatMap(task -> {
-                        task.setPreviousStatus(task.getStatus());
-                        task.setStatus(TaskStatus.COMPLETED);
-                        return taskRepository.save(task)
-                                .doOnSuccess(t -> log.debug("Task with id {} is completed", t.getId()));
-                    }).then(Mono.just(true));
-                })
-                .flatMap(taskListAndFlag -> {
-                    TaskList taskList = taskListAndFlag.getT1();
+                .zipWhen(taskList -> taskRepository.completeByTaskListIdAndUserId(id, user.getId(),
+                        DateTimeUtils.currentDateTimeUtc())
+                        .flatMap(count -> entityChangeService.recordTaskChangesByTaskListId(id, user.getId())
+                                .thenReturn(count)))
+                .flatMap(taskListAndCount -> {
+                    log.debug("{} task(s) from task list with id {} are completed", taskListAndCount.getT2(), id);
+                    TaskList taskList = taskListAndCount.getT1();
                     taskList.setCompleted(true);
                     return taskListRepository.save(taskList)
+                            .flatMap(this::recordTaskListChange)
                             .doOnSuccess(l -> log.debug("Task list with id {} is completed", id))
                             .then();
                 });
@@ -101,14 +115,15 @@ public class DefaultTaskListService implements TaskListService {
     @Override
     public Mono<Void> deleteTaskList(Long id, User user) throws EntityNotFoundException {
         return getTaskList(id, user)
-                .zipWhen(taskList -> taskRepository.findByTaskListIdAndUserIdOrderByCreatedAtAsc(id, user.getId(), 0,
-                        null)
-                        .flatMap(t -> taskRepository.delete(t)
-                                .doOnSuccess(v -> log.debug("Task with id {} is deleted", t.getId())))
-                        .then(Mono.just(true)))
-                .flatMap(taskListAndFlag -> {
-                    TaskList taskList = taskListAndFlag.getT1();
-                    return taskListRepository.delete(taskList)
+                .zipWhen(taskList -> entityChangeService.recordTaskDeletionsByTaskListId(id, user.getId())
+                        .then(taskRepository.deleteByTaskListIdAndUserId(id, user.getId()))
+                        .doOnSuccess(count -> log.debug("{} task(s) from task list with id {} are deleted", count,
+                                id)))
+                .flatMap(taskListAndCount -> {
+                    TaskList taskList = taskListAndCount.getT1();
+                    return entityChangeService.recordDeletion(EntityType.TASK_LIST, id, user.getId())
+                            .then(taskListRepository.delete(taskList))
+                            .then(uncompletedTaskListCache.invalidateOnCompletion(user.getId()))
                             .doOnSuccess(v -> log.debug("Task list with id {} is deleted", id));
                 });
     }
@@ -134,6 +149,8 @@ public class DefaultTaskListService implements TaskListService {
                 .flatMap(task -> {
                     task.setTaskListId(taskListId);
                     return taskRepository.save(task)
+                            .flatMap(t -> entityChangeService.recordChange(EntityType.TASK, t.getId(), t.getUserId())
+                                    .thenReturn(t))
                             .doOnSuccess(t -> log.debug("Task with id {} is added to task list with id {}",
                                     t.getId(), t.getTaskListId()));
                 })
@@ -150,12 +167,20 @@ public class DefaultTaskListService implements TaskListService {
                 .flatMap(task -> {
                     task.setTaskListId(null);
                     return taskRepository.save(task)
+                            .flatMap(t -> entityChangeService.recordChange(EntityType.TASK, t.getId(), t.getUserId())
+                                    .thenReturn(t))
                             .doOnSuccess(t -> log.debug("Task with id {} is removed from task list with id {}",
                                     t.getId(), taskListId));
                 })
                 .then();
     }
 
+    private Mono<TaskList> recordTaskListChange(TaskList taskList) {
+        return entityChangeService.recordChange(EntityType.TASK_LIST, taskList.getId(), taskList.getUserId())
+                .then(uncompletedTaskListCache.invalidateOnCompletion(taskList.getUserId()))
+                .thenReturn(taskList);
+    }
+
     private Mono<TaskList> findTaskList(Long taskListId, Long userId) {
         return taskListRepository.findByIdAndUserId(taskListId, userId)
                 .switchIfEmpty(Mono.error(new EntityNotFoundException("Task list with id " + taskListId
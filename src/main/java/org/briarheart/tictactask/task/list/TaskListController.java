@@ -10,12 +10,16 @@ import lombok.NoArgsConstructor;
 import lombok.RequiredArgsConstructor;
 import org.briarheart.tictactask.controller.AbstractController;
 import org.briarheart.tictactask.task.TaskController.TaskResponse;
+import org.briarheart.tictactask.task.version.TaskCollection;
+import org.briarheart.tictactask.task.version.TaskCollectionVersionService;
+import org.briarheart.tictactask.user.User;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -41,14 +45,20 @@ import java.net.URI;
 @SecurityRequirement(name = "apiSecurityScheme")
 public class TaskListController extends AbstractController {
     private final TaskListService taskListService;
+    private final TaskCollectionVersionService versionService;
 
     @GetMapping("/uncompleted")
     @Operation(
             summary = "Get uncompleted task lists",
-            description = "Returns uncompleted task lists created by current user"
+            description = "Returns uncompleted task lists created by current user. Response contains weak ETag "
+                    + "that changes on every change of user's task lists and can be sent in \"If-None-Match\" "
+                    + "header to avoid loading of unchanged task lists"
     )
-    public Flux<TaskListResponse> getUncompletedTaskLists(Authentication authentication) {
-        return taskListService.getUncompletedTaskLists(getUser(authentication)).map(TaskListResponse::new);
+    public Mono<ResponseEntity<Flux<TaskListResponse>>> getUncompletedTaskLists(Authentication authentication,
+                                                                                ServerWebExchange exchange) {
+        User user = getUser(authentication);
+        return getCollection(user, versionService.getVersion(TaskCollection.TASK_LISTS, user.getId()), exchange,
+                () -> taskListService.getUncompletedTaskLists(user).map(TaskListResponse::new));
     }
 
     @GetMapping("/{id}")
@@ -1,10 +1,13 @@
 package org.briarheart.tictactask.task.list;
 
+import org.springframework.data.r2dbc.repository.Modifying;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+
 /**
  * @author Roman Chigvintsev
  */
@@ -14,4 +17,14 @@ public interface TaskListRepository extends ReactiveCrudRepository<TaskList, Lon
 
     @Query("SELECT * FROM task_list WHERE id = :id AND user_id = :userId")
     Mono<TaskList> findByIdAndUserId(Long id, Long userId);
+
+    @Query("SELECT * FROM task_list WHERE user_id = :userId AND id IN ("
+            + "SELECT entity_id FROM entity_change "
+            + "WHERE user_id = :userId AND entity_type = 'TASK_LIST' AND version > :version AND deleted = FALSE)")
+    Flux<TaskList> findChangedByUserIdAndVersionGreaterThan(Long userId, long version);
+
+    @Modifying
+    @Query("UPDATE task_list SET completed = FALSE "
+            + "WHERE completed = TRUE AND id IN (SELECT task_list_id FROM task WHERE id IN (:taskIds))")
+    Mono<Integer> restoreByTaskIdIn(Collection<Long> taskIds);
 }
@@ -1,13 +1,59 @@
 package org.briarheart.tictactask.task.recurrence;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
-import lombok.Setter;
+import org.springframework.util.Assert;
 
+import java.time.LocalDate;
 import java.time.Month;
+import java.time.YearMonth;
 
+/**
+ * Reschedules task to the nearest given day of the given month. Task is rescheduled to the last day of month when
+ * month is shorter than the given day (for example, February 29 becomes February 28 in non-leap years). Instances
+ * of this class are immutable.
+ */
+@EqualsAndHashCode
 @Getter
-@Setter
 public class AnnuallyTaskRecurrenceStrategy implements TaskRecurrenceStrategy {
-    private Month month;
-    private int dayOfMonth;
+    private final Month month;
+    private final int dayOfMonth;
+
+    /**
+     * Creates new instance of this class that reschedules task to the same day of the next year.
+     */
+    public AnnuallyTaskRecurrenceStrategy() {
+        this(null, 0);
+    }
+
+    /**
+     * Creates new instance of this class.
+     *
+     * @param month      month or {@code null} to keep month of task
+     * @param dayOfMonth day of month or zero to keep day of task
+     */
+    @JsonCreator
+    public AnnuallyTaskRecurrenceStrategy(@JsonProperty("month") Month month,
+                                          @JsonProperty("dayOfMonth") int dayOfMonth) {
+        this.month = month;
+        this.dayOfMonth = dayOfMonth;
+    }
+
+    @Override
+    public LocalDate nextDate(LocalDate date) {
+        Assert.notNull(date, "Date must not be null");
+        Month targetMonth = month != null ? month : date.getMonth();
+        int day = dayOfMonth > 0 ? dayOfMonth : date.getDayOfMonth();
+        LocalDate result = atDay(YearMonth.of(date.getYear(), targetMonth), day);
+        if (!result.isAfter(date)) {
+            result = atDay(YearMonth.of(date.getYear() + 1, targetMonth), day);
+        }
+        return result;
+    }
+
+    private static LocalDate atDay(YearMonth month, int day) {
+        return month.atDay(Math.min(day, month.lengthOfMonth()));
+    }
 }
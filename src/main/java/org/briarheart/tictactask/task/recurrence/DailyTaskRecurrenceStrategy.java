@@ -1,7 +1,25 @@
 package org.briarheart.tictactask.task.recurrence;
 
+import lombok.EqualsAndHashCode;
+import org.springframework.util.Assert;
+
+import java.time.LocalDate;
+
 /**
  * Reschedules task to the next day.
  */
+@EqualsAndHashCode
 public class DailyTaskRecurrenceStrategy implements TaskRecurrenceStrategy {
+    @Override
+    public LocalDate nextDate(LocalDate date) {
+        Assert.notNull(date, "Date must not be null");
+        return date.plusDays(1);
+    }
+
+    @Override
+    public LocalDate firstDateNotBefore(LocalDate date, LocalDate bound) {
+        Assert.notNull(date, "Date must not be null");
+        Assert.notNull(bound, "Bound must not be null");
+        return date.isBefore(bound) ? bound : date;
+    }
 }
@@ -0,0 +1,206 @@
+package org.briarheart.tictactask.task.recurrence;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.briarheart.tictactask.config.ApplicationProperties;
+import org.briarheart.tictactask.task.Task;
+import org.briarheart.tictactask.task.TaskRepository;
+import org.briarheart.tictactask.task.TaskStatus;
+import org.briarheart.tictactask.task.tag.TaskTagRelationRepository;
+import org.briarheart.tictactask.task.version.EntityChangeService;
+import org.briarheart.tictactask.task.version.EntityType;
+import org.briarheart.tictactask.user.User;
+import org.briarheart.tictactask.util.DateTimeUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Default implementation of {@link TaskRecurrenceService}.
+ *
+ * @author Roman Chigvintsev
+ */
+@Service
+@Slf4j
+public class DefaultTaskRecurrenceService implements TaskRecurrenceService {
+    private final TaskRepository taskRepository;
+    private final TaskTagRelationRepository taskTagRelationRepository;
+    private final EntityChangeService entityChangeService;
+    private final int maxOccurrencesPerTask;
+    private final int maxOccurrenceRangeDays;
+
+    /**
+     * Dates of virtual occurrences mapped to parameters they are computed from. Parameters do not include task id, so
+     * tasks with the same deadline date and recurrence strategy share dates. Changed tasks produce new keys, so entries
+     * never become stale.
+     */
+    private final Cache<OccurrenceKey, List<LocalDate>> occurrenceCache;
+
+    public DefaultTaskRecurrenceService(TaskRepository taskRepository,
+                                       TaskTagRelationRepository taskTagRelationRepository,
+                                       EntityChangeService entityChangeService,
+                                       ApplicationProperties applicationProperties) {
+        Assert.notNull(taskRepository, "Task repository must not be null");
+        Assert.notNull(taskTagRelationRepository, "Task-tag relation repository must not be null");
+        Assert.notNull(entityChangeService, "Entity change service must not be null");
+        Assert.notNull(applicationProperties, "Application properties must not be null");
+
+        ApplicationProperties.TaskRecurrence recurrenceProperties = applicationProperties.getTaskRecurrence();
+        Assert.isTrue(recurrenceProperties.getMaxOccurrencesPerTask() > 0,
+                "Maximum number of occurrences per task must be positive");
+        Assert.isTrue(recurrenceProperties.getMaxOccurrenceRangeDays() > 0,
+                "Maximum number of days in range of occurrences must be positive");
+
+        this.taskRepository = taskRepository;
+        this.taskTagRelationRepository = taskTagRelationRepository;
+        this.entityChangeService = entityChangeService;
+        this.maxOccurrencesPerTask = recurrenceProperties.getMaxOccurrencesPerTask();
+        this.maxOccurrenceRangeDays = recurrenceProperties.getMaxOccurrenceRangeDays();
+        this.occurrenceCache = Caffeine.newBuilder()
+                .maximumSize(recurrenceProperties.getOccurrenceCacheMaxSize())
+                .expireAfterAccess(recurrenceProperties.getOccurrenceCacheTimeToLive())
+                .build();
+    }
+
+    @Override
+    public Mono<Task> createNextOccurrence(Task task) {
+        Assert.notNull(task, "Task must not be null");
+        if (task.getRecurrenceStrategy() == null
+                || (task.getDeadlineDate() == null && task.getDeadlineDateTime() == null)) {
+            return Mono.empty();
+        }
+        // Strategy is reset conditionally since it could be already moved by concurrent transaction
+        return taskRepository.resetRecurrenceStrategyById(task.getId())
+                .filter(updatedRows -> updatedRows > 0)
+                .flatMap(updatedRows -> {
+                    Task nextOccurrence = createNextOccurrenceOf(task);
+                    task.setRecurrenceStrategy(null);
+                    return taskRepository.save(nextOccurrence);
+                })
+                .flatMap(nextOccurrence -> taskTagRelationRepository.copyByTaskId(task.getId(), nextOccurrence.getId())
+                        .then(entityChangeService.recordChange(EntityType.TASK, nextOccurrence.getId(),
+                                nextOccurrence.getUserId()))
+                        .thenReturn(nextOccurrence))
+                .doOnSuccess(nextOccurrence -> {
+                    if (nextOccurrence != null) {
+                        log.debug("Next occurrence of task with id {} is created with id {}", task.getId(),
+                                nextOccurrence.getId());
+                    }
+                });
+    }
+
+    @Transactional
+    @Override
+    public Mono<Integer> createNextOccurrences(int partition, int partitions, int batchSize) {
+        Assert.isTrue(partitions > 0, "Number of partitions must be positive");
+        Assert.isTrue(partition >= 0 && partition < partitions,
+                "Partition must not be negative and must be less than number of partitions");
+        Assert.isTrue(batchSize > 0, "Batch size must be positive");
+        return taskRepository.findRecurringForUpdateSkipLocked(partition, partitions, batchSize)
+                .concatMap(task -> createNextOccurrence(task)
+                        // Recurrence strategy of the current occurrence is reset so it is changed as well
+                        .then(entityChangeService.recordChange(EntityType.TASK, task.getId(), task.getUserId()))
+                        .thenReturn(task))
+                .count()
+                .map(Long::intValue);
+    }
+
+    @Override
+    public Flux<TaskOccurrence> getOccurrences(User user, LocalDate from, LocalDate to) {
+        Assert.notNull(user, "User must not be null");
+        Assert.notNull(from, "Lower bound of deadline date must not be null");
+        Assert.notNull(to, "Upper bound of deadline date must not be null");
+        Assert.isTrue(!to.isBefore(from), "Upper bound of deadline date must not be before lower bound");
+
+        // Otherwise, single request could make every recurring task of user produce maximum number of occurrences
+        if (ChronoUnit.DAYS.between(from, to) >= maxOccurrenceRangeDays) {
+            return Flux.error(new OccurrenceRangeTooLongException("Range of deadline dates must not be longer than "
+                    + maxOccurrenceRangeDays + " day(s)"));
+        }
+        // Tasks with deadline after the range cannot have occurrences within it
+        return taskRepository.findRecurringByUserIdAndDeadlineBefore(user.getId(), to.plusDays(1).atStartOfDay())
+                .flatMapIterable(task -> getOccurrences(task, from, to));
+    }
+
+    protected LocalDateTime getCurrentTime() {
+        return DateTimeUtils.currentDateTimeUtc();
+    }
+
+    private Task createNextOccurrenceOf(Task task) {
+        TaskRecurrenceStrategy strategy = task.getRecurrenceStrategy();
+        LocalDateTime now = getCurrentTime();
+
+        Task nextOccurrence = new Task(task);
+        nextOccurrence.setId(null);
+        TaskStatus status = task.getStatus() == TaskStatus.COMPLETED ? task.getPreviousStatus() : task.getStatus();
+        // Tasks with deadline are processed ones
+        nextOccurrence.setStatus(Objects.requireNonNullElse(status, TaskStatus.PROCESSED));
+        nextOccurrence.setPreviousStatus(null);
+        nextOccurrence.setCreatedAt(now);
+        nextOccurrence.setCompletedAt(null);
+
+        if (task.getDeadlineDate() != null) {
+            LocalDate deadline = strategy.nextDate(task.getDeadlineDate());
+            nextOccurrence.setDeadlineDate(strategy.firstDateNotBefore(deadline, now.toLocalDate()));
+        } else {
+            LocalTime time = task.getDeadlineDateTime().toLocalTime();
+            LocalDate date = strategy.nextDate(task.getDeadlineDateTime().toLocalDate());
+            date = strategy.firstDateNotBefore(date, now.toLocalDate());
+            if (LocalDateTime.of(date, time).isBefore(now)) {
+                date = strategy.nextDate(date);
+            }
+            nextOccurrence.setDeadlineDateTime(LocalDateTime.of(date, time));
+        }
+        return nextOccurrence;
+    }
+
+    private List<TaskOccurrence> getOccurrences(Task task, LocalDate from, LocalDate to) {
+        LocalDateTime deadlineDateTime = task.getDeadlineDateTime();
+        LocalDate deadlineDate = deadlineDateTime != null ? deadlineDateTime.toLocalDate() : task.getDeadlineDate();
+        OccurrenceKey key = new OccurrenceKey(deadlineDate, task.getRecurrenceStrategy(), from, to);
+        List<LocalDate> dates = occurrenceCache.get(key, this::getOccurrenceDates);
+
+        List<TaskOccurrence> occurrences = new ArrayList<>(dates.size());
+        for (LocalDate date : dates) {
+            if (deadlineDateTime != null) {
+                LocalDateTime dateTime = LocalDateTime.of(date, deadlineDateTime.toLocalTime());
+                occurrences.add(new TaskOccurrence(task.getId(), null, dateTime));
+            } else {
+                occurrences.add(new TaskOccurrence(task.getId(), date, null));
+            }
+        }
+        return occurrences;
+    }
+
+    private List<LocalDate> getOccurrenceDates(OccurrenceKey key) {
+        TaskRecurrenceStrategy strategy = key.getStrategy();
+        // Occurrences before the range are skipped without visiting every one of them when strategy allows
+        LocalDate date = strategy.firstDateNotBefore(strategy.nextDate(key.getDeadlineDate()), key.getFrom());
+        List<LocalDate> dates = new ArrayList<>();
+        while (!date.isAfter(key.getTo()) && dates.size() < maxOccurrencesPerTask) {
+            dates.add(date);
+            date = strategy.nextDate(date);
+        }
+        return List.copyOf(dates);
+    }
+
+    @Value
+    private static class OccurrenceKey {
+        LocalDate deadlineDate;
+        TaskRecurrenceStrategy strategy;
+        LocalDate from;
+        LocalDate to;
+    }
+}
@@ -1,10 +1,52 @@
 package org.briarheart.tictactask.task.recurrence;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
-import lombok.Setter;
+import org.springframework.util.Assert;
 
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * Reschedules task to the nearest given day of month. Task is rescheduled to the last day of month when month is
+ * shorter than the given day. Instances of this class are immutable.
+ */
+@EqualsAndHashCode
 @Getter
-@Setter
 public class MonthlyTaskRecurrenceStrategy implements TaskRecurrenceStrategy {
-    private int dayOfMonth;
+    private final int dayOfMonth;
+
+    /**
+     * Creates new instance of this class that reschedules task to the same day of the next month.
+     */
+    public MonthlyTaskRecurrenceStrategy() {
+        this(0);
+    }
+
+    /**
+     * Creates new instance of this class.
+     *
+     * @param dayOfMonth day of month or zero to reschedule task to the same day of the next month
+     */
+    @JsonCreator
+    public MonthlyTaskRecurrenceStrategy(@JsonProperty("dayOfMonth") int dayOfMonth) {
+        this.dayOfMonth = dayOfMonth;
+    }
+
+    @Override
+    public LocalDate nextDate(LocalDate date) {
+        Assert.notNull(date, "Date must not be null");
+        int day = dayOfMonth > 0 ? dayOfMonth : date.getDayOfMonth();
+        LocalDate result = atDay(YearMonth.from(date), day);
+        if (!result.isAfter(date)) {
+            result = atDay(YearMonth.from(date).plusMonths(1), day);
+        }
+        return result;
+    }
+
+    private static LocalDate atDay(YearMonth month, int day) {
+        return month.atDay(Math.min(day, month.lengthOfMonth()));
+    }
 }
@@ -0,0 +1,20 @@
+package org.briarheart.tictactask.task.recurrence;
+
+/**
+ * Exception indicating that range of dates within which occurrences of recurring tasks are requested is longer than
+ * allowed.
+ *
+ * @author Roman Chigvintsev
+ * @see TaskRecurrenceService#getOccurrences(org.briarheart.tictactask.user.User, java.time.LocalDate,
+ * java.time.LocalDate)
+ */
+public class OccurrenceRangeTooLongException extends RuntimeException {
+    /**
+     * Creates new instance of this class with the given error message.
+     *
+     * @param message error message
+     */
+    public OccurrenceRangeTooLongException(String message) {
+        super(message);
+    }
+}
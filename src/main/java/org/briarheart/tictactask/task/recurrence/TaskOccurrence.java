@@ -0,0 +1,20 @@
+package org.briarheart.tictactask.task.recurrence;
+
+import lombok.Value;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Virtual occurrence of recurring task that is not created yet. Occurrence has either deadline date or deadline
+ * date/time depending on deadline of task.
+ *
+ * @author Roman Chigvintsev
+ * @see TaskRecurrenceService#getOccurrences(org.briarheart.tictactask.user.User, LocalDate, LocalDate)
+ */
+@Value
+public class TaskOccurrence {
+    Long taskId;
+    LocalDate deadlineDate;
+    LocalDateTime deadlineDateTime;
+}
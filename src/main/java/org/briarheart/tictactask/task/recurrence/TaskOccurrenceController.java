@@ -0,0 +1,75 @@
+package org.briarheart.tictactask.task.recurrence;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import org.briarheart.tictactask.controller.AbstractController;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * REST-controller for getting virtual occurrences of recurring tasks.
+ *
+ * @author Roman Chigvintsev
+ */
+@RestController
+@RequestMapping("/api/v1/tasks/occurrences")
+@RequiredArgsConstructor
+@Tag(name = "Task occurrences", description = "Allows to get future occurrences of recurring tasks")
+@SecurityRequirement(name = "apiSecurityScheme")
+public class TaskOccurrenceController extends AbstractController {
+    private final TaskRecurrenceService taskRecurrenceService;
+
+    @GetMapping
+    @Operation(
+            summary = "Get occurrences of recurring tasks",
+            description = "Returns future occurrences of uncompleted recurring tasks of current user whose deadlines "
+                    + "fall within the given range of dates. Occurrences are computed on the fly and do not exist "
+                    + "as tasks until previous occurrence is completed. Number of occurrences of single task and "
+                    + "length of the range are limited."
+    )
+    public Flux<TaskOccurrenceResponse> getOccurrences(
+            @Parameter(description = "Lower bound of deadline date, inclusive",
+                    schema = @Schema(example = "2022-01-01"))
+            @RequestParam LocalDate from,
+            @Parameter(description = "Upper bound of deadline date, inclusive",
+                    schema = @Schema(example = "2022-01-31"))
+            @RequestParam LocalDate to,
+            Authentication authentication
+    ) {
+        if (to.isBefore(from)) {
+            return Flux.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Upper bound of deadline date must not be before lower bound"));
+        }
+        return taskRecurrenceService.getOccurrences(getUser(authentication), from, to)
+                .map(TaskOccurrenceResponse::new);
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class TaskOccurrenceResponse {
+        private Long taskId;
+        private LocalDate deadlineDate;
+        private LocalDateTime deadlineDateTime;
+
+        public TaskOccurrenceResponse(TaskOccurrence occurrence) {
+            this.taskId = occurrence.getTaskId();
+            this.deadlineDate = occurrence.getDeadlineDate();
+            this.deadlineDateTime = occurrence.getDeadlineDateTime();
+        }
+    }
+}
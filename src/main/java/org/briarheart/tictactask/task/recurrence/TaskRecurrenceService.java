@@ -0,0 +1,62 @@
+package org.briarheart.tictactask.task.recurrence;
+
+import org.briarheart.tictactask.task.Task;
+import org.briarheart.tictactask.user.User;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * Service that creates next occurrences of recurring tasks. Deadline of the next occurrence is computed from deadline
+ * of the current occurrence using {@link TaskRecurrenceStrategy} of task. Occurrences that would be already overdue
+ * are skipped.
+ * <p>
+ * Next occurrence is created only when the current one is completed, so every series has at most one outstanding
+ * occurrence. Overdue occurrence is left as is until user completes it: occurrences missed in the meantime are
+ * skipped rather than accumulated.
+ * <p>
+ * Every series of recurring tasks has only one task with recurrence strategy: the last occurrence. When next
+ * occurrence is created recurrence strategy is moved to it from the current one, so the same occurrence is never
+ * created twice.
+ *
+ * @author Roman Chigvintsev
+ */
+public interface TaskRecurrenceService {
+    /**
+     * Creates next occurrence of the given recurring task. This method must be called within transaction that
+     * completes the given task. Recurrence strategy of the given task is reset, so it should be saved afterwards.
+     *
+     * @param task recurring task (must not be {@code null})
+     * @return next occurrence or empty {@link Mono} if the given task is not recurring, has no deadline or its next
+     * occurrence is already created
+     */
+    Mono<Task> createNextOccurrence(Task task);
+
+    /**
+     * Creates next occurrences of completed recurring tasks whose next occurrences were not created on completion.
+     * Only tasks of users from the given partition are processed. Only one batch of tasks is processed within single
+     * transaction. This method is safe to be called concurrently by several application instances: every instance gets
+     * its own batch.
+     *
+     * @param partition  partition of users (must not be negative and must be less than number of partitions)
+     * @param partitions total number of partitions (must be positive)
+     * @param batchSize  maximum number of tasks to process (must be positive)
+     * @return number of processed tasks
+     */
+    Mono<Integer> createNextOccurrences(int partition, int partitions, int batchSize);
+
+    /**
+     * Returns virtual occurrences of uncompleted recurring tasks of the given user whose deadlines fall within the
+     * given range of dates. Occurrences are computed on the fly and are never saved. Deadline of task itself is not
+     * considered as occurrence. Number of occurrences of single task is limited, occurrences above the limit are
+     * omitted. Occurrences are grouped by task and ordered by deadline within every group.
+     *
+     * @param user current user (must not be {@code null})
+     * @param from lower bound of deadline date, inclusive (must not be {@code null})
+     * @param to   upper bound of deadline date, inclusive (must not be {@code null} or before lower bound)
+     * @return virtual occurrences of recurring tasks
+     * @throws OccurrenceRangeTooLongException if range of dates is longer than allowed
+     */
+    Flux<TaskOccurrence> getOccurrences(User user, LocalDate from, LocalDate to);
+}
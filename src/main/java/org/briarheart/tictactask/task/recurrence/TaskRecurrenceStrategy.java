@@ -2,6 +2,9 @@ package org.briarheart.tictactask.task.recurrence;
 
 import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import org.springframework.util.Assert;
+
+import java.time.LocalDate;
 
 /**
  * Strategy interface to reschedule tasks.
@@ -14,4 +17,30 @@ import com.fasterxml.jackson.annotation.JsonTypeInfo;
         @JsonSubTypes.Type(value = AnnuallyTaskRecurrenceStrategy.class, name = "annually")
 })
 public interface TaskRecurrenceStrategy {
+    /**
+     * Returns date of the next occurrence of task.
+     *
+     * @param date date of the current occurrence (must not be {@code null})
+     * @return date of the next occurrence that is always after the given date
+     */
+    LocalDate nextDate(LocalDate date);
+
+    /**
+     * Returns date of the first occurrence of task that is not before the given bound. Implementations should override
+     * this method when it is possible to skip occurrences before the bound without visiting every one of them.
+     *
+     * @param date  date of the current occurrence (must not be {@code null})
+     * @param bound lower bound of date (must not be {@code null})
+     * @return the given date if it is not before the bound, otherwise date of the first next occurrence that is not
+     * before the bound
+     */
+    default LocalDate firstDateNotBefore(LocalDate date, LocalDate bound) {
+        Assert.notNull(date, "Date must not be null");
+        Assert.notNull(bound, "Bound must not be null");
+        LocalDate result = date;
+        while (result.isBefore(bound)) {
+            result = nextDate(result);
+        }
+        return result;
+    }
 }
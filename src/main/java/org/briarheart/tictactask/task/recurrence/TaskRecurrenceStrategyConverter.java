@@ -2,7 +2,10 @@ package org.briarheart.tictactask.task.recurrence;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import io.jsonwebtoken.lang.Assert;
+import io.r2dbc.postgresql.codec.Json;
 import org.briarheart.tictactask.data.convert.converter.CustomConverter;
 import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.stereotype.Component;
@@ -10,12 +13,23 @@ import org.springframework.stereotype.Component;
 import java.util.Set;
 
 /**
- * Implementation of {@link CustomConverter} to convert instances of {@link TaskRecurrenceStrategy} to JSON and vice
- * versa.
+ * Implementation of {@link CustomConverter} to convert instances of {@link TaskRecurrenceStrategy} to JSONB values
+ * and vice versa.
+ * <p>
+ * Most tasks share a few distinct recurrence strategies, so converted strategies are interned by their JSON
+ * representation: JSON is parsed only once for every distinct strategy and all rows with the same strategy get the
+ * same instance. This is safe since recurrence strategies are immutable.
+ *
+ * @author Roman Chigvintsev
  */
 @Component
 public class TaskRecurrenceStrategyConverter implements CustomConverter {
+    private static final int MAX_INTERNED_STRATEGIES = 1_000;
+
     private final ObjectMapper objectMapper;
+    private final Cache<String, TaskRecurrenceStrategy> internedStrategies = Caffeine.newBuilder()
+            .maximumSize(MAX_INTERNED_STRATEGIES)
+            .build();
 
     public TaskRecurrenceStrategyConverter(ObjectMapper objectMapper) {
         Assert.notNull(objectMapper, "Object mapper must not be null");
@@ -25,8 +39,8 @@ public class TaskRecurrenceStrategyConverter implements CustomConverter {
     @Override
     public Set<ConvertiblePair> getConvertibleTypes() {
         return Set.of(
-                new ConvertiblePair(TaskRecurrenceStrategy.class, String.class),
-                new ConvertiblePair(String.class, TaskRecurrenceStrategy.class)
+                new ConvertiblePair(TaskRecurrenceStrategy.class, Json.class),
+                new ConvertiblePair(Json.class, TaskRecurrenceStrategy.class)
         );
     }
 
@@ -36,20 +50,16 @@ public class TaskRecurrenceStrategyConverter implements CustomConverter {
             return null;
         }
 
-        return source instanceof String
-                ? convertFromJson((String) source)
-                : convertToJson((TaskRecurrenceStrategy) source);
+        return source instanceof Json json
+                ? internedStrategies.get(json.asString(), this::convertFromJson)
+                : Json.of(convertToJson((TaskRecurrenceStrategy) source));
     }
 
     private TaskRecurrenceStrategy convertFromJson(String json) {
-        if (json.isBlank()) {
-            return null;
-        }
-
         try {
             return objectMapper.readValue(json, TaskRecurrenceStrategy.class);
         } catch (JsonProcessingException e) {
-            throw new RuntimeException("Failed to convert JSON string '" + json + "' to instance of "
+            throw new IllegalStateException("Failed to convert JSON string '" + json + "' to instance of "
                     + TaskRecurrenceStrategy.class.getName() + ": " + e.getMessage(), e);
         }
     }
@@ -58,7 +68,7 @@ public class TaskRecurrenceStrategyConverter implements CustomConverter {
         try {
             return objectMapper.writeValueAsString(recurrenceStrategy);
         } catch (JsonProcessingException e) {
-            throw new RuntimeException("Failed to convert instance of " + TaskRecurrenceStrategy.class.getName()
+            throw new IllegalStateException("Failed to convert instance of " + TaskRecurrenceStrategy.class.getName()
                     + " to JSON: " + e.getMessage(), e);
         }
     }
@@ -0,0 +1,112 @@
+package org.briarheart.tictactask.task.recurrence;
+
+import lombok.extern.slf4j.Slf4j;
+import org.briarheart.tictactask.config.ApplicationProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Background worker that periodically creates next occurrences of recurring tasks which were completed without
+ * creation of next occurrence (for example, tasks of task list that was completed and then restored). Overdue tasks
+ * that are not completed are not processed: see {@link TaskRecurrenceService}.
+ * <p>
+ * Tasks are partitioned by user id. Every sweep goes through all the partitions starting from a random one, so
+ * application instances running this worker simultaneously start from different parts of the table instead of
+ * competing for the same rows. Tasks of every partition are processed in batches, each batch in its own transaction.
+ * Since tasks of a batch are locked with {@code FOR UPDATE SKIP LOCKED} instances that happen to process the same
+ * partition still share the work without coordination.
+ *
+ * @author Roman Chigvintsev
+ * @see TaskRecurrenceService#createNextOccurrences(int, int, int)
+ */
+@Component
+@ConditionalOnProperty(name = "application.task-recurrence.enabled", matchIfMissing = true)
+@Slf4j
+public class TaskRecurrenceSweeper implements SmartLifecycle {
+    private final TaskRecurrenceService taskRecurrenceService;
+    private final ApplicationProperties.TaskRecurrence recurrenceProperties;
+
+    private Disposable subscription;
+
+    public TaskRecurrenceSweeper(TaskRecurrenceService taskRecurrenceService,
+                                 ApplicationProperties applicationProperties) {
+        Assert.notNull(taskRecurrenceService, "Task recurrence service must not be null");
+        Assert.notNull(applicationProperties, "Application properties must not be null");
+
+        this.taskRecurrenceService = taskRecurrenceService;
+        this.recurrenceProperties = applicationProperties.getTaskRecurrence();
+        Assert.isTrue(recurrenceProperties.getBatchSize() > 0, "Batch size must be positive");
+        Assert.isTrue(recurrenceProperties.getPartitions() > 0, "Number of partitions must be positive");
+    }
+
+    @Override
+    public synchronized void start() {
+        if (isRunning()) {
+            return;
+        }
+        subscription = Flux.interval(Duration.ZERO, recurrenceProperties.getPollInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> sweep().onErrorResume(e -> {
+                    log.error("Failed to create next occurrences of recurring tasks", e);
+                    return Mono.empty();
+                }), 1)
+                .subscribe();
+        log.debug("Task recurrence sweeper is started");
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+            subscription = null;
+        }
+        log.debug("Task recurrence sweeper is stopped");
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return subscription != null && !subscription.isDisposed();
+    }
+
+    /**
+     * Processes recurring tasks of all the partitions one after another starting from a random partition.
+     *
+     * @return number of processed tasks
+     */
+    Mono<Integer> sweep() {
+        int partitions = recurrenceProperties.getPartitions();
+        int firstPartition = getFirstPartition(partitions);
+        return Flux.range(0, partitions)
+                .concatMap(i -> sweep((firstPartition + i) % partitions, partitions))
+                .reduce(0, Integer::sum)
+                .doOnNext(count -> {
+                    if (count > 0) {
+                        log.debug("Next occurrences of {} recurring task(s) are created", count);
+                    }
+                });
+    }
+
+    protected int getFirstPartition(int partitions) {
+        return ThreadLocalRandom.current().nextInt(partitions);
+    }
+
+    /**
+     * Processes recurring tasks of the given partition batch by batch while full batches are returned.
+     */
+    private Mono<Integer> sweep(int partition, int partitions) {
+        int batchSize = recurrenceProperties.getBatchSize();
+        return taskRecurrenceService.createNextOccurrences(partition, partitions, batchSize)
+                .expand(count -> count >= batchSize
+                        ? taskRecurrenceService.createNextOccurrences(partition, partitions, batchSize)
+                        : Mono.empty())
+                .reduce(0, Integer::sum);
+    }
+}
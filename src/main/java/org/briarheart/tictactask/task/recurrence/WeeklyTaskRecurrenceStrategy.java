@@ -1,12 +1,61 @@
 package org.briarheart.tictactask.task.recurrence;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
-import lombok.Setter;
+import org.springframework.util.Assert;
 
 import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
 
+/**
+ * Reschedules task to the next given day of week. Instances of this class are immutable.
+ */
+@EqualsAndHashCode
 @Getter
-@Setter
 public class WeeklyTaskRecurrenceStrategy implements TaskRecurrenceStrategy {
-    private DayOfWeek dayOfWeek;
+    private final DayOfWeek dayOfWeek;
+
+    /**
+     * Creates new instance of this class that reschedules task to the same day of the next week.
+     */
+    public WeeklyTaskRecurrenceStrategy() {
+        this(null);
+    }
+
+    /**
+     * Creates new instance of this class.
+     *
+     * @param dayOfWeek day of week or {@code null} to reschedule task to the same day of the next week
+     */
+    @JsonCreator
+    public WeeklyTaskRecurrenceStrategy(@JsonProperty("dayOfWeek") DayOfWeek dayOfWeek) {
+        this.dayOfWeek = dayOfWeek;
+    }
+
+    @Override
+    public LocalDate nextDate(LocalDate date) {
+        Assert.notNull(date, "Date must not be null");
+        if (dayOfWeek == null) {
+            return date.plusWeeks(1);
+        }
+        return date.with(TemporalAdjusters.next(dayOfWeek));
+    }
+
+    @Override
+    public LocalDate firstDateNotBefore(LocalDate date, LocalDate bound) {
+        Assert.notNull(date, "Date must not be null");
+        Assert.notNull(bound, "Bound must not be null");
+        if (!date.isBefore(bound)) {
+            return date;
+        }
+        if (dayOfWeek == null) {
+            long weeks = (ChronoUnit.DAYS.between(date, bound) + 6) / 7;
+            return date.plusWeeks(weeks);
+        }
+        return bound.with(TemporalAdjusters.nextOrSame(dayOfWeek));
+    }
 }
@@ -0,0 +1,20 @@
+package org.briarheart.tictactask.task.tag;
+
+import reactor.core.publisher.Flux;
+import reactor.util.function.Tuple2;
+
+import java.util.Collection;
+
+/**
+ * @author Roman Chigvintsev
+ */
+public interface CustomizedTaskTagRepository {
+    /**
+     * Finds tags assigned to any of the given tasks using single query.
+     *
+     * @param taskIds ids of tasks (must not be {@code null})
+     * @param userId  id of tasks owner
+     * @return pairs of task id and tag assigned to that task ordered by time of assignment
+     */
+    Flux<Tuple2<Long, TaskTag>> findByTaskIdInAndUserId(Collection<Long> taskIds, Long userId);
+}
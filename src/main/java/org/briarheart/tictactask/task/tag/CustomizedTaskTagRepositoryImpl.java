@@ -0,0 +1,51 @@
+package org.briarheart.tictactask.task.tag;
+
+import io.jsonwebtoken.lang.Assert;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+import java.util.Collection;
+import java.util.function.BiFunction;
+
+/**
+ * @author Roman Chigvintsev
+ */
+@Component
+public class CustomizedTaskTagRepositoryImpl implements CustomizedTaskTagRepository {
+    // Ids are bound as single array parameter so that SQL does not depend on the number of tasks
+    @SuppressWarnings("SqlResolve")
+    private static final String SQL_FIND_TAGS_BY_TASK_ID_IN = "SELECT tt.task_id, t.* "
+            + "FROM tag t "
+            + "INNER JOIN tasks_tags tt ON tt.tag_id = t.id "
+            + "WHERE tt.task_id = ANY(:taskIds) AND t.user_id = :userId "
+            + "ORDER BY tt.task_id, tt.created_at";
+
+    private final R2dbcEntityTemplate entityTemplate;
+
+    public CustomizedTaskTagRepositoryImpl(R2dbcEntityTemplate entityTemplate) {
+        Assert.notNull(entityTemplate, "Entity template must not be null");
+        this.entityTemplate = entityTemplate;
+    }
+
+    @Override
+    public Flux<Tuple2<Long, TaskTag>> findByTaskIdInAndUserId(Collection<Long> taskIds, Long userId) {
+        Assert.notNull(taskIds, "Task ids must not be null");
+        if (taskIds.isEmpty()) {
+            return Flux.empty();
+        }
+
+        BiFunction<Row, RowMetadata, TaskTag> rowMapper = entityTemplate.getDataAccessStrategy()
+                .getRowMapper(TaskTag.class);
+        return entityTemplate.getDatabaseClient().sql(SQL_FIND_TAGS_BY_TASK_ID_IN)
+                .bind("taskIds", taskIds.toArray(new Long[0]))
+                .bind("userId", userId)
+                .map((row, rowMetadata) -> Tuples.of(row.get("task_id", Long.class),
+                        rowMapper.apply(row, rowMetadata)))
+                .all();
+    }
+}
@@ -6,6 +6,11 @@ import org.briarheart.tictactask.data.EntityNotFoundException;
 import org.briarheart.tictactask.task.Task;
 import org.briarheart.tictactask.task.TaskRepository;
 import org.briarheart.tictactask.task.TaskStatus;
+import org.briarheart.tictactask.task.version.EntityChangeService;
+import org.briarheart.tictactask.task.version.EntityType;
+import org.briarheart.tictactask.task.version.TaskCollection;
+import org.briarheart.tictactask.task.version.TaskCollectionCache;
+import org.briarheart.tictactask.task.version.TaskCollectionCacheManager;
 import org.briarheart.tictactask.user.User;
 import org.briarheart.tictactask.util.DateTimeUtils;
 import org.briarheart.tictactask.util.Pageables;
@@ -27,19 +32,28 @@ import reactor.core.publisher.Mono;
 public class DefaultTaskTagService implements TaskTagService {
     private final TaskTagRepository tagRepository;
     private final TaskRepository taskRepository;
+    private final EntityChangeService entityChangeService;
+    private final TaskCollectionCache<TaskTag> tagCache;
 
-    public DefaultTaskTagService(TaskTagRepository tagRepository, TaskRepository taskRepository) {
+    public DefaultTaskTagService(TaskTagRepository tagRepository,
+                                 TaskRepository taskRepository,
+                                 EntityChangeService entityChangeService,
+                                 TaskCollectionCacheManager cacheManager) {
         Assert.notNull(tagRepository, "Tag repository must not be null");
         Assert.notNull(taskRepository, "Task repository must not be null");
+        Assert.notNull(entityChangeService, "Entity change service must not be null");
+        Assert.notNull(cacheManager, "Task collection cache manager must not be null");
 
         this.tagRepository = tagRepository;
         this.taskRepository = taskRepository;
+        this.entityChangeService = entityChangeService;
+        this.tagCache = cacheManager.createCache(TaskCollection.TAGS, TaskTag::new);
     }
 
     @Override
     public Flux<TaskTag> getTags(User user) {
         Assert.notNull(user, "User must not be null");
-        return tagRepository.findByUserIdOrderByCreatedAtDesc(user.getId());
+        return tagCache.get(user.getId(), () -> tagRepository.findByUserIdOrderByCreatedAtDesc(user.getId()));
     }
 
     @Override
@@ -57,6 +71,7 @@ public class DefaultTaskTagService implements TaskTagService {
                     newTag.setId(null);
                     newTag.setCreatedAt(DateTimeUtils.currentDateTimeUtc());
                     return tagRepository.save(newTag)
+                            .flatMap(this::recordTagChange)
                             .doOnSuccess(t -> log.debug("Tag with id {} is created", t.getId()));
                 })
                 .onErrorMap(e -> handleError(e, tag));
@@ -72,6 +87,7 @@ public class DefaultTaskTagService implements TaskTagService {
                     updatedTag.setId(existingTag.getId());
                     updatedTag.setCreatedAt(existingTag.getCreatedAt());
                     return tagRepository.save(updatedTag)
+                            .flatMap(this::recordTagChange)
                             .doOnSuccess(t -> log.debug("Tag with id {} is updated", t.getId()));
                 })
                 .onErrorMap(e -> handleError(e, tag));
@@ -81,7 +97,10 @@ public class DefaultTaskTagService implements TaskTagService {
     @Override
     public Mono<Void> deleteTag(Long id, User user) throws EntityNotFoundException {
         return getTag(id, user)
-                .flatMap(tagRepository::delete)
+                .flatMap(tag -> entityChangeService.recordTaskChangesByTagId(id, user.getId())
+                        .then(entityChangeService.recordDeletion(EntityType.TAG, id, user.getId()))
+                        .then(tagRepository.delete(tag))
+                        .then(tagCache.invalidateOnCompletion(user.getId())))
                 .doOnSuccess(v -> log.debug("Tag with id {} is deleted", id));
     }
 
@@ -100,6 +119,12 @@ public class DefaultTaskTagService implements TaskTagService {
                 .switchIfEmpty(Mono.error(new EntityNotFoundException("Tag with id " + tagId + " is not found")));
     }
 
+    private Mono<TaskTag> recordTagChange(TaskTag tag) {
+        return entityChangeService.recordChange(EntityType.TAG, tag.getId(), tag.getUserId())
+                .then(tagCache.invalidateOnCompletion(tag.getUserId()))
+                .thenReturn(tag);
+    }
+
     private Throwable handleError(Throwable e, TaskTag tag) {
         if (e instanceof DataIntegrityViolationException) {
             String message = "Tag with name \"" + tag.getName() + "\" already exists";
@@ -10,12 +10,16 @@ import lombok.NoArgsConstructor;
 import lombok.RequiredArgsConstructor;
 import org.briarheart.tictactask.controller.AbstractController;
 import org.briarheart.tictactask.task.TaskController.TaskResponse;
+import org.briarheart.tictactask.task.version.TaskCollection;
+import org.briarheart.tictactask.task.version.TaskCollectionVersionService;
+import org.briarheart.tictactask.user.User;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -37,11 +41,20 @@ import java.net.URI;
 @SecurityRequirement(name = "apiSecurityScheme")
 public class TaskTagController extends AbstractController {
     private final TaskTagService taskTagService;
+    private final TaskCollectionVersionService versionService;
 
     @GetMapping
-    @Operation(summary = "Get all tags", description = "Returns all tags created by current user")
-    public Flux<TaskTagResponse> getTags(Authentication authentication) {
-        return taskTagService.getTags(getUser(authentication)).map(TaskTagResponse::new);
+    @Operation(
+            summary = "Get all tags",
+            description = "Returns all tags created by current user. Response contains weak ETag that changes on "
+                    + "every change of user's tags and can be sent in \"If-None-Match\" header to avoid loading of "
+                    + "unchanged tags"
+    )
+    public Mono<ResponseEntity<Flux<TaskTagResponse>>> getTags(Authentication authentication,
+                                                               ServerWebExchange exchange) {
+        User user = getUser(authentication);
+        return getCollection(user, versionService.getVersion(TaskCollection.TAGS, user.getId()), exchange,
+                () -> taskTagService.getTags(user).map(TaskTagResponse::new));
     }
 
     @GetMapping("/{id}")
@@ -1,9 +1,12 @@
 package org.briarheart.tictactask.task.tag;
 
+import org.springframework.data.r2dbc.repository.Modifying;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+
 /**
  * @author Roman Chigvintsev
  */
@@ -14,4 +17,18 @@ public interface TaskTagRelationRepository
 
     @Query("DELETE FROM tasks_tags WHERE task_id = :taskId AND tag_id = :tagId")
     Mono<Void> deleteByTaskIdAndTagId(Long taskId, Long tagId);
+
+    @Modifying
+    @Query("INSERT INTO tasks_tags (task_id, tag_id) SELECT id, :tagId FROM task WHERE id IN (:taskIds) "
+            + "ON CONFLICT DO NOTHING")
+    Mono<Integer> createByTaskIdIn(Collection<Long> taskIds, Long tagId);
+
+    @Modifying
+    @Query("INSERT INTO tasks_tags (task_id, tag_id) SELECT :targetTaskId, tag_id FROM tasks_tags "
+            + "WHERE task_id = :sourceTaskId ON CONFLICT DO NOTHING")
+    Mono<Integer> copyByTaskId(Long sourceTaskId, Long targetTaskId);
+
+    @Modifying
+    @Query("DELETE FROM tasks_tags WHERE task_id IN (:taskIds) AND tag_id = :tagId")
+    Mono<Integer> deleteByTaskIdInAndTagId(Collection<Long> taskIds, Long tagId);
 }
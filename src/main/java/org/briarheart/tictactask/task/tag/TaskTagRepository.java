@@ -8,7 +8,7 @@ import reactor.core.publisher.Mono;
 /**
  * @author Roman Chigvintsev
  */
-public interface TaskTagRepository extends ReactiveCrudRepository<TaskTag, Long> {
+public interface TaskTagRepository extends ReactiveCrudRepository<TaskTag, Long>, CustomizedTaskTagRepository {
     @Query("SELECT * FROM tag WHERE user_id = :userId ORDER BY created_at DESC")
     Flux<TaskTag> findByUserIdOrderByCreatedAtDesc(Long userId);
 
@@ -21,4 +21,9 @@ public interface TaskTagRepository extends ReactiveCrudRepository<TaskTag, Long>
 
     @Query("SELECT * FROM tag WHERE id = :id AND user_id = :userId")
     Mono<TaskTag> findByIdAndUserId(Long id, Long userId);
+
+    @Query("SELECT * FROM tag WHERE user_id = :userId AND id IN ("
+            + "SELECT entity_id FROM entity_change "
+            + "WHERE user_id = :userId AND entity_type = 'TAG' AND version > :version AND deleted = FALSE)")
+    Flux<TaskTag> findChangedByUserIdAndVersionGreaterThan(Long userId, long version);
 }
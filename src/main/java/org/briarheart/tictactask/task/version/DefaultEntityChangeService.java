@@ -0,0 +1,189 @@
+package org.briarheart.tictactask.task.version;
+
+import org.briarheart.tictactask.task.Task;
+import org.briarheart.tictactask.task.TaskRepository;
+import org.briarheart.tictactask.task.comment.TaskComment;
+import org.briarheart.tictactask.task.comment.TaskCommentRepository;
+import org.briarheart.tictactask.task.list.TaskList;
+import org.briarheart.tictactask.task.list.TaskListRepository;
+import org.briarheart.tictactask.task.tag.TaskTag;
+import org.briarheart.tictactask.task.tag.TaskTagRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Default implementation of {@link EntityChangeService}. Only the last change of every entity is kept, so size of
+ * the log is proportional to the number of entities rather than to the number of changes.
+ *
+ * @author Roman Chigvintsev
+ */
+@Service
+public class DefaultEntityChangeService implements EntityChangeService {
+    private final EntityChangeRepository entityChangeRepository;
+    private final TaskCollectionVersionService versionService;
+    private final TaskRepository taskRepository;
+    private final TaskTagRepository tagRepository;
+    private final TaskListRepository taskListRepository;
+    private final TaskCommentRepository taskCommentRepository;
+
+    public DefaultEntityChangeService(EntityChangeRepository entityChangeRepository,
+                                      TaskCollectionVersionService versionService,
+                                      TaskRepository taskRepository,
+                                      TaskTagRepository tagRepository,
+                                      TaskListRepository taskListRepository,
+                                      TaskCommentRepository taskCommentRepository) {
+        Assert.notNull(entityChangeRepository, "Entity change repository must not be null");
+        Assert.notNull(versionService, "Task collection version service must not be null");
+        Assert.notNull(taskRepository, "Task repository must not be null");
+        Assert.notNull(tagRepository, "Tag repository must not be null");
+        Assert.notNull(taskListRepository, "Task list repository must not be null");
+        Assert.notNull(taskCommentRepository, "Task comment repository must not be null");
+
+        this.entityChangeRepository = entityChangeRepository;
+        this.versionService = versionService;
+        this.taskRepository = taskRepository;
+        this.tagRepository = tagRepository;
+        this.taskListRepository = taskListRepository;
+        this.taskCommentRepository = taskCommentRepository;
+    }
+
+    @Override
+    public Mono<Void> recordChange(EntityType entityType, Long entityId, Long userId) {
+        Assert.notNull(entityType, "Entity type must not be null");
+        Assert.notNull(entityId, "Entity id must not be null");
+        return record(userId, entityType.getCollection(),
+                version -> entityChangeRepository.upsert(userId, entityType, entityId, version, false));
+    }
+
+    @Override
+    public Mono<Void> recordDeletion(EntityType entityType, Long entityId, Long userId) {
+        Assert.notNull(entityType, "Entity type must not be null");
+        Assert.notNull(entityId, "Entity id must not be null");
+        if (entityType == EntityType.TASK) {
+            return recordTaskDeletions(List.of(entityId), userId);
+        }
+        return record(userId, entityType.getCollection(),
+                version -> entityChangeRepository.upsert(userId, entityType, entityId, version, true));
+    }
+
+    @Override
+    public Mono<Void> recordTaskChanges(Collection<Long> taskIds, Long userId) {
+        Assert.notEmpty(taskIds, "Task ids must not be null or empty");
+        return record(userId, TaskCollection.TASKS,
+                version -> entityChangeRepository.upsertTasksByIdIn(userId, taskIds, version));
+    }
+
+    @Override
+    public Mono<Void> recordTaskChangesByTaskListId(Long taskListId, Long userId) {
+        Assert.notNull(taskListId, "Task list id must not be null");
+        return record(userId, TaskCollection.TASKS,
+                version -> entityChangeRepository.upsertTasksByTaskListId(userId, taskListId, version));
+    }
+
+    @Override
+    public Mono<Void> recordTaskChangesByTagId(Long tagId, Long userId) {
+        Assert.notNull(tagId, "Tag id must not be null");
+        return record(userId, TaskCollection.TASKS,
+                version -> entityChangeRepository.upsertTasksByTagId(userId, tagId, version));
+    }
+
+    @Override
+    public Mono<Void> recordTaskListChangesByTaskIds(Collection<Long> taskIds, Long userId) {
+        Assert.notEmpty(taskIds, "Task ids must not be null or empty");
+        return record(userId, TaskCollection.TASK_LISTS,
+                version -> entityChangeRepository.upsertTaskListsByTaskIdIn(userId, taskIds, version));
+    }
+
+    @Override
+    public Mono<Void> recordTaskDeletions(Collection<Long> taskIds, Long userId) {
+        Assert.notEmpty(taskIds, "Task ids must not be null or empty");
+        return record(userId, TaskCollection.TASKS,
+                version -> entityChangeRepository.upsertTaskDeletionsByIdIn(userId, taskIds, version));
+    }
+
+    @Override
+    public Mono<Void> recordSubtaskDeletions(Collection<Long> parentIds, Long userId) {
+        Assert.notEmpty(parentIds, "Parent task ids must not be null or empty");
+        return record(userId, TaskCollection.TASKS,
+                version -> entityChangeRepository.upsertTaskDeletionsByParentIdIn(userId, parentIds, version));
+    }
+
+    @Override
+    public Mono<Void> recordTaskDeletionsByTaskListId(Long taskListId, Long userId) {
+        Assert.notNull(taskListId, "Task list id must not be null");
+        return record(userId, TaskCollection.TASKS,
+                version -> entityChangeRepository.upsertTaskDeletionsByTaskListId(userId, taskListId, version));
+    }
+
+    @Override
+    public Mono<EntityChanges> getChanges(Long userId, long version) {
+        Assert.notNull(userId, "User id must not be null");
+        return entityChangeRepository.findByUserIdAndVersionGreaterThan(userId, version)
+                .collectList()
+                .flatMap(changes -> {
+                    // Changes are ordered by version
+                    long lastVersion = changes.isEmpty() ? version : changes.get(changes.size() - 1).getVersion();
+                    Map<EntityType, List<Long>> deletedIds = changes.stream()
+                            .filter(EntityChange::isDeleted)
+                            .collect(Collectors.groupingBy(EntityChange::getEntityType,
+                                    Collectors.mapping(EntityChange::getEntityId, Collectors.toList())));
+                    Set<EntityType> changedTypes = changes.stream()
+                            .filter(change -> !change.isDeleted())
+                            .map(EntityChange::getEntityType)
+                            .collect(Collectors.toSet());
+
+                    // Entities are loaded in their current state which may be newer than the last included change.
+                    // Such entities will be returned once again on the next request which is harmless.
+                    Mono<List<Task>> tasks = findChanged(changedTypes, EntityType.TASK,
+                            () -> taskRepository.findChangedByUserIdAndVersionGreaterThan(userId, version));
+                    Mono<List<TaskTag>> tags = findChanged(changedTypes, EntityType.TAG,
+                            () -> tagRepository.findChangedByUserIdAndVersionGreaterThan(userId, version));
+                    Mono<List<TaskList>> taskLists = findChanged(changedTypes, EntityType.TASK_LIST,
+                            () -> taskListRepository.findChangedByUserIdAndVersionGreaterThan(userId, version));
+                    Mono<List<TaskComment>> comments = findChanged(changedTypes, EntityType.COMMENT,
+                            () -> taskCommentRepository.findChangedByUserIdAndVersionGreaterThan(userId, version));
+                    return Mono.zip(tasks, tags, taskLists, comments).map(entities -> EntityChanges.builder()
+                            .version(lastVersion)
+                            .tasks(entities.getT1())
+                            .tags(entities.getT2())
+                            .taskLists(entities.getT3())
+                            .comments(entities.getT4())
+                            .deletedTaskIds(deletedIds.getOrDefault(EntityType.TASK, List.of()))
+                            .deletedTagIds(deletedIds.getOrDefault(EntityType.TAG, List.of()))
+                            .deletedTaskListIds(deletedIds.getOrDefault(EntityType.TASK_LIST, List.of()))
+                            .deletedCommentIds(deletedIds.getOrDefault(EntityType.COMMENT, List.of()))
+                            .build());
+                });
+    }
+
+    private Mono<Void> record(Long userId, TaskCollection collection, Function<Long, Mono<Integer>> recorder) {
+        Assert.notNull(userId, "User id must not be null");
+        Mono<Void> result = versionService.nextChangeVersion(userId)
+                .flatMap(version -> recorder.apply(version)
+                        .then(entityChangeRepository.notifyChange(userId, version,
+                                collection != null ? collection.name() : "")));
+        if (collection != null) {
+            result = result.then(Mono.defer(() -> versionService.incrementVersion(collection, userId)));
+        }
+        return result;
+    }
+
+    private static <T> Mono<List<T>> findChanged(Set<EntityType> changedTypes,
+                                                 EntityType entityType,
+                                                 Supplier<Flux<T>> finder) {
+        if (!changedTypes.contains(entityType)) {
+            return Mono.just(List.of());
+        }
+        return finder.get().collectList();
+    }
+}
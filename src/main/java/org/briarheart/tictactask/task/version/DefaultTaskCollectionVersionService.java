@@ -0,0 +1,48 @@
+package org.briarheart.tictactask.task.version;
+
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Mono;
+
+/**
+ * Default implementation of {@link TaskCollectionVersionService}. Versions of all collections of user are stored in
+ * a single row so that version of any collection is obtained with a lookup by primary key.
+ *
+ * @author Roman Chigvintsev
+ */
+@Service
+public class DefaultTaskCollectionVersionService implements TaskCollectionVersionService {
+    private final TaskCollectionVersionRepository versionRepository;
+
+    public DefaultTaskCollectionVersionService(TaskCollectionVersionRepository versionRepository) {
+        Assert.notNull(versionRepository, "Task collection version repository must not be null");
+        this.versionRepository = versionRepository;
+    }
+
+    @Override
+    public Mono<Long> getVersion(TaskCollection collection, Long userId) {
+        Assert.notNull(collection, "Collection must not be null");
+        Assert.notNull(userId, "User id must not be null");
+        return versionRepository.findById(userId)
+                .map(version -> version.getVersion(collection))
+                .defaultIfEmpty(0L);
+    }
+
+    @Override
+    public Mono<Void> incrementVersion(TaskCollection collection, Long userId) {
+        Assert.notNull(collection, "Collection must not be null");
+        Assert.notNull(userId, "User id must not be null");
+        Mono<Integer> result = switch (collection) {
+            case TASKS -> versionRepository.incrementTasksVersion(userId);
+            case TAGS -> versionRepository.incrementTagsVersion(userId);
+            case TASK_LISTS -> versionRepository.incrementTaskListsVersion(userId);
+        };
+        return result.then();
+    }
+
+    @Override
+    public Mono<Long> nextChangeVersion(Long userId) {
+        Assert.notNull(userId, "User id must not be null");
+        return versionRepository.incrementChangeVersion(userId);
+    }
+}
@@ -0,0 +1,27 @@
+package org.briarheart.tictactask.task.version;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * The last change of user's entity. Change of deleted entity is kept as a tombstone so that clients synchronizing
+ * their data could find out about deletion.
+ *
+ * @author Roman Chigvintsev
+ * @see EntityChangeService
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table("entity_change")
+public class EntityChange {
+    @Id
+    private Long id;
+    private Long userId;
+    private EntityType entityType;
+    private Long entityId;
+    private long version;
+    private boolean deleted;
+}
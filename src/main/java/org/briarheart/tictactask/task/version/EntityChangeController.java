@@ -0,0 +1,106 @@
+package org.briarheart.tictactask.task.version;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import org.briarheart.tictactask.controller.AbstractController;
+import org.briarheart.tictactask.task.TaskController.TaskResponse;
+import org.briarheart.tictactask.task.comment.TaskCommentController.TaskCommentResponse;
+import org.briarheart.tictactask.task.list.TaskListController.TaskListResponse;
+import org.briarheart.tictactask.task.tag.TaskTagController.TaskTagResponse;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * REST-controller for synchronization of user's data.
+ *
+ * @author Roman Chigvintsev
+ */
+@RestController
+@RequestMapping("/api/v1/changes")
+@RequiredArgsConstructor
+@Tag(name = "Changes", description = "Allows to get tasks, tags, task lists and task comments changed since some "
+        + "version")
+@SecurityRequirement(name = "apiSecurityScheme")
+public class EntityChangeController extends AbstractController {
+    // Prevents proxies from closing idle event streams
+    private static final Duration HEARTBEAT_INTERVAL = Duration.ofSeconds(30);
+
+    private final EntityChangeService entityChangeService;
+    private final EntityChangeNotificationListener notificationListener;
+
+    @GetMapping
+    @Operation(
+            summary = "Get changes",
+            description = "Returns tasks, tags, task lists and task comments of current user that were changed since "
+                    + "the given version along with ids of deleted ones. Deletion of task implies deletion of all "
+                    + "its descendants and comments, their ids are returned as well. Version from response should be "
+                    + "passed to the next request."
+    )
+    public Mono<EntityChangesResponse> getChanges(
+            @Parameter(description = "Version of the last known change, zero to get all data")
+            @RequestParam(name = "since", defaultValue = "0") long since,
+            Authentication authentication
+    ) {
+        return entityChangeService.getChanges(getUser(authentication).getId(), since).map(EntityChangesResponse::new);
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+            summary = "Get stream of change events",
+            description = "Returns stream of server-sent events named \"change\" that are sent when tasks, tags, task "
+                    + "lists or task comments of current user are changed. Data of event is version of the change "
+                    + "that should be passed to \"Get changes\" request. Events may be coalesced so only the latest "
+                    + "version is guaranteed to be delivered. Changes made while client is disconnected are not "
+                    + "delivered, so client should request changes every time it connects."
+    )
+    public Flux<ServerSentEvent<Long>> getChangeEvents(Authentication authentication) {
+        Long userId = getUser(authentication).getId();
+        Flux<ServerSentEvent<Long>> changeEvents = notificationListener.getChangeVersions(userId)
+                .map(version -> ServerSentEvent.builder(version).id(String.valueOf(version)).event("change").build());
+        Flux<ServerSentEvent<Long>> heartbeats = Flux.interval(HEARTBEAT_INTERVAL)
+                .onBackpressureDrop()
+                .map(tick -> ServerSentEvent.<Long>builder().comment("heartbeat").build());
+        return Flux.merge(changeEvents, heartbeats);
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class EntityChangesResponse {
+        private long version;
+        private List<TaskResponse> tasks;
+        private List<TaskTagResponse> tags;
+        private List<TaskListResponse> taskLists;
+        private List<TaskCommentResponse> comments;
+        private List<Long> deletedTaskIds;
+        private List<Long> deletedTagIds;
+        private List<Long> deletedTaskListIds;
+        private List<Long> deletedCommentIds;
+
+        public EntityChangesResponse(EntityChanges changes) {
+            this.version = changes.getVersion();
+            this.tasks = changes.getTasks().stream().map(TaskResponse::new).toList();
+            this.tags = changes.getTags().stream().map(TaskTagResponse::new).toList();
+            this.taskLists = changes.getTaskLists().stream().map(TaskListResponse::new).toList();
+            this.comments = changes.getComments().stream().map(TaskCommentResponse::new).toList();
+            this.deletedTaskIds = changes.getDeletedTaskIds();
+            this.deletedTagIds = changes.getDeletedTagIds();
+            this.deletedTaskListIds = changes.getDeletedTaskListIds();
+            this.deletedCommentIds = changes.getDeletedCommentIds();
+        }
+    }
+}
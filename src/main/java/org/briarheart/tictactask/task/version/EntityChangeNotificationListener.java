@@ -0,0 +1,167 @@
+package org.briarheart.tictactask.task.version;
+
+import io.r2dbc.postgresql.api.Notification;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.postgresql.api.PostgresqlResult;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Wrapped;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+
+/**
+ * Listens for notifications about changes of user's data sent by {@link EntityChangeService} of any application
+ * instance and dispatches them to subscribers of this application instance.
+ * <p>
+ * Single connection to the database that is not taken from the pool is used to listen for notifications. Connection
+ * is re-established with exponential backoff when it is lost. Notifications sent while connection is being
+ * re-established are lost, so clients should synchronize their data on every reconnect.
+ * <p>
+ * Every notification is delivered to all subscribers at once. Slow subscriber does not hold up others: since
+ * notification carries only the last change version, subscriber that is not able to keep up receives the latest
+ * version only.
+ * <p>
+ * Payload of notification has format "&lt;user id&gt;:&lt;version&gt;:&lt;collection&gt;", where collection is name of
+ * changed {@link TaskCollection} or empty string.
+ *
+ * @author Roman Chigvintsev
+ */
+@Component
+@Slf4j
+public class EntityChangeNotificationListener implements SmartLifecycle {
+    public static final String CHANNEL = "entity_change";
+
+    private static final Duration MIN_RECONNECT_DELAY = Duration.ofSeconds(1);
+    private static final Duration MAX_RECONNECT_DELAY = Duration.ofMinutes(1);
+
+    private final ConnectionFactory connectionFactory;
+    private final Sinks.Many<ChangeNotification> notifications = Sinks.many().multicast().directBestEffort();
+
+    private Disposable subscription;
+
+    public EntityChangeNotificationListener(ConnectionFactory connectionFactory) {
+        Assert.notNull(connectionFactory, "Connection factory must not be null");
+        this.connectionFactory = unwrap(connectionFactory);
+    }
+
+    /**
+     * Returns versions of changes of the given user's data that are made after subscription. This method never
+     * completes until subscription is cancelled.
+     *
+     * @param userId user id (must not be {@code null})
+     * @return change versions
+     */
+    public Flux<Long> getChangeVersions(Long userId) {
+        Assert.notNull(userId, "User id must not be null");
+        return notifications.asFlux()
+                .filter(notification -> notification.getUserId().equals(userId))
+                .map(ChangeNotification::getVersion)
+                .onBackpressureLatest();
+    }
+
+    /**
+     * Returns ids of users whose given collection is changed after subscription. Changes made by all application
+     * instances are included. This method never completes until subscription is cancelled.
+     *
+     * @param collection collection (must not be {@code null})
+     * @return ids of users
+     */
+    public Flux<Long> getCollectionChanges(TaskCollection collection) {
+        Assert.notNull(collection, "Collection must not be null");
+        return notifications.asFlux()
+                .filter(notification -> notification.getCollection() == collection)
+                .map(ChangeNotification::getUserId);
+    }
+
+    @Override
+    public synchronized void start() {
+        if (isRunning()) {
+            return;
+        }
+        Mono<Connection> connection = Mono.from(connectionFactory.create());
+        subscription = Flux.usingWhen(connection, this::listen, Connection::close)
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, MIN_RECONNECT_DELAY)
+                        .maxBackoff(MAX_RECONNECT_DELAY)
+                        .transientErrors(true)
+                        .doBeforeRetry(signal -> log.warn("Failed to listen for notifications about entity "
+                                + "changes, reconnecting", signal.failure())))
+                .subscribe(this::dispatch);
+        log.debug("Entity change notification listener is started");
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+            subscription = null;
+        }
+        log.debug("Entity change notification listener is stopped");
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return subscription != null && !subscription.isDisposed();
+    }
+
+    private Flux<Notification> listen(Connection connection) {
+        if (!(connection instanceof PostgresqlConnection)) {
+            return Flux.error(new IllegalStateException("Connection to PostgreSQL was expected but got "
+                    + connection.getClass().getName()));
+        }
+        PostgresqlConnection postgresqlConnection = (PostgresqlConnection) connection;
+        return postgresqlConnection.createStatement("LISTEN " + CHANNEL)
+                .execute()
+                .flatMap(PostgresqlResult::getRowsUpdated)
+                .doOnComplete(() -> log.debug("Listening for notifications on channel {}", CHANNEL))
+                .thenMany(postgresqlConnection.getNotifications())
+                // Connection is re-established when notification stream is terminated for some reason
+                .concatWith(Mono.error(() -> new IllegalStateException("Notification stream is completed")));
+    }
+
+    private void dispatch(Notification notification) {
+        String payload = notification.getParameter();
+        String[] parts = payload == null ? new String[0] : payload.split(":", -1);
+        if (parts.length < 2) {
+            log.warn("Invalid payload of notification about entity change: {}", payload);
+            return;
+        }
+        try {
+            Long userId = Long.valueOf(parts[0]);
+            long version = Long.parseLong(parts[1]);
+            // Payload may have no collection when it is sent by previous version of application
+            TaskCollection collection = parts.length > 2 && !parts[2].isEmpty()
+                    ? TaskCollection.valueOf(parts[2])
+                    : null;
+            // Fails only when there are no subscribers or all of them are cancelled which is fine
+            notifications.tryEmitNext(new ChangeNotification(userId, version, collection));
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid payload of notification about entity change: {}", payload);
+        }
+    }
+
+    private static ConnectionFactory unwrap(ConnectionFactory connectionFactory) {
+        // Connection is held for the whole lifetime of application so it should not be taken from the pool
+        ConnectionFactory result = connectionFactory;
+        while (result instanceof Wrapped && ((Wrapped<?>) result).unwrap() instanceof ConnectionFactory) {
+            result = (ConnectionFactory) ((Wrapped<?>) result).unwrap();
+        }
+        return result;
+    }
+
+    @Value
+    private static class ChangeNotification {
+        Long userId;
+        long version;
+        TaskCollection collection;
+    }
+}
@@ -0,0 +1,110 @@
+package org.briarheart.tictactask.task.version;
+
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+/**
+ * Every entity has at most one change: the last one. Methods recording changes of several entities select them from
+ * corresponding tables, so methods recording deletion must be called before entities are actually deleted.
+ *
+ * @author Roman Chigvintsev
+ */
+public interface EntityChangeRepository extends ReactiveCrudRepository<EntityChange, Long> {
+    @Query("SELECT * FROM entity_change WHERE user_id = :userId AND version > :version ORDER BY version")
+    Flux<EntityChange> findByUserIdAndVersionGreaterThan(Long userId, long version);
+
+    @Modifying
+    @Query("INSERT INTO entity_change (user_id, entity_type, entity_id, version, deleted) "
+            + "VALUES (:userId, :entityType, :entityId, :version, :deleted) "
+            + "ON CONFLICT (user_id, entity_type, entity_id) "
+            + "DO UPDATE SET version = EXCLUDED.version, deleted = EXCLUDED.deleted")
+    Mono<Integer> upsert(Long userId, EntityType entityType, Long entityId, long version, boolean deleted);
+
+    /**
+     * Notifies listeners of {@link EntityChangeNotificationListener#CHANNEL} channel about change of user's data.
+     * Notification is delivered only when current transaction is committed. Name of changed collection is empty when
+     * change does not affect any collection.
+     */
+    @Query("SELECT pg_notify('" + EntityChangeNotificationListener.CHANNEL + "', "
+            + "CAST(:userId AS TEXT) || ':' || CAST(:version AS TEXT) || ':' || :collection)")
+    Mono<Void> notifyChange(Long userId, long version, String collection);
+
+    @Modifying
+    @Query("INSERT INTO entity_change (user_id, entity_type, entity_id, version) "
+            + "SELECT user_id, 'TASK', id, :version FROM task WHERE id IN (:taskIds) AND user_id = :userId "
+            + "ON CONFLICT (user_id, entity_type, entity_id) "
+            + "DO UPDATE SET version = EXCLUDED.version, deleted = EXCLUDED.deleted")
+    Mono<Integer> upsertTasksByIdIn(Long userId, Collection<Long> taskIds, long version);
+
+    @Modifying
+    @Query("INSERT INTO entity_change (user_id, entity_type, entity_id, version) "
+            + "SELECT user_id, 'TASK', id, :version FROM task WHERE task_list_id = :taskListId AND user_id = :userId "
+            + "ON CONFLICT (user_id, entity_type, entity_id) "
+            + "DO UPDATE SET version = EXCLUDED.version, deleted = EXCLUDED.deleted")
+    Mono<Integer> upsertTasksByTaskListId(Long userId, Long taskListId, long version);
+
+    @Modifying
+    @Query("INSERT INTO entity_change (user_id, entity_type, entity_id, version) "
+            + "SELECT user_id, 'TASK', id, :version FROM task "
+            + "WHERE id IN (SELECT task_id FROM tasks_tags WHERE tag_id = :tagId) AND user_id = :userId "
+            + "ON CONFLICT (user_id, entity_type, entity_id) "
+            + "DO UPDATE SET version = EXCLUDED.version, deleted = EXCLUDED.deleted")
+    Mono<Integer> upsertTasksByTagId(Long userId, Long tagId, long version);
+
+    @Modifying
+    @Query("INSERT INTO entity_change (user_id, entity_type, entity_id, version) "
+            + "SELECT user_id, 'TASK_LIST', id, :version FROM task_list "
+            + "WHERE id IN (SELECT task_list_id FROM task WHERE id IN (:taskIds)) AND user_id = :userId "
+            + "ON CONFLICT (user_id, entity_type, entity_id) "
+            + "DO UPDATE SET version = EXCLUDED.version, deleted = EXCLUDED.deleted")
+    Mono<Integer> upsertTaskListsByTaskIdIn(Long userId, Collection<Long> taskIds, long version);
+
+    // Deleted task takes with it all its descendants and comments. UNION is used since the given tasks may include
+    // descendants of each other, and the same row cannot be upserted twice by one statement.
+    @Modifying
+    @Query("WITH RECURSIVE deleted_task AS ("
+            + "SELECT id FROM task WHERE id IN (:taskIds) AND user_id = :userId "
+            + "UNION "
+            + "SELECT t.id FROM task t INNER JOIN deleted_task d ON t.parent_id = d.id"
+            + ") INSERT INTO entity_change (user_id, entity_type, entity_id, version, deleted) "
+            + "SELECT :userId, 'TASK', id, :version, TRUE FROM deleted_task "
+            + "UNION ALL "
+            + "SELECT :userId, 'COMMENT', id, :version, TRUE FROM task_comment "
+            + "WHERE task_id IN (SELECT id FROM deleted_task) "
+            + "ON CONFLICT (user_id, entity_type, entity_id) "
+            + "DO UPDATE SET version = EXCLUDED.version, deleted = EXCLUDED.deleted")
+    Mono<Integer> upsertTaskDeletionsByIdIn(Long userId, Collection<Long> taskIds, long version);
+
+    @Modifying
+    @Query("WITH RECURSIVE deleted_task AS ("
+            + "SELECT id FROM task WHERE parent_id IN (:parentIds) AND user_id = :userId "
+            + "UNION "
+            + "SELECT t.id FROM task t INNER JOIN deleted_task d ON t.parent_id = d.id"
+            + ") INSERT INTO entity_change (user_id, entity_type, entity_id, version, deleted) "
+            + "SELECT :userId, 'TASK', id, :version, TRUE FROM deleted_task "
+            + "UNION ALL "
+            + "SELECT :userId, 'COMMENT', id, :version, TRUE FROM task_comment "
+            + "WHERE task_id IN (SELECT id FROM deleted_task) "
+            + "ON CONFLICT (user_id, entity_type, entity_id) "
+            + "DO UPDATE SET version = EXCLUDED.version, deleted = EXCLUDED.deleted")
+    Mono<Integer> upsertTaskDeletionsByParentIdIn(Long userId, Collection<Long> parentIds, long version);
+
+    @Modifying
+    @Query("WITH RECURSIVE deleted_task AS ("
+            + "SELECT id FROM task WHERE task_list_id = :taskListId AND user_id = :userId "
+            + "UNION "
+            + "SELECT t.id FROM task t INNER JOIN deleted_task d ON t.parent_id = d.id"
+            + ") INSERT INTO entity_change (user_id, entity_type, entity_id, version, deleted) "
+            + "SELECT :userId, 'TASK', id, :version, TRUE FROM deleted_task "
+            + "UNION ALL "
+            + "SELECT :userId, 'COMMENT', id, :version, TRUE FROM task_comment "
+            + "WHERE task_id IN (SELECT id FROM deleted_task) "
+            + "ON CONFLICT (user_id, entity_type, entity_id) "
+            + "DO UPDATE SET version = EXCLUDED.version, deleted = EXCLUDED.deleted")
+    Mono<Integer> upsertTaskDeletionsByTaskListId(Long userId, Long taskListId, long version);
+}
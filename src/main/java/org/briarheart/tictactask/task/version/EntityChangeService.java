@@ -0,0 +1,106 @@
+package org.briarheart.tictactask.task.version;
+
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+/**
+ * Service that keeps log of changes of user's tasks, tags, task lists and task comments. Clients use this log to
+ * synchronize their data by requesting changes made since the last known version instead of loading all data again.
+ * <p>
+ * Changes must be recorded within transaction that changes entities. Every recorded change gets version that is
+ * greater than versions of all previous changes of the same user. Recording of change also increments version of
+ * collection the changed entity belongs to (see {@link TaskCollectionVersionService}) and notifies
+ * {@link EntityChangeNotificationListener}s of all application instances. Deletions must be recorded before entities
+ * are actually deleted.
+ *
+ * @author Roman Chigvintsev
+ * @see EntityType
+ */
+public interface EntityChangeService {
+    /**
+     * Records change (creation or update) of the given entity.
+     *
+     * @param entityType type of entity (must not be {@code null})
+     * @param entityId   id of entity (must not be {@code null})
+     * @param userId     id of entity owner (must not be {@code null})
+     */
+    Mono<Void> recordChange(EntityType entityType, Long entityId, Long userId);
+
+    /**
+     * Records deletion of the given entity. Deletion of task is recorded along with deletions of all its descendants
+     * and comments.
+     *
+     * @param entityType type of entity (must not be {@code null})
+     * @param entityId   id of entity (must not be {@code null})
+     * @param userId     id of entity owner (must not be {@code null})
+     */
+    Mono<Void> recordDeletion(EntityType entityType, Long entityId, Long userId);
+
+    /**
+     * Records changes of the given tasks.
+     *
+     * @param taskIds ids of tasks (must not be {@code null} or empty)
+     * @param userId  id of tasks owner (must not be {@code null})
+     */
+    Mono<Void> recordTaskChanges(Collection<Long> taskIds, Long userId);
+
+    /**
+     * Records changes of all tasks included in the given task list.
+     *
+     * @param taskListId id of task list (must not be {@code null})
+     * @param userId     id of tasks owner (must not be {@code null})
+     */
+    Mono<Void> recordTaskChangesByTaskListId(Long taskListId, Long userId);
+
+    /**
+     * Records changes of all tasks the given tag is assigned to.
+     *
+     * @param tagId  id of tag (must not be {@code null})
+     * @param userId id of tasks owner (must not be {@code null})
+     */
+    Mono<Void> recordTaskChangesByTagId(Long tagId, Long userId);
+
+    /**
+     * Records changes of task lists including the given tasks.
+     *
+     * @param taskIds ids of tasks (must not be {@code null} or empty)
+     * @param userId  id of task lists owner (must not be {@code null})
+     */
+    Mono<Void> recordTaskListChangesByTaskIds(Collection<Long> taskIds, Long userId);
+
+    /**
+     * Records deletions of the given tasks along with deletions of all their descendants and comments.
+     *
+     * @param taskIds ids of tasks (must not be {@code null} or empty)
+     * @param userId  id of tasks owner (must not be {@code null})
+     */
+    Mono<Void> recordTaskDeletions(Collection<Long> taskIds, Long userId);
+
+    /**
+     * Records deletions of all descendants of the given tasks along with deletions of their comments.
+     *
+     * @param parentIds ids of parent tasks (must not be {@code null} or empty)
+     * @param userId    id of tasks owner (must not be {@code null})
+     */
+    Mono<Void> recordSubtaskDeletions(Collection<Long> parentIds, Long userId);
+
+    /**
+     * Records deletions of all tasks included in the given task list along with deletions of their descendants and
+     * comments.
+     *
+     * @param taskListId id of task list (must not be {@code null})
+     * @param userId     id of tasks owner (must not be {@code null})
+     */
+    Mono<Void> recordTaskDeletionsByTaskListId(Long taskListId, Long userId);
+
+    /**
+     * Returns entities of the given user that were changed or deleted since the given version. Current state is
+     * returned for changed entities, only ids are returned for deleted ones.
+     *
+     * @param userId  id of user (must not be {@code null})
+     * @param version version of the last change known to client, zero to get all entities
+     * @return changes since the given version
+     */
+    Mono<EntityChanges> getChanges(Long userId, long version);
+}
@@ -0,0 +1,33 @@
+package org.briarheart.tictactask.task.version;
+
+import lombok.Builder;
+import lombok.Value;
+import org.briarheart.tictactask.task.Task;
+import org.briarheart.tictactask.task.comment.TaskComment;
+import org.briarheart.tictactask.task.list.TaskList;
+import org.briarheart.tictactask.task.tag.TaskTag;
+
+import java.util.List;
+
+/**
+ * Changes of user's data since some version.
+ *
+ * @author Roman Chigvintsev
+ * @see EntityChangeService#getChanges(Long, long)
+ */
+@Value
+@Builder
+public class EntityChanges {
+    /**
+     * Version of the last change that is included. Should be passed to the next request for changes.
+     */
+    long version;
+    List<Task> tasks;
+    List<TaskTag> tags;
+    List<TaskList> taskLists;
+    List<TaskComment> comments;
+    List<Long> deletedTaskIds;
+    List<Long> deletedTagIds;
+    List<Long> deletedTaskListIds;
+    List<Long> deletedCommentIds;
+}
@@ -0,0 +1,23 @@
+package org.briarheart.tictactask.task.version;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Types of entities whose changes are tracked by {@link EntityChangeService}.
+ *
+ * @author Roman Chigvintsev
+ */
+@RequiredArgsConstructor
+public enum EntityType {
+    TASK(TaskCollection.TASKS),
+    TAG(TaskCollection.TAGS),
+    TASK_LIST(TaskCollection.TASK_LISTS),
+    COMMENT(null);
+
+    /**
+     * Collection whose version is incremented on change of entity of this type, may be {@code null}.
+     */
+    @Getter
+    private final TaskCollection collection;
+}
@@ -0,0 +1,10 @@
+package org.briarheart.tictactask.task.version;
+
+/**
+ * Collections of user's entities whose versions are tracked by {@link TaskCollectionVersionService}.
+ *
+ * @author Roman Chigvintsev
+ */
+public enum TaskCollection {
+    TASKS, TAGS, TASK_LISTS
+}
@@ -0,0 +1,94 @@
+package org.briarheart.tictactask.task.version;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.briarheart.tictactask.util.Transactions;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * In-process cache of user's collection of entities keyed by user id. Cached entities are copied every time they are
+ * returned, so callers are free to modify them.
+ * <p>
+ * Cache is invalidated by {@link TaskCollectionCacheManager} when collection is changed on any application instance.
+ * Services changing collection should additionally invalidate cache themselves with
+ * {@link #invalidateOnCompletion(Long)}, so that the change becomes visible on this instance without waiting for
+ * notification.
+ *
+ * @param <T> type of entities
+ * @author Roman Chigvintsev
+ * @see TaskCollectionCacheManager#createCache(TaskCollection, UnaryOperator)
+ */
+public class TaskCollectionCache<T> {
+    private final Cache<Long, List<T>> cache;
+    private final UnaryOperator<T> copier;
+
+    /**
+     * Number of invalidations since creation of this cache. Collection is not cached when cache was invalidated while
+     * collection was being loaded, since loaded collection may be already stale.
+     */
+    private final AtomicLong invalidationCount = new AtomicLong();
+
+    TaskCollectionCache(Cache<Long, List<T>> cache, UnaryOperator<T> copier) {
+        this.cache = cache;
+        this.copier = copier;
+    }
+
+    /**
+     * Returns cached collection of the given user. Collection is loaded and cached when it is not found in cache.
+     *
+     * @param userId id of collection owner (must not be {@code null})
+     * @param loader loader of collection (must not be {@code null})
+     * @return entities of collection
+     */
+    public Flux<T> get(Long userId, Supplier<Flux<T>> loader) {
+        Assert.notNull(userId, "User id must not be null");
+        Assert.notNull(loader, "Loader must not be null");
+        return Flux.defer(() -> {
+            List<T> entities = cache.getIfPresent(userId);
+            if (entities != null) {
+                return Flux.fromIterable(entities).map(copier);
+            }
+
+            long invalidations = invalidationCount.get();
+            return loader.get().collectList().flatMapIterable(loadedEntities -> {
+                if (invalidationCount.get() == invalidations) {
+                    cache.put(userId, loadedEntities.stream().map(copier).toList());
+                }
+                return loadedEntities;
+            });
+        });
+    }
+
+    /**
+     * Removes collection of the given user from cache.
+     *
+     * @param userId id of collection owner (must not be {@code null})
+     */
+    public void invalidate(Long userId) {
+        Assert.notNull(userId, "User id must not be null");
+        invalidationCount.incrementAndGet();
+        cache.invalidate(userId);
+    }
+
+    /**
+     * Removes collection of the given user from cache right away and once again after completion of the current
+     * transaction. Collection loaded concurrently before the transaction is committed would be cached in its old
+     * state otherwise.
+     *
+     * @param userId id of collection owner (must not be {@code null})
+     * @return completion signal
+     */
+    public Mono<Void> invalidateOnCompletion(Long userId) {
+        Assert.notNull(userId, "User id must not be null");
+        return Mono.defer(() -> {
+            invalidate(userId);
+            return Transactions.runAfterCompletion(() -> invalidate(userId));
+        });
+    }
+}
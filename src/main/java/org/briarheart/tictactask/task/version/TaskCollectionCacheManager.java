@@ -0,0 +1,110 @@
+package org.briarheart.tictactask.task.version;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.briarheart.tictactask.config.ApplicationProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * Creates {@link TaskCollectionCache}s and invalidates them on notifications about changes of collections received
+ * from {@link EntityChangeNotificationListener}.
+ * <p>
+ * Size of every cache is limited by total number of cached entities rather than by number of users. Cached
+ * collections also expire after fixed time since notifications sent while listener reconnects to the database are
+ * lost. Statistics of caches are published as "cache.*" metrics with tag "cache" having value "user-tags" or
+ * "user-task-lists".
+ *
+ * @author Roman Chigvintsev
+ */
+@Component
+@Slf4j
+public class TaskCollectionCacheManager implements SmartLifecycle {
+    private final EntityChangeNotificationListener notificationListener;
+    private final MeterRegistry meterRegistry;
+    private final ApplicationProperties.TaskCollectionCache cacheProperties;
+
+    private final Map<TaskCollection, TaskCollectionCache<?>> caches = new ConcurrentHashMap<>();
+
+    private Disposable subscription;
+
+    public TaskCollectionCacheManager(EntityChangeNotificationListener notificationListener,
+                                      MeterRegistry meterRegistry,
+                                      ApplicationProperties applicationProperties) {
+        Assert.notNull(notificationListener, "Entity change notification listener must not be null");
+        Assert.notNull(meterRegistry, "Meter registry must not be null");
+        Assert.notNull(applicationProperties, "Application properties must not be null");
+
+        this.notificationListener = notificationListener;
+        this.meterRegistry = meterRegistry;
+        this.cacheProperties = applicationProperties.getTaskCollectionCache();
+    }
+
+    /**
+     * Creates cache of the given collection. Only one cache can be created for every collection.
+     *
+     * @param collection collection (must not be {@code null})
+     * @param copier     function creating copies of cached entities (must not be {@code null})
+     * @param <T>        type of entities
+     * @return new cache
+     */
+    public <T> TaskCollectionCache<T> createCache(TaskCollection collection, UnaryOperator<T> copier) {
+        Assert.notNull(collection, "Collection must not be null");
+        Assert.notNull(copier, "Copier must not be null");
+
+        Cache<Long, List<T>> cache = Caffeine.newBuilder()
+                .maximumWeight(cacheProperties.getMaxSize())
+                // Empty collections take space as well
+                .weigher((Long userId, List<T> entities) -> entities.size() + 1)
+                .expireAfterWrite(cacheProperties.getTimeToLive())
+                .recordStats()
+                .build();
+        TaskCollectionCache<T> result = new TaskCollectionCache<>(cache, copier);
+        Assert.state(caches.putIfAbsent(collection, result) == null,
+                "Cache of collection " + collection + " is already created");
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, getCacheName(collection));
+        return result;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (isRunning()) {
+            return;
+        }
+        subscription = Flux.fromIterable(caches.entrySet())
+                .flatMap(entry -> notificationListener.getCollectionChanges(entry.getKey())
+                        .doOnNext(entry.getValue()::invalidate))
+                .subscribe(null, e -> log.error("Failed to invalidate task collection cache", e));
+        log.debug("Task collection cache manager is started");
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+            subscription = null;
+        }
+        log.debug("Task collection cache manager is stopped");
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return subscription != null && !subscription.isDisposed();
+    }
+
+    private static String getCacheName(TaskCollection collection) {
+        return "user-" + collection.name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+}
@@ -0,0 +1,33 @@
+package org.briarheart.tictactask.task.version;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * Current versions of collections of tasks, tags and task lists belonging to a user.
+ *
+ * @author Roman Chigvintsev
+ * @see TaskCollectionVersionService
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table("task_collection_version")
+public class TaskCollectionVersion {
+    @Id
+    private Long userId;
+    private long tasksVersion;
+    private long tagsVersion;
+    private long taskListsVersion;
+    private long changeVersion;
+
+    public long getVersion(TaskCollection collection) {
+        return switch (collection) {
+            case TASKS -> tasksVersion;
+            case TAGS -> tagsVersion;
+            case TASK_LISTS -> taskListsVersion;
+        };
+    }
+}
@@ -0,0 +1,32 @@
+package org.briarheart.tictactask.task.version;
+
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Mono;
+
+/**
+ * @author Roman Chigvintsev
+ */
+public interface TaskCollectionVersionRepository extends ReactiveCrudRepository<TaskCollectionVersion, Long> {
+    // Row of user is created on the first change of any collection
+    @Modifying
+    @Query("INSERT INTO task_collection_version (user_id, tasks_version) VALUES (:userId, 1) "
+            + "ON CONFLICT (user_id) DO UPDATE SET tasks_version = task_collection_version.tasks_version + 1")
+    Mono<Integer> incrementTasksVersion(Long userId);
+
+    @Modifying
+    @Query("INSERT INTO task_collection_version (user_id, tags_version) VALUES (:userId, 1) "
+            + "ON CONFLICT (user_id) DO UPDATE SET tags_version = task_collection_version.tags_version + 1")
+    Mono<Integer> incrementTagsVersion(Long userId);
+
+    @Modifying
+    @Query("INSERT INTO task_collection_version (user_id, task_lists_version) VALUES (:userId, 1) "
+            + "ON CONFLICT (user_id) DO UPDATE SET task_lists_version = task_collection_version.task_lists_version + 1")
+    Mono<Integer> incrementTaskListsVersion(Long userId);
+
+    @Query("INSERT INTO task_collection_version (user_id, change_version) VALUES (:userId, 1) "
+            + "ON CONFLICT (user_id) DO UPDATE SET change_version = task_collection_version.change_version + 1 "
+            + "RETURNING change_version")
+    Mono<Long> incrementChangeVersion(Long userId);
+}
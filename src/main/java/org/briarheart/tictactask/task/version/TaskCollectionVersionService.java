@@ -0,0 +1,42 @@
+package org.briarheart.tictactask.task.version;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Service that keeps track of versions of user's collections of tasks, tags and task lists. Version of collection is
+ * incremented on every change of collection and can be used to find out whether collection loaded earlier is still
+ * actual without loading it again.
+ *
+ * @author Roman Chigvintsev
+ * @see TaskCollection
+ */
+public interface TaskCollectionVersionService {
+    /**
+     * Returns current version of the given collection of the given user.
+     *
+     * @param collection collection (must not be {@code null})
+     * @param userId     id of collection owner (must not be {@code null})
+     * @return current version or zero if collection was never changed
+     */
+    Mono<Long> getVersion(TaskCollection collection, Long userId);
+
+    /**
+     * Increments version of the given collection of the given user. This method is supposed to be called within
+     * transaction that changes collection.
+     *
+     * @param collection collection (must not be {@code null})
+     * @param userId     id of collection owner (must not be {@code null})
+     */
+    Mono<Void> incrementVersion(TaskCollection collection, Long userId);
+
+    /**
+     * Allocates version for the next change of user's data. Versions of changes are shared by all collections of
+     * user. Changes of the same user are serialized until the end of transaction in which version is allocated,
+     * so changes become visible in order of their versions.
+     *
+     * @param userId id of user (must not be {@code null})
+     * @return allocated version
+     * @see EntityChangeService
+     */
+    Mono<Long> nextChangeVersion(Long userId);
+}
@@ -0,0 +1,21 @@
+package org.briarheart.tictactask.user;
+
+import reactor.core.publisher.Mono;
+
+public interface CustomizedUserRepository {
+    /**
+     * Finds user by email along with user's authorities using single query.
+     *
+     * @param email user email (must not be {@code null} or empty)
+     * @return found user with populated authorities or empty {@link Mono} if user is not found
+     */
+    Mono<User> findByEmailWithAuthorities(String email);
+
+    /**
+     * Finds user by id along with user's authorities using single query.
+     *
+     * @param id user id (must not be {@code null})
+     * @return found user with populated authorities or empty {@link Mono} if user is not found
+     */
+    Mono<User> findByIdWithAuthorities(Long id);
+}
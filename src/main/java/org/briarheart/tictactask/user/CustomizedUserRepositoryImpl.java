@@ -0,0 +1,65 @@
+package org.briarheart.tictactask.user;
+
+import io.jsonwebtoken.lang.Assert;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiFunction;
+
+@Component
+public class CustomizedUserRepositoryImpl implements CustomizedUserRepository {
+    private static final String AUTHORITIES_COLUMN = "user_authorities";
+    // Grouping by primary key allows to select all columns of users table
+    private static final String SELECT_WITH_AUTHORITIES_SQL = "SELECT u.*, "
+            + "array_remove(array_agg(a.authority), NULL) AS " + AUTHORITIES_COLUMN + " "
+            + "FROM users u LEFT JOIN authorities a ON a.user_id = u.id ";
+    private static final String FIND_BY_EMAIL_WITH_AUTHORITIES_SQL = SELECT_WITH_AUTHORITIES_SQL
+            + "WHERE u.email = $1 GROUP BY u.id";
+    private static final String FIND_BY_ID_WITH_AUTHORITIES_SQL = SELECT_WITH_AUTHORITIES_SQL
+            + "WHERE u.id = $1 GROUP BY u.id";
+
+    private final R2dbcEntityTemplate entityTemplate;
+
+    public CustomizedUserRepositoryImpl(R2dbcEntityTemplate entityTemplate) {
+        Assert.notNull(entityTemplate, "Entity template must not be null");
+        this.entityTemplate = entityTemplate;
+    }
+
+    @Override
+    public Mono<User> findByEmailWithAuthorities(String email) {
+        Assert.hasText(email, "Email must not be null or empty");
+        return findWithAuthorities(FIND_BY_EMAIL_WITH_AUTHORITIES_SQL, email);
+    }
+
+    @Override
+    public Mono<User> findByIdWithAuthorities(Long id) {
+        Assert.notNull(id, "User id must not be null");
+        return findWithAuthorities(FIND_BY_ID_WITH_AUTHORITIES_SQL, id);
+    }
+
+    private Mono<User> findWithAuthorities(String sql, Object parameter) {
+        BiFunction<Row, RowMetadata, User> rowMapper = entityTemplate.getDataAccessStrategy().getRowMapper(User.class);
+        return entityTemplate.getDatabaseClient()
+                .sql(sql)
+                .bind(0, parameter)
+                .map((row, rowMetadata) -> {
+                    User user = rowMapper.apply(row, rowMetadata);
+                    user.setAuthorities(toAuthorities(row.get(AUTHORITIES_COLUMN, String[].class)));
+                    return user;
+                })
+                .one();
+    }
+
+    private static List<SimpleGrantedAuthority> toAuthorities(String[] authorities) {
+        if (authorities == null) {
+            return List.of();
+        }
+        return Arrays.stream(authorities).map(SimpleGrantedAuthority::new).toList();
+    }
+}
@@ -5,21 +5,28 @@ import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.briarheart.tictactask.data.EntityAlreadyExistsException;
 import org.briarheart.tictactask.data.EntityNotFoundException;
+import org.briarheart.tictactask.security.crypto.password.ReactivePasswordEncoder;
 import org.briarheart.tictactask.user.email.EmailConfirmationService;
 import org.briarheart.tictactask.user.profilepicture.ProfilePicture;
 import org.briarheart.tictactask.user.profilepicture.ProfilePictureRepository;
+import org.briarheart.tictactask.user.profilepicture.ProfilePictureStore;
+import org.briarheart.tictactask.user.profilepicture.ProfilePictureThumbnailGenerator;
 import org.briarheart.tictactask.util.DateTimeUtils;
 import org.briarheart.tictactask.util.Pageables;
 import org.springframework.context.support.MessageSourceAccessor;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import org.springframework.util.StringUtils;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Default implementation of {@link UserService}.
@@ -33,29 +40,41 @@ public class DefaultUserService implements UserService {
 
     private final UserRepository userRepository;
     private final ProfilePictureRepository profilePictureRepository;
+    private final ProfilePictureStore profilePictureStore;
+    private final ProfilePictureThumbnailGenerator thumbnailGenerator;
     private final EmailConfirmationService emailConfirmationService;
-    private final PasswordEncoder passwordEncoder;
+    private final ReactivePasswordEncoder passwordEncoder;
     private final MessageSourceAccessor messages;
+    private final TransactionalOperator transactionalOperator;
 
     @Setter
     private int profilePictureFileMaxSize = DEFAULT_PROFILE_PICTURE_FILE_MAX_SIZE;
 
     public DefaultUserService(UserRepository userRepository,
                               ProfilePictureRepository profilePictureRepository,
+                              ProfilePictureStore profilePictureStore,
+                              ProfilePictureThumbnailGenerator thumbnailGenerator,
                               EmailConfirmationService emailConfirmationService,
-                              PasswordEncoder passwordEncoder,
-                              MessageSourceAccessor messages) {
+                              ReactivePasswordEncoder passwordEncoder,
+                              MessageSourceAccessor messages,
+                              TransactionalOperator transactionalOperator) {
         Assert.notNull(userRepository, "User repository must not be null");
         Assert.notNull(profilePictureRepository, "Profile picture repository must not be null");
+        Assert.notNull(profilePictureStore, "Profile picture store must not be null");
+        Assert.notNull(thumbnailGenerator, "Thumbnail generator must not be null");
         Assert.notNull(emailConfirmationService, "Email confirmation service must not be null");
         Assert.notNull(passwordEncoder, "Password encoder must not be null");
         Assert.notNull(messages, "Message source accessor must not be null");
+        Assert.notNull(transactionalOperator, "Transactional operator must not be null");
 
         this.userRepository = userRepository;
         this.profilePictureRepository = profilePictureRepository;
+        this.profilePictureStore = profilePictureStore;
+        this.thumbnailGenerator = thumbnailGenerator;
         this.emailConfirmationService = emailConfirmationService;
         this.passwordEncoder = passwordEncoder;
         this.messages = messages;
+        this.transactionalOperator = transactionalOperator;
     }
 
     @Override
@@ -79,8 +98,7 @@ public class DefaultUserService implements UserService {
                 .flatMap(u -> ensureEmailNotConfirmed(u, locale))
                 .flatMap(u -> {
                     u.setFullName(user.getFullName());
-                    u.setPassword(encodePassword(user.getPassword()));
-                    return userRepository.save(u);
+                    return setPassword(u, user.getPassword()).flatMap(userRepository::save);
                 })
                 .switchIfEmpty(createNewUser(user)
                         .doOnSuccess(u -> log.debug("User with id {} is created", u.getId())))
@@ -115,28 +133,66 @@ public class DefaultUserService implements UserService {
 
     @Override
     public Mono<ProfilePicture> getProfilePicture(Long userId) throws EntityNotFoundException {
-        return profilePictureRepository.findById(userId)
+        return profilePictureRepository.findMetadataByUserId(userId)
                 .switchIfEmpty(Mono.error(new EntityNotFoundException("Profile picture associated with user with id "
                         + userId + " is not found")));
     }
 
-    @Transactional
     @Override
-    public Mono<ProfilePicture> saveProfilePicture(ProfilePicture picture) {
+    public Mono<Resource> getProfilePictureContent(ProfilePicture picture) throws EntityNotFoundException {
         Assert.notNull(picture, "Profile picture must not be null");
-        if (picture.getData().length > profilePictureFileMaxSize) {
-            return Mono.error(new FileTooLargeException("Profile picture file size must not be greater than "
-                    + profilePictureFileMaxSize + " byte(s)"));
+        String contentHash = picture.getContentHash();
+        Mono<Resource> content = contentHash != null ? profilePictureStore.load(contentHash) : Mono.empty();
+        return content.switchIfEmpty(Mono.error(() -> new EntityNotFoundException("Content of profile picture "
+                + "associated with user with id " + picture.getUserId() + " is not found")));
+    }
+
+    @Override
+    public Mono<Resource> getProfilePictureThumbnail(ProfilePicture picture, int size) {
+        Assert.notNull(picture, "Profile picture must not be null");
+        String contentHash = picture.getContentHash();
+        Integer thumbnailSize = thumbnailGenerator.getThumbnailSize(size);
+        if (contentHash == null || thumbnailSize == null) {
+            return Mono.empty();
         }
+        String variant = thumbnailGenerator.getThumbnailVariant(picture, thumbnailSize);
+        return profilePictureStore.loadVariant(contentHash, variant).switchIfEmpty(Mono.fromRunnable(() -> {
+            // Thumbnails are not generated yet or their generation failed
+            thumbnailGenerator.generateThumbnails(picture);
+        }));
+    }
 
-        return profilePictureRepository.findById(picture.getUserId())
-                .hasElement()
-                .flatMap(found -> {
-                    if (found) {
-                        return profilePictureRepository.save(picture);
-                    }
-                    return profilePictureRepository.create(picture);
-                });
+    @Override
+    public Mono<ProfilePicture> saveProfilePicture(Long userId, Flux<DataBuffer> data, String type) {
+        Assert.notNull(userId, "User id must not be null");
+        Assert.notNull(data, "Profile picture data must not be null");
+
+        // Transaction is started after upload so that database connection is not held during upload
+        return profilePictureStore.save(limitSize(data))
+                .map(content -> ProfilePicture.builder()
+                        .userId(userId)
+                        .type(type)
+                        .contentHash(content.getHash())
+                        .contentLength(content.getLength())
+                        .build())
+                .flatMap(picture -> profilePictureRepository.createOrUpdate(picture)
+                        .as(transactionalOperator::transactional))
+                .doOnNext(thumbnailGenerator::generateThumbnails);
+    }
+
+    private Flux<DataBuffer> limitSize(Flux<DataBuffer> data) {
+        return Flux.defer(() -> {
+            AtomicLong size = new AtomicLong();
+            // Upload is aborted as soon as limit is exceeded
+            return data.map(buffer -> {
+                if (size.addAndGet(buffer.readableByteCount()) > profilePictureFileMaxSize) {
+                    DataBufferUtils.release(buffer);
+                    throw new FileTooLargeException("Profile picture file size must not be greater than "
+                            + profilePictureFileMaxSize + " byte(s)");
+                }
+                return buffer;
+            });
+        });
     }
 
     private Mono<User> ensureEmailNotConfirmed(User user, Locale locale) {
@@ -161,15 +217,21 @@ public class DefaultUserService implements UserService {
             newUser.setId(null);
             newUser.setEmailConfirmed(false);
             newUser.setCreatedAt(DateTimeUtils.currentDateTimeUtc());
-            newUser.setPassword(encodePassword(user.getPassword()));
             newUser.setAdmin(false);
             newUser.setProfilePictureUrl(null);
-            return userRepository.save(newUser);
+            return setPassword(newUser, user.getPassword()).flatMap(userRepository::save);
         });
     }
 
-    private String encodePassword(String rawPassword) {
-        return rawPassword != null ? passwordEncoder.encode(rawPassword) : null;
+    private Mono<User> setPassword(User user, String rawPassword) {
+        if (rawPassword == null) {
+            user.setPassword(null);
+            return Mono.just(user);
+        }
+        return passwordEncoder.encode(rawPassword).map(encodedPassword -> {
+            user.setPassword(encodedPassword);
+            return user;
+        });
     }
 
     private User clearPassword(User user) {
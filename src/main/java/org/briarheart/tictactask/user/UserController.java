@@ -15,16 +15,14 @@ import org.briarheart.tictactask.user.password.PasswordService;
 import org.briarheart.tictactask.user.profilepicture.ProfilePicture;
 import org.briarheart.tictactask.util.Errors;
 import org.springframework.context.support.MessageSourceAccessor;
-import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
-import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.data.domain.Pageable;
-import org.springframework.http.HttpHeaders;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.codec.multipart.FilePart;
-import org.springframework.http.codec.multipart.Part;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.security.core.Authentication;
 import org.springframework.util.Assert;
@@ -39,7 +37,6 @@ import reactor.core.publisher.Mono;
 import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.Size;
-import java.io.ByteArrayOutputStream;
 import java.net.URI;
 import java.time.LocalDateTime;
 import java.util.Locale;
@@ -54,6 +51,9 @@ import java.util.Locale;
         description = "Allows to manage users as well as change user profile picture and password"
 )
 public class UserController extends AbstractController {
+    // Picture may be changed at any time, so cached picture is revalidated with ETag on every request
+    private static final CacheControl PROFILE_PICTURE_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
     private final UserService userService;
     private final EmailConfirmationService emailConfirmationService;
     private final PasswordService passwordService;
@@ -206,14 +206,34 @@ public class UserController extends AbstractController {
     )
     public Mono<ResponseEntity<Resource>> getProfilePicture(
             @Parameter(description = "User id") @PathVariable("id") Long id,
-            Authentication authentication
+            @Parameter(description = "Requested picture size in pixels; original picture is returned when omitted")
+            @RequestParam(name = "size", required = false) Integer size,
+            Authentication authentication,
+            ServerWebExchange exchange
     ) {
-        return ensureValidUserId(id, authentication).then(userService.getProfilePicture(id).map(picture -> {
-            ResponseEntity.BodyBuilder bodyBuilder = ResponseEntity.ok();
-            if (picture.getType() != null) {
-                bodyBuilder.contentType(MediaType.parseMediaType(picture.getType()));
+        return ensureValidUserId(id, authentication).then(userService.getProfilePicture(id).flatMap(picture -> {
+            String eTag = getProfilePictureETag(picture, size);
+            // Content of picture is not touched when client already has actual version of picture.
+            // ServerWebExchange#checkNotModified is not used since it would add ETag to response of any kind.
+            if (eTag != null && isNotModified(exchange.getRequest().getHeaders().getIfNoneMatch(), eTag)) {
+                return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(eTag)
+                        .cacheControl(PROFILE_PICTURE_CACHE_CONTROL)
+                        .build());
+            }
+
+            Mono<ResponseEntity<Resource>> original = Mono.defer(() -> userService.getProfilePictureContent(picture)
+                    .map(content -> {
+                        // Original picture returned instead of thumbnail must not be cached as thumbnail
+                        String originalETag = size == null ? eTag : null;
+                        return createProfilePictureResponse(content, picture, originalETag);
+                    }));
+            if (size == null) {
+                return original;
             }
-            return bodyBuilder.contentLength(picture.getData().length).body(new ByteArrayResource(picture.getData()));
+            return userService.getProfilePictureThumbnail(picture, size)
+                    .map(content -> createProfilePictureResponse(content, picture, eTag))
+                    .switchIfEmpty(original);
         }));
     }
 
@@ -228,28 +248,42 @@ public class UserController extends AbstractController {
                                          @RequestPart("profilePicture") Mono<FilePart> profilePicture,
                                          Authentication authentication, ServerHttpRequest request) {
         User currentUser = getUser(authentication);
-        return ensureValidUserId(id, currentUser).then(profilePicture.flatMapMany(Part::content)
-                .reduce(new ByteArrayOutputStream(), (buffer, content) -> {
-                    buffer.writeBytes(content.asByteBuffer().array());
-                    DataBufferUtils.release(content);
-                    return buffer;
-                }).zipWith(profilePicture.map(Part::headers))
-                .flatMap(contentAndHeaders -> {
-                    byte[] pictureBytes = contentAndHeaders.getT1().toByteArray();
-                    HttpHeaders headers = contentAndHeaders.getT2();
-                    MediaType contentType = headers.getContentType();
-                    String pictureType = contentType != null ? contentType.toString() : null;
-                    ProfilePicture picture = ProfilePicture.builder()
-                            .userId(id)
-                            .data(pictureBytes)
-                            .type(pictureType)
-                            .build();
-                    return userService.saveProfilePicture(picture);
-                }).flatMap(picture -> {
-                    URI profilePictureUri = UriComponentsBuilder.fromHttpRequest(request).build().toUri();
-                    currentUser.setProfilePictureUrl(profilePictureUri.toString());
-                    return userService.updateUser(currentUser);
-                }).then());
+        return ensureValidUserId(id, currentUser).then(profilePicture.flatMap(part -> {
+            MediaType contentType = part.headers().getContentType();
+            String pictureType = contentType != null ? contentType.toString() : null;
+            return userService.saveProfilePicture(id, part.content(), pictureType);
+        }).flatMap(picture -> {
+            URI profilePictureUri = UriComponentsBuilder.fromHttpRequest(request).build().toUri();
+            currentUser.setProfilePictureUrl(profilePictureUri.toString());
+            return userService.updateUser(currentUser);
+        }).then());
+    }
+
+    private static String getProfilePictureETag(ProfilePicture picture, Integer size) {
+        if (picture.getContentHash() == null) {
+            return null;
+        }
+        // Strong validator: content hash identifies picture content, thumbnail is defined by content and size
+        return "\"" + picture.getContentHash() + (size != null ? "-" + size : "") + "\"";
+    }
+
+    private static ResponseEntity<Resource> createProfilePictureResponse(Resource content,
+                                                                         ProfilePicture picture,
+                                                                         String eTag) {
+        ResponseEntity.BodyBuilder bodyBuilder = ResponseEntity.ok();
+        // Thumbnail may be encoded in format other than format of original picture
+        MediaType contentType = MediaTypeFactory.getMediaType(content).orElseGet(() ->
+                picture.getType() != null ? MediaType.parseMediaType(picture.getType()) : null);
+        if (contentType != null) {
+            bodyBuilder.contentType(contentType);
+        }
+        if (eTag != null) {
+            bodyBuilder.eTag(eTag).cacheControl(PROFILE_PICTURE_CACHE_CONTROL);
+        } else {
+            bodyBuilder.cacheControl(CacheControl.noStore());
+        }
+        // File resource is written to response with zero-copy transfer
+        return bodyBuilder.body(content);
     }
 
     private Mono<Void> ensureValidUserId(Long id, Authentication authentication) {
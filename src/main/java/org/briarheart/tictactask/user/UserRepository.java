@@ -8,7 +8,7 @@ import reactor.core.publisher.Mono;
 /**
  * @author Roman Chigvintsev
  */
-public interface UserRepository extends ReactiveCrudRepository<User, Long> {
+public interface UserRepository extends ReactiveCrudRepository<User, Long>, CustomizedUserRepository {
     @Query("SELECT * FROM users ORDER BY id ASC LIMIT :limit OFFSET :offset")
     Flux<User> findAllOrderByIdAsc(long offset, Integer limit);
 
@@ -3,6 +3,8 @@ package org.briarheart.tictactask.user;
 import org.briarheart.tictactask.data.EntityAlreadyExistsException;
 import org.briarheart.tictactask.data.EntityNotFoundException;
 import org.briarheart.tictactask.user.profilepicture.ProfilePicture;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.data.domain.Pageable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -52,7 +54,7 @@ public interface UserService {
     Mono<User> updateUser(User user) throws EntityNotFoundException;
 
     /**
-     * Returns profile picture associated with user with the given id.
+     * Returns metadata of profile picture associated with user with the given id. Picture content is not loaded.
      *
      * @param userId user id
      * @return profile picture or empty stream if user does not have a profile picture
@@ -61,10 +63,33 @@ public interface UserService {
     Mono<ProfilePicture> getProfilePicture(Long userId) throws EntityNotFoundException;
 
     /**
-     * Creates new or updates existing profile picture.
+     * Returns content of the given profile picture.
      *
-     * @param picture profile picture to be created/updated (must not be {@code null})
+     * @param picture profile picture (must not be {@code null})
+     * @return profile picture content
+     * @throws EntityNotFoundException if content of profile picture is not found
+     */
+    Mono<Resource> getProfilePictureContent(ProfilePicture picture) throws EntityNotFoundException;
+
+    /**
+     * Returns thumbnail of the given profile picture of the smallest size that is not less than the given one.
+     * Thumbnails depend only on picture content, so thumbnail of the same picture and size never changes.
+     *
+     * @param picture profile picture (must not be {@code null})
+     * @param size    requested size of picture in pixels
+     * @return thumbnail or empty stream if there is no thumbnail of suitable size or thumbnail is not generated yet
+     */
+    Mono<Resource> getProfilePictureThumbnail(ProfilePicture picture, int size);
+
+    /**
+     * Creates new or updates existing profile picture of user with the given id. Picture content is consumed as it
+     * arrives and is written to the profile picture store, upload is aborted with {@link FileTooLargeException} as soon
+     * as its size exceeds the allowed maximum.
+     *
+     * @param userId user id (must not be {@code null})
+     * @param data   picture content (must not be {@code null})
+     * @param type   picture media type
      * @return created/updated profile picture
      */
-    Mono<ProfilePicture> saveProfilePicture(ProfilePicture picture);
+    Mono<ProfilePicture> saveProfilePicture(Long userId, Flux<DataBuffer> data, String type);
 }
@@ -7,12 +7,10 @@ import org.briarheart.tictactask.config.ApplicationProperties;
 import org.briarheart.tictactask.data.EntityNotFoundException;
 import org.briarheart.tictactask.email.EmailService;
 import org.briarheart.tictactask.user.TokenExpiredException;
-import org.briarheart.tictactask.user.UnableToSendMessageException;
 import org.briarheart.tictactask.user.User;
 import org.briarheart.tictactask.user.UserRepository;
 import org.briarheart.tictactask.util.DateTimeUtils;
 import org.springframework.context.support.MessageSourceAccessor;
-import org.springframework.mail.MailException;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 import org.springframework.web.util.UriComponentsBuilder;
@@ -62,11 +60,10 @@ public class DefaultEmailConfirmationService implements EmailConfirmationService
 
     @Transactional
     @Override
-    public Mono<EmailConfirmationToken> sendEmailConfirmationLink(User user, Locale locale)
-            throws UnableToSendMessageException {
+    public Mono<EmailConfirmationToken> sendEmailConfirmationLink(User user, Locale locale) {
         Assert.notNull(user, "User must not be null");
         return createEmailConfirmationToken(user)
-                .map(token -> {
+                .flatMap(token -> {
                     String confirmationLink = buildEmailConfirmationLink(user, token);
 
                     String subject = messages.getMessage("user.registration.email-confirmation.message.subject",
@@ -74,27 +71,10 @@ public class DefaultEmailConfirmationService implements EmailConfirmationService
                     String text = messages.getMessage("user.registration.email-confirmation.message.text",
                             new Object[]{user.getFullName(), applicationProperties.getName(), confirmationLink}, locale);
 
-                    emailService.sendEmail(user.getEmail(), subject, text);
-                    log.debug("Email confirmation link is sent to email {}", user.getEmail());
-                    return token;
-                })
-                .onErrorMap(MailException.class, e -> {
-                    String message = messages.getMessage(
-                            "user.registration.email-confirmation.link.unable-to-send",
-                            new Object[]{user.getEmail()},
-                            Locale.ENGLISH
-                    );
-                    String localizedMessage;
-                    if (locale == null || locale == Locale.ENGLISH) {
-                        localizedMessage = message;
-                    } else {
-                        localizedMessage = messages.getMessage(
-                                "user.registration.email-confirmation.link.unable-to-send",
-                                new Object[]{user.getEmail()},
-                                locale
-                        );
-                    }
-                    return new UnableToSendMessageException(message, localizedMessage, e);
+                    return emailService.sendEmail(user.getEmail(), subject, text)
+                            .doOnSuccess(v -> log.debug("Email confirmation link is queued for sending to email {}",
+                                    user.getEmail()))
+                            .thenReturn(token);
                 });
     }
 
@@ -2,7 +2,6 @@ package org.briarheart.tictactask.user.email;
 
 import org.briarheart.tictactask.data.EntityNotFoundException;
 import org.briarheart.tictactask.user.TokenExpiredException;
-import org.briarheart.tictactask.user.UnableToSendMessageException;
 import org.briarheart.tictactask.user.User;
 import reactor.core.publisher.Mono;
 
@@ -19,10 +18,8 @@ public interface EmailConfirmationService {
      *
      * @param user   user to which email confirmation link should be sent (must not be {@code null})
      * @param locale current user's locale
-     * @throws UnableToSendMessageException if error occurred while trying to send email confirmation link
      */
-    Mono<EmailConfirmationToken> sendEmailConfirmationLink(User user, Locale locale)
-            throws UnableToSendMessageException;
+    Mono<EmailConfirmationToken> sendEmailConfirmationLink(User user, Locale locale);
 
     /**
      * Confirms email for user with the given id.
@@ -5,9 +5,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.briarheart.tictactask.ApplicationEnvironment;
 import org.briarheart.tictactask.config.ApplicationProperties;
 import org.briarheart.tictactask.data.EntityNotFoundException;
+import org.briarheart.tictactask.security.crypto.password.ReactivePasswordEncoder;
 import org.briarheart.tictactask.email.EmailService;
 import org.briarheart.tictactask.user.TokenExpiredException;
-import org.briarheart.tictactask.user.UnableToSendMessageException;
 import org.briarheart.tictactask.user.User;
 import org.briarheart.tictactask.user.UserRepository;
 import org.briarheart.tictactask.util.DateTimeUtils;
@@ -16,8 +16,6 @@ import org.joda.time.PeriodType;
 import org.joda.time.format.PeriodFormat;
 import org.joda.time.format.PeriodFormatter;
 import org.springframework.context.support.MessageSourceAccessor;
-import org.springframework.mail.MailException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 import org.springframework.web.util.UriComponentsBuilder;
@@ -43,7 +41,7 @@ public class DefaultPasswordService implements PasswordService {
     private final ApplicationProperties applicationProperties;
     private final MessageSourceAccessor messages;
     private final EmailService emailService;
-    private final PasswordEncoder passwordEncoder;
+    private final ReactivePasswordEncoder passwordEncoder;
 
     @Setter
     private Duration passwordResetTokenExpirationTimeout = DEFAULT_TOKEN_EXPIRATION_TIMEOUT;
@@ -53,7 +51,7 @@ public class DefaultPasswordService implements PasswordService {
                                   ApplicationProperties applicationProperties,
                                   MessageSourceAccessor messages,
                                   EmailService emailService,
-                                  PasswordEncoder passwordEncoder) {
+                                  ReactivePasswordEncoder passwordEncoder) {
         Assert.notNull(tokenRepository, "Token repository must not be null");
         Assert.notNull(userRepository, "User repository must not be null");
         Assert.notNull(applicationProperties, "Application info properties must not be null");
@@ -94,11 +92,11 @@ public class DefaultPasswordService implements PasswordService {
                             .doOnSuccess(t -> log.debug("Token with id {} is marked as invalid", t.getId()));
                 })
                 .flatMap(token -> findUser(userId))
-                .flatMap(user -> {
-                    user.setPassword(encodePassword(newPassword));
+                .flatMap(user -> passwordEncoder.encode(newPassword).flatMap(encodedPassword -> {
+                    user.setPassword(encodedPassword);
                     return userRepository.save(user)
                             .doOnSuccess(u -> log.debug("Password is reset for user with id {}", u.getId()));
-                })
+                }))
                 .then();
     }
 
@@ -106,21 +104,20 @@ public class DefaultPasswordService implements PasswordService {
     @Override
     public Mono<Void> changePassword(Long userId, String currentPassword, String newPassword) {
         return findUser(userId)
-                .flatMap(user -> {
-                    if (!passwordEncoder.matches(currentPassword, user.getPassword())) {
+                .flatMap(user -> passwordEncoder.matches(currentPassword, user.getPassword()).flatMap(matches -> {
+                    if (!matches) {
                         return Mono.error(new InvalidPasswordException(currentPassword));
                     }
                     return Mono.just(user);
-                }).flatMap(user -> {
-                    user.setPassword(encodePassword(newPassword));
+                })).flatMap(user -> passwordEncoder.encode(newPassword).flatMap(encodedPassword -> {
+                    user.setPassword(encodedPassword);
                     return userRepository.save(user);
-                }).then();
+                })).then();
     }
 
-    private Mono<PasswordResetConfirmationToken> sendPasswordResetLink(User user, Locale locale)
-            throws UnableToSendMessageException {
+    private Mono<PasswordResetConfirmationToken> sendPasswordResetLink(User user, Locale locale) {
         return createPasswordResetToken(user)
-                .map(token -> {
+                .flatMap(token -> {
                     String passwordResetLink = buildPasswordResetLink(user, token);
 
                     String subject = messages.getMessage("user.password-reset.message.subject",
@@ -130,21 +127,10 @@ public class DefaultPasswordService implements PasswordService {
                     String text = messages.getMessage("user.password-reset.message.text",
                             new Object[]{user.getFullName(), passwordResetLink, linkExpiresAfter}, locale);
 
-                    emailService.sendEmail(user.getEmail(), subject, text);
-                    log.debug("Password reset confirmation link is sent to email {}", user.getEmail());
-                    return token;
-                })
-                .onErrorMap(MailException.class, e -> {
-                    String message = messages.getMessage("user.password-reset.link.unable-to-send",
-                            new Object[]{user.getEmail()}, Locale.ENGLISH);
-                    String localizedMessage;
-                    if (locale == null || locale == Locale.ENGLISH) {
-                        localizedMessage = message;
-                    } else {
-                        localizedMessage = messages.getMessage("user.password-reset.link.unable-to-send",
-                                new Object[]{user.getEmail()}, locale);
-                    }
-                    return new UnableToSendMessageException(message, localizedMessage, e);
+                    return emailService.sendEmail(user.getEmail(), subject, text)
+                            .doOnSuccess(v -> log.debug("Password reset confirmation link is queued for sending to "
+                                    + "email {}", user.getEmail()))
+                            .thenReturn(token);
                 });
     }
 
@@ -173,10 +159,6 @@ public class DefaultPasswordService implements PasswordService {
         });
     }
 
-    private String encodePassword(String rawPassword) {
-        return passwordEncoder.encode(rawPassword);
-    }
-
     private String formatPasswordResetTokenExpirationTimeout(Locale locale) {
         Period period = new Period(passwordResetTokenExpirationTimeout.toMillis());
         PeriodFormatter periodFormatter = PeriodFormat.wordBased(locale);
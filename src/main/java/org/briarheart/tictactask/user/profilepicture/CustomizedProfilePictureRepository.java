@@ -1,10 +1,34 @@
 package org.briarheart.tictactask.user.profilepicture;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
  * @author Roman Chigvintsev
  */
 public interface CustomizedProfilePictureRepository {
-    Mono<ProfilePicture> create(ProfilePicture picture);
+    /**
+     * Creates new profile picture or updates existing one atomically. Content of profile picture that is still stored
+     * in the database is removed.
+     *
+     * @param picture profile picture to be saved
+     * @return saved profile picture
+     */
+    Mono<ProfilePicture> createOrUpdate(ProfilePicture picture);
+
+    /**
+     * Returns ids of users whose profile pictures are still stored in the database and have not been moved to
+     * {@link ProfilePictureStore} yet.
+     */
+    Flux<Long> findUserIdsWithLegacyData();
+
+    /**
+     * Returns content of profile picture that is still stored in the database and locks it until the end of the
+     * current transaction. Picture that is already locked by another transaction is skipped.
+     *
+     * @param userId user id
+     * @return picture content or empty stream if picture is not found, already moved to {@link ProfilePictureStore}
+     * or locked by another transaction
+     */
+    Mono<byte[]> findLegacyDataByUserIdForUpdateSkipLocked(Long userId);
 }
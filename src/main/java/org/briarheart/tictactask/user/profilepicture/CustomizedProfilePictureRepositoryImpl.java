@@ -3,6 +3,7 @@ package org.briarheart.tictactask.user.profilepicture;
 import io.jsonwebtoken.lang.Assert;
 import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
@@ -11,8 +12,17 @@ import reactor.core.publisher.Mono;
 @Component
 public class CustomizedProfilePictureRepositoryImpl implements CustomizedProfilePictureRepository {
     @SuppressWarnings("SqlResolve")
-    private static final String SQL_CREATE_PROFILE_PICTURE = "INSERT INTO profile_picture (user_id, data, type) "
-            + "VALUES (:userId, :data, :type)";
+    private static final String SQL_CREATE_OR_UPDATE_PROFILE_PICTURE = "INSERT INTO profile_picture "
+            + "(user_id, type, content_hash, content_length) VALUES (:userId, :type, :contentHash, :contentLength) "
+            + "ON CONFLICT (user_id) DO UPDATE SET type = EXCLUDED.type, content_hash = EXCLUDED.content_hash, "
+            + "content_length = EXCLUDED.content_length, data = NULL";
+    @SuppressWarnings("SqlResolve")
+    private static final String SQL_FIND_USER_IDS_WITH_LEGACY_DATA = "SELECT user_id FROM profile_picture "
+            + "WHERE data IS NOT NULL AND content_hash IS NULL";
+    @SuppressWarnings("SqlResolve")
+    private static final String SQL_FIND_LEGACY_DATA_BY_USER_ID_FOR_UPDATE_SKIP_LOCKED = "SELECT data "
+            + "FROM profile_picture WHERE user_id = :userId AND data IS NOT NULL AND content_hash IS NULL "
+            + "FOR UPDATE SKIP LOCKED";
 
     private final DatabaseClient databaseClient;
 
@@ -22,13 +32,29 @@ public class CustomizedProfilePictureRepositoryImpl implements CustomizedProfile
     }
 
     @Override
-    public Mono<ProfilePicture> create(ProfilePicture picture) {
-        return databaseClient.sql(SQL_CREATE_PROFILE_PICTURE)
+    public Mono<ProfilePicture> createOrUpdate(ProfilePicture picture) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(SQL_CREATE_OR_UPDATE_PROFILE_PICTURE)
                 .bind("userId", picture.getUserId())
-                .bind("data", picture.getData())
-                .bind("type", picture.getType())
-                .fetch()
-                .first()
-                .map(result -> picture);
+                .bind("contentHash", picture.getContentHash());
+        spec = picture.getType() != null ? spec.bind("type", picture.getType()) : spec.bindNull("type", String.class);
+        spec = picture.getContentLength() != null
+                ? spec.bind("contentLength", picture.getContentLength())
+                : spec.bindNull("contentLength", Long.class);
+        return spec.fetch().rowsUpdated().map(result -> picture);
+    }
+
+    @Override
+    public Flux<Long> findUserIdsWithLegacyData() {
+        return databaseClient.sql(SQL_FIND_USER_IDS_WITH_LEGACY_DATA)
+                .map((row, rowMetadata) -> row.get("user_id", Long.class))
+                .all();
+    }
+
+    @Override
+    public Mono<byte[]> findLegacyDataByUserIdForUpdateSkipLocked(Long userId) {
+        return databaseClient.sql(SQL_FIND_LEGACY_DATA_BY_USER_ID_FOR_UPDATE_SKIP_LOCKED)
+                .bind("userId", userId)
+                .map((row, rowMetadata) -> row.get("data", byte[].class))
+                .one();
     }
 }
@@ -0,0 +1,222 @@
+package org.briarheart.tictactask.user.profilepicture;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import lombok.extern.slf4j.Slf4j;
+import org.briarheart.tictactask.config.ApplicationProperties;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Implementation of {@link ProfilePictureStore} that keeps content in local file system. Content is written to a
+ * temporary file while its hash is being calculated and then moved to the file named after the hash. File is placed
+ * into two levels of subdirectories named after the first characters of the hash to keep directories small. Variants
+ * of content are placed next to the original file and named after the hash and variant name.
+ * <p>
+ * Files returned by this store are served with zero-copy transfer when the underlying server supports it. Last
+ * modification time of file is used as save time of content.
+ * <p>
+ * Files are kept on the local disk, so all application instances must share the storage directory (for example,
+ * mounted from network file system). Otherwise only single application instance is supported: pictures saved by one
+ * instance are not found by others.
+ *
+ * @author Roman Chigvintsev
+ */
+@Component
+@Slf4j
+public class FileSystemProfilePictureStore implements ProfilePictureStore {
+    private static final Pattern HASH_PATTERN = Pattern.compile("[0-9a-f]{64}");
+    private static final Pattern VARIANT_PATTERN = Pattern.compile("[0-9a-z]+(\\.[0-9a-z]+)?");
+    private static final String TEMP_DIRECTORY_NAME = "tmp";
+
+    private final Path directory;
+    private final Path tempDirectory;
+
+    public FileSystemProfilePictureStore(ApplicationProperties applicationProperties) {
+        Assert.notNull(applicationProperties, "Application properties must not be null");
+        String directory = applicationProperties.getProfilePictureStorage().getDirectory();
+        Assert.hasText(directory, "Profile picture storage directory must not be null or empty");
+
+        this.directory = Path.of(directory).toAbsolutePath().normalize();
+        // Temporary files must reside on the same file store to be moved atomically
+        this.tempDirectory = this.directory.resolve(TEMP_DIRECTORY_NAME);
+    }
+
+    @Override
+    public Mono<StoredContent> save(Flux<DataBuffer> content) {
+        Assert.notNull(content, "Content must not be null");
+        return Mono.usingWhen(createTempFile(), tempFile -> {
+            Hasher hasher = Hashing.sha256().newHasher();
+            AtomicLong length = new AtomicLong();
+            Flux<DataBuffer> hashedContent = content.doOnNext(buffer -> {
+                hasher.putBytes(buffer.asByteBuffer());
+                length.addAndGet(buffer.readableByteCount());
+            });
+            return DataBufferUtils.write(hashedContent, tempFile)
+                    .then(Mono.fromCallable(() -> moveToStore(tempFile, hasher.hash().toString(), length.get()))
+                            .subscribeOn(Schedulers.boundedElastic()));
+        }, this::deleteTempFile);
+    }
+
+    @Override
+    public Mono<Resource> load(String hash) {
+        Assert.hasText(hash, "Content hash must not be null or empty");
+        if (!HASH_PATTERN.matcher(hash).matches()) {
+            return Mono.empty();
+        }
+        return loadFile(resolve(hash));
+    }
+
+    @Override
+    public Mono<Void> saveVariant(String hash, String variant, Flux<DataBuffer> content) {
+        Assert.hasText(hash, "Content hash must not be null or empty");
+        Assert.hasText(variant, "Variant must not be null or empty");
+        Assert.notNull(content, "Content must not be null");
+        Assert.isTrue(HASH_PATTERN.matcher(hash).matches(), "Invalid content hash");
+        Assert.isTrue(VARIANT_PATTERN.matcher(variant).matches(), "Invalid variant");
+
+        return Mono.usingWhen(createTempFile(), tempFile -> DataBufferUtils.write(content, tempFile)
+                .then(Mono.fromCallable(() -> {
+                    Path file = resolve(hash, variant);
+                    Files.createDirectories(file.getParent());
+                    Files.move(tempFile, file, StandardCopyOption.ATOMIC_MOVE);
+                    log.debug("Variant {} of content with hash {} is stored", variant, hash);
+                    return file;
+                }).subscribeOn(Schedulers.boundedElastic())), this::deleteTempFile).then();
+    }
+
+    @Override
+    public Mono<Resource> loadVariant(String hash, String variant) {
+        Assert.hasText(hash, "Content hash must not be null or empty");
+        Assert.hasText(variant, "Variant must not be null or empty");
+        if (!HASH_PATTERN.matcher(hash).matches() || !VARIANT_PATTERN.matcher(variant).matches()) {
+            return Mono.empty();
+        }
+        return loadFile(resolve(hash, variant));
+    }
+
+    @Override
+    public Flux<String> findHashesSavedBefore(Instant time) {
+        Assert.notNull(time, "Time must not be null");
+        // Content files are placed into two levels of subdirectories
+        Flux<Path> files = Flux.defer(() -> Files.isDirectory(directory)
+                ? Flux.using(() -> Files.walk(directory, 3), Flux::fromStream, Stream::close)
+                : Flux.empty());
+        return files.filter(file -> HASH_PATTERN.matcher(file.getFileName().toString()).matches())
+                .filter(file -> isSavedBefore(file, time))
+                .map(file -> file.getFileName().toString())
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Mono<Boolean> delete(String hash, Instant savedBefore) {
+        Assert.hasText(hash, "Content hash must not be null or empty");
+        Assert.notNull(savedBefore, "Time must not be null");
+        if (!HASH_PATTERN.matcher(hash).matches()) {
+            return Mono.just(false);
+        }
+        return Mono.fromCallable(() -> {
+            Path file = resolve(hash);
+            if (!isSavedBefore(file, savedBefore) || !Files.deleteIfExists(file)) {
+                return false;
+            }
+            try (DirectoryStream<Path> variants = Files.newDirectoryStream(file.getParent(), hash + "-*")) {
+                for (Path variant : variants) {
+                    Files.deleteIfExists(variant);
+                }
+            }
+            log.debug("Content with hash {} is deleted", hash);
+            return true;
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Mono<Path> createTempFile() {
+        return Mono.fromCallable(() -> {
+            Files.createDirectories(tempDirectory);
+            return Files.createTempFile(tempDirectory, "upload-", ".tmp");
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Mono<Void> deleteTempFile(Path tempFile) {
+        return Mono.<Void>fromRunnable(() -> {
+            try {
+                // File is already moved to the store unless content was not saved
+                Files.deleteIfExists(tempFile);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }).subscribeOn(Schedulers.boundedElastic()).onErrorResume(e -> {
+            log.warn("Failed to delete temporary file {}", tempFile, e);
+            return Mono.empty();
+        });
+    }
+
+    private StoredContent moveToStore(Path tempFile, String hash, long length) throws IOException {
+        Path file = resolve(hash);
+        if (touch(file)) {
+            log.debug("Content with hash {} is already stored", hash);
+        } else {
+            Files.createDirectories(file.getParent());
+            // Concurrently saved file with the same name has the same content and may be safely replaced
+            Files.move(tempFile, file, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Content with hash {} is stored", hash);
+        }
+        return new StoredContent(hash, length);
+    }
+
+    /**
+     * Updates save time of the given file so that it is not deleted as unreferenced before reference to it is saved.
+     *
+     * @return {@code true} if file exists, {@code false} otherwise
+     */
+    private boolean touch(Path file) throws IOException {
+        try {
+            Files.setLastModifiedTime(file, FileTime.from(Instant.now()));
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    private boolean isSavedBefore(Path file, Instant time) {
+        try {
+            return Files.isRegularFile(file) && Files.getLastModifiedTime(file).toInstant().isBefore(time);
+        } catch (IOException e) {
+            // File is deleted concurrently
+            return false;
+        }
+    }
+
+    private Mono<Resource> loadFile(Path file) {
+        return Mono.<Resource>fromCallable(() -> Files.isRegularFile(file) ? new FileSystemResource(file) : null)
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Path resolve(String hash) {
+        return directory.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    private Path resolve(String hash, String variant) {
+        return resolve(hash).resolveSibling(hash + "-" + variant);
+    }
+}
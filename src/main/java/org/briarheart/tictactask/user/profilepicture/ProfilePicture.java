@@ -4,6 +4,9 @@ import lombok.*;
 import org.springframework.data.annotation.Id;
 
 /**
+ * Profile picture metadata. Content of profile picture is kept in {@link ProfilePictureStore} under the key that is
+ * equal to the content hash.
+ *
  * @author Roman Chigvintsev
  */
 @Data
@@ -13,6 +16,7 @@ import org.springframework.data.annotation.Id;
 public class ProfilePicture {
     @Id
     private Long userId;
-    private byte[] data;
     private String type;
+    private String contentHash;
+    private Long contentLength;
 }
@@ -0,0 +1,98 @@
+package org.briarheart.tictactask.user.profilepicture;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.util.Assert;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Moves content of profile pictures that were uploaded when pictures were stored in the database to
+ * {@link ProfilePictureStore}. Migration is started in background once on application startup; pictures are moved one
+ * by one so that only one picture is kept in memory at a time.
+ * <p>
+ * Every picture is moved in its own transaction that locks the picture with {@code FOR UPDATE SKIP LOCKED}, so when
+ * several application instances are started simultaneously every picture is moved by only one of them.
+ *
+ * @author Roman Chigvintsev
+ */
+@Component
+@Slf4j
+public class ProfilePictureDataMigrator implements SmartLifecycle {
+    private final ProfilePictureRepository profilePictureRepository;
+    private final ProfilePictureStore profilePictureStore;
+    private final TransactionalOperator transactionalOperator;
+
+    private Disposable subscription;
+
+    public ProfilePictureDataMigrator(ProfilePictureRepository profilePictureRepository,
+                                      ProfilePictureStore profilePictureStore,
+                                      TransactionalOperator transactionalOperator) {
+        Assert.notNull(profilePictureRepository, "Profile picture repository must not be null");
+        Assert.notNull(profilePictureStore, "Profile picture store must not be null");
+        Assert.notNull(transactionalOperator, "Transactional operator must not be null");
+
+        this.profilePictureRepository = profilePictureRepository;
+        this.profilePictureStore = profilePictureStore;
+        this.transactionalOperator = transactionalOperator;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (isRunning()) {
+            return;
+        }
+        subscription = migrate().subscribe(
+                count -> {
+                    if (count > 0) {
+                        log.info("{} profile picture(s) are moved to profile picture store", count);
+                    }
+                },
+                e -> log.error("Failed to move profile pictures to profile picture store", e)
+        );
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+            subscription = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return subscription != null && !subscription.isDisposed();
+    }
+
+    /**
+     * Moves all profile pictures that are still stored in the database to {@link ProfilePictureStore}.
+     *
+     * @return number of moved profile pictures
+     */
+    Mono<Integer> migrate() {
+        return profilePictureRepository.findUserIdsWithLegacyData()
+                // Ids are collected first so that database cursor is not kept open while pictures are moved
+                .collectList()
+                .flatMapMany(Flux::fromIterable)
+                .concatMap(this::migrate)
+                .reduce(0, Integer::sum);
+    }
+
+    private Mono<Integer> migrate(Long userId) {
+        return profilePictureRepository.findLegacyDataByUserIdForUpdateSkipLocked(userId)
+                .flatMap(data -> {
+                    Flux<DataBuffer> content = Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(data));
+                    return profilePictureStore.save(content);
+                })
+                .flatMap(content -> profilePictureRepository.updateLegacyDataByUserId(userId, content.getHash(),
+                        content.getLength()))
+                .as(transactionalOperator::transactional)
+                .defaultIfEmpty(0);
+    }
+}
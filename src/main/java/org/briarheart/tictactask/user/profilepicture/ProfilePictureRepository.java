@@ -1,10 +1,24 @@
 package org.briarheart.tictactask.user.profilepicture;
 
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Mono;
 
 /**
  * @author Roman Chigvintsev
  */
 public interface ProfilePictureRepository
         extends ReactiveCrudRepository<ProfilePicture, Long>, CustomizedProfilePictureRepository {
+    // Legacy "data" column is not selected
+    @Query("SELECT user_id, type, content_hash, content_length FROM profile_picture WHERE user_id = :userId")
+    Mono<ProfilePicture> findMetadataByUserId(Long userId);
+
+    Mono<Boolean> existsByContentHash(String contentHash);
+
+    // Condition on "content_hash" column guarantees that picture uploaded during migration is not overwritten
+    @Modifying
+    @Query("UPDATE profile_picture SET content_hash = :contentHash, content_length = :contentLength, data = NULL "
+            + "WHERE user_id = :userId AND content_hash IS NULL")
+    Mono<Integer> updateLegacyDataByUserId(Long userId, String contentHash, Long contentLength);
 }
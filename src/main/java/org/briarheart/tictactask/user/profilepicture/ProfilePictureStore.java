@@ -0,0 +1,73 @@
+package org.briarheart.tictactask.user.profilepicture;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DataBuffer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+/**
+ * Storage of profile picture content. Content is addressed by its hash, so that identical pictures are stored only
+ * once. Since the same content may be referenced by several profile pictures it is not deleted when picture is
+ * replaced: content that is not referenced anymore is deleted in background by {@link ProfilePictureStoreCleaner}.
+ *
+ * @author Roman Chigvintsev
+ */
+public interface ProfilePictureStore {
+    /**
+     * Saves the given content. Data buffers are released once they are written. Save time of content that is already
+     * stored is updated.
+     *
+     * @param content content to be saved (must not be {@code null})
+     * @return information about saved content
+     */
+    Mono<StoredContent> save(Flux<DataBuffer> content);
+
+    /**
+     * Loads content with the given hash.
+     *
+     * @param hash content hash (must not be {@code null} or empty)
+     * @return resource representing content or empty stream if content is not found
+     */
+    Mono<Resource> load(String hash);
+
+    /**
+     * Saves variant of content with the given hash (for example, thumbnail of picture). Variants are derived from
+     * original content, so variant with the same name is replaced. Data buffers are released once they are written.
+     *
+     * @param hash    hash of original content (must not be {@code null} or empty)
+     * @param variant variant name that consists of lower-case letters, digits and optional extension after dot
+     *                (must not be {@code null} or empty)
+     * @param content variant content (must not be {@code null})
+     * @return empty stream when variant is saved
+     */
+    Mono<Void> saveVariant(String hash, String variant, Flux<DataBuffer> content);
+
+    /**
+     * Loads variant of content with the given hash.
+     *
+     * @param hash    hash of original content (must not be {@code null} or empty)
+     * @param variant variant name (must not be {@code null} or empty)
+     * @return resource representing variant or empty stream if variant is not found
+     */
+    Mono<Resource> loadVariant(String hash, String variant);
+
+    /**
+     * Returns hashes of all content that was saved before the given time.
+     *
+     * @param time time of save (must not be {@code null})
+     * @return content hashes
+     */
+    Flux<String> findHashesSavedBefore(Instant time);
+
+    /**
+     * Deletes content with the given hash together with all its variants unless content was saved again after the
+     * given time.
+     *
+     * @param hash        content hash (must not be {@code null} or empty)
+     * @param savedBefore time before which content must have been saved to be deleted (must not be {@code null})
+     * @return {@code true} if content is deleted, {@code false} otherwise
+     */
+    Mono<Boolean> delete(String hash, Instant savedBefore);
+}
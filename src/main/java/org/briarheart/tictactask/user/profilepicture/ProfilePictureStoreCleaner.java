@@ -0,0 +1,99 @@
+package org.briarheart.tictactask.user.profilepicture;
+
+import lombok.extern.slf4j.Slf4j;
+import org.briarheart.tictactask.config.ApplicationProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Background worker that periodically deletes content from {@link ProfilePictureStore} that is not referenced by any
+ * profile picture (for example, content of replaced pictures). Content is uploaded to the store before reference to
+ * it is saved in the database, so content saved within grace period is never deleted.
+ *
+ * @author Roman Chigvintsev
+ */
+@Component
+@ConditionalOnProperty(name = "application.profile-picture-storage.cleanup-enabled", matchIfMissing = true)
+@Slf4j
+public class ProfilePictureStoreCleaner implements SmartLifecycle {
+    private final ProfilePictureRepository profilePictureRepository;
+    private final ProfilePictureStore profilePictureStore;
+    private final ApplicationProperties.ProfilePictureStorage storageProperties;
+
+    private Disposable subscription;
+
+    public ProfilePictureStoreCleaner(ProfilePictureRepository profilePictureRepository,
+                                      ProfilePictureStore profilePictureStore,
+                                      ApplicationProperties applicationProperties) {
+        Assert.notNull(profilePictureRepository, "Profile picture repository must not be null");
+        Assert.notNull(profilePictureStore, "Profile picture store must not be null");
+        Assert.notNull(applicationProperties, "Application properties must not be null");
+
+        this.profilePictureRepository = profilePictureRepository;
+        this.profilePictureStore = profilePictureStore;
+        this.storageProperties = applicationProperties.getProfilePictureStorage();
+        Assert.isTrue(!storageProperties.getCleanupGracePeriod().isNegative(), "Grace period must not be negative");
+    }
+
+    @Override
+    public synchronized void start() {
+        if (isRunning()) {
+            return;
+        }
+        subscription = Flux.interval(Duration.ZERO, storageProperties.getCleanupInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> cleanUp().onErrorResume(e -> {
+                    log.error("Failed to delete unreferenced profile pictures", e);
+                    return Mono.empty();
+                }), 1)
+                .subscribe();
+        log.debug("Profile picture store cleaner is started");
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+            subscription = null;
+        }
+        log.debug("Profile picture store cleaner is stopped");
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return subscription != null && !subscription.isDisposed();
+    }
+
+    /**
+     * Deletes content that was saved before grace period and is not referenced by any profile picture.
+     *
+     * @return number of deleted content items
+     */
+    Mono<Integer> cleanUp() {
+        return Mono.defer(() -> {
+            Instant savedBefore = getCurrentTime().minus(storageProperties.getCleanupGracePeriod());
+            return profilePictureStore.findHashesSavedBefore(savedBefore)
+                    .filterWhen(hash -> profilePictureRepository.existsByContentHash(hash).map(found -> !found))
+                    .concatMap(hash -> profilePictureStore.delete(hash, savedBefore))
+                    .filter(Boolean::booleanValue)
+                    .count()
+                    .map(Long::intValue);
+        }).doOnNext(count -> {
+            if (count > 0) {
+                log.debug("{} unreferenced profile picture(s) are deleted", count);
+            }
+        });
+    }
+
+    protected Instant getCurrentTime() {
+        return Instant.now();
+    }
+}
@@ -0,0 +1,223 @@
+package org.briarheart.tictactask.user.profilepicture;
+
+import lombok.extern.slf4j.Slf4j;
+import org.briarheart.tictactask.config.ApplicationProperties;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Generates thumbnails of profile pictures in fixed sizes. Thumbnails are generated in background on a dedicated
+ * scheduler with fixed number of threads and saved in {@link ProfilePictureStore} as variants of the original
+ * picture. Number of pictures waiting for thumbnails is limited: when the limit is reached new requests are dropped,
+ * thumbnails of such pictures are generated on the next request for a thumbnail.
+ * <p>
+ * Thumbnails of JPEG pictures are encoded as JPEG, thumbnails of pictures in other formats are encoded as PNG.
+ *
+ * @author Roman Chigvintsev
+ */
+@Component
+@Slf4j
+public class ProfilePictureThumbnailGenerator implements DisposableBean {
+    // Protects from pictures that are small in compressed form but take gigabytes of memory when decoded
+    private static final long MAX_PICTURE_PIXELS = 25_000_000L;
+
+    private final ProfilePictureStore profilePictureStore;
+    private final List<Integer> sizes;
+    private final int maxPendingTasks;
+    private final Scheduler scheduler;
+
+    private final Set<String> pendingHashes = ConcurrentHashMap.newKeySet();
+
+    public ProfilePictureThumbnailGenerator(ProfilePictureStore profilePictureStore,
+                                            ApplicationProperties applicationProperties) {
+        Assert.notNull(profilePictureStore, "Profile picture store must not be null");
+        Assert.notNull(applicationProperties, "Application properties must not be null");
+
+        ApplicationProperties.ProfilePictureThumbnails thumbnailProperties
+                = applicationProperties.getProfilePictureThumbnails();
+        Assert.isTrue(thumbnailProperties.getThreads() > 0, "Number of threads must be positive");
+        Assert.isTrue(thumbnailProperties.getMaxPendingTasks() > 0,
+                "Maximum number of pending tasks must be positive");
+
+        this.profilePictureStore = profilePictureStore;
+        this.sizes = thumbnailProperties.getSizes().stream().filter(size -> size > 0).sorted().distinct().toList();
+        this.maxPendingTasks = thumbnailProperties.getMaxPendingTasks();
+        this.scheduler = Schedulers.newBoundedElastic(thumbnailProperties.getThreads(), maxPendingTasks,
+                "profile-picture-thumbnails");
+    }
+
+    /**
+     * Returns the smallest thumbnail size that is not less than the requested size.
+     *
+     * @param requestedSize requested size in pixels
+     * @return thumbnail size or {@code null} if all thumbnails are smaller than the requested size
+     */
+    public Integer getThumbnailSize(int requestedSize) {
+        return sizes.stream().filter(size -> size >= requestedSize).findFirst().orElse(null);
+    }
+
+    /**
+     * Returns name of variant in {@link ProfilePictureStore} under which thumbnail of the given size is saved.
+     *
+     * @param picture profile picture (must not be {@code null})
+     * @param size    thumbnail size
+     * @return variant name
+     */
+    public String getThumbnailVariant(ProfilePicture picture, int size) {
+        Assert.notNull(picture, "Profile picture must not be null");
+        return size + "." + getThumbnailFormat(picture);
+    }
+
+    /**
+     * Schedules generation of thumbnails of the given profile picture. This method returns immediately. Request is
+     * ignored when thumbnails of the same picture are already being generated or when there are too many pending
+     * requests.
+     *
+     * @param picture profile picture (must not be {@code null})
+     */
+    public void generateThumbnails(ProfilePicture picture) {
+        Assert.notNull(picture, "Profile picture must not be null");
+        String hash = picture.getContentHash();
+        if (hash == null || sizes.isEmpty() || !pendingHashes.add(hash)) {
+            return;
+        }
+        if (pendingHashes.size() > maxPendingTasks) {
+            pendingHashes.remove(hash);
+            log.warn("Thumbnail generation request is dropped: there are already {} pending request(s)",
+                    maxPendingTasks);
+            return;
+        }
+
+        generate(picture)
+                .doFinally(signal -> pendingHashes.remove(hash))
+                .subscribe(null,
+                        e -> log.error("Failed to generate thumbnails of profile picture with hash {}", hash, e),
+                        () -> log.debug("Thumbnails of profile picture with hash {} are generated", hash));
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.dispose();
+    }
+
+    /**
+     * Generates thumbnails of the given profile picture and saves them in {@link ProfilePictureStore}.
+     *
+     * @param picture profile picture
+     * @return number of saved thumbnails
+     */
+    Mono<Long> generate(ProfilePicture picture) {
+        String hash = picture.getContentHash();
+        String format = getThumbnailFormat(picture);
+        return profilePictureStore.load(hash)
+                .publishOn(scheduler)
+                .map(content -> createThumbnails(content, format))
+                .flatMapMany(thumbnails -> Flux.fromIterable(thumbnails.entrySet()))
+                .concatMap(thumbnail -> profilePictureStore.saveVariant(hash, thumbnail.getKey(),
+                        Mono.fromSupplier(() -> DefaultDataBufferFactory.sharedInstance.wrap(thumbnail.getValue()))
+                                .flux()).thenReturn(thumbnail.getKey()))
+                .count();
+    }
+
+    private Map<String, byte[]> createThumbnails(Resource content, String format) {
+        try (InputStream inputStream = content.getInputStream();
+             ImageInputStream imageInputStream = ImageIO.createImageInputStream(inputStream)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(imageInputStream);
+            if (!readers.hasNext()) {
+                log.debug("Thumbnails are not generated since format of profile picture is not supported");
+                return Map.of();
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(imageInputStream, true, true);
+                if ((long) reader.getWidth(0) * reader.getHeight(0) > MAX_PICTURE_PIXELS) {
+                    log.warn("Thumbnails are not generated since profile picture is too large ({}x{})",
+                            reader.getWidth(0), reader.getHeight(0));
+                    return Map.of();
+                }
+
+                BufferedImage picture = reader.read(0);
+                Map<String, byte[]> thumbnails = new LinkedHashMap<>();
+                for (int size : sizes) {
+                    BufferedImage thumbnail = scale(picture, size, "png".equals(format));
+                    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+                    if (ImageIO.write(thumbnail, format, outputStream)) {
+                        thumbnails.put(size + "." + format, outputStream.toByteArray());
+                    }
+                }
+                return thumbnails;
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read profile picture", e);
+        }
+    }
+
+    private static BufferedImage scale(BufferedImage picture, int size, boolean keepAlpha) {
+        int width = picture.getWidth();
+        int height = picture.getHeight();
+        // Thumbnail fits into square of the given size, pictures are never scaled up
+        double scale = Math.min(1.0, (double) size / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+        int imageType = keepAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+
+        // Picture is downscaled in several steps since bilinear interpolation gives poor quality for large factors
+        BufferedImage result = picture;
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage scaled = new BufferedImage(width, height, imageType);
+            Graphics2D graphics = scaled.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                        RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                if (!keepAlpha) {
+                    // Transparent areas would become black otherwise
+                    graphics.setColor(Color.WHITE);
+                    graphics.fillRect(0, 0, width, height);
+                }
+                graphics.drawImage(result, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+            result = scaled;
+        } while (width != targetWidth || height != targetHeight);
+        return result;
+    }
+
+    private static String getThumbnailFormat(ProfilePicture picture) {
+        String type = picture.getType();
+        if (type != null && MediaType.IMAGE_JPEG.isCompatibleWith(MediaType.parseMediaType(type))) {
+            return "jpg";
+        }
+        return "png";
+    }
+}
@@ -0,0 +1,20 @@
+package org.briarheart.tictactask.user.profilepicture;
+
+import lombok.Value;
+
+/**
+ * Information about content saved in {@link ProfilePictureStore}.
+ *
+ * @author Roman Chigvintsev
+ */
+@Value
+public class StoredContent {
+    /**
+     * Hex-encoded SHA-256 hash of content that is used as a key in the store.
+     */
+    String hash;
+    /**
+     * Content length in bytes.
+     */
+    long length;
+}
@@ -0,0 +1,43 @@
+package org.briarheart.tictactask.util;
+
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.reactive.TransactionSynchronization;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Mono;
+
+/**
+ * Utility class that provides handy methods to work with reactive transactions.
+ *
+ * @author Roman Chigvintsev
+ */
+public class Transactions {
+    private Transactions() {
+        //no instance
+    }
+
+    /**
+     * Runs the given action after completion (either commit or rollback) of the current reactive transaction. Action
+     * is run immediately when there is no transaction with active synchronization.
+     *
+     * @param action action to be run (must not be {@code null})
+     * @return completion signal that is emitted when action is run or scheduled to be run
+     */
+    public static Mono<Void> runAfterCompletion(Runnable action) {
+        Assert.notNull(action, "Action must not be null");
+        return TransactionSynchronizationManager.forCurrentTransaction()
+                .filter(TransactionSynchronizationManager::isSynchronizationActive)
+                .map(synchronizationManager -> {
+                    synchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                        @Override
+                        public Mono<Void> afterCompletion(int status) {
+                            return Mono.fromRunnable(action);
+                        }
+                    });
+                    return true;
+                })
+                .onErrorResume(NoTransactionException.class, e -> Mono.empty())
+                .switchIfEmpty(Mono.fromRunnable(action))
+                .then();
+    }
+}
@@ -0,0 +1,35 @@
+-- noinspection SqlResolveForFile
+
+-- Tasks of a user ordered by deadline (tasks without deadline last), then by creation time
+CREATE INDEX idx_task_user_id_deadline ON task (
+    user_id,
+    (CASE WHEN deadline_date IS NOT NULL THEN deadline_date::TIMESTAMP ELSE deadline_date_time END),
+    created_at DESC,
+    id DESC
+);
+-- Most of the task list requests are made for uncompleted tasks
+CREATE INDEX idx_task_uncompleted_user_id_deadline ON task (
+    user_id,
+    (CASE WHEN deadline_date IS NOT NULL THEN deadline_date::TIMESTAMP ELSE deadline_date_time END),
+    created_at DESC,
+    id DESC
+) WHERE status <> 'COMPLETED';
+CREATE INDEX idx_task_parent_id ON task (parent_id);
+CREATE INDEX idx_task_task_list_id_created_at ON task (task_list_id, created_at);
+
+-- Primary key of tasks_tags table starts with task_id so it cannot be used for lookups by tag_id
+CREATE INDEX idx_tasks_tags_tag_id ON tasks_tags (tag_id);
+
+CREATE INDEX idx_task_comment_task_id_created_at ON task_comment (task_id, created_at DESC);
+
+-- Unique constraint on tag table starts with name so it cannot be used for lookups by user_id
+CREATE INDEX idx_tag_user_id_created_at ON tag (user_id, created_at DESC);
+
+CREATE INDEX idx_task_list_user_id_completed_created_at ON task_list (user_id, completed, created_at DESC);
+
+-- Lookups of users by email are already served by the index backing unique constraint on users.email
+
+CREATE INDEX idx_email_confirmation_token_user_id_token_value
+    ON email_confirmation_token (user_id, token_value, created_at DESC);
+CREATE INDEX idx_password_reset_confirmation_token_user_id_token_value
+    ON password_reset_confirmation_token (user_id, token_value, created_at DESC);
@@ -0,0 +1,4 @@
+-- noinspection SqlResolveForFile
+
+ALTER TABLE task DROP CONSTRAINT task_parent_id_fkey;
+ALTER TABLE task ADD CONSTRAINT fk_task_parent_task FOREIGN KEY (parent_id) REFERENCES task(id) ON DELETE CASCADE;
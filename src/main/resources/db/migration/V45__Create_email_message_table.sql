@@ -0,0 +1,15 @@
+-- noinspection SqlResolveForFile
+
+-- Outbox of emails that are waiting to be sent. Messages are inserted in the same transaction as the data they refer
+-- to and then delivered asynchronously. Message whose next_attempt_at is NULL will not be delivered anymore.
+CREATE TABLE email_message (
+    id BIGSERIAL PRIMARY KEY,
+    recipient VARCHAR(255) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    text TEXT,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP,
+    last_error TEXT,
+    created_at TIMESTAMP NOT NULL
+);
+CREATE INDEX idx_email_message_next_attempt_at ON email_message (next_attempt_at) WHERE next_attempt_at IS NOT NULL;
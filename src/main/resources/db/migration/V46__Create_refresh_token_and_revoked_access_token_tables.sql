@@ -0,0 +1,23 @@
+-- noinspection SqlResolveForFile
+
+-- Refresh tokens are stored hashed so that leaked table content cannot be used to obtain access tokens. Every token
+-- can be used only once: on refresh it is marked as revoked and replaced with the new one.
+CREATE TABLE refresh_token (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    token_hash VARCHAR(64) NOT NULL,
+    revoked BOOLEAN NOT NULL DEFAULT FALSE,
+    created_at TIMESTAMP NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    CONSTRAINT fk_refresh_token_users FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE,
+    CONSTRAINT uq_refresh_token_token_hash UNIQUE (token_hash)
+);
+CREATE INDEX idx_refresh_token_user_id ON refresh_token (user_id);
+
+-- Identifiers of access tokens that were revoked before they expired. Rows are no longer needed once the token
+-- expires.
+CREATE TABLE revoked_access_token (
+    token_id VARCHAR(36) PRIMARY KEY,
+    expires_at TIMESTAMP NOT NULL
+);
+CREATE INDEX idx_revoked_access_token_expires_at ON revoked_access_token (expires_at);
@@ -0,0 +1,4 @@
+-- noinspection SqlResolve
+ALTER TABLE profile_picture ALTER COLUMN data DROP NOT NULL;
+ALTER TABLE profile_picture ADD COLUMN content_hash VARCHAR(64);
+ALTER TABLE profile_picture ADD COLUMN content_length BIGINT;
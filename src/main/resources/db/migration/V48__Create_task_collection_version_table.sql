@@ -0,0 +1,11 @@
+-- noinspection SqlResolveForFile
+
+-- Versions of collections of tasks, tags and task lists of every user. Version is incremented on every change of
+-- collection so that clients can revalidate cached collection without loading it from the database.
+CREATE TABLE task_collection_version (
+    user_id BIGINT PRIMARY KEY,
+    tasks_version BIGINT NOT NULL DEFAULT 0,
+    tags_version BIGINT NOT NULL DEFAULT 0,
+    task_lists_version BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT fk_task_collection_version_users FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
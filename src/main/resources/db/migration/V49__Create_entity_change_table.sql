@@ -0,0 +1,32 @@
+-- noinspection SqlResolveForFile
+
+-- Version of the last change of user's data. Versions are allocated while user's row is locked, so changes of the
+-- same user become visible in order of their versions.
+ALTER TABLE task_collection_version ADD change_version BIGINT NOT NULL DEFAULT 0;
+
+-- The last change of every task, tag, task list and task comment. Rows of deleted entities are kept as tombstones.
+CREATE TABLE entity_change (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    entity_type VARCHAR(16) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    version BIGINT NOT NULL,
+    deleted BOOLEAN NOT NULL DEFAULT FALSE,
+    CONSTRAINT fk_entity_change_users FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE,
+    CONSTRAINT uq_entity_change_user_id_entity_type_entity_id UNIQUE (user_id, entity_type, entity_id)
+);
+CREATE INDEX idx_entity_change_user_id_version ON entity_change (user_id, version);
+
+-- Existing data is reported as the first change so that clients can start synchronization from version 0
+INSERT INTO entity_change (user_id, entity_type, entity_id, version)
+SELECT user_id, 'TASK', id, 1 FROM task
+UNION ALL
+SELECT user_id, 'TAG', id, 1 FROM tag
+UNION ALL
+SELECT user_id, 'TASK_LIST', id, 1 FROM task_list
+UNION ALL
+SELECT user_id, 'COMMENT', id, 1 FROM task_comment;
+
+INSERT INTO task_collection_version (user_id, change_version)
+SELECT DISTINCT user_id, 1 FROM entity_change
+ON CONFLICT (user_id) DO UPDATE SET change_version = 1;
@@ -0,0 +1,2 @@
+-- Recurring tasks that need next occurrence are looked up periodically by background job
+CREATE INDEX idx_task_recurring ON task (id) WHERE recurrence_strategy IS NOT NULL;
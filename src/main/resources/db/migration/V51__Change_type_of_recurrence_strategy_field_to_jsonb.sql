@@ -0,0 +1,2 @@
+-- Recurrence strategies are stored as JSON since they were introduced
+ALTER TABLE task ALTER COLUMN recurrence_strategy TYPE JSONB USING NULLIF(TRIM(recurrence_strategy), '')::JSONB;
@@ -0,0 +1,21 @@
+-- noinspection SqlResolveForFile
+
+-- Tasks without deadline are ordered as if their deadline is infinitely far so that the sort key is never null and
+-- keyset pagination could start index range scan right at the position of cursor
+DROP INDEX idx_task_user_id_deadline;
+DROP INDEX idx_task_uncompleted_user_id_deadline;
+
+CREATE INDEX idx_task_user_id_deadline ON task (
+    user_id,
+    COALESCE(CASE WHEN deadline_date IS NOT NULL THEN deadline_date::TIMESTAMP ELSE deadline_date_time END,
+             'infinity'::TIMESTAMP),
+    created_at DESC,
+    id DESC
+);
+CREATE INDEX idx_task_uncompleted_user_id_deadline ON task (
+    user_id,
+    COALESCE(CASE WHEN deadline_date IS NOT NULL THEN deadline_date::TIMESTAMP ELSE deadline_date_time END,
+             'infinity'::TIMESTAMP),
+    created_at DESC,
+    id DESC
+) WHERE status <> 'COMPLETED';
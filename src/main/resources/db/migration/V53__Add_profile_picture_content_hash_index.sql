@@ -0,0 +1,4 @@
+-- noinspection SqlResolveForFile
+
+-- Used to find content in profile picture store that is not referenced by any profile picture
+CREATE INDEX idx_profile_picture_content_hash ON profile_picture (content_hash);
@@ -0,0 +1,285 @@
+package org.briarheart.tictactask.data.database.postgresql;
+
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.briarheart.tictactask.config.TestR2dbcConnectionFactoryConfig;
+import org.briarheart.tictactask.task.CustomizedTaskRepositoryImpl;
+import org.briarheart.tictactask.task.GetTasksRequest;
+import org.briarheart.tictactask.task.TaskCursor;
+import org.briarheart.tictactask.task.TaskRepository;
+import org.briarheart.tictactask.task.TaskStatus;
+import org.briarheart.tictactask.task.comment.TaskCommentRepository;
+import org.briarheart.tictactask.task.list.TaskListRepository;
+import org.briarheart.tictactask.task.tag.TaskTagRepository;
+import org.briarheart.tictactask.user.User;
+import org.briarheart.tictactask.user.UserRepository;
+import org.briarheart.tictactask.user.email.EmailConfirmationTokenRepository;
+import org.briarheart.tictactask.user.password.PasswordResetConfirmationTokenRepository;
+import org.jooq.Query;
+import org.jooq.conf.ParamType;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.data.r2dbc.R2dbcDataAutoConfiguration;
+import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that hot queries of the application are served by indexes and do not require sequential scan of large
+ * tables. Queries are taken from the repositories themselves so that this test follows any change of them.
+ *
+ * @author Roman Chigvintsev
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, classes = {
+        TestR2dbcConnectionFactoryConfig.class,
+        R2dbcAutoConfiguration.class,
+        R2dbcDataAutoConfiguration.class,
+        FlywayAutoConfiguration.class
+})
+@ActiveProfiles("test")
+@AutoConfigureEmbeddedDatabase(refresh = AutoConfigureEmbeddedDatabase.RefreshMode.AFTER_CLASS)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class IndexUsageTest {
+    private static final int USER_COUNT = 1_000;
+    private static final int TASKS_PER_USER = 50;
+
+    private static final Pattern SEQ_SCAN_PATTERN = Pattern.compile("Seq Scan on (task|tasks_tags|task_comment|tag"
+            + "|task_list|users|email_confirmation_token|password_reset_confirmation_token)\\b");
+
+    private static final Pattern INDEX_RANGE_CONDITION_PATTERN = Pattern.compile("Index Cond: .*COALESCE\\(.*>=");
+
+    private static final User USER = User.builder().id(500L).email("user500@mail.com").build();
+
+    @Autowired
+    private DatabaseClient databaseClient;
+    @Autowired
+    private R2dbcEntityTemplate entityTemplate;
+
+    private CustomizedTaskRepositoryImpl taskRepository;
+
+    @BeforeAll
+    void setUp() {
+        taskRepository = new CustomizedTaskRepositoryImpl(entityTemplate);
+
+        execute("INSERT INTO users (email, version, full_name) "
+                + "SELECT 'user' || i || '@mail.com', 1, 'User ' || i FROM generate_series(1, " + USER_COUNT + ") i");
+        execute("INSERT INTO task_list (name, user_id) SELECT 'Task list', id FROM users");
+        execute("INSERT INTO task (user_id, title, status, deadline_date, task_list_id) "
+                + "SELECT u.id, 'Task ' || i, "
+                + "(CASE i % 3 WHEN 0 THEN 'UNPROCESSED' WHEN 1 THEN 'PROCESSED' ELSE 'COMPLETED' END), "
+                + "(CASE WHEN i % 2 = 0 THEN DATE '2022-01-01' + i END), "
+                + "(CASE WHEN i % 10 = 0 THEN (SELECT tl.id FROM task_list tl WHERE tl.user_id = u.id) END) "
+                + "FROM users u, generate_series(1, " + TASKS_PER_USER + ") i");
+        execute("UPDATE task SET parent_id = id - 1 WHERE id % 25 = 0");
+        execute("INSERT INTO tag (name, user_id) "
+                + "SELECT 'Tag ' || i, u.id FROM users u, generate_series(1, 5) i");
+        execute("INSERT INTO tasks_tags (task_id, tag_id) "
+                + "SELECT t.id, tg.id FROM task t "
+                + "INNER JOIN tag tg ON tg.user_id = t.user_id AND tg.name = 'Tag ' || (t.id % 5 + 1)");
+        execute("INSERT INTO task_comment (task_id, user_id, comment_text, created_at) "
+                + "SELECT t.id, t.user_id, 'Comment', now() FROM task t, generate_series(1, 2)");
+        execute("INSERT INTO email_confirmation_token (user_id, email, token_value, created_at, expires_at) "
+                + "SELECT u.id, u.email, md5(u.id || '-' || i), now(), now() + INTERVAL '1 day' "
+                + "FROM users u, generate_series(1, 5) i");
+        execute("INSERT INTO password_reset_confirmation_token (user_id, email, token_value, created_at, expires_at) "
+                + "SELECT u.id, u.email, md5(u.id || '-' || i), now(), now() + INTERVAL '1 day' "
+                + "FROM users u, generate_series(1, 5) i");
+        execute("ANALYZE");
+    }
+
+    @Test
+    void shouldUseIndexToFindTasksByUser() {
+        GetTasksRequest request = new GetTasksRequest();
+        request.setStatuses(Set.of(TaskStatus.PROCESSED));
+        assertNoSeqScan(taskRepository.createFindQuery(request, USER, PageRequest.of(0, 20)));
+    }
+
+    @Test
+    void shouldUseIndexToFindTasksByUserAndDeadlineRange() {
+        GetTasksRequest request = new GetTasksRequest();
+        request.setStatuses(Set.of(TaskStatus.PROCESSED));
+        request.setDeadlineDateFrom(LocalDate.of(2022, Month.JANUARY, 10));
+        request.setDeadlineDateTo(LocalDate.of(2022, Month.JANUARY, 20));
+        request.setDeadlineDateTimeFrom(LocalDateTime.of(2022, Month.JANUARY, 10, 0, 0));
+        request.setDeadlineDateTimeTo(LocalDateTime.of(2022, Month.JANUARY, 20, 23, 59));
+        assertNoSeqScan(taskRepository.createFindQuery(request, USER, PageRequest.of(0, 20)));
+    }
+
+    @Test
+    void shouldStartIndexRangeScanAtDeepCursor() {
+        GetTasksRequest request = new GetTasksRequest();
+        request.setStatuses(Set.of(TaskStatus.PROCESSED));
+        TaskCursor cursor = new TaskCursor(LocalDateTime.of(2022, Month.FEBRUARY, 10, 0, 0), LocalDateTime.now(),
+                25_000L);
+        assertIndexRangeScan(taskRepository.createFindAfterQuery(request, USER, cursor, PageRequest.of(0, 20)));
+    }
+
+    @Test
+    void shouldStartIndexRangeScanAtDeepCursorPointingToTaskWithoutDeadline() {
+        GetTasksRequest request = new GetTasksRequest();
+        request.setStatuses(Set.of(TaskStatus.PROCESSED));
+        TaskCursor cursor = new TaskCursor(null, LocalDateTime.now(), 25_000L);
+        assertIndexRangeScan(taskRepository.createFindAfterQuery(request, USER, cursor, PageRequest.of(0, 20)));
+    }
+
+    @Test
+    void shouldUseIndexToCountTasksByUser() {
+        GetTasksRequest request = new GetTasksRequest();
+        request.setStatuses(Set.of(TaskStatus.UNPROCESSED));
+        assertNoSeqScan(taskRepository.createCountQuery(request, USER));
+    }
+
+    @Test
+    void shouldUseIndexToFindTaskByIdAndUser() {
+        assertNoSeqScan(TaskRepository.class, "findByIdAndUserId", Map.of("id", 500L, "userId", 10L));
+    }
+
+    @Test
+    void shouldUseIndexToFindTasksByParent() {
+        assertNoSeqScan(TaskRepository.class, "findByParentIdAndUserId", Map.of("parent_id", 499L, "userId", 10L));
+    }
+
+    @Test
+    void shouldUseIndexToFindTasksByTag() {
+        assertNoSeqScan(TaskRepository.class, "findByStatusNotAndTagIdOrderByCreatedAtAsc",
+                Map.of("status", TaskStatus.COMPLETED.name(), "tagId", 100L, "offset", 0L, "limit", 20));
+    }
+
+    @Test
+    void shouldUseIndexToFindTasksByTaskList() {
+        assertNoSeqScan(TaskRepository.class, "findByTaskListIdAndUserIdAndStatusNotOrderByCreatedAtAsc",
+                Map.of("taskListId", 100L, "userId", 100L, "status", TaskStatus.COMPLETED.name(), "offset", 0L,
+                        "limit", 20));
+    }
+
+    @Test
+    void shouldUseIndexToFindRecurringTasks() {
+        assertNoSeqScan(TaskRepository.class, "findRecurringForUpdateSkipLocked",
+                Map.of("partition", 0, "partitions", 16, "limit", 100));
+    }
+
+    @Test
+    void shouldUseIndexToFindRecurringTasksByUserAndDeadline() {
+        assertNoSeqScan(TaskRepository.class, "findRecurringByUserIdAndDeadlineBefore",
+                Map.of("userId", 500L, "deadlineBefore", LocalDateTime.of(2022, Month.APRIL, 1, 0, 0)));
+    }
+
+    @Test
+    void shouldUseIndexToFindTagsByUser() {
+        assertNoSeqScan(TaskTagRepository.class, "findByUserIdOrderByCreatedAtDesc", Map.of("userId", 100L));
+    }
+
+    @Test
+    void shouldUseIndexToFindTagsByTask() {
+        assertNoSeqScan(TaskTagRepository.class, "findByTaskIdAndUserIdOrderByCreatedAtDesc",
+                Map.of("taskId", 500L, "userId", 10L));
+    }
+
+    @Test
+    void shouldUseIndexToFindTaskListsByUser() {
+        assertNoSeqScan(TaskListRepository.class, "findByCompletedAndUserId",
+                Map.of("completed", false, "userId", 100L));
+    }
+
+    @Test
+    void shouldUseIndexToFindCommentsByTask() {
+        assertNoSeqScan(TaskCommentRepository.class, "findByTaskIdOrderByCreatedAtDesc",
+                Map.of("taskId", 500L, "offset", 0L, "limit", 20));
+    }
+
+    @Test
+    void shouldUseIndexToFindUserByEmail() {
+        assertNoSeqScan(UserRepository.class, "findByEmail", Map.of("email", "user500@mail.com"));
+    }
+
+    @Test
+    void shouldUseIndexToFindEmailConfirmationToken() {
+        assertNoSeqScan(EmailConfirmationTokenRepository.class, "findFirstByUserIdAndTokenValueOrderByCreatedAtDesc",
+                Map.of("userId", 500L, "tokenValue", md5("500-1")));
+    }
+
+    @Test
+    void shouldUseIndexToFindPasswordResetConfirmationToken() {
+        assertNoSeqScan(PasswordResetConfirmationTokenRepository.class,
+                "findFirstByUserIdAndTokenValueAndValidOrderByCreatedAtDesc",
+                Map.of("userId", 500L, "tokenValue", md5("500-1"), "valid", true));
+    }
+
+    private void execute(String sql) {
+        databaseClient.sql(sql).then().block();
+    }
+
+    private void assertNoSeqScan(Query query) {
+        assertNoSeqScan(query.getSQL(ParamType.INLINED), Map.of());
+    }
+
+    private void assertNoSeqScan(Class<?> repositoryClass, String methodName, Map<String, Object> parameters) {
+        assertNoSeqScan(getQuery(repositoryClass, methodName), parameters);
+    }
+
+    private void assertNoSeqScan(String sql, Map<String, Object> parameters) {
+        String plan = explain(sql, parameters);
+        assertFalse(SEQ_SCAN_PATTERN.matcher(plan).find(), () -> "Sequential scan is planned for query \""
+                + sql + "\":\n" + plan);
+    }
+
+    /**
+     * Asserts that the lower bound of deadline sort key is used as index condition rather than as filter of rows
+     * returned by index scan.
+     */
+    private void assertIndexRangeScan(Query query) {
+        String sql = query.getSQL(ParamType.INLINED);
+        String plan = explain(sql, Map.of());
+        assertTrue(INDEX_RANGE_CONDITION_PATTERN.matcher(plan).find(), () -> "Index range scan is not planned for "
+                + "query \"" + sql + "\":\n" + plan);
+    }
+
+    private String explain(String sql, Map<String, Object> parameters) {
+        DatabaseClient.GenericExecuteSpec executeSpec = databaseClient.sql("EXPLAIN " + sql);
+        for (Map.Entry<String, Object> parameter : parameters.entrySet()) {
+            executeSpec = executeSpec.bind(parameter.getKey(), parameter.getValue());
+        }
+        List<String> plan = executeSpec.map((row, rowMetadata) -> row.get(0, String.class))
+                .all()
+                .collectList()
+                .block();
+        assertNotNull(plan);
+        return String.join("\n", plan);
+    }
+
+    private static String getQuery(Class<?> repositoryClass, String methodName) {
+        return Arrays.stream(repositoryClass.getMethods())
+                .filter(method -> method.getName().equals(methodName))
+                .map(method -> method.getAnnotation(org.springframework.data.r2dbc.repository.Query.class))
+                .filter(Objects::nonNull)
+                .findFirst()
+                .map(org.springframework.data.r2dbc.repository.Query::value)
+                .orElseThrow(() -> new IllegalArgumentException("Query of method " + repositoryClass.getSimpleName()
+                        + "." + methodName + " is not found"));
+    }
+
+    private static String md5(String value) {
+        return DigestUtils.md5DigestAsHex(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -3,61 +3,52 @@ package org.briarheart.tictactask.email;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
-import org.springframework.boot.autoconfigure.mail.MailProperties;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+import reactor.core.publisher.Mono;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 class DefaultEmailServiceTest {
     private DefaultEmailService service;
-    private MailProperties mailProperties;
-    private JavaMailSender mailSender;
+    private EmailMessageRepository emailMessageRepository;
 
     @BeforeEach
     void setUp() {
-        mailProperties = new MailProperties();
-        mailProperties.setUsername("no-reply@application.com");
-        mailSender = mock(JavaMailSender.class);
-        service = new DefaultEmailService(mailProperties, mailSender);
+        emailMessageRepository = mock(EmailMessageRepository.class);
+        when(emailMessageRepository.save(any(EmailMessage.class)))
+                .thenAnswer(args -> Mono.just(args.getArgument(0, EmailMessage.class)));
+        service = new DefaultEmailService(emailMessageRepository);
     }
 
     @Test
-    void shouldThrowExceptionOnConstructWhenMailPropertiesAreNull() {
+    void shouldThrowExceptionOnConstructWhenEmailMessageRepositoryIsNull() {
         IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
-                () -> new DefaultEmailService(null, mailSender));
-        assertEquals("Mail properties must not be null", e.getMessage());
+                () -> new DefaultEmailService(null));
+        assertEquals("Email message repository must not be null", e.getMessage());
     }
 
     @Test
-    void shouldThrowExceptionOnConstructWhenMailSenderIsNull() {
-        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
-                () -> new DefaultEmailService(new MailProperties(), null));
-        assertEquals("Mail sender must not be null", e.getMessage());
-    }
-
-    @Test
-    void shouldSendEmail() {
+    void shouldPutEmailIntoOutbox() {
         String to = "test@mail.com";
         String subject = "Hello";
         String text = "world!";
-        service.sendEmail(to, subject, text);
-        verify(mailSender, times(1)).send(any(SimpleMailMessage.class));
+        service.sendEmail(to, subject, text).block();
+
+        ArgumentCaptor<EmailMessage> messageCaptor = ArgumentCaptor.forClass(EmailMessage.class);
+        verify(emailMessageRepository, times(1)).save(messageCaptor.capture());
+        EmailMessage message = messageCaptor.getValue();
+        assertEquals(to, message.getRecipient());
+        assertEquals(subject, message.getSubject());
+        assertEquals(text, message.getText());
+        assertEquals(0, message.getAttempts());
+        assertNotNull(message.getCreatedAt());
+        assertEquals(message.getCreatedAt(), message.getNextAttemptAt());
     }
 
     @Test
-    void shouldSetFromAddressFromMailPropertiesOnEmailSend() {
-        String to = "test@mail.com";
-        String subject = "Hello";
-        String text = "world!";
-        service.sendEmail(to, subject, text);
-
-        ArgumentCaptor<SimpleMailMessage> messageCaptor = ArgumentCaptor.forClass(SimpleMailMessage.class);
-        verify(mailSender, times(1)).send(messageCaptor.capture());
-        SimpleMailMessage message = messageCaptor.getValue();
-        assertEquals(mailProperties.getUsername(), message.getFrom());
+    void shouldNotPutEmailIntoOutboxUntilSubscribed() {
+        service.sendEmail("test@mail.com", "Hello", "world!");
+        verify(emailMessageRepository, never()).save(any(EmailMessage.class));
     }
 
     @Test
@@ -87,4 +78,4 @@ class DefaultEmailServiceTest {
                 () -> service.sendEmail("test@mail.com", "", "world!"));
         assertEquals("Email subject must not be null or empty", e.getMessage());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,193 @@
+package org.briarheart.tictactask.email;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.briarheart.tictactask.config.ApplicationProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.boot.autoconfigure.mail.MailProperties;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class EmailOutboxProcessorTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2022, 1, 1, 12, 0);
+
+    private EmailOutboxProcessor processor;
+    private EmailMessageRepository emailMessageRepository;
+    private MailProperties mailProperties;
+    private JavaMailSender mailSender;
+    private ApplicationProperties applicationProperties;
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        emailMessageRepository = mock(EmailMessageRepository.class);
+        when(emailMessageRepository.claimByNextAttemptAtBefore(any(), any(), anyInt())).thenReturn(Flux.empty());
+        when(emailMessageRepository.delete(any(EmailMessage.class))).thenReturn(Mono.empty());
+        when(emailMessageRepository.updateNextAttemptAtAndLastErrorById(anyLong(), any(), anyString()))
+                .thenReturn(Mono.just(1));
+        when(emailMessageRepository.countPending()).thenReturn(Mono.just(0L));
+
+        mailProperties = new MailProperties();
+        mailProperties.setUsername("no-reply@application.com");
+        mailSender = mock(JavaMailSender.class);
+
+        applicationProperties = new ApplicationProperties();
+        ApplicationProperties.Email.Outbox outboxProperties = applicationProperties.getEmail().getOutbox();
+        outboxProperties.setSenderThreads(1);
+        outboxProperties.setMaxAttempts(3);
+        outboxProperties.setInitialBackoff(Duration.ofMinutes(1));
+        outboxProperties.setMaxBackoff(Duration.ofMinutes(3));
+
+        meterRegistry = new SimpleMeterRegistry();
+        processor = new EmailOutboxProcessor(emailMessageRepository, mailProperties, mailSender,
+                applicationProperties, meterRegistry) {
+            @Override
+            protected LocalDateTime getCurrentTime() {
+                return NOW;
+            }
+        };
+    }
+
+    @AfterEach
+    void tearDown() {
+        processor.stop();
+    }
+
+    @Test
+    void shouldThrowExceptionOnConstructWhenMailSenderIsNull() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> new EmailOutboxProcessor(emailMessageRepository, mailProperties, null,
+                        applicationProperties, meterRegistry));
+        assertEquals("Mail sender must not be null", e.getMessage());
+    }
+
+    @Test
+    void shouldSendClaimedMessagesAndRemoveThemFromOutbox() {
+        EmailMessage message = createMessage(1L, 1);
+        when(emailMessageRepository.claimByNextAttemptAtBefore(any(), any(), anyInt()))
+                .thenReturn(Flux.just(message));
+
+        assertEquals(1, processor.drain().block());
+
+        ArgumentCaptor<SimpleMailMessage> messageCaptor = ArgumentCaptor.forClass(SimpleMailMessage.class);
+        verify(mailSender, times(1)).send(new SimpleMailMessage[]{messageCaptor.capture()});
+        SimpleMailMessage mailMessage = messageCaptor.getValue();
+        assertEquals(mailProperties.getUsername(), mailMessage.getFrom());
+        assertArrayEquals(new String[]{message.getRecipient()}, mailMessage.getTo());
+        assertEquals(message.getSubject(), mailMessage.getSubject());
+        verify(emailMessageRepository, times(1)).delete(message);
+        assertEquals(1.0, meterRegistry.counter("email.outbox.sent").count());
+    }
+
+    @Test
+    void shouldClaimMessagesWithLease() {
+        processor.drain().block();
+        LocalDateTime leaseUntil = NOW.plus(applicationProperties.getEmail().getOutbox().getLease());
+        verify(emailMessageRepository, times(1)).claimByNextAttemptAtBefore(NOW, leaseUntil,
+                applicationProperties.getEmail().getOutbox().getBatchSize());
+    }
+
+    @Test
+    void shouldClaimNextBatchWhenBatchIsFull() {
+        applicationProperties.getEmail().getOutbox().setBatchSize(1);
+        when(emailMessageRepository.claimByNextAttemptAtBefore(any(), any(), anyInt()))
+                .thenReturn(Flux.just(createMessage(1L, 1)), Flux.just(createMessage(2L, 1)), Flux.empty());
+
+        assertEquals(2, processor.drain().block());
+        verify(emailMessageRepository, times(3)).claimByNextAttemptAtBefore(any(), any(), anyInt());
+    }
+
+    @Test
+    void shouldRescheduleMessageWithBackoffOnSendFailure() {
+        EmailMessage message = createMessage(1L, 2);
+        when(emailMessageRepository.claimByNextAttemptAtBefore(any(), any(), anyInt()))
+                .thenReturn(Flux.just(message));
+        doThrow(new MailSendException("Something went wrong")).when(mailSender).send(anyMailMessages());
+
+        processor.drain().block();
+        verify(emailMessageRepository, times(1))
+                .updateNextAttemptAtAndLastErrorById(1L, NOW.plusMinutes(2), "Something went wrong");
+        verify(emailMessageRepository, never()).delete(any(EmailMessage.class));
+        assertEquals(1.0, meterRegistry.counter("email.outbox.retried").count());
+    }
+
+    @Test
+    void shouldLimitBackoffOnSendFailure() {
+        applicationProperties.getEmail().getOutbox().setMaxAttempts(10);
+        EmailMessage message = createMessage(1L, 5);
+        when(emailMessageRepository.claimByNextAttemptAtBefore(any(), any(), anyInt()))
+                .thenReturn(Flux.just(message));
+        doThrow(new MailSendException("Something went wrong")).when(mailSender).send(anyMailMessages());
+
+        processor.drain().block();
+        verify(emailMessageRepository, times(1))
+                .updateNextAttemptAtAndLastErrorById(1L, NOW.plusMinutes(3), "Something went wrong");
+    }
+
+    @Test
+    void shouldStopRetryingWhenMaxAttemptsAreReached() {
+        EmailMessage message = createMessage(1L, 3);
+        when(emailMessageRepository.claimByNextAttemptAtBefore(any(), any(), anyInt()))
+                .thenReturn(Flux.just(message));
+        doThrow(new MailSendException("Something went wrong")).when(mailSender).send(anyMailMessages());
+
+        processor.drain().block();
+        verify(emailMessageRepository, times(1))
+                .updateNextAttemptAtAndLastErrorById(1L, null, "Something went wrong");
+        assertEquals(1.0, meterRegistry.counter("email.outbox.dropped").count());
+    }
+
+    @Test
+    void shouldRescheduleOnlyFailedMessages() {
+        EmailMessage message1 = createMessage(1L, 1);
+        EmailMessage message2 = createMessage(2L, 1);
+        when(emailMessageRepository.claimByNextAttemptAtBefore(any(), any(), anyInt()))
+                .thenReturn(Flux.just(message1, message2));
+        doAnswer(args -> {
+            SimpleMailMessage failedMessage = null;
+            for (Object arg : args.getArguments()) {
+                SimpleMailMessage mailMessage = (SimpleMailMessage) arg;
+                if (mailMessage.getTo()[0].equals(message2.getRecipient())) {
+                    failedMessage = mailMessage;
+                }
+            }
+            throw new MailSendException(Map.<Object, Exception>of(failedMessage, new Exception("Mailbox is full")));
+        }).when(mailSender).send(anyMailMessages());
+
+        processor.drain().block();
+        verify(emailMessageRepository, times(1)).delete(message1);
+        verify(emailMessageRepository, times(1))
+                .updateNextAttemptAtAndLastErrorById(2L, NOW.plusMinutes(1), "Mailbox is full");
+    }
+
+    private static SimpleMailMessage[] anyMailMessages() {
+        // Forces invocation of varargs version of JavaMailSender#send
+        return new SimpleMailMessage[]{any(SimpleMailMessage.class)};
+    }
+
+    private EmailMessage createMessage(Long id, int attempts) {
+        return EmailMessage.builder()
+                .id(id)
+                .recipient("user" + id + "@mail.com")
+                .subject("Hello")
+                .text("world!")
+                .attempts(attempts)
+                .createdAt(NOW)
+                .nextAttemptAt(NOW.plusMinutes(5))
+                .build();
+    }
+}
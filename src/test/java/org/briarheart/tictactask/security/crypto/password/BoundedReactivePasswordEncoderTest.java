@@ -0,0 +1,108 @@
+package org.briarheart.tictactask.security.crypto.password;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author Roman Chigvintsev
+ */
+class BoundedReactivePasswordEncoderTest {
+    private PasswordEncoder delegate;
+    private MeterRegistry meterRegistry;
+    private BoundedReactivePasswordEncoder encoder;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(PasswordEncoder.class);
+        when(delegate.encode(anyString())).thenAnswer(args -> "{noop}" + args.getArgument(0));
+        when(delegate.matches(anyString(), anyString()))
+                .thenAnswer(args -> ("{noop}" + args.getArgument(0)).equals(args.getArgument(1)));
+        meterRegistry = new SimpleMeterRegistry();
+        encoder = new BoundedReactivePasswordEncoder(delegate, 1, 1, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        encoder.destroy();
+    }
+
+    @Test
+    void shouldThrowExceptionOnConstructWhenPasswordEncoderIsNull() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> new BoundedReactivePasswordEncoder(null, 1, 1, meterRegistry));
+        assertEquals("Password encoder must not be null", e.getMessage());
+    }
+
+    @Test
+    void shouldThrowExceptionOnConstructWhenNumberOfThreadsIsNotPositive() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> new BoundedReactivePasswordEncoder(delegate, 0, 1, meterRegistry));
+        assertEquals("Number of threads must be positive", e.getMessage());
+    }
+
+    @Test
+    void shouldEncodePassword() {
+        assertEquals("{noop}secret", encoder.encode("secret").block());
+    }
+
+    @Test
+    void shouldMatchPassword() {
+        assertEquals(Boolean.TRUE, encoder.matches("secret", "{noop}secret").block());
+        assertEquals(Boolean.FALSE, encoder.matches("secret", "{noop}password").block());
+    }
+
+    @Test
+    void shouldNotEncodePasswordOnCallingThread() {
+        Thread callingThread = Thread.currentThread();
+        when(delegate.encode(anyString())).thenAnswer(args -> {
+            assertNotSame(callingThread, Thread.currentThread());
+            return "encoded";
+        });
+        encoder.encode("secret").block();
+        verify(delegate, times(1)).encode("secret");
+    }
+
+    @Test
+    void shouldRejectRequestWhenTooManyRequestsArePending() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.encode("slow")).thenAnswer(args -> {
+            started.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return "encoded";
+        });
+
+        Mono<String> slowRequest = encoder.encode("slow").cache();
+        slowRequest.subscribe();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        try {
+            assertThrows(PasswordEncoderOverloadedException.class, () -> encoder.encode("secret").block());
+            assertEquals(1.0, meterRegistry.counter("security.password.rejected").count());
+        } finally {
+            release.countDown();
+        }
+        assertEquals("encoded", slowRequest.block());
+        assertEquals("{noop}secret", encoder.encode("secret").block());
+    }
+
+    @Test
+    void shouldRecordHashTime() {
+        encoder.encode("secret").block();
+        encoder.matches("secret", "{noop}secret").block();
+        assertEquals(1, meterRegistry.timer("security.password.hash", "operation", "encode").count());
+        assertEquals(1, meterRegistry.timer("security.password.hash", "operation", "matches").count());
+        assertEquals(2, meterRegistry.timer("security.password.queue-wait").count());
+    }
+}
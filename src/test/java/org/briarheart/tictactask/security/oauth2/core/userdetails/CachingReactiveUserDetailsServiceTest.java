@@ -0,0 +1,106 @@
+package org.briarheart.tictactask.security.oauth2.core.userdetails;
+
+import org.briarheart.tictactask.user.User;
+import org.briarheart.tictactask.util.TestReactiveTransactionManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.relational.core.sql.SqlIdentifier;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author Roman Chigvintsev
+ */
+class CachingReactiveUserDetailsServiceTest {
+    private static final User USER = User.builder()
+            .id(1L)
+            .email("alice@mail.com")
+            .emailConfirmed(true)
+            .enabled(true)
+            .build();
+
+    private ReactiveUserDetailsService delegate;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(ReactiveUserDetailsService.class);
+        when(delegate.findByUsername(USER.getEmail())).thenAnswer(args -> Mono.just(new User(USER)));
+    }
+
+    @Test
+    void shouldThrowExceptionOnConstructWhenTimeToLiveIsNegative() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> new CachingReactiveUserDetailsService(delegate, Duration.ofSeconds(-1)));
+        assertEquals("Time to live must not be negative", e.getMessage());
+    }
+
+    @Test
+    void shouldReturnCachedUser() {
+        CachingReactiveUserDetailsService service = new CachingReactiveUserDetailsService(delegate,
+                Duration.ofMinutes(1));
+        service.findByUsername(USER.getEmail()).block();
+        UserDetails result = service.findByUsername(USER.getEmail()).block();
+        assertEquals(USER, result);
+        verify(delegate, times(1)).findByUsername(USER.getEmail());
+    }
+
+    @Test
+    void shouldNotCacheUserWhenTimeToLiveIsZero() {
+        CachingReactiveUserDetailsService service = new CachingReactiveUserDetailsService(delegate, Duration.ZERO);
+        service.findByUsername(USER.getEmail()).block();
+        service.findByUsername(USER.getEmail()).block();
+        verify(delegate, times(2)).findByUsername(USER.getEmail());
+    }
+
+    @Test
+    void shouldEvictCachedUserOnUserSave() {
+        CachingReactiveUserDetailsService service = new CachingReactiveUserDetailsService(delegate,
+                Duration.ofMinutes(1));
+        service.findByUsername(USER.getEmail()).block();
+        Mono.from(service.onAfterSave(new User(USER), null, SqlIdentifier.unquoted("users"))).block();
+        service.findByUsername(USER.getEmail()).block();
+        verify(delegate, times(2)).findByUsername(USER.getEmail());
+    }
+
+    @Test
+    void shouldEvictUserCachedBeforeCommitOfTransactionInWhichUserIsSaved() {
+        CachingReactiveUserDetailsService service = new CachingReactiveUserDetailsService(delegate,
+                Duration.ofMinutes(1));
+        TransactionalOperator transactionalOperator = TransactionalOperator.create(
+                new TestReactiveTransactionManager());
+
+        // User may be loaded by concurrent login after eviction but before commit
+        Mono.from(service.onAfterSave(new User(USER), null, SqlIdentifier.unquoted("users")))
+                .then(service.findByUsername(USER.getEmail()))
+                .as(transactionalOperator::transactional)
+                .block();
+        service.findByUsername(USER.getEmail()).block();
+        verify(delegate, times(2)).findByUsername(USER.getEmail());
+    }
+
+    @Test
+    void shouldNotCacheUserLoadedConcurrentlyWithEviction() {
+        Sinks.One<UserDetails> loadedUser = Sinks.one();
+        when(delegate.findByUsername(USER.getEmail())).thenReturn(loadedUser.asMono(),
+                Mono.just(new User(USER)));
+        CachingReactiveUserDetailsService service = new CachingReactiveUserDetailsService(delegate,
+                Duration.ofMinutes(1));
+
+        Mono<UserDetails> result = service.findByUsername(USER.getEmail()).cache();
+        result.subscribe();
+        service.evict(USER.getEmail());
+        loadedUser.tryEmitValue(new User(USER));
+        result.block();
+
+        service.findByUsername(USER.getEmail()).block();
+        verify(delegate, times(2)).findByUsername(USER.getEmail());
+    }
+}
@@ -1,6 +1,7 @@
 package org.briarheart.tictactask.security.web.server.authentication;
 
 import org.briarheart.tictactask.security.web.server.authentication.accesstoken.AccessToken;
+import org.briarheart.tictactask.security.web.server.authentication.accesstoken.AccessTokenRevocationService;
 import org.briarheart.tictactask.security.web.server.authentication.accesstoken.AccessTokenService;
 import org.briarheart.tictactask.security.web.server.authentication.accesstoken.InvalidAccessTokenException;
 import org.briarheart.tictactask.user.User;
@@ -9,7 +10,11 @@ import org.junit.jupiter.api.Test;
 import org.springframework.security.core.Authentication;
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -20,12 +25,16 @@ class AccessTokenReactiveAuthenticationManagerTest {
     private static final String ACCESS_TOKEN_VALUE = "NlYwTEh5V2I2anNjQVB0MUhQbTQ=";
 
     private AccessTokenService accessTokenServiceMock;
+    private AccessTokenRevocationService accessTokenRevocationServiceMock;
     private AccessTokenReactiveAuthenticationManager manager;
 
     @BeforeEach
     void setUp() {
         accessTokenServiceMock = mock(AccessTokenService.class);
-        manager = new AccessTokenReactiveAuthenticationManager(accessTokenServiceMock);
+        accessTokenRevocationServiceMock = mock(AccessTokenRevocationService.class);
+        when(accessTokenRevocationServiceMock.isRevoked(any())).thenReturn(Mono.just(false));
+        manager = new AccessTokenReactiveAuthenticationManager(accessTokenServiceMock,
+                accessTokenRevocationServiceMock);
     }
 
     @Test
@@ -55,10 +64,66 @@ class AccessTokenReactiveAuthenticationManagerTest {
         assertTrue(principal instanceof User);
     }
 
+    @Test
+    void shouldCacheAuthenticationUntilAccessTokenExpires() {
+        AccessToken accessTokenMock = mock(AccessToken.class);
+        when(accessTokenMock.getSubject()).thenReturn("1");
+        when(accessTokenMock.getExpiration()).thenReturn(Instant.now().plus(1, ChronoUnit.HOURS));
+        doReturn(Mono.just(accessTokenMock)).when(accessTokenServiceMock).parseAccessToken(anyString());
+
+        Authentication authentication1 = manager.authenticate(new AccessTokenAuthentication(ACCESS_TOKEN_VALUE))
+                .block();
+        Authentication authentication2 = manager.authenticate(new AccessTokenAuthentication(ACCESS_TOKEN_VALUE))
+                .block();
+        assertNotNull(authentication1);
+        assertSame(authentication1, authentication2);
+        verify(accessTokenServiceMock, times(1)).parseAccessToken(ACCESS_TOKEN_VALUE);
+    }
+
+    @Test
+    void shouldNotCacheAuthenticationWhenAccessTokenHasNoExpirationTime() {
+        AccessToken accessTokenMock = mock(AccessToken.class);
+        when(accessTokenMock.getSubject()).thenReturn("1");
+        doReturn(Mono.just(accessTokenMock)).when(accessTokenServiceMock).parseAccessToken(anyString());
+
+        manager.authenticate(new AccessTokenAuthentication(ACCESS_TOKEN_VALUE)).block();
+        manager.authenticate(new AccessTokenAuthentication(ACCESS_TOKEN_VALUE)).block();
+        verify(accessTokenServiceMock, times(2)).parseAccessToken(ACCESS_TOKEN_VALUE);
+    }
+
+    @Test
+    void shouldThrowExceptionWhenAccessTokenOfCachedAuthenticationIsRevoked() {
+        AccessToken accessTokenMock = mock(AccessToken.class);
+        when(accessTokenMock.getSubject()).thenReturn("1");
+        when(accessTokenMock.getExpiration()).thenReturn(Instant.now().plus(1, ChronoUnit.HOURS));
+        doReturn(Mono.just(accessTokenMock)).when(accessTokenServiceMock).parseAccessToken(anyString());
+
+        manager.authenticate(new AccessTokenAuthentication(ACCESS_TOKEN_VALUE)).block();
+        when(accessTokenRevocationServiceMock.isRevoked(accessTokenMock)).thenReturn(Mono.just(true));
+
+        Authentication authenticationMock = new AccessTokenAuthentication(ACCESS_TOKEN_VALUE);
+        InvalidAccessTokenException e = assertThrows(InvalidAccessTokenException.class,
+                () -> manager.authenticate(authenticationMock).block());
+        assertEquals("Access token is revoked", e.getMessage());
+    }
+
     @Test
     void shouldThrowExceptionWhenAccessTokenIsInvalid() {
         when(accessTokenServiceMock.parseAccessToken(anyString())).thenThrow(InvalidAccessTokenException.class);
         Authentication authenticationMock = new AccessTokenAuthentication(ACCESS_TOKEN_VALUE);
         assertThrows(InvalidAccessTokenException.class, () -> manager.authenticate(authenticationMock).block());
     }
+
+    @Test
+    void shouldThrowExceptionWhenAccessTokenIsRevoked() {
+        AccessToken accessTokenMock = mock(AccessToken.class);
+        when(accessTokenMock.getSubject()).thenReturn("1");
+        doReturn(Mono.just(accessTokenMock)).when(accessTokenServiceMock).parseAccessToken(anyString());
+        when(accessTokenRevocationServiceMock.isRevoked(accessTokenMock)).thenReturn(Mono.just(true));
+
+        Authentication authenticationMock = new AccessTokenAuthentication(ACCESS_TOKEN_VALUE);
+        InvalidAccessTokenException e = assertThrows(InvalidAccessTokenException.class,
+                () -> manager.authenticate(authenticationMock).block());
+        assertEquals("Access token is revoked", e.getMessage());
+    }
 }
@@ -0,0 +1,76 @@
+package org.briarheart.tictactask.security.web.server.authentication;
+
+import org.briarheart.tictactask.security.crypto.password.ReactivePasswordEncoder;
+import org.briarheart.tictactask.user.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import reactor.core.publisher.Mono;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author Roman Chigvintsev
+ */
+class PasswordReactiveAuthenticationManagerTest {
+    private ReactiveUserDetailsService userDetailsService;
+    private ReactivePasswordEncoder passwordEncoder;
+    private PasswordReactiveAuthenticationManager manager;
+
+    @BeforeEach
+    void setUp() {
+        userDetailsService = mock(ReactiveUserDetailsService.class);
+        passwordEncoder = mock(ReactivePasswordEncoder.class);
+        when(passwordEncoder.matches(anyString(), anyString()))
+                .thenAnswer(args -> Mono.just(args.getArgument(0).equals(args.getArgument(1))));
+        manager = new PasswordReactiveAuthenticationManager(userDetailsService, passwordEncoder);
+    }
+
+    @Test
+    void shouldAuthenticateUser() {
+        User user = User.builder().email("alice@mail.com").password("secret").enabled(true).build();
+        when(userDetailsService.findByUsername(user.getEmail())).thenReturn(Mono.just(user));
+
+        Authentication result = manager.authenticate(createAuthentication(user.getEmail(), "secret")).block();
+        assertNotNull(result);
+        assertTrue(result.isAuthenticated());
+        assertSame(user, result.getPrincipal());
+    }
+
+    @Test
+    void shouldThrowExceptionOnAuthenticateWhenPasswordDoesNotMatch() {
+        User user = User.builder().email("alice@mail.com").password("secret").enabled(true).build();
+        when(userDetailsService.findByUsername(user.getEmail())).thenReturn(Mono.just(user));
+
+        Authentication authentication = createAuthentication(user.getEmail(), "password");
+        assertThrows(BadCredentialsException.class, () -> manager.authenticate(authentication).block());
+    }
+
+    @Test
+    void shouldThrowExceptionOnAuthenticateWhenUserIsNotFound() {
+        when(userDetailsService.findByUsername(anyString())).thenReturn(Mono.empty());
+        Authentication authentication = createAuthentication("alice@mail.com", "secret");
+        assertThrows(BadCredentialsException.class, () -> manager.authenticate(authentication).block());
+        verify(passwordEncoder, never()).matches(anyString(), anyString());
+    }
+
+    @Test
+    void shouldThrowExceptionOnAuthenticateWhenUserIsDisabled() {
+        User user = User.builder().email("alice@mail.com").password("secret").enabled(false).build();
+        when(userDetailsService.findByUsername(user.getEmail())).thenReturn(Mono.just(user));
+
+        Authentication authentication = createAuthentication(user.getEmail(), "secret");
+        assertThrows(DisabledException.class, () -> manager.authenticate(authentication).block());
+        verify(passwordEncoder, never()).matches(anyString(), anyString());
+    }
+
+    private Authentication createAuthentication(String username, String password) {
+        return new UsernamePasswordAuthenticationToken(username, password);
+    }
+}
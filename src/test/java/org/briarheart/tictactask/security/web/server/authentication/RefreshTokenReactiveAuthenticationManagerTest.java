@@ -0,0 +1,100 @@
+package org.briarheart.tictactask.security.web.server.authentication;
+
+import org.briarheart.tictactask.security.web.server.authentication.refreshtoken.InvalidRefreshTokenException;
+import org.briarheart.tictactask.security.web.server.authentication.refreshtoken.RefreshToken;
+import org.briarheart.tictactask.security.web.server.authentication.refreshtoken.RefreshTokenService;
+import org.briarheart.tictactask.user.User;
+import org.briarheart.tictactask.user.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author Roman Chigvintsev
+ */
+class RefreshTokenReactiveAuthenticationManagerTest {
+    private static final String REFRESH_TOKEN_VALUE = "K8dO0Ju1y6V8c6Vq4hYyR0mGq2tPpH8cO0V8t3bQq1E";
+
+    private RefreshTokenService refreshTokenServiceMock;
+    private UserRepository userRepositoryMock;
+    private RefreshTokenReactiveAuthenticationManager manager;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenServiceMock = mock(RefreshTokenService.class);
+        userRepositoryMock = mock(UserRepository.class);
+        manager = new RefreshTokenReactiveAuthenticationManager(refreshTokenServiceMock, userRepositoryMock);
+    }
+
+    @Test
+    void shouldAuthenticate() {
+        User user = User.builder().id(1L).email("alice@mail.com").emailConfirmed(true).enabled(true).build();
+        RefreshToken refreshToken = RefreshToken.builder().id(2L).userId(user.getId()).build();
+        when(refreshTokenServiceMock.useRefreshToken(anyString())).thenReturn(Mono.just(refreshToken));
+        when(userRepositoryMock.findByIdWithAuthorities(user.getId())).thenReturn(Mono.just(user));
+
+        Authentication authentication = manager.authenticate(new RefreshTokenAuthentication(REFRESH_TOKEN_VALUE))
+                .block();
+        assertNotNull(authentication);
+        assertTrue(authentication.isAuthenticated());
+        assertEquals(user, authentication.getPrincipal());
+    }
+
+    @Test
+    void shouldKeepUserAuthorities() {
+        User user = User.builder()
+                .id(1L)
+                .email("alice@mail.com")
+                .emailConfirmed(true)
+                .enabled(true)
+                .authorities(List.of(new SimpleGrantedAuthority("ROLE_ADMIN")))
+                .build();
+        RefreshToken refreshToken = RefreshToken.builder().id(2L).userId(user.getId()).build();
+        when(refreshTokenServiceMock.useRefreshToken(anyString())).thenReturn(Mono.just(refreshToken));
+        when(userRepositoryMock.findByIdWithAuthorities(user.getId())).thenReturn(Mono.just(user));
+
+        Authentication authentication = manager.authenticate(new RefreshTokenAuthentication(REFRESH_TOKEN_VALUE))
+                .block();
+        assertNotNull(authentication);
+        assertEquals(List.of(new SimpleGrantedAuthority("ROLE_ADMIN")), List.copyOf(authentication.getAuthorities()));
+    }
+
+    @Test
+    void shouldThrowExceptionWhenRefreshTokenIsInvalid() {
+        when(refreshTokenServiceMock.useRefreshToken(anyString()))
+                .thenReturn(Mono.error(new InvalidRefreshTokenException("Refresh token is expired")));
+        Authentication authentication = new RefreshTokenAuthentication(REFRESH_TOKEN_VALUE);
+        assertThrows(InvalidRefreshTokenException.class, () -> manager.authenticate(authentication).block());
+    }
+
+    @Test
+    void shouldThrowExceptionWhenUserIsNotFound() {
+        RefreshToken refreshToken = RefreshToken.builder().id(2L).userId(1L).build();
+        when(refreshTokenServiceMock.useRefreshToken(anyString())).thenReturn(Mono.just(refreshToken));
+        when(userRepositoryMock.findByIdWithAuthorities(1L)).thenReturn(Mono.empty());
+
+        Authentication authentication = new RefreshTokenAuthentication(REFRESH_TOKEN_VALUE);
+        assertThrows(InvalidRefreshTokenException.class, () -> manager.authenticate(authentication).block());
+    }
+
+    @Test
+    void shouldThrowExceptionWhenUserIsDisabled() {
+        User user = User.builder().id(1L).email("alice@mail.com").emailConfirmed(true).enabled(false).build();
+        RefreshToken refreshToken = RefreshToken.builder().id(2L).userId(user.getId()).build();
+        when(refreshTokenServiceMock.useRefreshToken(anyString())).thenReturn(Mono.just(refreshToken));
+        when(userRepositoryMock.findByIdWithAuthorities(user.getId())).thenReturn(Mono.just(user));
+
+        Authentication authentication = new RefreshTokenAuthentication(REFRESH_TOKEN_VALUE);
+        assertThrows(DisabledException.class, () -> manager.authenticate(authentication).block());
+    }
+}
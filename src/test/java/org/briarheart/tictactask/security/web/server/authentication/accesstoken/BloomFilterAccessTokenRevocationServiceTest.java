@@ -0,0 +1,106 @@
+package org.briarheart.tictactask.security.web.server.authentication.accesstoken;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author Roman Chigvintsev
+ */
+class BloomFilterAccessTokenRevocationServiceTest {
+    private static final String TOKEN_ID = "9ee2b5b2-5a3e-4c4b-a3b6-e2b5a33c5e1c";
+
+    private RevokedAccessTokenRepository revokedAccessTokenRepository;
+    private BloomFilterAccessTokenRevocationService service;
+
+    @BeforeEach
+    void setUp() {
+        revokedAccessTokenRepository = mock(RevokedAccessTokenRepository.class);
+        when(revokedAccessTokenRepository.insert(anyString(), any())).thenReturn(Mono.just(1));
+        when(revokedAccessTokenRepository.deleteByExpiresAtBefore(any())).thenReturn(Mono.just(0));
+        when(revokedAccessTokenRepository.findByExpiresAtAfter(any())).thenReturn(Flux.empty());
+        when(revokedAccessTokenRepository.existsById(anyString())).thenReturn(Mono.just(false));
+
+        service = new BloomFilterAccessTokenRevocationService(revokedAccessTokenRepository, Duration.ofSeconds(30));
+    }
+
+    @Test
+    void shouldSaveRevokedAccessToken() {
+        service.revokeAccessToken(mockAccessToken(TOKEN_ID)).block();
+        verify(revokedAccessTokenRepository).insert(eq(TOKEN_ID), any(LocalDateTime.class));
+    }
+
+    @Test
+    void shouldIgnoreAccessTokenWithoutIdOnRevoke() {
+        service.revokeAccessToken(mockAccessToken(null)).block();
+        verify(revokedAccessTokenRepository, never()).insert(any(), any());
+    }
+
+    @Test
+    void shouldConsiderAccessTokenRevokedByThisInstanceRevokedWithoutQueryingDatabase() {
+        service.reload().block();
+        AccessToken accessToken = mockAccessToken(TOKEN_ID);
+        service.revokeAccessToken(accessToken).block();
+
+        Boolean revoked = service.isRevoked(accessToken).block();
+        assertEquals(Boolean.TRUE, revoked);
+        verify(revokedAccessTokenRepository, never()).existsById(anyString());
+    }
+
+    @Test
+    void shouldNotQueryDatabaseWhenAccessTokenIsNotContainedInFilter() {
+        service.reload().block();
+
+        Boolean revoked = service.isRevoked(mockAccessToken(TOKEN_ID)).block();
+        assertEquals(Boolean.FALSE, revoked);
+        verify(revokedAccessTokenRepository, never()).existsById(anyString());
+    }
+
+    @Test
+    void shouldConfirmAccessTokenContainedInFilterWithDatabase() {
+        RevokedAccessToken revokedToken = new RevokedAccessToken(TOKEN_ID, LocalDateTime.now().plusHours(1));
+        when(revokedAccessTokenRepository.findByExpiresAtAfter(any())).thenReturn(Flux.just(revokedToken));
+        when(revokedAccessTokenRepository.existsById(TOKEN_ID)).thenReturn(Mono.just(true));
+        service.reload().block();
+
+        Boolean revoked = service.isRevoked(mockAccessToken(TOKEN_ID)).block();
+        assertEquals(Boolean.TRUE, revoked);
+        verify(revokedAccessTokenRepository).existsById(TOKEN_ID);
+    }
+
+    @Test
+    void shouldQueryDatabaseWhenRevokedAccessTokensAreNotLoadedYet() {
+        Boolean revoked = service.isRevoked(mockAccessToken(TOKEN_ID)).block();
+        assertEquals(Boolean.FALSE, revoked);
+        verify(revokedAccessTokenRepository).existsById(TOKEN_ID);
+    }
+
+    @Test
+    void shouldNotConsiderAccessTokenWithoutIdRevoked() {
+        Boolean revoked = service.isRevoked(mockAccessToken(null)).block();
+        assertEquals(Boolean.FALSE, revoked);
+    }
+
+    @Test
+    void shouldDeleteExpiredAccessTokensOnReload() {
+        service.reload().block();
+        verify(revokedAccessTokenRepository).deleteByExpiresAtBefore(any(LocalDateTime.class));
+    }
+
+    private AccessToken mockAccessToken(String id) {
+        AccessToken accessToken = mock(AccessToken.class);
+        when(accessToken.getId()).thenReturn(id);
+        when(accessToken.getExpiration()).thenReturn(Instant.now().plusSeconds(300));
+        return accessToken;
+    }
+}
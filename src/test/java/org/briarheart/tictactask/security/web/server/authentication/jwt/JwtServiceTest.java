@@ -80,6 +80,21 @@ class JwtServiceTest {
         assertEquals(Long.toString(user.getId()), accessToken.getSubject());
     }
 
+    @Test
+    void shouldAssignUniqueIdToAccessToken() {
+        User user = User.builder().id(1L).email(USER_EMAIL).emailConfirmed(true).enabled(true).build();
+
+        MockServerHttpRequest requestMock = MockServerHttpRequest.get("/").build();
+        MockServerWebExchange webExchangeMock = MockServerWebExchange.from(requestMock);
+
+        AccessToken accessToken1 = service.createAccessToken(user, webExchangeMock).block();
+        AccessToken accessToken2 = service.createAccessToken(user, webExchangeMock).block();
+        assertNotNull(accessToken1);
+        assertNotNull(accessToken2);
+        assertNotNull(accessToken1.getId());
+        assertNotEquals(accessToken1.getId(), accessToken2.getId());
+    }
+
     @Test
     void shouldIncludeUserEmailInToken() {
         User user = User.builder().id(1L).email(USER_EMAIL).build();
@@ -132,6 +147,20 @@ class JwtServiceTest {
         assertNull(accessToken.getSubject());
     }
 
+    @Test
+    void shouldReturnCachedAccessTokenOnRepeatedParse() {
+        AccessToken accessToken = service.parseAccessToken(VALID_ACCESS_TOKEN_VALUE).block();
+        assertNotNull(accessToken);
+        assertSame(accessToken, service.parseAccessToken(VALID_ACCESS_TOKEN_VALUE).block());
+    }
+
+    @Test
+    void shouldNotCacheAccessTokenWithoutExpirationTime() {
+        AccessToken accessToken = service.parseAccessToken(EMPTY_CLAIMS_ACCESS_TOKEN_VALUE).block();
+        assertNotNull(accessToken);
+        assertNotSame(accessToken, service.parseAccessToken(EMPTY_CLAIMS_ACCESS_TOKEN_VALUE).block());
+    }
+
     @Test
     void shouldThrowExceptionWhenAccessTokenIsExpired() {
         InvalidAccessTokenException e = assertThrows(InvalidAccessTokenException.class, () ->
@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Test;
 import java.time.Instant;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
  * @author Roman Chigvintsev
@@ -27,4 +28,12 @@ class JwtTest {
                 .build();
         assertEquals(Instant.ofEpochSecond(EXP), token.getExpiration());
     }
+
+    @Test
+    void shouldNotAllowToModifyClaims() {
+        Jwt token = new Jwt.Builder(TestJwts.DEFAULT_ACCESS_TOKEN_VALUE)
+                .claim(JwtClaim.EMAIL, "alice@mail.com")
+                .build();
+        assertThrows(UnsupportedOperationException.class, () -> token.getClaims().put("email", "bob@mail.com"));
+    }
 }
@@ -0,0 +1,43 @@
+package org.briarheart.tictactask.security.web.server.authentication.logout;
+
+import org.briarheart.tictactask.security.web.server.authentication.AccessTokenAuthentication;
+import org.briarheart.tictactask.security.web.server.authentication.accesstoken.AccessToken;
+import org.briarheart.tictactask.security.web.server.authentication.accesstoken.AccessTokenRevocationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.web.server.WebFilterExchange;
+import reactor.core.publisher.Mono;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author Roman Chigvintsev
+ */
+class AccessTokenRevocationLogoutHandlerTest {
+    private AccessTokenRevocationLogoutHandler handler;
+    private AccessTokenRevocationService accessTokenRevocationServiceMock;
+
+    @BeforeEach
+    void setUp() {
+        accessTokenRevocationServiceMock = mock(AccessTokenRevocationService.class);
+        when(accessTokenRevocationServiceMock.revokeAccessToken(any())).thenReturn(Mono.empty());
+        handler = new AccessTokenRevocationLogoutHandler(accessTokenRevocationServiceMock);
+    }
+
+    @Test
+    void shouldRevokeAccessTokenOfCurrentUser() {
+        AccessToken accessTokenMock = mock(AccessToken.class);
+        when(accessTokenMock.getTokenValue()).thenReturn("token-value");
+        AccessTokenAuthentication authentication = new AccessTokenAuthentication(accessTokenMock, null);
+
+        handler.logout(mock(WebFilterExchange.class), authentication).block();
+        verify(accessTokenRevocationServiceMock).revokeAccessToken(accessTokenMock);
+    }
+
+    @Test
+    void shouldDoNothingWhenUserIsNotAuthenticatedWithAccessToken() {
+        handler.logout(mock(WebFilterExchange.class), null).block();
+        verifyNoInteractions(accessTokenRevocationServiceMock);
+    }
+}
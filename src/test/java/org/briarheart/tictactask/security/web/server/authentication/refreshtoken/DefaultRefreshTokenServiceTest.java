@@ -0,0 +1,131 @@
+package org.briarheart.tictactask.security.web.server.authentication.refreshtoken;
+
+import org.briarheart.tictactask.user.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpCookie;
+import org.springframework.http.ResponseCookie;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author Roman Chigvintsev
+ */
+class DefaultRefreshTokenServiceTest {
+    private RefreshTokenRepository refreshTokenRepository;
+    private DefaultRefreshTokenService service;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenRepository = mock(RefreshTokenRepository.class);
+        when(refreshTokenRepository.save(any(RefreshToken.class))).thenAnswer(args -> {
+            RefreshToken token = args.getArgument(0);
+            token.setId(1L);
+            return Mono.just(token);
+        });
+        when(refreshTokenRepository.deleteByUserIdAndExpiresAtBefore(anyLong(), any())).thenReturn(Mono.just(0));
+        when(refreshTokenRepository.revokeById(anyLong())).thenReturn(Mono.just(1));
+        when(refreshTokenRepository.revokeByUserId(anyLong())).thenReturn(Mono.just(1));
+        when(refreshTokenRepository.revokeByTokenHash(anyString())).thenReturn(Mono.just(1));
+
+        service = new DefaultRefreshTokenService(refreshTokenRepository, new CookieRefreshTokenRepository(null));
+    }
+
+    @Test
+    void shouldCreateRefreshTokenAndSaveItInCookie() {
+        User user = User.builder().id(1L).email("alice@mail.com").build();
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/api/login"));
+
+        RefreshToken refreshToken = service.createRefreshToken(user, exchange).block();
+        assertNotNull(refreshToken);
+        assertEquals(user.getId(), refreshToken.getUserId());
+        assertFalse(refreshToken.isRevoked());
+        assertTrue(refreshToken.getExpiresAt().isAfter(refreshToken.getCreatedAt()));
+
+        ResponseCookie cookie = exchange.getResponse().getCookies().getFirst("refresh_token");
+        assertNotNull(cookie);
+        assertTrue(cookie.isHttpOnly());
+        // Token value itself is never stored
+        assertNotEquals(cookie.getValue(), refreshToken.getTokenHash());
+    }
+
+    @Test
+    void shouldRevokeRefreshTokenOnUse() {
+        RefreshToken refreshToken = createRefreshToken(false, LocalDateTime.now().plusDays(1));
+        RefreshToken usedToken = service.useRefreshToken(refreshToken.getTokenHash()).block();
+        assertNotNull(usedToken);
+        assertTrue(usedToken.isRevoked());
+        verify(refreshTokenRepository).revokeById(refreshToken.getId());
+    }
+
+    @Test
+    void shouldThrowExceptionOnUseWhenRefreshTokenIsNotFound() {
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Mono.empty());
+        assertThrows(InvalidRefreshTokenException.class, () -> service.useRefreshToken("unknown").block());
+    }
+
+    @Test
+    void shouldThrowExceptionOnUseWhenRefreshTokenIsExpired() {
+        RefreshToken refreshToken = createRefreshToken(false, LocalDateTime.now().minusDays(1));
+        assertThrows(InvalidRefreshTokenException.class,
+                () -> service.useRefreshToken(refreshToken.getTokenHash()).block());
+        verify(refreshTokenRepository, never()).revokeById(anyLong());
+    }
+
+    @Test
+    void shouldRevokeAllRefreshTokensOfUserWhenRefreshTokenIsReused() {
+        RefreshToken refreshToken = createRefreshToken(true, LocalDateTime.now().plusDays(1));
+        assertThrows(InvalidRefreshTokenException.class,
+                () -> service.useRefreshToken(refreshToken.getTokenHash()).block());
+        verify(refreshTokenRepository).revokeByUserId(refreshToken.getUserId());
+    }
+
+    @Test
+    void shouldRevokeAllRefreshTokensOfUserWhenRefreshTokenIsUsedConcurrently() {
+        RefreshToken refreshToken = createRefreshToken(false, LocalDateTime.now().plusDays(1));
+        when(refreshTokenRepository.revokeById(refreshToken.getId())).thenReturn(Mono.just(0));
+        assertThrows(InvalidRefreshTokenException.class,
+                () -> service.useRefreshToken(refreshToken.getTokenHash()).block());
+        verify(refreshTokenRepository).revokeByUserId(refreshToken.getUserId());
+    }
+
+    @Test
+    void shouldRevokeRefreshTokenAndRemoveItFromCookie() {
+        MockServerHttpRequest request = MockServerHttpRequest.post("/api/logout")
+                .cookie(new HttpCookie("refresh_token", "token-value"))
+                .build();
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+
+        service.revokeRefreshToken(exchange).block();
+
+        ArgumentCaptor<String> hashCaptor = ArgumentCaptor.forClass(String.class);
+        verify(refreshTokenRepository).revokeByTokenHash(hashCaptor.capture());
+        assertNotEquals("token-value", hashCaptor.getValue());
+
+        ResponseCookie cookie = exchange.getResponse().getCookies().getFirst("refresh_token");
+        assertNotNull(cookie);
+        assertTrue(cookie.getMaxAge().isZero());
+    }
+
+    private RefreshToken createRefreshToken(boolean revoked, LocalDateTime expiresAt) {
+        RefreshToken refreshToken = RefreshToken.builder()
+                .id(2L)
+                .userId(1L)
+                .tokenHash("token-hash")
+                .revoked(revoked)
+                .createdAt(LocalDateTime.now())
+                .expiresAt(expiresAt)
+                .build();
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Mono.just(refreshToken));
+        return refreshToken;
+    }
+}
@@ -11,11 +11,15 @@ import org.springframework.boot.autoconfigure.data.r2dbc.R2dbcDataAutoConfigurat
 import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
 import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -148,6 +152,22 @@ class CustomizedTaskRepositoryImplTest {
         assertEquals(4L, repository.count(request, TestUsers.JOHN_DOE).block());
     }
 
+    @Test
+    void shouldBindNewParameterValuesWhenQueryWithSameShapeIsExecutedAgain() {
+        GetTasksRequest request = new GetTasksRequest();
+        request.setStatuses(Set.of(TaskStatus.PROCESSED));
+        request.setDeadlineDateFrom(parseIsoDate("2022-01-01"));
+        request.setDeadlineDateTo(parseIsoDate("2022-01-02"));
+        request.setDeadlineDateTimeFrom(parseIsoDateTime("2022-01-01T00:00"));
+        request.setDeadlineDateTimeTo(parseIsoDateTime("2022-01-02T23:59"));
+        assertEquals(4L, repository.count(request, TestUsers.JOHN_DOE).block());
+
+        request.setDeadlineDateFrom(parseIsoDate("2022-01-02"));
+        request.setDeadlineDateTimeFrom(parseIsoDateTime("2022-01-02T00:00"));
+        assertEquals(2L, repository.count(request, TestUsers.JOHN_DOE).block());
+        assertEquals(0L, repository.count(request, TestUsers.JANE_DOE).block());
+    }
+
     @Test
     void shouldReturnProcessedTasksWithDeadlineBetween() {
         LocalDateTime deadlineDateTimeFrom = parseIsoDateTime("2022-01-01T00:00");
@@ -397,4 +417,147 @@ class CustomizedTaskRepositoryImplTest {
         assertEquals(4, result.size());
         assertAllWithStatuses(result, TaskStatus.UNPROCESSED, TaskStatus.COMPLETED);
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldReturnPageOfTasksWithTotalCount() {
+        GetTasksRequest request = new GetTasksRequest();
+        request.setStatuses(Set.of(TaskStatus.PROCESSED));
+
+        Page<Task> result = repository.findPage(request, TestUsers.JOHN_DOE, PageRequest.of(1, 2)).block();
+        assertNotNull(result);
+        assertEquals(5L, result.getTotalElements());
+        assertEquals(2, result.getContent().size());
+        assertAllWithStatuses(result.getContent(), TaskStatus.PROCESSED);
+    }
+
+    @Test
+    void shouldReturnFirstPageAndThenSecondPageOfTasks() {
+        GetTasksRequest request = new GetTasksRequest();
+        request.setStatuses(Set.of(TaskStatus.PROCESSED));
+
+        List<Task> firstPage = repository.find(request, TestUsers.JOHN_DOE, PageRequest.of(0, 2)).collectList()
+                .block();
+        List<Task> secondPage = repository.find(request, TestUsers.JOHN_DOE, PageRequest.of(1, 2)).collectList()
+                .block();
+        assertNotNull(firstPage);
+        assertNotNull(secondPage);
+        assertEquals(2, firstPage.size());
+        assertEquals(2, secondPage.size());
+        assertTrue(Collections.disjoint(firstPage, secondPage));
+    }
+
+    @Test
+    void shouldReturnSecondPageAndThenFirstPageOfTasks() {
+        GetTasksRequest request = new GetTasksRequest();
+        request.setStatuses(Set.of(TaskStatus.PROCESSED));
+
+        List<Task> secondPage = repository.find(request, TestUsers.JOHN_DOE, PageRequest.of(1, 2)).collectList()
+                .block();
+        List<Task> firstPage = repository.find(request, TestUsers.JOHN_DOE, PageRequest.of(0, 2)).collectList()
+                .block();
+        assertNotNull(firstPage);
+        assertNotNull(secondPage);
+        assertEquals(2, firstPage.size());
+        assertEquals(2, secondPage.size());
+        assertTrue(Collections.disjoint(firstPage, secondPage));
+    }
+
+    @Test
+    void shouldReturnFirstPageAndThenSecondPageWithTotalCount() {
+        GetTasksRequest request = new GetTasksRequest();
+        request.setStatuses(Set.of(TaskStatus.PROCESSED));
+
+        Page<Task> firstPage = repository.findPage(request, TestUsers.JOHN_DOE, PageRequest.of(0, 2)).block();
+        Page<Task> secondPage = repository.findPage(request, TestUsers.JOHN_DOE, PageRequest.of(1, 2)).block();
+        assertNotNull(firstPage);
+        assertNotNull(secondPage);
+        assertEquals(5L, firstPage.getTotalElements());
+        assertEquals(5L, secondPage.getTotalElements());
+        assertTrue(Collections.disjoint(firstPage.getContent(), secondPage.getContent()));
+    }
+
+    @Test
+    void shouldReturnSecondPageAndThenFirstPageWithTotalCount() {
+        GetTasksRequest request = new GetTasksRequest();
+        request.setStatuses(Set.of(TaskStatus.PROCESSED));
+
+        Page<Task> secondPage = repository.findPage(request, TestUsers.JOHN_DOE, PageRequest.of(1, 2)).block();
+        Page<Task> firstPage = repository.findPage(request, TestUsers.JOHN_DOE, PageRequest.of(0, 2)).block();
+        assertNotNull(firstPage);
+        assertNotNull(secondPage);
+        assertEquals(5L, firstPage.getTotalElements());
+        assertEquals(5L, secondPage.getTotalElements());
+        assertTrue(Collections.disjoint(firstPage.getContent(), secondPage.getContent()));
+    }
+
+    @Test
+    void shouldReturnTotalCountWhenPageIsBeyondLastTask() {
+        GetTasksRequest request = new GetTasksRequest();
+        request.setStatuses(Set.of(TaskStatus.PROCESSED));
+
+        Page<Task> result = repository.findPage(request, TestUsers.JOHN_DOE, PageRequest.of(10, 2)).block();
+        assertNotNull(result);
+        assertEquals(5L, result.getTotalElements());
+        assertTrue(result.getContent().isEmpty());
+    }
+
+    @Test
+    void shouldReturnEmptyPageWhenThereIsNoTask() {
+        GetTasksRequest request = new GetTasksRequest();
+        request.setStatuses(Set.of(TaskStatus.PROCESSED));
+
+        Page<Task> result = repository.findPage(request, TestUsers.JANE_DOE, PageRequest.of(0, 2)).block();
+        assertNotNull(result);
+        assertEquals(0L, result.getTotalElements());
+    }
+
+    @Test
+    void shouldThrowExceptionOnFindAfterWhenGetTasksRequestIsNull() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> repository.findAfter(null, TestUsers.JOHN_DOE, null, Pageable.unpaged()).blockFirst());
+        assertEquals("Request must not be null", e.getMessage());
+    }
+
+    @Test
+    void shouldThrowExceptionOnFindAfterWhenUserIsNull() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> repository.findAfter(new GetTasksRequest(), null, null, Pageable.unpaged()).blockFirst());
+        assertEquals("User must not be null", e.getMessage());
+    }
+
+    @Test
+    void shouldReturnFirstPageOfTasksWhenCursorIsNull() {
+        GetTasksRequest request = new GetTasksRequest();
+        request.setStatuses(Set.of(TaskStatus.PROCESSED));
+
+        List<Task> expected = repository.find(request, TestUsers.JOHN_DOE, Pageable.ofSize(2)).collectList().block();
+        List<Task> result = repository.findAfter(request, TestUsers.JOHN_DOE, null, Pageable.ofSize(2))
+                .collectList()
+                .block();
+        assertEquals(expected, result);
+    }
+
+    @Test
+    void shouldReturnTasksFollowingCursor() {
+        GetTasksRequest request = new GetTasksRequest();
+        request.setStatuses(Set.of(TaskStatus.UNPROCESSED, TaskStatus.PROCESSED, TaskStatus.COMPLETED));
+
+        List<Task> allTasks = repository.find(request, TestUsers.JOHN_DOE, Pageable.unpaged()).collectList().block();
+        assertNotNull(allTasks);
+
+        List<Task> result = new ArrayList<>();
+        TaskCursor cursor = null;
+        List<Task> page;
+        do {
+            page = repository.findAfter(request, TestUsers.JOHN_DOE, cursor, Pageable.ofSize(3))
+                    .collectList()
+                    .block();
+            assertNotNull(page);
+            result.addAll(page);
+            if (!page.isEmpty()) {
+                cursor = TaskCursor.of(page.get(page.size() - 1));
+            }
+        } while (page.size() == 3);
+        assertEquals(allTasks, result);
+    }
+}
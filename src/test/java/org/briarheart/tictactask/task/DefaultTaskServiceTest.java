@@ -5,21 +5,30 @@ import org.briarheart.tictactask.task.comment.TaskComment;
 import org.briarheart.tictactask.task.comment.TaskCommentRepository;
 import org.briarheart.tictactask.task.list.TaskList;
 import org.briarheart.tictactask.task.list.TaskListRepository;
+import org.briarheart.tictactask.task.recurrence.TaskRecurrenceService;
 import org.briarheart.tictactask.task.tag.TaskTag;
 import org.briarheart.tictactask.task.tag.TaskTagRelation;
 import org.briarheart.tictactask.task.tag.TaskTagRelationRepository;
 import org.briarheart.tictactask.task.tag.TaskTagRepository;
+import org.briarheart.tictactask.task.version.EntityChangeService;
+import org.briarheart.tictactask.task.version.EntityType;
 import org.briarheart.tictactask.user.User;
 import org.briarheart.tictactask.util.TestUsers;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuples;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.briarheart.tictactask.util.DateTimeUtils.currentDateTimeUtc;
 import static org.junit.jupiter.api.Assertions.*;
@@ -36,6 +45,8 @@ class DefaultTaskServiceTest {
     private TaskTagRepository tagRepository;
     private TaskListRepository taskListRepository;
     private TaskCommentRepository taskCommentRepository;
+    private EntityChangeService entityChangeService;
+    private TaskRecurrenceService taskRecurrenceService;
 
     private DefaultTaskService taskService;
     private LocalDateTime currentTime;
@@ -47,10 +58,19 @@ class DefaultTaskServiceTest {
         tagRepository = mock(TaskTagRepository.class);
         taskListRepository = mock(TaskListRepository.class);
         taskCommentRepository = mock(TaskCommentRepository.class);
+        entityChangeService = mock(EntityChangeService.class);
+        when(entityChangeService.recordChange(any(), any(), any())).thenReturn(Mono.empty());
+        when(entityChangeService.recordDeletion(any(), any(), any())).thenReturn(Mono.empty());
+        when(entityChangeService.recordTaskChanges(any(), any())).thenReturn(Mono.empty());
+        when(entityChangeService.recordTaskListChangesByTaskIds(any(), any())).thenReturn(Mono.empty());
+        when(entityChangeService.recordTaskDeletions(any(), any())).thenReturn(Mono.empty());
+        when(entityChangeService.recordSubtaskDeletions(any(), any())).thenReturn(Mono.empty());
+        taskRecurrenceService = mock(TaskRecurrenceService.class);
+        when(taskRecurrenceService.createNextOccurrence(any())).thenReturn(Mono.empty());
 
         currentTime = currentDateTimeUtc();
         taskService = new DefaultTaskService(taskRepository, taskTagRelationRepository, tagRepository,
-                taskListRepository, taskCommentRepository) {
+                taskListRepository, taskCommentRepository, entityChangeService, taskRecurrenceService) {
             @Override
             protected LocalDateTime getCurrentTime() {
                 return currentTime;
@@ -75,6 +95,29 @@ class DefaultTaskServiceTest {
         assertEquals(task, result);
     }
 
+    @Test
+    void shouldReturnPageOfTasks() {
+        GetTasksRequest request = new GetTasksRequest();
+        Task task = Task.builder().id(2L).userId(TestUsers.JOHN_DOE.getId()).title("Test task").build();
+        Page<Task> page = new PageImpl<>(List.of(task), Pageable.ofSize(10), 1L);
+        when(taskRepository.findPage(request, TestUsers.JOHN_DOE, Pageable.ofSize(10))).thenReturn(Mono.just(page));
+
+        Page<Task> result = taskService.getTaskPage(request, TestUsers.JOHN_DOE, Pageable.ofSize(10)).block();
+        assertEquals(page, result);
+    }
+
+    @Test
+    void shouldReturnTasksFollowingCursor() {
+        GetTasksRequest request = new GetTasksRequest();
+        TaskCursor cursor = new TaskCursor(null, currentDateTimeUtc(), 1L);
+        Task task = Task.builder().id(2L).userId(TestUsers.JOHN_DOE.getId()).title("Test task").build();
+        when(taskRepository.findAfter(request, TestUsers.JOHN_DOE, cursor, Pageable.ofSize(10)))
+                .thenReturn(Flux.just(task));
+
+        Task result = taskService.getTasks(request, TestUsers.JOHN_DOE, cursor, Pageable.ofSize(10)).blockFirst();
+        assertEquals(task, result);
+    }
+
     @Test
     void shouldReturnTaskById() {
         User user = TestUsers.JOHN_DOE;
@@ -121,6 +164,19 @@ class DefaultTaskServiceTest {
         assertEquals(expectedResult, result);
     }
 
+    @Test
+    void shouldRecordTaskChangeOnTaskCreate() {
+        long taskId = 2L;
+        when(taskRepository.save(any(Task.class))).thenAnswer(args -> {
+            Task t = new Task(args.getArgument(0));
+            t.setId(taskId);
+            return Mono.just(t);
+        });
+        Task task = Task.builder().userId(1L).title("New task").build();
+        taskService.createTask(task).block();
+        verify(entityChangeService, times(1)).recordChange(EntityType.TASK, taskId, task.getUserId());
+    }
+
     @Test
     void shouldSetTaskStatusToUnprocessedOnTaskCreateWhenStatusIsNotProvided() {
         when(taskRepository.save(any(Task.class))).thenAnswer(args -> Mono.just(new Task(args.getArgument(0))));
@@ -275,6 +331,17 @@ class DefaultTaskServiceTest {
         assertNotNull(task.getCompletedAt());
     }
 
+    @Test
+    void shouldCreateNextOccurrenceOnTaskComplete() {
+        User user = TestUsers.JOHN_DOE;
+        Task task = Task.builder().id(2L).userId(user.getId()).title("Test task").build();
+        when(taskRepository.findByIdAndUserId(task.getId(), user.getId())).thenReturn(Mono.just(task));
+        when(taskRepository.save(any(Task.class))).thenAnswer(args -> Mono.just(new Task(args.getArgument(0))));
+
+        taskService.completeTask(task.getId(), user).block();
+        verify(taskRecurrenceService, times(1)).createNextOccurrence(task);
+    }
+
     @Test
     void shouldThrowExceptionOnTaskCompleteWhenUserIsNull() {
         IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
@@ -304,7 +371,7 @@ class DefaultTaskServiceTest {
                 .status(TaskStatus.COMPLETED)
                 .build();
         when(taskRepository.findByIdAndUserId(task.getId(), user.getId())).thenReturn(Mono.just(task));
-        when(taskRepository.findByParentIdAndUserId(task.getId(), user.getId())).thenReturn(Flux.empty());
+        when(taskRepository.deleteByParentIdAndUserId(task.getId(), user.getId())).thenReturn(Mono.just(0));
         when(taskRepository.save(any(Task.class))).thenAnswer(args -> Mono.just(new Task(args.getArgument(0))));
 
         Task result = taskService.restoreTask(task.getId(), user).block();
@@ -331,7 +398,7 @@ class DefaultTaskServiceTest {
                 .build();
         when(taskListRepository.findById(taskList.getId())).thenReturn(Mono.just(taskList));
         when(taskRepository.findByIdAndUserId(task.getId(), user.getId())).thenReturn(Mono.just(task));
-        when(taskRepository.findByParentIdAndUserId(task.getId(), user.getId())).thenReturn(Flux.empty());
+        when(taskRepository.deleteByParentIdAndUserId(task.getId(), user.getId())).thenReturn(Mono.just(0));
         when(taskRepository.save(any(Task.class))).thenAnswer(args -> Mono.just(new Task(args.getArgument(0))));
 
         Task result = taskService.restoreTask(task.getId(), user).block();
@@ -349,20 +416,12 @@ class DefaultTaskServiceTest {
                 .previousStatus(TaskStatus.PROCESSED)
                 .status(TaskStatus.COMPLETED)
                 .build();
-        Task childTask = Task.builder()
-                .id(3L)
-                .parentId(parentTask.getId())
-                .userId(user.getId())
-                .title("Child task")
-                .status(TaskStatus.PROCESSED)
-                .build();
         when(taskRepository.findByIdAndUserId(parentTask.getId(), user.getId())).thenReturn(Mono.just(parentTask));
-        when(taskRepository.findByParentIdAndUserId(parentTask.getId(), user.getId())).thenReturn(Flux.just(childTask));
+        when(taskRepository.deleteByParentIdAndUserId(parentTask.getId(), user.getId())).thenReturn(Mono.just(1));
         when(taskRepository.save(any(Task.class))).thenAnswer(args -> Mono.just(new Task(args.getArgument(0))));
-        when(taskRepository.delete(any(Task.class))).thenReturn(Mono.just(true).then());
 
         taskService.restoreTask(parentTask.getId(), user).block();
-        verify(taskRepository, times(1)).delete(childTask);
+        verify(taskRepository, times(1)).deleteByParentIdAndUserId(parentTask.getId(), user.getId());
     }
 
     @Test
@@ -413,6 +472,183 @@ class DefaultTaskServiceTest {
         assertEquals("Task with id " + taskId + " is not found", e.getMessage());
     }
 
+    @Test
+    void shouldCompleteTasksInBatch() {
+        User user = TestUsers.JOHN_DOE;
+        BatchTaskRequest request = new BatchTaskRequest();
+        request.setOperation(BatchTaskRequest.Operation.COMPLETE);
+        request.setIds(List.of(2L, 3L));
+
+        when(taskRepository.findIdByIdInAndUserId(Set.of(2L, 3L), user.getId())).thenReturn(Flux.just(2L));
+        when(taskRepository.completeByIdInAndUserId(eq(Set.of(2L)), eq(user.getId()), any()))
+                .thenReturn(Mono.just(1));
+        when(taskRepository.findRecurringCompletedByIdInAndUserId(Set.of(2L), user.getId())).thenReturn(Flux.empty());
+
+        List<BatchTaskResult> result = taskService.executeBatch(request, user).collectList().block();
+        assertEquals(List.of(
+                new BatchTaskResult(2L, BatchTaskResult.Status.OK),
+                new BatchTaskResult(3L, BatchTaskResult.Status.NOT_FOUND)
+        ), result);
+        verify(taskRepository, times(1)).completeByIdInAndUserId(eq(Set.of(2L)), eq(user.getId()), notNull());
+    }
+
+    @Test
+    void shouldCreateNextOccurrencesOfRecurringTasksOnBatchComplete() {
+        User user = TestUsers.JOHN_DOE;
+        BatchTaskRequest request = new BatchTaskRequest();
+        request.setOperation(BatchTaskRequest.Operation.COMPLETE);
+        request.setIds(List.of(2L, 3L));
+
+        Task recurringTask = Task.builder()
+                .id(3L)
+                .userId(user.getId())
+                .title("Recurring task")
+                .status(TaskStatus.COMPLETED)
+                .build();
+
+        when(taskRepository.findIdByIdInAndUserId(Set.of(2L, 3L), user.getId())).thenReturn(Flux.just(2L, 3L));
+        when(taskRepository.completeByIdInAndUserId(eq(Set.of(2L, 3L)), eq(user.getId()), any()))
+                .thenReturn(Mono.just(2));
+        when(taskRepository.findRecurringCompletedByIdInAndUserId(Set.of(2L, 3L), user.getId()))
+                .thenReturn(Flux.just(recurringTask));
+
+        taskService.executeBatch(request, user).blockLast();
+        verify(taskRecurrenceService, times(1)).createNextOccurrence(recurringTask);
+    }
+
+    @Test
+    void shouldRestoreTasksInBatch() {
+        User user = TestUsers.JOHN_DOE;
+        BatchTaskRequest request = new BatchTaskRequest();
+        request.setOperation(BatchTaskRequest.Operation.RESTORE);
+        request.setIds(List.of(2L, 3L));
+
+        when(taskRepository.findIdByIdInAndUserId(Set.of(2L, 3L), user.getId())).thenReturn(Flux.just(2L, 3L));
+        when(taskRepository.findIdByIdInAndUserIdAndStatus(Set.of(2L, 3L), user.getId(), TaskStatus.COMPLETED))
+                .thenReturn(Flux.just(3L));
+        when(taskRepository.deleteByParentIdInAndUserId(List.of(3L), user.getId())).thenReturn(Mono.just(0));
+        when(taskListRepository.restoreByTaskIdIn(List.of(3L))).thenReturn(Mono.just(0));
+        when(taskRepository.restoreByIdInAndUserId(List.of(3L), user.getId())).thenReturn(Mono.just(1));
+
+        taskService.executeBatch(request, user).blockLast();
+        verify(taskRepository, times(1)).deleteByParentIdInAndUserId(List.of(3L), user.getId());
+        verify(taskListRepository, times(1)).restoreByTaskIdIn(List.of(3L));
+        verify(taskRepository, times(1)).restoreByIdInAndUserId(List.of(3L), user.getId());
+    }
+
+    @Test
+    void shouldReportSubtaskDeletedOnBatchRestoreWhenSubtaskIsRestoredAlongWithParentTask() {
+        User user = TestUsers.JOHN_DOE;
+        BatchTaskRequest request = new BatchTaskRequest();
+        request.setOperation(BatchTaskRequest.Operation.RESTORE);
+        request.setIds(List.of(2L, 3L, 4L));
+
+        when(taskRepository.findIdByIdInAndUserId(Set.of(2L, 3L, 4L), user.getId())).thenReturn(Flux.just(2L, 3L));
+        when(taskRepository.findIdByIdInAndUserId(Set.of(2L, 3L), user.getId())).thenReturn(Flux.just(2L));
+        when(taskRepository.findIdByIdInAndUserIdAndStatus(Set.of(2L, 3L), user.getId(), TaskStatus.COMPLETED))
+                .thenReturn(Flux.just(2L, 3L));
+        when(taskRepository.deleteByParentIdInAndUserId(List.of(2L, 3L), user.getId())).thenReturn(Mono.just(1));
+        when(taskListRepository.restoreByTaskIdIn(List.of(2L, 3L))).thenReturn(Mono.just(0));
+        when(taskRepository.restoreByIdInAndUserId(List.of(2L, 3L), user.getId())).thenReturn(Mono.just(1));
+
+        List<BatchTaskResult> result = taskService.executeBatch(request, user).collectList().block();
+        assertEquals(List.of(
+                new BatchTaskResult(2L, BatchTaskResult.Status.OK),
+                new BatchTaskResult(3L, BatchTaskResult.Status.DELETED),
+                new BatchTaskResult(4L, BatchTaskResult.Status.NOT_FOUND)
+        ), result);
+    }
+
+    @Test
+    void shouldDeleteTasksInBatch() {
+        User user = TestUsers.JOHN_DOE;
+        BatchTaskRequest request = new BatchTaskRequest();
+        request.setOperation(BatchTaskRequest.Operation.DELETE);
+        request.setIds(List.of(2L));
+
+        when(taskRepository.findIdByIdInAndUserId(Set.of(2L), user.getId())).thenReturn(Flux.just(2L));
+        when(taskRepository.deleteByIdInAndUserId(Set.of(2L), user.getId())).thenReturn(Mono.just(1));
+
+        taskService.executeBatch(request, user).blockLast();
+        verify(taskRepository, times(1)).deleteByIdInAndUserId(Set.of(2L), user.getId());
+    }
+
+    @Test
+    void shouldMoveTasksToTaskListInBatch() {
+        User user = TestUsers.JOHN_DOE;
+        TaskList taskList = TaskList.builder().id(4L).userId(user.getId()).name("Test task list").build();
+        BatchTaskRequest request = new BatchTaskRequest();
+        request.setOperation(BatchTaskRequest.Operation.MOVE);
+        request.setIds(List.of(2L));
+        request.setTaskListId(taskList.getId());
+
+        when(taskRepository.findIdByIdInAndUserId(Set.of(2L), user.getId())).thenReturn(Flux.just(2L));
+        when(taskListRepository.findByIdAndUserId(taskList.getId(), user.getId())).thenReturn(Mono.just(taskList));
+        when(taskRepository.updateTaskListIdByIdInAndUserId(Set.of(2L), user.getId(), taskList.getId()))
+                .thenReturn(Mono.just(1));
+
+        taskService.executeBatch(request, user).blockLast();
+        verify(taskRepository, times(1)).updateTaskListIdByIdInAndUserId(Set.of(2L), user.getId(), taskList.getId());
+    }
+
+    @Test
+    void shouldThrowExceptionOnBatchMoveWhenTaskListIsNotFound() {
+        User user = TestUsers.JOHN_DOE;
+        BatchTaskRequest request = new BatchTaskRequest();
+        request.setOperation(BatchTaskRequest.Operation.MOVE);
+        request.setIds(List.of(2L));
+        request.setTaskListId(4L);
+
+        when(taskRepository.findIdByIdInAndUserId(Set.of(2L), user.getId())).thenReturn(Flux.just(2L));
+        when(taskListRepository.findByIdAndUserId(4L, user.getId())).thenReturn(Mono.empty());
+
+        EntityNotFoundException e = assertThrows(EntityNotFoundException.class,
+                () -> taskService.executeBatch(request, user).blockLast());
+        assertEquals("Task list with id 4 is not found", e.getMessage());
+    }
+
+    @Test
+    void shouldAssignTagToTasksInBatch() {
+        User user = TestUsers.JOHN_DOE;
+        TaskTag tag = TaskTag.builder().id(5L).userId(user.getId()).name("Test tag").build();
+        BatchTaskRequest request = new BatchTaskRequest();
+        request.setOperation(BatchTaskRequest.Operation.ASSIGN_TAG);
+        request.setIds(List.of(2L));
+        request.setTagId(tag.getId());
+
+        when(taskRepository.findIdByIdInAndUserId(Set.of(2L), user.getId())).thenReturn(Flux.just(2L));
+        when(tagRepository.findByIdAndUserId(tag.getId(), user.getId())).thenReturn(Mono.just(tag));
+        when(taskTagRelationRepository.createByTaskIdIn(Set.of(2L), tag.getId())).thenReturn(Mono.just(1));
+
+        taskService.executeBatch(request, user).blockLast();
+        verify(taskTagRelationRepository, times(1)).createByTaskIdIn(Set.of(2L), tag.getId());
+    }
+
+    @Test
+    void shouldThrowExceptionOnBatchTagAssignmentWhenTagIdIsNull() {
+        BatchTaskRequest request = new BatchTaskRequest();
+        request.setOperation(BatchTaskRequest.Operation.ASSIGN_TAG);
+        request.setIds(List.of(2L));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> taskService.executeBatch(request, TestUsers.JOHN_DOE));
+        assertEquals("Tag id must not be null", e.getMessage());
+    }
+
+    @Test
+    void shouldSkipBatchOperationWhenNoTaskIsFound() {
+        User user = TestUsers.JOHN_DOE;
+        BatchTaskRequest request = new BatchTaskRequest();
+        request.setOperation(BatchTaskRequest.Operation.DELETE);
+        request.setIds(List.of(2L));
+
+        when(taskRepository.findIdByIdInAndUserId(Set.of(2L), user.getId())).thenReturn(Flux.empty());
+
+        List<BatchTaskResult> result = taskService.executeBatch(request, user).collectList().block();
+        assertEquals(List.of(new BatchTaskResult(2L, BatchTaskResult.Status.NOT_FOUND)), result);
+        verify(taskRepository, never()).deleteByIdInAndUserId(any(), anyLong());
+    }
+
     @Test
     void shouldReturnAllTagsForTask() {
         User user = TestUsers.JOHN_DOE;
@@ -426,6 +662,27 @@ class DefaultTaskServiceTest {
         assertEquals(tag, result);
     }
 
+    @Test
+    void shouldReturnTagsOfSeveralTasks() {
+        User user = TestUsers.JOHN_DOE;
+        TaskTag tag1 = TaskTag.builder().id(4L).userId(user.getId()).name("Tag 1").build();
+        TaskTag tag2 = TaskTag.builder().id(5L).userId(user.getId()).name("Tag 2").build();
+        List<Long> taskIds = List.of(2L, 3L, 6L);
+
+        when(tagRepository.findByTaskIdInAndUserId(taskIds, user.getId()))
+                .thenReturn(Flux.just(Tuples.of(2L, tag1), Tuples.of(2L, tag2), Tuples.of(3L, tag2)));
+
+        Map<Long, List<TaskTag>> result = taskService.getTags(taskIds, user).block();
+        assertEquals(Map.of(2L, List.of(tag1, tag2), 3L, List.of(tag2)), result);
+    }
+
+    @Test
+    void shouldThrowExceptionOnTagsOfSeveralTasksGetWhenTaskIdsAreNull() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> taskService.getTags((List<Long>) null, TestUsers.JOHN_DOE).block());
+        assertEquals("Task ids must not be null", e.getMessage());
+    }
+
     @Test
     void shouldThrowExceptionOnTagsGetWhenUserIsNull() {
         IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
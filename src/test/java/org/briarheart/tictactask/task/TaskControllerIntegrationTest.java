@@ -11,6 +11,8 @@ import org.springframework.boot.web.server.LocalServerPort;
 import org.springframework.http.*;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.util.Arrays;
+
 import static org.briarheart.tictactask.task.TaskAssertions.*;
 import static org.briarheart.tictactask.util.DateTimeUtils.parseIsoDateTime;
 import static org.junit.jupiter.api.Assertions.*;
@@ -61,6 +63,24 @@ class TaskControllerIntegrationTest {
         assertAllWithStatuses(tasks, TaskStatus.UNPROCESSED);
     }
 
+    @Test
+    void shouldReturnUnprocessedTasksWithTags() {
+        HttpHeaders headers = new HttpHeaders();
+        addCookieHeader(headers);
+
+        String url = "http://localhost:{port}/api/v1/tasks?statuses=UNPROCESSED&include=tags";
+        ResponseEntity<TaskResponse[]> response = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers),
+                TaskResponse[].class, port);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+
+        TaskResponse[] tasks = response.getBody();
+        assertNotNull(tasks);
+        assertTrue(Arrays.stream(tasks).allMatch(task -> task.getTags() != null), "Tags of every task were expected");
+        assertTrue(Arrays.stream(tasks).anyMatch(task -> task.getTags().stream()
+                .anyMatch(tag -> "Test tag".equals(tag.getName()))), "Task with tag was expected");
+    }
+
     @Test
     void shouldReturnUnprocessedTasksWithPagingRestriction() {
         HttpHeaders headers = new HttpHeaders();
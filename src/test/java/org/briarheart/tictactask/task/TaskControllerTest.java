@@ -3,6 +3,7 @@ package org.briarheart.tictactask.task;
 import org.briarheart.tictactask.config.PermitAllSecurityConfig;
 import org.briarheart.tictactask.data.EntityNotFoundException;
 import org.briarheart.tictactask.task.TaskController.CreateTaskRequest;
+import org.briarheart.tictactask.task.TaskController.TaskPageResponse;
 import org.briarheart.tictactask.task.TaskController.TaskResponse;
 import org.briarheart.tictactask.task.TaskController.UpdateTaskRequest;
 import org.briarheart.tictactask.task.comment.TaskComment;
@@ -10,16 +11,21 @@ import org.briarheart.tictactask.task.comment.TaskCommentController.CreateTaskCo
 import org.briarheart.tictactask.task.comment.TaskCommentController.TaskCommentResponse;
 import org.briarheart.tictactask.task.tag.TaskTag;
 import org.briarheart.tictactask.task.tag.TaskTagController.TaskTagResponse;
+import org.briarheart.tictactask.task.version.TaskCollection;
+import org.briarheart.tictactask.task.version.TaskCollectionVersionService;
 import org.briarheart.tictactask.user.User;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.Authentication;
 import org.springframework.test.context.ActiveProfiles;
@@ -30,7 +36,9 @@ import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -57,6 +65,9 @@ class TaskControllerTest {
     @MockBean
     private TaskService taskService;
 
+    @MockBean
+    private TaskCollectionVersionService versionService;
+
     @BeforeAll
     static void beforeAll() {
         Locale.setDefault(Locale.ENGLISH);
@@ -67,6 +78,11 @@ class TaskControllerTest {
         Locale.setDefault(DEFAULT_LOCALE);
     }
 
+    @BeforeEach
+    void setUp() {
+        when(versionService.getVersion(any(TaskCollection.class), anyLong())).thenReturn(Mono.just(0L));
+    }
+
     @Test
     void shouldReturnAllUnprocessedTasks() {
         GetTasksRequest request = new GetTasksRequest();
@@ -86,6 +102,100 @@ class TaskControllerTest {
                 .expectBody(TaskResponse[].class).isEqualTo(new TaskResponse[]{new TaskResponse(task)});
     }
 
+    @Test
+    void shouldReturnVersionOfTasksInETag() {
+        User user = User.builder().id(1L).email("alice@mail.com").emailConfirmed(true).enabled(true).build();
+        Authentication authenticationMock = createAuthentication(user);
+
+        when(versionService.getVersion(TaskCollection.TASKS, user.getId())).thenReturn(Mono.just(3L));
+        when(taskService.getTasks(any(GetTasksRequest.class), eq(user), any())).thenReturn(Flux.empty());
+
+        testClient.mutateWith(mockAuthentication(authenticationMock))
+                .get().uri("/api/v1/tasks?statuses=UNPROCESSED")
+                .exchange()
+
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "W/\"1-3\"")
+                .expectHeader().valueEquals("Cache-Control", "no-cache, private");
+    }
+
+    @Test
+    void shouldReturnTasksWithTagsWhenTagsAreRequested() {
+        User user = User.builder().id(1L).email("alice@mail.com").emailConfirmed(true).enabled(true).build();
+        Authentication authenticationMock = createAuthentication(user);
+
+        Task task1 = Task.builder().id(2L).userId(user.getId()).title("Test task 1").build();
+        Task task2 = Task.builder().id(3L).userId(user.getId()).title("Test task 2").build();
+        TaskTag tag = TaskTag.builder().id(4L).userId(user.getId()).name("Test tag").build();
+
+        when(taskService.getTasks(any(GetTasksRequest.class), eq(user), any())).thenReturn(Flux.just(task1, task2));
+        when(taskService.getTags(List.of(task1.getId(), task2.getId()), user))
+                .thenReturn(Mono.just(Map.of(task1.getId(), List.of(tag))));
+
+        testClient.mutateWith(mockAuthentication(authenticationMock))
+                .get().uri("/api/v1/tasks?statuses=UNPROCESSED&include=tags")
+                .exchange()
+
+                .expectStatus().isOk()
+                .expectBody(TaskResponse[].class).isEqualTo(new TaskResponse[]{
+                        new TaskResponse(task1, List.of(tag)),
+                        new TaskResponse(task2, List.of())
+                });
+        verify(taskService, never()).getTags(anyLong(), any(User.class));
+    }
+
+    @Test
+    void shouldIncludeVersionOfTagsInETagWhenTagsAreRequested() {
+        User user = User.builder().id(1L).email("alice@mail.com").emailConfirmed(true).enabled(true).build();
+        Authentication authenticationMock = createAuthentication(user);
+
+        when(versionService.getVersion(TaskCollection.TASKS, user.getId())).thenReturn(Mono.just(3L));
+        when(versionService.getVersion(TaskCollection.TAGS, user.getId())).thenReturn(Mono.just(2L));
+        when(taskService.getTasks(any(GetTasksRequest.class), eq(user), any())).thenReturn(Flux.empty());
+        when(taskService.getTags(anyCollection(), eq(user))).thenReturn(Mono.just(Map.of()));
+
+        testClient.mutateWith(mockAuthentication(authenticationMock))
+                .get().uri("/api/v1/tasks?statuses=UNPROCESSED&include=tags")
+                .exchange()
+
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "W/\"1-5\"");
+    }
+
+    @Test
+    void shouldNotIncludeTagsInTaskResponseByDefault() {
+        User user = User.builder().id(1L).email("alice@mail.com").emailConfirmed(true).enabled(true).build();
+        Authentication authenticationMock = createAuthentication(user);
+
+        Task task = Task.builder().id(2L).userId(user.getId()).title("Test task").build();
+        when(taskService.getTasks(any(GetTasksRequest.class), eq(user), any())).thenReturn(Flux.just(task));
+
+        testClient.mutateWith(mockAuthentication(authenticationMock))
+                .get().uri("/api/v1/tasks?statuses=UNPROCESSED")
+                .exchange()
+
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$[0].tags").doesNotExist();
+        verify(taskService, never()).getTags(anyCollection(), any(User.class));
+    }
+
+    @Test
+    void shouldNotLoadTasksWhenTheyAreNotModified() {
+        User user = User.builder().id(1L).email("alice@mail.com").emailConfirmed(true).enabled(true).build();
+        Authentication authenticationMock = createAuthentication(user);
+
+        when(versionService.getVersion(TaskCollection.TASKS, user.getId())).thenReturn(Mono.just(3L));
+
+        testClient.mutateWith(mockAuthentication(authenticationMock))
+                .get().uri("/api/v1/tasks?statuses=UNPROCESSED")
+                .header("If-None-Match", "W/\"1-3\"")
+                .exchange()
+
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals("ETag", "W/\"1-3\"");
+        verify(taskService, never()).getTasks(any(GetTasksRequest.class), any(User.class), any(Pageable.class));
+    }
+
     @Test
     void shouldReturnNumberOfAllUnprocessedTasks() {
         GetTasksRequest request = new GetTasksRequest();
@@ -300,6 +410,86 @@ class TaskControllerTest {
                 .expectBody(TaskResponse[].class).isEqualTo(new TaskResponse[]{new TaskResponse(task)});
     }
 
+    @Test
+    void shouldReturnPageOfTasksWithTotalCount() {
+        GetTasksRequest request = new GetTasksRequest();
+        request.setStatuses(Set.of(TaskStatus.UNPROCESSED));
+
+        User user = User.builder().id(1L).email("alice@mail.com").emailConfirmed(true).enabled(true).build();
+        Authentication authenticationMock = createAuthentication(user);
+
+        Task task = Task.builder().id(2L).userId(user.getId()).title("Test task").build();
+        PageRequest pageRequest = PageRequest.of(1, 1);
+        when(taskService.getTaskPage(eq(request), eq(user), any()))
+                .thenReturn(Mono.just(new PageImpl<>(List.of(task), pageRequest, 3L)));
+
+        testClient.mutateWith(mockAuthentication(authenticationMock))
+                .get().uri("/api/v1/tasks/page?" + requestToQueryString(request) + "&page=1&size=1")
+                .exchange()
+
+                .expectStatus().isOk()
+                .expectBody(TaskPageResponse.class)
+                .isEqualTo(new TaskPageResponse(List.of(new TaskResponse(task)), null, 3L));
+    }
+
+    @Test
+    void shouldReturnFirstPageOfTasksWhenCursorIsEmpty() {
+        GetTasksRequest request = new GetTasksRequest();
+        request.setStatuses(Set.of(TaskStatus.UNPROCESSED));
+
+        User user = User.builder().id(1L).email("alice@mail.com").emailConfirmed(true).enabled(true).build();
+        Authentication authenticationMock = createAuthentication(user);
+
+        Task task = Task.builder()
+                .id(2L)
+                .userId(user.getId())
+                .title("Test task")
+                .createdAt(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS))
+                .build();
+        when(taskService.getTasks(eq(request), eq(user), isNull(), any())).thenReturn(Flux.just(task));
+
+        testClient.mutateWith(mockAuthentication(authenticationMock))
+                .get().uri("/api/v1/tasks?" + requestToQueryString(request) + "&cursor=&size=1")
+                .exchange()
+
+                .expectStatus().isOk()
+                .expectBody(TaskPageResponse.class)
+                .isEqualTo(new TaskPageResponse(List.of(new TaskResponse(task)), TaskCursor.of(task).encode(), null));
+    }
+
+    @Test
+    void shouldReturnPageOfTasksFollowingCursor() {
+        GetTasksRequest request = new GetTasksRequest();
+        request.setStatuses(Set.of(TaskStatus.UNPROCESSED));
+
+        User user = User.builder().id(1L).email("alice@mail.com").emailConfirmed(true).enabled(true).build();
+        Authentication authenticationMock = createAuthentication(user);
+
+        TaskCursor cursor = new TaskCursor(null, LocalDateTime.now().truncatedTo(ChronoUnit.MICROS), 1L);
+        Task task = Task.builder().id(2L).userId(user.getId()).title("Test task").build();
+        when(taskService.getTasks(eq(request), eq(user), eq(cursor), any())).thenReturn(Flux.just(task));
+
+        testClient.mutateWith(mockAuthentication(authenticationMock))
+                .get().uri("/api/v1/tasks?" + requestToQueryString(request) + "&cursor=" + cursor.encode() + "&size=2")
+                .exchange()
+
+                .expectStatus().isOk()
+                .expectBody(TaskPageResponse.class)
+                .isEqualTo(new TaskPageResponse(List.of(new TaskResponse(task)), null, null));
+    }
+
+    @Test
+    void shouldReturnBadRequestStatusCodeWhenTaskCursorIsInvalid() {
+        User user = User.builder().id(1L).email("alice@mail.com").emailConfirmed(true).enabled(true).build();
+        Authentication authenticationMock = createAuthentication(user);
+
+        testClient.mutateWith(mockAuthentication(authenticationMock))
+                .get().uri("/api/v1/tasks?statuses=UNPROCESSED&cursor=invalid")
+                .exchange()
+
+                .expectStatus().isBadRequest();
+    }
+
     @Test
     void shouldReturnTaskById() {
         User user = User.builder().id(1L).email("alice@mail.com").emailConfirmed(true).enabled(true).build();
@@ -544,6 +734,71 @@ class TaskControllerTest {
         verify(taskService, times(1)).deleteTask(taskId, user);
     }
 
+    @Test
+    void shouldExecuteBatchOperation() {
+        User user = User.builder().id(1L).email("alice@mail.com").emailConfirmed(true).enabled(true).build();
+        Authentication authenticationMock = createAuthentication(user);
+
+        BatchTaskRequest request = new BatchTaskRequest();
+        request.setOperation(BatchTaskRequest.Operation.COMPLETE);
+        request.setIds(List.of(2L, 3L));
+
+        BatchTaskResult[] results = new BatchTaskResult[]{
+                new BatchTaskResult(2L, BatchTaskResult.Status.OK),
+                new BatchTaskResult(3L, BatchTaskResult.Status.NOT_FOUND)
+        };
+        when(taskService.executeBatch(request, user)).thenReturn(Flux.just(results));
+
+        testClient.mutateWith(mockAuthentication(authenticationMock)).mutateWith(csrf())
+                .post().uri("/api/v1/tasks/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+
+                .expectStatus().isOk()
+                .expectBody(BatchTaskResult[].class).isEqualTo(results);
+    }
+
+    @Test
+    void shouldRejectBatchOperationWhenTaskIdsAreEmpty() {
+        User user = User.builder().id(1L).email("alice@mail.com").emailConfirmed(true).enabled(true).build();
+        Authentication authenticationMock = createAuthentication(user);
+
+        BatchTaskRequest request = new BatchTaskRequest();
+        request.setOperation(BatchTaskRequest.Operation.DELETE);
+        request.setIds(List.of());
+
+        testClient.mutateWith(mockAuthentication(authenticationMock)).mutateWith(csrf())
+                .post().uri("/api/v1/tasks/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.fieldErrors[0].field").isEqualTo("ids")
+                .jsonPath("$.fieldErrors[0].message").isEqualTo("Value must not be empty");
+    }
+
+    @Test
+    void shouldRejectBatchTagAssignmentWhenTagIdIsNull() {
+        User user = User.builder().id(1L).email("alice@mail.com").emailConfirmed(true).enabled(true).build();
+        Authentication authenticationMock = createAuthentication(user);
+
+        BatchTaskRequest request = new BatchTaskRequest();
+        request.setOperation(BatchTaskRequest.Operation.ASSIGN_TAG);
+        request.setIds(List.of(2L));
+
+        testClient.mutateWith(mockAuthentication(authenticationMock)).mutateWith(csrf())
+                .post().uri("/api/v1/tasks/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+
+                .expectStatus().isBadRequest();
+        Mockito.verify(taskService, Mockito.never()).executeBatch(Mockito.any(), Mockito.any());
+    }
+
     @Test
     void shouldReturnTagsForTask() {
         User user = User.builder().id(1L).email("alice@mail.com").emailConfirmed(true).enabled(true).build();
@@ -1,6 +1,8 @@
 package org.briarheart.tictactask.task.comment;
 
 import org.briarheart.tictactask.data.EntityNotFoundException;
+import org.briarheart.tictactask.task.version.EntityChangeService;
+import org.briarheart.tictactask.task.version.EntityType;
 import org.briarheart.tictactask.user.User;
 import org.briarheart.tictactask.util.DateTimeUtils;
 import org.junit.jupiter.api.BeforeEach;
@@ -21,15 +23,19 @@ import static org.mockito.Mockito.*;
  */
 class DefaultTaskCommentServiceTest {
     private TaskCommentRepository taskCommentRepository;
+    private EntityChangeService entityChangeService;
     private DefaultTaskCommentService taskCommentService;
     private LocalDateTime currentTime;
 
     @BeforeEach
     void setUp() {
         taskCommentRepository = mock(TaskCommentRepository.class);
+        entityChangeService = mock(EntityChangeService.class);
+        when(entityChangeService.recordChange(any(), any(), any())).thenReturn(Mono.empty());
+        when(entityChangeService.recordDeletion(any(), any(), any())).thenReturn(Mono.empty());
 
         currentTime = DateTimeUtils.currentDateTimeUtc();
-        taskCommentService = new DefaultTaskCommentService(taskCommentRepository) {
+        taskCommentService = new DefaultTaskCommentService(taskCommentRepository, entityChangeService) {
             @Override
             protected LocalDateTime getCurrentTime() {
                 return currentTime;
@@ -132,11 +138,23 @@ class DefaultTaskCommentServiceTest {
     void shouldDeleteComment() {
         User user = User.builder().id(1L).email("alice@mail.com").emailConfirmed(true).enabled(true).build();
         long commentId = 2L;
+        when(taskCommentRepository.findByIdAndUserId(commentId, user.getId())).thenReturn(Mono.empty());
         when(taskCommentRepository.deleteByIdAndUserId(commentId, user.getId())).thenReturn(Mono.just(true).then());
         taskCommentService.deleteComment(commentId, user).block();
         verify(taskCommentRepository, times(1)).deleteByIdAndUserId(commentId, user.getId());
     }
 
+    @Test
+    void shouldRecordCommentDeletionOnCommentDelete() {
+        User user = User.builder().id(1L).email("alice@mail.com").emailConfirmed(true).enabled(true).build();
+        TaskComment comment = TaskComment.builder().id(2L).userId(user.getId()).commentText("Test comment").build();
+        when(taskCommentRepository.findByIdAndUserId(comment.getId(), user.getId())).thenReturn(Mono.just(comment));
+        when(taskCommentRepository.deleteByIdAndUserId(comment.getId(), user.getId()))
+                .thenReturn(Mono.just(true).then());
+        taskCommentService.deleteComment(comment.getId(), user).block();
+        verify(entityChangeService, times(1)).recordDeletion(EntityType.COMMENT, comment.getId(), user.getId());
+    }
+
     @Test
     void shouldThrowExceptionOnCommentDeleteWhenUserIsNull() {
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
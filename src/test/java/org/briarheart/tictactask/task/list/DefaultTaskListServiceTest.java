@@ -1,9 +1,15 @@
 package org.briarheart.tictactask.task.list;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.briarheart.tictactask.config.ApplicationProperties;
 import org.briarheart.tictactask.data.EntityNotFoundException;
 import org.briarheart.tictactask.task.Task;
 import org.briarheart.tictactask.task.TaskRepository;
 import org.briarheart.tictactask.task.TaskStatus;
+import org.briarheart.tictactask.task.version.EntityChangeNotificationListener;
+import org.briarheart.tictactask.task.version.EntityChangeService;
+import org.briarheart.tictactask.task.version.EntityType;
+import org.briarheart.tictactask.task.version.TaskCollectionCacheManager;
 import org.briarheart.tictactask.user.User;
 import org.briarheart.tictactask.util.DateTimeUtils;
 import org.junit.jupiter.api.BeforeEach;
@@ -25,13 +31,21 @@ import static org.mockito.Mockito.*;
 class DefaultTaskListServiceTest {
     private TaskListRepository taskListRepository;
     private TaskRepository taskRepository;
+    private EntityChangeService entityChangeService;
     private DefaultTaskListService taskListService;
 
     @BeforeEach
     void setUp() {
         taskListRepository = mock(TaskListRepository.class);
         taskRepository = mock(TaskRepository.class);
-        taskListService = new DefaultTaskListService(taskListRepository, taskRepository);
+        entityChangeService = mock(EntityChangeService.class);
+        when(entityChangeService.recordChange(any(), any(), any())).thenReturn(Mono.empty());
+        when(entityChangeService.recordDeletion(any(), any(), any())).thenReturn(Mono.empty());
+        when(entityChangeService.recordTaskChangesByTaskListId(any(), any())).thenReturn(Mono.empty());
+        when(entityChangeService.recordTaskDeletionsByTaskListId(any(), any())).thenReturn(Mono.empty());
+        taskListService = new DefaultTaskListService(taskListRepository, taskRepository, entityChangeService,
+                new TaskCollectionCacheManager(mock(EntityChangeNotificationListener.class), new SimpleMeterRegistry(),
+                        new ApplicationProperties()));
     }
 
     @Test
@@ -44,6 +58,34 @@ class DefaultTaskListServiceTest {
         assertEquals(taskList, result);
     }
 
+    @Test
+    void shouldReturnCachedUncompletedTaskLists() {
+        User user = User.builder().id(1L).email("alice@mail.com").emailConfirmed(true).enabled(true).build();
+        TaskList taskList = TaskList.builder().id(2L).userId(user.getId()).name("Test task list").build();
+        when(taskListRepository.findByCompletedAndUserId(false, user.getId())).thenReturn(Flux.just(taskList));
+
+        taskListService.getUncompletedTaskLists(user).blockLast();
+        TaskList result = taskListService.getUncompletedTaskLists(user).blockFirst();
+        assertEquals(taskList, result);
+        verify(taskListRepository, times(1)).findByCompletedAndUserId(false, user.getId());
+    }
+
+    @Test
+    void shouldInvalidateTaskListCacheOnTaskListCreate() {
+        User user = User.builder().id(1L).email("alice@mail.com").emailConfirmed(true).enabled(true).build();
+        when(taskListRepository.findByCompletedAndUserId(false, user.getId())).thenReturn(Flux.empty());
+        when(taskListRepository.save(any(TaskList.class))).thenAnswer(args -> {
+            TaskList l = new TaskList(args.getArgument(0));
+            l.setId(2L);
+            return Mono.just(l);
+        });
+
+        taskListService.getUncompletedTaskLists(user).blockLast();
+        taskListService.createTaskList(TaskList.builder().userId(user.getId()).name("New task list").build()).block();
+        taskListService.getUncompletedTaskLists(user).blockLast();
+        verify(taskListRepository, times(2)).findByCompletedAndUserId(false, user.getId());
+    }
+
     @Test
     void shouldThrowExceptionOnUncompletedTaskListsGetWhenUserIsNull() {
         IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
@@ -158,8 +200,8 @@ class DefaultTaskListServiceTest {
         when(taskListRepository.findByIdAndUserId(taskList.getId(), user.getId())).thenReturn(Mono.just(taskList));
         when(taskListRepository.save(any(TaskList.class)))
                 .thenAnswer(args -> Mono.just(new TaskList(args.getArgument(0))));
-        when(taskRepository.findByTaskListIdAndUserIdAndStatusNotOrderByCreatedAtAsc(taskList.getId(), user.getId(),
-                TaskStatus.COMPLETED, 0, null)).thenReturn(Flux.empty());
+        when(taskRepository.completeByTaskListIdAndUserId(eq(taskList.getId()), eq(user.getId()), any()))
+                .thenReturn(Mono.just(0));
 
         TaskList completedTaskList = new TaskList(taskList);
         completedTaskList.setCompleted(true);
@@ -169,24 +211,36 @@ class DefaultTaskListServiceTest {
     }
 
     @Test
-    void shouldCompleteTasksOnTaskListComplete() {
+    void shouldRecordTaskListAndTaskChangesOnTaskListComplete() {
         User user = User.builder().id(1L).email("alice@mail.com").emailConfirmed(true).enabled(true).build();
         TaskList taskList = TaskList.builder().id(2L).userId(user.getId()).name("Test task list").build();
-        Task task = Task.builder().id(3L).userId(user.getId()).taskListId(taskList.getId()).title("Test task").build();
 
         when(taskListRepository.findByIdAndUserId(taskList.getId(), user.getId())).thenReturn(Mono.just(taskList));
         when(taskListRepository.save(any(TaskList.class)))
                 .thenAnswer(args -> Mono.just(new TaskList(args.getArgument(0))));
-        when(taskRepository.findByTaskListIdAndUserIdAndStatusNotOrderByCreatedAtAsc(taskList.getId(), user.getId(),
-                TaskStatus.COMPLETED, 0, null)).thenReturn(Flux.just(task));
-        when(taskRepository.save(any(Task.class))).thenAnswer(args -> Mono.just(new Task(args.getArgument(0))));
+        when(taskRepository.completeByTaskListIdAndUserId(eq(taskList.getId()), eq(user.getId()), any()))
+                .thenReturn(Mono.just(1));
 
-        Task completedTask = new Task(task);
-        completedTask.setPreviousStatus(task.getStatus());
-        completedTask.setStatus(TaskStatus.COMPLETED);
+        taskListService.completeTaskList(taskList.getId(), user).block();
+        verify(entityChangeService, times(1)).recordChange(EntityType.TASK_LIST, taskList.getId(), user.getId());
+        verify(entityChangeService, times(1)).recordTaskChangesByTaskListId(taskList.getId(), user.getId());
+    }
+
+    @Test
+    void shouldCompleteTasksOnTaskListComplete() {
+        User user = User.builder().id(1L).email("alice@mail.com").emailConfirmed(true).enabled(true).build();
+        TaskList taskList = TaskList.builder().id(2L).userId(user.getId()).name("Test task list").build();
+
+        when(taskListRepository.findByIdAndUserId(taskList.getId(), user.getId())).thenReturn(Mono.just(taskList));
+        when(taskListRepository.save(any(TaskList.class)))
+                .thenAnswer(args -> Mono.just(new TaskList(args.getArgument(0))));
+        when(taskRepository.completeByTaskListIdAndUserId(eq(taskList.getId()), eq(user.getId()), any()))
+                .thenReturn(Mono.just(1));
 
         taskListService.completeTaskList(taskList.getId(), user).block();
-        verify(taskRepository, times(1)).save(completedTask);
+        verify(taskRepository, times(1))
+                .completeByTaskListIdAndUserId(eq(taskList.getId()), eq(user.getId()), notNull());
+        verify(taskRepository, never()).save(any(Task.class));
     }
 
     @Test
@@ -213,8 +267,7 @@ class DefaultTaskListServiceTest {
 
         when(taskListRepository.findByIdAndUserId(taskList.getId(), user.getId())).thenReturn(Mono.just(taskList));
         when(taskListRepository.delete(taskList)).thenReturn(Mono.just(true).then());
-        when(taskRepository.findByTaskListIdAndUserIdOrderByCreatedAtAsc(taskList.getId(), user.getId(), 0, null))
-                .thenReturn(Flux.empty());
+        when(taskRepository.deleteByTaskListIdAndUserId(taskList.getId(), user.getId())).thenReturn(Mono.just(0));
 
         taskListService.deleteTaskList(taskList.getId(), user).block();
         verify(taskListRepository, times(1)).delete(taskList);
@@ -224,16 +277,28 @@ class DefaultTaskListServiceTest {
     void shouldDeleteTasksOnTaskListDelete() {
         User user = User.builder().id(1L).email("alice@mail.com").emailConfirmed(true).enabled(true).build();
         TaskList taskList = TaskList.builder().id(2L).userId(user.getId()).name("Test task list").build();
-        Task task = Task.builder().id(3L).userId(user.getId()).taskListId(taskList.getId()).title("Test task").build();
 
         when(taskListRepository.findByIdAndUserId(taskList.getId(), user.getId())).thenReturn(Mono.just(taskList));
         when(taskListRepository.delete(taskList)).thenReturn(Mono.just(true).then());
-        when(taskRepository.findByTaskListIdAndUserIdOrderByCreatedAtAsc(taskList.getId(), user.getId(), 0, null))
-                .thenReturn(Flux.just(task));
-        when(taskRepository.delete(task)).thenReturn(Mono.empty());
+        when(taskRepository.deleteByTaskListIdAndUserId(taskList.getId(), user.getId())).thenReturn(Mono.just(1));
+
+        taskListService.deleteTaskList(taskList.getId(), user).block();
+        verify(taskRepository, times(1)).deleteByTaskListIdAndUserId(taskList.getId(), user.getId());
+        verify(taskRepository, never()).delete(any(Task.class));
+    }
+
+    @Test
+    void shouldRecordTaskListAndTaskDeletionsOnTaskListDelete() {
+        User user = User.builder().id(1L).email("alice@mail.com").emailConfirmed(true).enabled(true).build();
+        TaskList taskList = TaskList.builder().id(2L).userId(user.getId()).name("Test task list").build();
+
+        when(taskListRepository.findByIdAndUserId(taskList.getId(), user.getId())).thenReturn(Mono.just(taskList));
+        when(taskListRepository.delete(taskList)).thenReturn(Mono.just(true).then());
+        when(taskRepository.deleteByTaskListIdAndUserId(taskList.getId(), user.getId())).thenReturn(Mono.just(1));
 
         taskListService.deleteTaskList(taskList.getId(), user).block();
-        verify(taskRepository, times(1)).delete(task);
+        verify(entityChangeService, times(1)).recordDeletion(EntityType.TASK_LIST, taskList.getId(), user.getId());
+        verify(entityChangeService, times(1)).recordTaskDeletionsByTaskListId(taskList.getId(), user.getId());
     }
 
     @Test
@@ -7,9 +7,12 @@ import org.briarheart.tictactask.task.TaskController.TaskResponse;
 import org.briarheart.tictactask.task.list.TaskListController.CreateTaskListRequest;
 import org.briarheart.tictactask.task.list.TaskListController.TaskListResponse;
 import org.briarheart.tictactask.task.list.TaskListController.UpdateTaskListRequest;
+import org.briarheart.tictactask.task.version.TaskCollection;
+import org.briarheart.tictactask.task.version.TaskCollectionVersionService;
 import org.briarheart.tictactask.user.User;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
@@ -48,6 +51,9 @@ class TaskListControllerTest {
     @MockBean
     private TaskListService taskListService;
 
+    @MockBean
+    private TaskCollectionVersionService versionService;
+
     @BeforeAll
     static void beforeAll() {
         Locale.setDefault(Locale.ENGLISH);
@@ -58,6 +64,11 @@ class TaskListControllerTest {
         Locale.setDefault(DEFAULT_LOCALE);
     }
 
+    @BeforeEach
+    void setUp() {
+        when(versionService.getVersion(any(TaskCollection.class), anyLong())).thenReturn(Mono.just(0L));
+    }
+
     @Test
     void shouldReturnAllUncompletedTaskLists() {
         User user = User.builder().id(1L).email("alice@mail.com").emailConfirmed(true).enabled(true).build();
@@ -74,6 +85,40 @@ class TaskListControllerTest {
                 .expectBody(TaskListResponse[].class).isEqualTo(new TaskListResponse[] {new TaskListResponse(taskList)});
     }
 
+    @Test
+    void shouldReturnVersionOfTaskListsInETag() {
+        User user = User.builder().id(1L).email("alice@mail.com").emailConfirmed(true).enabled(true).build();
+        Authentication authenticationMock = createAuthentication(user);
+
+        when(versionService.getVersion(TaskCollection.TASK_LISTS, user.getId())).thenReturn(Mono.just(3L));
+        when(taskListService.getUncompletedTaskLists(user)).thenReturn(Flux.empty());
+
+        testClient.mutateWith(mockAuthentication(authenticationMock))
+                .get().uri("/api/v1/task-lists/uncompleted")
+                .exchange()
+
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "W/\"1-3\"")
+                .expectHeader().valueEquals("Cache-Control", "no-cache, private");
+    }
+
+    @Test
+    void shouldNotLoadUncompletedTaskListsWhenTheyAreNotModified() {
+        User user = User.builder().id(1L).email("alice@mail.com").emailConfirmed(true).enabled(true).build();
+        Authentication authenticationMock = createAuthentication(user);
+
+        when(versionService.getVersion(TaskCollection.TASK_LISTS, user.getId())).thenReturn(Mono.just(3L));
+
+        testClient.mutateWith(mockAuthentication(authenticationMock))
+                .get().uri("/api/v1/task-lists/uncompleted")
+                .header("If-None-Match", "W/\"1-3\"")
+                .exchange()
+
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals("ETag", "W/\"1-3\"");
+        verify(taskListService, never()).getUncompletedTaskLists(any());
+    }
+
     @Test
     void shouldReturnTaskListById() {
         User user = User.builder().id(1L).email("alice@mail.com").emailConfirmed(true).enabled(true).build();
@@ -0,0 +1,32 @@
+package org.briarheart.tictactask.task.recurrence;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.Month;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Roman Chigvintsev
+ */
+class AnnuallyTaskRecurrenceStrategyTest {
+    @Test
+    void shouldReturnGivenDayOfCurrentYearWhenItIsAfterDate() {
+        AnnuallyTaskRecurrenceStrategy strategy = new AnnuallyTaskRecurrenceStrategy(Month.JUNE, 10);
+        assertEquals(LocalDate.of(2022, 6, 10), strategy.nextDate(LocalDate.of(2022, 3, 2)));
+    }
+
+    @Test
+    void shouldReturnGivenDayOfNextYear() {
+        AnnuallyTaskRecurrenceStrategy strategy = new AnnuallyTaskRecurrenceStrategy(Month.JUNE, 10);
+        assertEquals(LocalDate.of(2023, 6, 10), strategy.nextDate(LocalDate.of(2022, 6, 10)));
+    }
+
+    @Test
+    void shouldReturnLastDayOfFebruaryInNonLeapYear() {
+        AnnuallyTaskRecurrenceStrategy strategy = new AnnuallyTaskRecurrenceStrategy(Month.FEBRUARY, 29);
+        assertEquals(LocalDate.of(2021, 2, 28), strategy.nextDate(LocalDate.of(2020, 2, 29)));
+        assertEquals(LocalDate.of(2024, 2, 29), strategy.nextDate(LocalDate.of(2023, 2, 28)));
+    }
+}
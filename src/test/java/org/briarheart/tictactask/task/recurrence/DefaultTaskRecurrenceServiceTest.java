@@ -0,0 +1,302 @@
+package org.briarheart.tictactask.task.recurrence;
+
+import org.briarheart.tictactask.config.ApplicationProperties;
+import org.briarheart.tictactask.task.Task;
+import org.briarheart.tictactask.task.TaskRepository;
+import org.briarheart.tictactask.task.TaskStatus;
+import org.briarheart.tictactask.task.tag.TaskTagRelationRepository;
+import org.briarheart.tictactask.task.version.EntityChangeService;
+import org.briarheart.tictactask.task.version.EntityType;
+import org.briarheart.tictactask.user.User;
+import org.briarheart.tictactask.util.TestUsers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author Roman Chigvintsev
+ */
+class DefaultTaskRecurrenceServiceTest {
+    private static final long NEXT_OCCURRENCE_ID = 10L;
+
+    private TaskRepository taskRepository;
+    private TaskTagRelationRepository taskTagRelationRepository;
+    private EntityChangeService entityChangeService;
+    private ApplicationProperties applicationProperties;
+
+    private DefaultTaskRecurrenceService taskRecurrenceService;
+    private LocalDateTime currentTime;
+
+    @BeforeEach
+    void setUp() {
+        taskRepository = mock(TaskRepository.class);
+        when(taskRepository.resetRecurrenceStrategyById(anyLong())).thenReturn(Mono.just(1));
+        when(taskRepository.save(any(Task.class))).thenAnswer(args -> {
+            Task task = new Task(args.getArgument(0));
+            task.setId(NEXT_OCCURRENCE_ID);
+            return Mono.just(task);
+        });
+        taskTagRelationRepository = mock(TaskTagRelationRepository.class);
+        when(taskTagRelationRepository.copyByTaskId(anyLong(), anyLong())).thenReturn(Mono.just(1));
+        entityChangeService = mock(EntityChangeService.class);
+        when(entityChangeService.recordChange(any(), any(), any())).thenReturn(Mono.empty());
+
+        applicationProperties = new ApplicationProperties();
+
+        currentTime = LocalDateTime.of(2022, 3, 2, 12, 0);
+        taskRecurrenceService = createTaskRecurrenceService();
+    }
+
+    @Test
+    void shouldCreateNextOccurrenceOfCompletedTask() {
+        Task task = Task.builder()
+                .id(2L)
+                .userId(1L)
+                .title("Test task")
+                .previousStatus(TaskStatus.PROCESSED)
+                .status(TaskStatus.COMPLETED)
+                .completedAt(currentTime)
+                .deadlineDate(LocalDate.of(2022, 3, 2))
+                .recurrenceStrategy(new DailyTaskRecurrenceStrategy())
+                .build();
+
+        Task result = taskRecurrenceService.createNextOccurrence(task).block();
+        assertNotNull(result);
+        assertEquals(NEXT_OCCURRENCE_ID, result.getId());
+        assertSame(TaskStatus.PROCESSED, result.getStatus());
+        assertNull(result.getCompletedAt());
+        assertEquals(LocalDate.of(2022, 3, 3), result.getDeadlineDate());
+        assertNotNull(result.getRecurrenceStrategy());
+    }
+
+    @Test
+    void shouldMoveRecurrenceStrategyToNextOccurrence() {
+        Task task = Task.builder()
+                .id(2L)
+                .userId(1L)
+                .title("Test task")
+                .deadlineDate(LocalDate.of(2022, 3, 2))
+                .recurrenceStrategy(new DailyTaskRecurrenceStrategy())
+                .build();
+
+        taskRecurrenceService.createNextOccurrence(task).block();
+        assertNull(task.getRecurrenceStrategy());
+        verify(taskRepository, times(1)).resetRecurrenceStrategyById(task.getId());
+    }
+
+    @Test
+    void shouldCopyTagsToNextOccurrence() {
+        Task task = Task.builder()
+                .id(2L)
+                .userId(1L)
+                .title("Test task")
+                .deadlineDate(LocalDate.of(2022, 3, 2))
+                .recurrenceStrategy(new DailyTaskRecurrenceStrategy())
+                .build();
+
+        taskRecurrenceService.createNextOccurrence(task).block();
+        verify(taskTagRelationRepository, times(1)).copyByTaskId(task.getId(), NEXT_OCCURRENCE_ID);
+        verify(entityChangeService, times(1)).recordChange(EntityType.TASK, NEXT_OCCURRENCE_ID, task.getUserId());
+    }
+
+    @Test
+    void shouldSkipOverdueOccurrences() {
+        Task task = Task.builder()
+                .id(2L)
+                .userId(1L)
+                .title("Test task")
+                .deadlineDateTime(LocalDateTime.of(2022, 2, 20, 9, 30))
+                .recurrenceStrategy(new DailyTaskRecurrenceStrategy())
+                .build();
+
+        Task result = taskRecurrenceService.createNextOccurrence(task).block();
+        assertNotNull(result);
+        assertEquals(LocalDateTime.of(2022, 3, 3, 9, 30), result.getDeadlineDateTime());
+    }
+
+    @Test
+    void shouldNotCreateNextOccurrenceOfTaskWithoutDeadline() {
+        Task task = Task.builder()
+                .id(2L)
+                .userId(1L)
+                .title("Test task")
+                .recurrenceStrategy(new DailyTaskRecurrenceStrategy())
+                .build();
+
+        assertNull(taskRecurrenceService.createNextOccurrence(task).block());
+        verify(taskRepository, never()).save(any(Task.class));
+    }
+
+    @Test
+    void shouldNotCreateNextOccurrenceWhenItIsAlreadyCreated() {
+        when(taskRepository.resetRecurrenceStrategyById(anyLong())).thenReturn(Mono.just(0));
+        Task task = Task.builder()
+                .id(2L)
+                .userId(1L)
+                .title("Test task")
+                .deadlineDate(LocalDate.of(2022, 3, 2))
+                .recurrenceStrategy(new DailyTaskRecurrenceStrategy())
+                .build();
+
+        assertNull(taskRecurrenceService.createNextOccurrence(task).block());
+        verify(taskRepository, never()).save(any(Task.class));
+    }
+
+    @Test
+    void shouldCreateNextOccurrencesOfLockedTasks() {
+        Task task = Task.builder()
+                .id(2L)
+                .userId(1L)
+                .title("Test task")
+                .deadlineDate(LocalDate.of(2022, 3, 1))
+                .recurrenceStrategy(new DailyTaskRecurrenceStrategy())
+                .build();
+        when(taskRepository.findRecurringForUpdateSkipLocked(1, 4, 100)).thenReturn(Flux.just(task));
+
+        assertEquals(1, taskRecurrenceService.createNextOccurrences(1, 4, 100).block());
+        verify(entityChangeService, times(1)).recordChange(EntityType.TASK, task.getId(), task.getUserId());
+        verify(entityChangeService, times(1)).recordChange(EntityType.TASK, NEXT_OCCURRENCE_ID, task.getUserId());
+    }
+
+    @Test
+    void shouldThrowExceptionOnNextOccurrencesCreateWhenPartitionIsNotLessThanNumberOfPartitions() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> taskRecurrenceService.createNextOccurrences(4, 4, 100));
+        assertEquals("Partition must not be negative and must be less than number of partitions", e.getMessage());
+    }
+
+    @Test
+    void shouldThrowExceptionOnNextOccurrenceCreateWhenTaskIsNull() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> taskRecurrenceService.createNextOccurrence(null));
+        assertEquals("Task must not be null", e.getMessage());
+    }
+
+    @Test
+    void shouldReturnOccurrencesWithinGivenRange() {
+        User user = TestUsers.JOHN_DOE;
+        Task task = Task.builder()
+                .id(2L)
+                .userId(user.getId())
+                .title("Test task")
+                .deadlineDate(LocalDate.of(2022, 3, 2))
+                .recurrenceStrategy(new DailyTaskRecurrenceStrategy())
+                .build();
+        LocalDate from = LocalDate.of(2022, 3, 5);
+        LocalDate to = LocalDate.of(2022, 3, 7);
+        when(taskRepository.findRecurringByUserIdAndDeadlineBefore(user.getId(), LocalDateTime.of(2022, 3, 8, 0, 0)))
+                .thenReturn(Flux.just(task));
+
+        List<TaskOccurrence> expectedResult = List.of(
+                new TaskOccurrence(task.getId(), LocalDate.of(2022, 3, 5), null),
+                new TaskOccurrence(task.getId(), LocalDate.of(2022, 3, 6), null),
+                new TaskOccurrence(task.getId(), LocalDate.of(2022, 3, 7), null)
+        );
+        assertEquals(expectedResult, taskRecurrenceService.getOccurrences(user, from, to).collectList().block());
+    }
+
+    @Test
+    void shouldNotReturnDeadlineOfTaskAsOccurrence() {
+        User user = TestUsers.JOHN_DOE;
+        Task task = Task.builder()
+                .id(2L)
+                .userId(user.getId())
+                .title("Test task")
+                .deadlineDate(LocalDate.of(2022, 3, 2))
+                .recurrenceStrategy(new DailyTaskRecurrenceStrategy())
+                .build();
+        LocalDate from = LocalDate.of(2022, 3, 2);
+        LocalDate to = LocalDate.of(2022, 3, 3);
+        when(taskRepository.findRecurringByUserIdAndDeadlineBefore(user.getId(), LocalDateTime.of(2022, 3, 4, 0, 0)))
+                .thenReturn(Flux.just(task));
+
+        List<TaskOccurrence> expectedResult = List.of(new TaskOccurrence(task.getId(), LocalDate.of(2022, 3, 3), null));
+        assertEquals(expectedResult, taskRecurrenceService.getOccurrences(user, from, to).collectList().block());
+    }
+
+    @Test
+    void shouldReturnOccurrencesWithDeadlineTimeOfTask() {
+        User user = TestUsers.JOHN_DOE;
+        Task task = Task.builder()
+                .id(2L)
+                .userId(user.getId())
+                .title("Test task")
+                .deadlineDateTime(LocalDateTime.of(2022, 3, 2, 9, 30))
+                .recurrenceStrategy(new DailyTaskRecurrenceStrategy())
+                .build();
+        LocalDate from = LocalDate.of(2022, 3, 10);
+        LocalDate to = LocalDate.of(2022, 3, 10);
+        when(taskRepository.findRecurringByUserIdAndDeadlineBefore(user.getId(), LocalDateTime.of(2022, 3, 11, 0, 0)))
+                .thenReturn(Flux.just(task));
+
+        List<TaskOccurrence> expectedResult = List.of(
+                new TaskOccurrence(task.getId(), null, LocalDateTime.of(2022, 3, 10, 9, 30))
+        );
+        assertEquals(expectedResult, taskRecurrenceService.getOccurrences(user, from, to).collectList().block());
+    }
+
+    @Test
+    void shouldLimitNumberOfOccurrencesPerTask() {
+        applicationProperties.getTaskRecurrence().setMaxOccurrencesPerTask(2);
+        taskRecurrenceService = createTaskRecurrenceService();
+
+        User user = TestUsers.JOHN_DOE;
+        Task task = Task.builder()
+                .id(2L)
+                .userId(user.getId())
+                .title("Test task")
+                .deadlineDate(LocalDate.of(2022, 3, 2))
+                .recurrenceStrategy(new DailyTaskRecurrenceStrategy())
+                .build();
+        LocalDate from = LocalDate.of(2022, 3, 1);
+        LocalDate to = LocalDate.of(2022, 3, 31);
+        when(taskRepository.findRecurringByUserIdAndDeadlineBefore(user.getId(), LocalDateTime.of(2022, 4, 1, 0, 0)))
+                .thenReturn(Flux.just(task));
+
+        List<TaskOccurrence> expectedResult = List.of(
+                new TaskOccurrence(task.getId(), LocalDate.of(2022, 3, 3), null),
+                new TaskOccurrence(task.getId(), LocalDate.of(2022, 3, 4), null)
+        );
+        assertEquals(expectedResult, taskRecurrenceService.getOccurrences(user, from, to).collectList().block());
+    }
+
+    @Test
+    void shouldThrowExceptionOnOccurrencesGetWhenUpperBoundIsBeforeLowerBound() {
+        LocalDate from = LocalDate.of(2022, 3, 2);
+        LocalDate to = LocalDate.of(2022, 3, 1);
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> taskRecurrenceService.getOccurrences(TestUsers.JOHN_DOE, from, to));
+        assertEquals("Upper bound of deadline date must not be before lower bound", e.getMessage());
+    }
+
+    @Test
+    void shouldRejectOccurrenceRangeLongerThanAllowed() {
+        applicationProperties.getTaskRecurrence().setMaxOccurrenceRangeDays(31);
+        taskRecurrenceService = createTaskRecurrenceService();
+
+        LocalDate from = LocalDate.of(2022, 3, 1);
+        LocalDate to = LocalDate.of(2022, 4, 1);
+        OccurrenceRangeTooLongException e = assertThrows(OccurrenceRangeTooLongException.class,
+                () -> taskRecurrenceService.getOccurrences(TestUsers.JOHN_DOE, from, to).blockLast());
+        assertEquals("Range of deadline dates must not be longer than 31 day(s)", e.getMessage());
+        verify(taskRepository, never()).findRecurringByUserIdAndDeadlineBefore(any(), any());
+    }
+
+    private DefaultTaskRecurrenceService createTaskRecurrenceService() {
+        return new DefaultTaskRecurrenceService(taskRepository, taskTagRelationRepository, entityChangeService,
+                applicationProperties) {
+            @Override
+            protected LocalDateTime getCurrentTime() {
+                return currentTime;
+            }
+        };
+    }
+}
@@ -0,0 +1,31 @@
+package org.briarheart.tictactask.task.recurrence;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Roman Chigvintsev
+ */
+class MonthlyTaskRecurrenceStrategyTest {
+    @Test
+    void shouldReturnGivenDayOfCurrentMonthWhenItIsAfterDate() {
+        MonthlyTaskRecurrenceStrategy strategy = new MonthlyTaskRecurrenceStrategy(15);
+        assertEquals(LocalDate.of(2022, 3, 15), strategy.nextDate(LocalDate.of(2022, 3, 2)));
+    }
+
+    @Test
+    void shouldReturnGivenDayOfNextMonth() {
+        MonthlyTaskRecurrenceStrategy strategy = new MonthlyTaskRecurrenceStrategy(15);
+        assertEquals(LocalDate.of(2022, 4, 15), strategy.nextDate(LocalDate.of(2022, 3, 15)));
+    }
+
+    @Test
+    void shouldReturnLastDayOfMonthWhenMonthIsShorterThanGivenDay() {
+        MonthlyTaskRecurrenceStrategy strategy = new MonthlyTaskRecurrenceStrategy(31);
+        assertEquals(LocalDate.of(2022, 2, 28), strategy.nextDate(LocalDate.of(2022, 1, 31)));
+        assertEquals(LocalDate.of(2022, 3, 31), strategy.nextDate(LocalDate.of(2022, 2, 28)));
+    }
+}
@@ -0,0 +1,109 @@
+package org.briarheart.tictactask.task.recurrence;
+
+import org.briarheart.tictactask.config.PermitAllSecurityConfig;
+import org.briarheart.tictactask.task.recurrence.TaskOccurrenceController.TaskOccurrenceResponse;
+import org.briarheart.tictactask.user.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers.mockAuthentication;
+
+/**
+ * @author Roman Chigvintsev
+ */
+@WebFluxTest(TaskOccurrenceController.class)
+@Import(PermitAllSecurityConfig.class)
+@TestPropertySource(properties = "test.security.disabled=true")
+@ActiveProfiles("test")
+class TaskOccurrenceControllerTest {
+    @Autowired
+    private WebTestClient testClient;
+
+    @MockBean
+    private TaskRecurrenceService taskRecurrenceService;
+
+    @Test
+    void shouldReturnOccurrencesWithinGivenRange() {
+        User user = User.builder().id(1L).email("alice@mail.com").emailConfirmed(true).enabled(true).build();
+        Authentication authenticationMock = createAuthentication(user);
+
+        LocalDate from = LocalDate.of(2022, 3, 1);
+        LocalDate to = LocalDate.of(2022, 3, 31);
+        TaskOccurrence dateOccurrence = new TaskOccurrence(2L, LocalDate.of(2022, 3, 3), null);
+        TaskOccurrence dateTimeOccurrence = new TaskOccurrence(3L, null, LocalDateTime.of(2022, 3, 4, 9, 30));
+        when(taskRecurrenceService.getOccurrences(user, from, to))
+                .thenReturn(Flux.just(dateOccurrence, dateTimeOccurrence));
+
+        testClient.mutateWith(mockAuthentication(authenticationMock))
+                .get().uri("/api/v1/tasks/occurrences?from=2022-03-01&to=2022-03-31")
+                .exchange()
+
+                .expectStatus().isOk()
+                .expectBodyList(TaskOccurrenceResponse.class).isEqualTo(List.of(
+                        new TaskOccurrenceResponse(dateOccurrence),
+                        new TaskOccurrenceResponse(dateTimeOccurrence)
+                ));
+    }
+
+    @Test
+    void shouldRejectRangeWithUpperBoundBeforeLowerBound() {
+        User user = User.builder().id(1L).email("alice@mail.com").emailConfirmed(true).enabled(true).build();
+        Authentication authenticationMock = createAuthentication(user);
+
+        testClient.mutateWith(mockAuthentication(authenticationMock))
+                .get().uri("/api/v1/tasks/occurrences?from=2022-03-31&to=2022-03-01")
+                .exchange()
+
+                .expectStatus().isBadRequest();
+        verify(taskRecurrenceService, never()).getOccurrences(any(), any(), any());
+    }
+
+    @Test
+    void shouldRejectRangeLongerThanAllowed() {
+        User user = User.builder().id(1L).email("alice@mail.com").emailConfirmed(true).enabled(true).build();
+        Authentication authenticationMock = createAuthentication(user);
+
+        LocalDate from = LocalDate.of(2022, 1, 1);
+        LocalDate to = LocalDate.of(2023, 12, 31);
+        when(taskRecurrenceService.getOccurrences(user, from, to))
+                .thenReturn(Flux.error(new OccurrenceRangeTooLongException("Range is too long")));
+
+        testClient.mutateWith(mockAuthentication(authenticationMock))
+                .get().uri("/api/v1/tasks/occurrences?from=2022-01-01&to=2023-12-31")
+                .exchange()
+
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void shouldRejectRequestWithoutRange() {
+        User user = User.builder().id(1L).email("alice@mail.com").emailConfirmed(true).enabled(true).build();
+        Authentication authenticationMock = createAuthentication(user);
+
+        testClient.mutateWith(mockAuthentication(authenticationMock))
+                .get().uri("/api/v1/tasks/occurrences")
+                .exchange()
+
+                .expectStatus().isBadRequest();
+    }
+
+    private Authentication createAuthentication(User user) {
+        Authentication authentication = mock(Authentication.class);
+        when(authentication.getName()).thenReturn(user.getEmail());
+        when(authentication.getPrincipal()).thenReturn(user);
+        return authentication;
+    }
+}
@@ -0,0 +1,137 @@
+package org.briarheart.tictactask.task.recurrence;
+
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.briarheart.tictactask.task.BatchTaskRequest;
+import org.briarheart.tictactask.task.Task;
+import org.briarheart.tictactask.task.TaskRepository;
+import org.briarheart.tictactask.task.TaskService;
+import org.briarheart.tictactask.task.TaskStatus;
+import org.briarheart.tictactask.task.list.TaskList;
+import org.briarheart.tictactask.task.list.TaskListRepository;
+import org.briarheart.tictactask.task.list.TaskListService;
+import org.briarheart.tictactask.user.User;
+import org.briarheart.tictactask.util.DateTimeUtils;
+import org.briarheart.tictactask.util.TestUsers;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Roman Chigvintsev
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+@AutoConfigureEmbeddedDatabase
+class TaskRecurrenceIntegrationTest {
+    private static final User USER = TestUsers.JOHN_DOE;
+
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private TaskListRepository taskListRepository;
+    @Autowired
+    private TaskService taskService;
+    @Autowired
+    private TaskListService taskListService;
+    @Autowired
+    private TaskRecurrenceService taskRecurrenceService;
+
+    @Test
+    void shouldCreateNextOccurrenceOnBatchComplete() {
+        Task task = saveRecurringTask("Recurring task completed in batch", null, getToday());
+
+        BatchTaskRequest request = new BatchTaskRequest();
+        request.setOperation(BatchTaskRequest.Operation.COMPLETE);
+        request.setIds(List.of(task.getId()));
+        taskService.executeBatch(request, USER).blockLast();
+
+        List<Task> tasks = findTasksByTitle(task.getTitle());
+        assertEquals(2, tasks.size());
+        assertSame(TaskStatus.COMPLETED, tasks.get(0).getStatus());
+        assertNull(tasks.get(0).getRecurrenceStrategy());
+        assertSame(TaskStatus.PROCESSED, tasks.get(1).getStatus());
+        assertEquals(getToday().plusDays(1), tasks.get(1).getDeadlineDate());
+        assertEquals(new DailyTaskRecurrenceStrategy(), tasks.get(1).getRecurrenceStrategy());
+    }
+
+    @Test
+    void shouldKeepRecurrenceStrategyOfTasksOnTaskListComplete() {
+        TaskList taskList = saveTaskList("Task list with recurring task");
+        Task task = saveRecurringTask("Recurring task of completed task list", taskList.getId(), getToday());
+
+        taskListService.completeTaskList(taskList.getId(), USER).block();
+
+        Task completedTask = taskRepository.findById(task.getId()).block();
+        assertNotNull(completedTask);
+        assertSame(TaskStatus.COMPLETED, completedTask.getStatus());
+        assertEquals(new DailyTaskRecurrenceStrategy(), completedTask.getRecurrenceStrategy());
+    }
+
+    @Test
+    void shouldNotCreateNextOccurrencesOfTasksOfCompletedTaskList() {
+        TaskList taskList = saveTaskList("Completed task list");
+        Task task = saveRecurringTask("Task of completed task list", taskList.getId(), getToday().minusDays(1));
+        taskListService.completeTaskList(taskList.getId(), USER).block();
+
+        taskRecurrenceService.createNextOccurrences(0, 1, 100).block();
+        assertEquals(List.of(task.getId()), findTasksByTitle(task.getTitle()).stream().map(Task::getId).toList());
+    }
+
+    @Test
+    void shouldKeepSingleOutstandingOccurrenceOfOverdueTask() {
+        Task task = saveRecurringTask("Overdue recurring task", null, getToday().minusDays(7));
+
+        taskRecurrenceService.createNextOccurrences(0, 1, 100).block();
+        assertEquals(List.of(task.getId()), findTasksByTitle(task.getTitle()).stream().map(Task::getId).toList());
+
+        taskService.completeTask(task.getId(), USER).block();
+        taskRecurrenceService.createNextOccurrences(0, 1, 100).block();
+
+        List<Task> tasks = findTasksByTitle(task.getTitle());
+        assertEquals(2, tasks.size());
+        assertSame(TaskStatus.COMPLETED, tasks.get(0).getStatus());
+        assertNull(tasks.get(0).getRecurrenceStrategy());
+        assertSame(TaskStatus.PROCESSED, tasks.get(1).getStatus());
+        assertEquals(getToday(), tasks.get(1).getDeadlineDate());
+        assertEquals(new DailyTaskRecurrenceStrategy(), tasks.get(1).getRecurrenceStrategy());
+    }
+
+    private TaskList saveTaskList(String name) {
+        return taskListRepository.save(TaskList.builder()
+                .userId(USER.getId())
+                .name(name)
+                .createdAt(DateTimeUtils.currentDateTimeUtc())
+                .build()).block();
+    }
+
+    private Task saveRecurringTask(String title, Long taskListId, LocalDate deadline) {
+        return taskRepository.save(Task.builder()
+                .userId(USER.getId())
+                .taskListId(taskListId)
+                .title(title)
+                .status(TaskStatus.PROCESSED)
+                .createdAt(DateTimeUtils.currentDateTimeUtc())
+                .deadlineDate(deadline)
+                .recurrenceStrategy(new DailyTaskRecurrenceStrategy())
+                .build()).block();
+    }
+
+    private List<Task> findTasksByTitle(String title) {
+        return taskRepository.findAll()
+                .filter(task -> task.getTitle().equals(title))
+                .sort(Comparator.comparing(Task::getId))
+                .collectList()
+                .block();
+    }
+
+    private static LocalDate getToday() {
+        return DateTimeUtils.currentDateTimeUtc().toLocalDate();
+    }
+}
@@ -1,15 +1,20 @@
 package org.briarheart.tictactask.task.recurrence;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.r2dbc.postgresql.codec.Json;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.core.convert.TypeDescriptor;
-import org.springframework.core.convert.converter.GenericConverter;
+import org.springframework.core.convert.converter.GenericConverter.ConvertiblePair;
 
-import java.util.Set;
+import java.time.DayOfWeek;
+import java.time.Month;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+/**
+ * @author Roman Chigvintsev
+ */
 class TaskRecurrenceStrategyConverterTest {
     private TaskRecurrenceStrategyConverter converter;
 
@@ -26,56 +31,58 @@ class TaskRecurrenceStrategyConverterTest {
     }
 
     @Test
-    void shouldSupportConvertingOfStringToTaskRecurrenceStrategy() {
-        Set<GenericConverter.ConvertiblePair> convertibleTypes = converter.getConvertibleTypes();
-        assertNotNull(convertibleTypes);
-        boolean found = false;
-        for (GenericConverter.ConvertiblePair convertiblePair : convertibleTypes) {
-            if (convertiblePair.getSourceType() == String.class
-                    && convertiblePair.getTargetType() == TaskRecurrenceStrategy.class) {
-                found = true;
-                break;
-            }
-        }
-        assertTrue(found, "Support of converting string to instance of " + TaskRecurrenceStrategy.class.getName()
-                + " was expected");
+    void shouldSupportConvertingOfJsonToTaskRecurrenceStrategy() {
+        assertTrue(converter.getConvertibleTypes().contains(new ConvertiblePair(Json.class,
+                TaskRecurrenceStrategy.class)));
     }
 
     @Test
-    void shouldSupportConvertingOfTaskRecurrenceStrategyToString() {
-        Set<GenericConverter.ConvertiblePair> convertibleTypes = converter.getConvertibleTypes();
-        assertNotNull(convertibleTypes);
-        boolean found = false;
-        for (GenericConverter.ConvertiblePair convertiblePair : convertibleTypes) {
-            if (convertiblePair.getSourceType() == TaskRecurrenceStrategy.class
-                    && convertiblePair.getTargetType() == String.class) {
-                found = true;
-                break;
-            }
-        }
-        assertTrue(found, "Support of converting instance of " + TaskRecurrenceStrategy.class.getName()
-                + " to string was expected");
+    void shouldSupportConvertingOfTaskRecurrenceStrategyToJson() {
+        assertTrue(converter.getConvertibleTypes().contains(new ConvertiblePair(TaskRecurrenceStrategy.class,
+                Json.class)));
     }
 
     @Test
     void shouldConvertTaskRecurrenceStrategyToJson() {
-        TaskRecurrenceStrategy strategy = new DailyTaskRecurrenceStrategy();
-        Object result = converter.convert(strategy, TypeDescriptor.valueOf(TaskRecurrenceStrategy.class),
-                TypeDescriptor.valueOf(String.class));
-        assertEquals("{\"type\":\"daily\"}", result);
+        Object result = converter.convert(new DailyTaskRecurrenceStrategy(),
+                TypeDescriptor.valueOf(TaskRecurrenceStrategy.class), TypeDescriptor.valueOf(Json.class));
+        assertTrue(result instanceof Json);
+        assertEquals("{\"type\":\"daily\"}", ((Json) result).asString());
     }
 
     @Test
     void shouldConvertJsonToTaskRecurrenceStrategy() {
-        Object result = converter.convert("{\"type\":\"daily\"}", TypeDescriptor.valueOf(String.class),
-                TypeDescriptor.valueOf(TaskRecurrenceStrategy.class));
-        assertTrue(result instanceof DailyTaskRecurrenceStrategy);
+        Object result = convertFromJson("{\"type\": \"weekly\", \"dayOfWeek\": \"FRIDAY\"}");
+        assertEquals(new WeeklyTaskRecurrenceStrategy(DayOfWeek.FRIDAY), result);
+    }
+
+    @Test
+    void shouldConvertJsonToTaskRecurrenceStrategyWithSeveralProperties() {
+        Object result = convertFromJson("{\"type\": \"annually\", \"month\": \"JUNE\", \"dayOfMonth\": 10}");
+        assertEquals(new AnnuallyTaskRecurrenceStrategy(Month.JUNE, 10), result);
+    }
+
+    @Test
+    void shouldReturnSameInstanceOnConvertOfSameJson() {
+        Object result1 = convertFromJson("{\"type\": \"monthly\", \"dayOfMonth\": 15}");
+        Object result2 = convertFromJson("{\"type\": \"monthly\", \"dayOfMonth\": 15}");
+        assertSame(result1, result2);
     }
 
     @Test
     void shouldReturnNullOnConvertWhenSourceObjectIsNull() {
-        Object result = converter.convert(null, TypeDescriptor.valueOf(String.class),
+        Object result = converter.convert(null, TypeDescriptor.valueOf(Json.class),
                 TypeDescriptor.valueOf(TaskRecurrenceStrategy.class));
         assertNull(result);
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldThrowExceptionOnConvertWhenJsonIsInvalid() {
+        assertThrows(IllegalStateException.class, () -> convertFromJson("{\"type\": \"hourly\"}"));
+    }
+
+    private Object convertFromJson(String json) {
+        return converter.convert(Json.of(json), TypeDescriptor.valueOf(Json.class),
+                TypeDescriptor.valueOf(TaskRecurrenceStrategy.class));
+    }
+}
@@ -0,0 +1,63 @@
+package org.briarheart.tictactask.task.recurrence;
+
+import org.briarheart.tictactask.config.ApplicationProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import reactor.core.publisher.Mono;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author Roman Chigvintsev
+ */
+class TaskRecurrenceSweeperTest {
+    private TaskRecurrenceService taskRecurrenceService;
+    private TaskRecurrenceSweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        taskRecurrenceService = mock(TaskRecurrenceService.class);
+        when(taskRecurrenceService.createNextOccurrences(anyInt(), anyInt(), anyInt())).thenReturn(Mono.just(0));
+
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getTaskRecurrence().setPartitions(3);
+        applicationProperties.getTaskRecurrence().setBatchSize(2);
+        sweeper = new TaskRecurrenceSweeper(taskRecurrenceService, applicationProperties) {
+            @Override
+            protected int getFirstPartition(int partitions) {
+                return 1;
+            }
+        };
+    }
+
+    @Test
+    void shouldSweepAllPartitionsStartingFromFirstPartition() {
+        sweeper.sweep().block();
+        InOrder inOrder = inOrder(taskRecurrenceService);
+        inOrder.verify(taskRecurrenceService).createNextOccurrences(1, 3, 2);
+        inOrder.verify(taskRecurrenceService).createNextOccurrences(2, 3, 2);
+        inOrder.verify(taskRecurrenceService).createNextOccurrences(0, 3, 2);
+        inOrder.verifyNoMoreInteractions();
+    }
+
+    @Test
+    void shouldProcessPartitionWhileFullBatchesAreReturned() {
+        when(taskRecurrenceService.createNextOccurrences(1, 3, 2))
+                .thenReturn(Mono.just(2))
+                .thenReturn(Mono.just(1));
+        assertEquals(3, sweeper.sweep().block());
+        verify(taskRecurrenceService, times(2)).createNextOccurrences(1, 3, 2);
+    }
+
+    @Test
+    void shouldThrowExceptionOnConstructWhenNumberOfPartitionsIsNotPositive() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getTaskRecurrence().setPartitions(0);
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> new TaskRecurrenceSweeper(taskRecurrenceService, applicationProperties));
+        assertEquals("Number of partitions must be positive", e.getMessage());
+    }
+}
@@ -0,0 +1,48 @@
+package org.briarheart.tictactask.task.recurrence;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Roman Chigvintsev
+ */
+class WeeklyTaskRecurrenceStrategyTest {
+    @Test
+    void shouldReturnNextGivenDayOfWeek() {
+        WeeklyTaskRecurrenceStrategy strategy = new WeeklyTaskRecurrenceStrategy(DayOfWeek.FRIDAY);
+        // 2022-03-02 is Wednesday
+        assertEquals(LocalDate.of(2022, 3, 4), strategy.nextDate(LocalDate.of(2022, 3, 2)));
+    }
+
+    @Test
+    void shouldReturnDateInOneWeekWhenDateIsGivenDayOfWeek() {
+        WeeklyTaskRecurrenceStrategy strategy = new WeeklyTaskRecurrenceStrategy(DayOfWeek.WEDNESDAY);
+        assertEquals(LocalDate.of(2022, 3, 9), strategy.nextDate(LocalDate.of(2022, 3, 2)));
+    }
+
+    @Test
+    void shouldReturnFirstGivenDayOfWeekNotBeforeBound() {
+        WeeklyTaskRecurrenceStrategy strategy = new WeeklyTaskRecurrenceStrategy(DayOfWeek.FRIDAY);
+        // 2022-03-20 is Sunday
+        assertEquals(LocalDate.of(2022, 3, 25),
+                strategy.firstDateNotBefore(LocalDate.of(2022, 3, 2), LocalDate.of(2022, 3, 20)));
+    }
+
+    @Test
+    void shouldReturnFirstDateInWholeNumberOfWeeksNotBeforeBoundWhenDayOfWeekIsNotSet() {
+        WeeklyTaskRecurrenceStrategy strategy = new WeeklyTaskRecurrenceStrategy();
+        assertEquals(LocalDate.of(2022, 3, 23),
+                strategy.firstDateNotBefore(LocalDate.of(2022, 3, 2), LocalDate.of(2022, 3, 20)));
+    }
+
+    @Test
+    void shouldReturnGivenDateWhenItIsNotBeforeBound() {
+        WeeklyTaskRecurrenceStrategy strategy = new WeeklyTaskRecurrenceStrategy(DayOfWeek.FRIDAY);
+        assertEquals(LocalDate.of(2022, 3, 2),
+                strategy.firstDateNotBefore(LocalDate.of(2022, 3, 2), LocalDate.of(2022, 3, 1)));
+    }
+}
@@ -1,10 +1,16 @@
 package org.briarheart.tictactask.task.tag;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.briarheart.tictactask.config.ApplicationProperties;
 import org.briarheart.tictactask.data.EntityAlreadyExistsException;
 import org.briarheart.tictactask.data.EntityNotFoundException;
 import org.briarheart.tictactask.task.Task;
 import org.briarheart.tictactask.task.TaskRepository;
 import org.briarheart.tictactask.task.TaskStatus;
+import org.briarheart.tictactask.task.version.EntityChangeNotificationListener;
+import org.briarheart.tictactask.task.version.EntityChangeService;
+import org.briarheart.tictactask.task.version.EntityType;
+import org.briarheart.tictactask.task.version.TaskCollectionCacheManager;
 import org.briarheart.tictactask.user.User;
 import org.briarheart.tictactask.util.DateTimeUtils;
 import org.junit.jupiter.api.BeforeEach;
@@ -26,13 +32,20 @@ import static org.mockito.Mockito.*;
 class DefaultTaskTagServiceTest {
     private TaskTagRepository tagRepository;
     private TaskRepository taskRepository;
+    private EntityChangeService entityChangeService;
     private DefaultTaskTagService tagService;
 
     @BeforeEach
     void setUp() {
         tagRepository = mock(TaskTagRepository.class);
         taskRepository = mock(TaskRepository.class);
-        tagService = new DefaultTaskTagService(tagRepository, taskRepository);
+        entityChangeService = mock(EntityChangeService.class);
+        when(entityChangeService.recordChange(any(), any(), any())).thenReturn(Mono.empty());
+        when(entityChangeService.recordDeletion(any(), any(), any())).thenReturn(Mono.empty());
+        when(entityChangeService.recordTaskChangesByTagId(any(), any())).thenReturn(Mono.empty());
+        tagService = new DefaultTaskTagService(tagRepository, taskRepository, entityChangeService,
+                new TaskCollectionCacheManager(mock(EntityChangeNotificationListener.class), new SimpleMeterRegistry(),
+                        new ApplicationProperties()));
     }
 
     @Test
@@ -45,6 +58,34 @@ class DefaultTaskTagServiceTest {
         assertEquals(tag, result);
     }
 
+    @Test
+    void shouldReturnCachedTags() {
+        User user = User.builder().id(1L).email("alice@mail.com").emailConfirmed(true).enabled(true).build();
+        TaskTag tag = TaskTag.builder().id(2L).userId(user.getId()).name("Test tag").build();
+        when(tagRepository.findByUserIdOrderByCreatedAtDesc(user.getId())).thenReturn(Flux.just(tag));
+
+        tagService.getTags(user).blockLast();
+        TaskTag result = tagService.getTags(user).blockFirst();
+        assertEquals(tag, result);
+        verify(tagRepository, times(1)).findByUserIdOrderByCreatedAtDesc(user.getId());
+    }
+
+    @Test
+    void shouldInvalidateTagCacheOnTagCreate() {
+        User user = User.builder().id(1L).email("alice@mail.com").emailConfirmed(true).enabled(true).build();
+        when(tagRepository.findByUserIdOrderByCreatedAtDesc(user.getId())).thenReturn(Flux.empty());
+        when(tagRepository.save(any())).thenAnswer(args -> {
+            TaskTag t = new TaskTag(args.getArgument(0));
+            t.setId(2L);
+            return Mono.just(t);
+        });
+
+        tagService.getTags(user).blockLast();
+        tagService.createTag(TaskTag.builder().userId(user.getId()).name("New tag").build()).block();
+        tagService.getTags(user).blockLast();
+        verify(tagRepository, times(2)).findByUserIdOrderByCreatedAtDesc(user.getId());
+    }
+
     @Test
     void shouldThrowExceptionOnTagsGetWhenUserIsNull() {
         IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
@@ -100,6 +141,19 @@ class DefaultTaskTagServiceTest {
         assertEquals(expectedResult, result);
     }
 
+    @Test
+    void shouldRecordTagChangeOnTagCreate() {
+        long tagId = 2L;
+        when(tagRepository.save(any())).thenAnswer(args -> {
+            TaskTag t = new TaskTag(args.getArgument(0));
+            t.setId(tagId);
+            return Mono.just(t);
+        });
+        TaskTag newTag = TaskTag.builder().userId(1L).name("New tag").build();
+        tagService.createTag(newTag).block();
+        verify(entityChangeService, times(1)).recordChange(EntityType.TAG, tagId, newTag.getUserId());
+    }
+
     @Test
     void shouldThrowExceptionOnTagCreateWhenTagIsNull() {
         IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> tagService.createTag(null));
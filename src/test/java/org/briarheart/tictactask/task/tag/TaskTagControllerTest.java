@@ -8,10 +8,13 @@ import org.briarheart.tictactask.task.TaskController.TaskResponse;
 import org.briarheart.tictactask.task.tag.TaskTagController.CreateTagRequest;
 import org.briarheart.tictactask.task.tag.TaskTagController.TaskTagResponse;
 import org.briarheart.tictactask.task.tag.TaskTagController.UpdateTagRequest;
+import org.briarheart.tictactask.task.version.TaskCollection;
+import org.briarheart.tictactask.task.version.TaskCollectionVersionService;
 import org.briarheart.tictactask.user.User;
 import org.briarheart.tictactask.util.DateTimeUtils;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
@@ -48,6 +51,9 @@ class TaskTagControllerTest {
     @MockBean
     private TaskTagService taskTagService;
 
+    @MockBean
+    private TaskCollectionVersionService versionService;
+
     @BeforeAll
     static void beforeAll() {
         Locale.setDefault(Locale.ENGLISH);
@@ -58,6 +64,11 @@ class TaskTagControllerTest {
         Locale.setDefault(DEFAULT_LOCALE);
     }
 
+    @BeforeEach
+    void setUp() {
+        when(versionService.getVersion(any(TaskCollection.class), anyLong())).thenReturn(Mono.just(0L));
+    }
+
     @Test
     void shouldReturnAllTags() {
         User user = User.builder().id(1L).email("alice@mail.com").emailConfirmed(true).enabled(true).build();
@@ -74,6 +85,40 @@ class TaskTagControllerTest {
                 .expectBody(TaskTagResponse[].class).isEqualTo(new TaskTagResponse[]{new TaskTagResponse(tag)});
     }
 
+    @Test
+    void shouldReturnVersionOfTagsInETag() {
+        User user = User.builder().id(1L).email("alice@mail.com").emailConfirmed(true).enabled(true).build();
+        Authentication authenticationMock = createAuthentication(user);
+
+        when(versionService.getVersion(TaskCollection.TAGS, user.getId())).thenReturn(Mono.just(3L));
+        when(taskTagService.getTags(user)).thenReturn(Flux.empty());
+
+        testClient.mutateWith(mockAuthentication(authenticationMock))
+                .get().uri("/api/v1/tags")
+                .exchange()
+
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "W/\"1-3\"")
+                .expectHeader().valueEquals("Cache-Control", "no-cache, private");
+    }
+
+    @Test
+    void shouldNotLoadTagsWhenTheyAreNotModified() {
+        User user = User.builder().id(1L).email("alice@mail.com").emailConfirmed(true).enabled(true).build();
+        Authentication authenticationMock = createAuthentication(user);
+
+        when(versionService.getVersion(TaskCollection.TAGS, user.getId())).thenReturn(Mono.just(3L));
+
+        testClient.mutateWith(mockAuthentication(authenticationMock))
+                .get().uri("/api/v1/tags")
+                .header("If-None-Match", "W/\"1-3\"")
+                .exchange()
+
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals("ETag", "W/\"1-3\"");
+        verify(taskTagService, never()).getTags(any());
+    }
+
     @Test
     void shouldReturnTagById() {
         User user = User.builder().id(1L).email("alice@mail.com").emailConfirmed(true).enabled(true).build();
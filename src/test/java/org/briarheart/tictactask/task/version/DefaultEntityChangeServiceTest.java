@@ -0,0 +1,154 @@
+package org.briarheart.tictactask.task.version;
+
+import org.briarheart.tictactask.task.Task;
+import org.briarheart.tictactask.task.TaskRepository;
+import org.briarheart.tictactask.task.comment.TaskCommentRepository;
+import org.briarheart.tictactask.task.list.TaskListRepository;
+import org.briarheart.tictactask.task.tag.TaskTagRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author Roman Chigvintsev
+ */
+class DefaultEntityChangeServiceTest {
+    private EntityChangeRepository entityChangeRepository;
+    private TaskCollectionVersionService versionService;
+    private TaskRepository taskRepository;
+    private TaskTagRepository tagRepository;
+    private TaskListRepository taskListRepository;
+    private TaskCommentRepository taskCommentRepository;
+
+    private DefaultEntityChangeService entityChangeService;
+
+    @BeforeEach
+    void setUp() {
+        entityChangeRepository = mock(EntityChangeRepository.class);
+        when(entityChangeRepository.notifyChange(anyLong(), anyLong(), any())).thenReturn(Mono.empty());
+        versionService = mock(TaskCollectionVersionService.class);
+        when(versionService.incrementVersion(any(TaskCollection.class), anyLong())).thenReturn(Mono.empty());
+        taskRepository = mock(TaskRepository.class);
+        tagRepository = mock(TaskTagRepository.class);
+        taskListRepository = mock(TaskListRepository.class);
+        taskCommentRepository = mock(TaskCommentRepository.class);
+
+        entityChangeService = new DefaultEntityChangeService(entityChangeRepository, versionService, taskRepository,
+                tagRepository, taskListRepository, taskCommentRepository);
+    }
+
+    @Test
+    void shouldRecordChangeWithNextChangeVersion() {
+        when(versionService.nextChangeVersion(1L)).thenReturn(Mono.just(5L));
+        when(entityChangeRepository.upsert(1L, EntityType.TAG, 2L, 5L, false)).thenReturn(Mono.just(1));
+
+        entityChangeService.recordChange(EntityType.TAG, 2L, 1L).block();
+        verify(entityChangeRepository, times(1)).upsert(1L, EntityType.TAG, 2L, 5L, false);
+    }
+
+    @Test
+    void shouldIncrementVersionOfCollectionOnChangeRecord() {
+        when(versionService.nextChangeVersion(1L)).thenReturn(Mono.just(5L));
+        when(entityChangeRepository.upsert(anyLong(), any(), anyLong(), anyLong(), anyBoolean()))
+                .thenReturn(Mono.just(1));
+
+        entityChangeService.recordChange(EntityType.TASK_LIST, 2L, 1L).block();
+        verify(versionService, times(1)).incrementVersion(TaskCollection.TASK_LISTS, 1L);
+    }
+
+    @Test
+    void shouldNotifyAboutChangeOnChangeRecord() {
+        when(versionService.nextChangeVersion(1L)).thenReturn(Mono.just(5L));
+        when(entityChangeRepository.upsert(anyLong(), any(), anyLong(), anyLong(), anyBoolean()))
+                .thenReturn(Mono.just(1));
+
+        entityChangeService.recordChange(EntityType.COMMENT, 2L, 1L).block();
+        verify(entityChangeRepository, times(1)).notifyChange(1L, 5L, "");
+    }
+
+    @Test
+    void shouldIncludeChangedCollectionInNotificationOnChangeRecord() {
+        when(versionService.nextChangeVersion(1L)).thenReturn(Mono.just(5L));
+        when(entityChangeRepository.upsert(anyLong(), any(), anyLong(), anyLong(), anyBoolean()))
+                .thenReturn(Mono.just(1));
+
+        entityChangeService.recordChange(EntityType.TAG, 2L, 1L).block();
+        verify(entityChangeRepository, times(1)).notifyChange(1L, 5L, "TAGS");
+    }
+
+    @Test
+    void shouldNotIncrementVersionOfAnyCollectionOnCommentChangeRecord() {
+        when(versionService.nextChangeVersion(1L)).thenReturn(Mono.just(5L));
+        when(entityChangeRepository.upsert(anyLong(), any(), anyLong(), anyLong(), anyBoolean()))
+                .thenReturn(Mono.just(1));
+
+        entityChangeService.recordChange(EntityType.COMMENT, 2L, 1L).block();
+        verify(versionService, never()).incrementVersion(any(TaskCollection.class), anyLong());
+    }
+
+    @Test
+    void shouldRecordDeletionOfTaskWithItsDescendants() {
+        when(versionService.nextChangeVersion(1L)).thenReturn(Mono.just(5L));
+        when(entityChangeRepository.upsertTaskDeletionsByIdIn(1L, List.of(2L), 5L)).thenReturn(Mono.just(3));
+
+        entityChangeService.recordDeletion(EntityType.TASK, 2L, 1L).block();
+        verify(entityChangeRepository, times(1)).upsertTaskDeletionsByIdIn(1L, List.of(2L), 5L);
+        verify(entityChangeRepository, never()).upsert(anyLong(), any(), anyLong(), anyLong(), anyBoolean());
+    }
+
+    @Test
+    void shouldThrowExceptionOnChangeRecordWhenUserIdIsNull() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> entityChangeService.recordChange(EntityType.TAG, 2L, null));
+        assertEquals("User id must not be null", e.getMessage());
+    }
+
+    @Test
+    void shouldReturnChangesSinceGivenVersion() {
+        Task task = Task.builder().id(2L).userId(1L).title("Test task").build();
+        EntityChange taskChange = EntityChange.builder()
+                .userId(1L)
+                .entityType(EntityType.TASK)
+                .entityId(task.getId())
+                .version(4L)
+                .build();
+        EntityChange tagDeletion = EntityChange.builder()
+                .userId(1L)
+                .entityType(EntityType.TAG)
+                .entityId(3L)
+                .version(5L)
+                .deleted(true)
+                .build();
+        when(entityChangeRepository.findByUserIdAndVersionGreaterThan(1L, 3L))
+                .thenReturn(Flux.just(taskChange, tagDeletion));
+        when(taskRepository.findChangedByUserIdAndVersionGreaterThan(1L, 3L)).thenReturn(Flux.just(task));
+
+        EntityChanges expectedResult = EntityChanges.builder()
+                .version(5L)
+                .tasks(List.of(task))
+                .tags(List.of())
+                .taskLists(List.of())
+                .comments(List.of())
+                .deletedTaskIds(List.of())
+                .deletedTagIds(List.of(3L))
+                .deletedTaskListIds(List.of())
+                .deletedCommentIds(List.of())
+                .build();
+        assertEquals(expectedResult, entityChangeService.getChanges(1L, 3L).block());
+        verify(tagRepository, never()).findChangedByUserIdAndVersionGreaterThan(anyLong(), anyLong());
+    }
+
+    @Test
+    void shouldReturnGivenVersionWhenThereAreNoChanges() {
+        when(entityChangeRepository.findByUserIdAndVersionGreaterThan(1L, 3L)).thenReturn(Flux.empty());
+        EntityChanges result = entityChangeService.getChanges(1L, 3L).block();
+        assertEquals(3L, result.getVersion());
+    }
+}
@@ -0,0 +1,65 @@
+package org.briarheart.tictactask.task.version;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author Roman Chigvintsev
+ */
+class DefaultTaskCollectionVersionServiceTest {
+    private TaskCollectionVersionRepository versionRepository;
+    private DefaultTaskCollectionVersionService versionService;
+
+    @BeforeEach
+    void setUp() {
+        versionRepository = mock(TaskCollectionVersionRepository.class);
+        versionService = new DefaultTaskCollectionVersionService(versionRepository);
+    }
+
+    @Test
+    void shouldReturnVersionOfCollection() {
+        TaskCollectionVersion version = TaskCollectionVersion.builder()
+                .userId(1L)
+                .tasksVersion(3L)
+                .tagsVersion(4L)
+                .taskListsVersion(5L)
+                .build();
+        when(versionRepository.findById(version.getUserId())).thenReturn(Mono.just(version));
+
+        assertEquals(3L, versionService.getVersion(TaskCollection.TASKS, version.getUserId()).block());
+        assertEquals(4L, versionService.getVersion(TaskCollection.TAGS, version.getUserId()).block());
+        assertEquals(5L, versionService.getVersion(TaskCollection.TASK_LISTS, version.getUserId()).block());
+    }
+
+    @Test
+    void shouldReturnZeroVersionWhenCollectionWasNeverChanged() {
+        when(versionRepository.findById(anyLong())).thenReturn(Mono.empty());
+        assertEquals(0L, versionService.getVersion(TaskCollection.TASKS, 1L).block());
+    }
+
+    @Test
+    void shouldIncrementVersionOfCollection() {
+        when(versionRepository.incrementTagsVersion(anyLong())).thenReturn(Mono.just(1));
+        versionService.incrementVersion(TaskCollection.TAGS, 1L).block();
+        verify(versionRepository, times(1)).incrementTagsVersion(1L);
+        verify(versionRepository, never()).incrementTasksVersion(anyLong());
+    }
+
+    @Test
+    void shouldThrowExceptionOnVersionIncrementWhenUserIdIsNull() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> versionService.incrementVersion(TaskCollection.TAGS, null));
+        assertEquals("User id must not be null", e.getMessage());
+    }
+
+    @Test
+    void shouldReturnNextChangeVersion() {
+        when(versionRepository.incrementChangeVersion(1L)).thenReturn(Mono.just(7L));
+        assertEquals(7L, versionService.nextChangeVersion(1L).block());
+    }
+}
@@ -0,0 +1,127 @@
+package org.briarheart.tictactask.task.version;
+
+import org.briarheart.tictactask.config.PermitAllSecurityConfig;
+import org.briarheart.tictactask.task.tag.TaskTag;
+import org.briarheart.tictactask.task.version.EntityChangeController.EntityChangesResponse;
+import org.briarheart.tictactask.user.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers.mockAuthentication;
+
+/**
+ * @author Roman Chigvintsev
+ */
+@WebFluxTest(EntityChangeController.class)
+@Import(PermitAllSecurityConfig.class)
+@TestPropertySource(properties = "test.security.disabled=true")
+@ActiveProfiles("test")
+class EntityChangeControllerTest {
+    @Autowired
+    private WebTestClient testClient;
+
+    @MockBean
+    private EntityChangeService entityChangeService;
+
+    @MockBean
+    private EntityChangeNotificationListener notificationListener;
+
+    @Test
+    void shouldReturnChangesSinceGivenVersion() {
+        User user = User.builder().id(1L).email("alice@mail.com").emailConfirmed(true).enabled(true).build();
+        Authentication authenticationMock = createAuthentication(user);
+
+        TaskTag tag = TaskTag.builder().id(2L).userId(user.getId()).name("Test tag").build();
+        EntityChanges changes = EntityChanges.builder()
+                .version(5L)
+                .tasks(List.of())
+                .tags(List.of(tag))
+                .taskLists(List.of())
+                .comments(List.of())
+                .deletedTaskIds(List.of(3L))
+                .deletedTagIds(List.of())
+                .deletedTaskListIds(List.of())
+                .deletedCommentIds(List.of())
+                .build();
+        when(entityChangeService.getChanges(user.getId(), 4L)).thenReturn(Mono.just(changes));
+
+        testClient.mutateWith(mockAuthentication(authenticationMock))
+                .get().uri("/api/v1/changes?since=4")
+                .exchange()
+
+                .expectStatus().isOk()
+                .expectBody(EntityChangesResponse.class).isEqualTo(new EntityChangesResponse(changes));
+    }
+
+    @Test
+    void shouldReturnAllChangesWhenVersionIsNotProvided() {
+        User user = User.builder().id(1L).email("alice@mail.com").emailConfirmed(true).enabled(true).build();
+        Authentication authenticationMock = createAuthentication(user);
+
+        EntityChanges changes = EntityChanges.builder()
+                .version(0L)
+                .tasks(List.of())
+                .tags(List.of())
+                .taskLists(List.of())
+                .comments(List.of())
+                .deletedTaskIds(List.of())
+                .deletedTagIds(List.of())
+                .deletedTaskListIds(List.of())
+                .deletedCommentIds(List.of())
+                .build();
+        when(entityChangeService.getChanges(user.getId(), 0L)).thenReturn(Mono.just(changes));
+
+        testClient.mutateWith(mockAuthentication(authenticationMock))
+                .get().uri("/api/v1/changes")
+                .exchange()
+
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.version").isEqualTo(0);
+    }
+
+    @Test
+    void shouldReturnStreamOfChangeEvents() {
+        User user = User.builder().id(1L).email("alice@mail.com").emailConfirmed(true).enabled(true).build();
+        Authentication authenticationMock = createAuthentication(user);
+
+        when(notificationListener.getChangeVersions(user.getId())).thenReturn(Flux.just(5L, 6L));
+
+        Flux<ServerSentEvent<Long>> events = testClient.mutateWith(mockAuthentication(authenticationMock))
+                .get().uri("/api/v1/changes/stream")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+
+                .expectStatus().isOk()
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<Long>>() {})
+                .getResponseBody();
+
+        StepVerifier.create(events)
+                .expectNextMatches(event -> "change".equals(event.event()) && Long.valueOf(5L).equals(event.data()))
+                .expectNextMatches(event -> "change".equals(event.event()) && Long.valueOf(6L).equals(event.data()))
+                .thenCancel()
+                .verify();
+    }
+
+    private Authentication createAuthentication(User user) {
+        Authentication authentication = mock(Authentication.class);
+        when(authentication.getName()).thenReturn(user.getEmail());
+        when(authentication.getPrincipal()).thenReturn(user);
+        return authentication;
+    }
+}
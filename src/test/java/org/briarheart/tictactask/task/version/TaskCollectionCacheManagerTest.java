@@ -0,0 +1,93 @@
+package org.briarheart.tictactask.task.version;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.briarheart.tictactask.config.ApplicationProperties;
+import org.briarheart.tictactask.util.TestReactiveTransactionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author Roman Chigvintsev
+ */
+class TaskCollectionCacheManagerTest {
+    private EntityChangeNotificationListener notificationListener;
+    private TaskCollectionCacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        notificationListener = mock(EntityChangeNotificationListener.class);
+        cacheManager = new TaskCollectionCacheManager(notificationListener, new SimpleMeterRegistry(),
+                new ApplicationProperties());
+    }
+
+    @AfterEach
+    void tearDown() {
+        cacheManager.stop();
+    }
+
+    @Test
+    void shouldLoadCollectionOnlyOnce() {
+        TaskCollectionCache<String> cache = cacheManager.createCache(TaskCollection.TAGS, UnaryOperator.identity());
+        AtomicInteger loadCount = new AtomicInteger();
+
+        cache.get(1L, () -> Flux.just("tag").doOnSubscribe(s -> loadCount.incrementAndGet())).blockLast();
+        String result = cache.get(1L, () -> Flux.just("tag").doOnSubscribe(s -> loadCount.incrementAndGet()))
+                .blockFirst();
+        assertEquals("tag", result);
+        assertEquals(1, loadCount.get());
+    }
+
+    @Test
+    void shouldInvalidateCacheOnCollectionChangeNotification() {
+        Sinks.Many<Long> changes = Sinks.many().multicast().directBestEffort();
+        when(notificationListener.getCollectionChanges(TaskCollection.TAGS)).thenReturn(changes.asFlux());
+
+        TaskCollectionCache<String> cache = cacheManager.createCache(TaskCollection.TAGS, UnaryOperator.identity());
+        cacheManager.start();
+
+        AtomicInteger loadCount = new AtomicInteger();
+        cache.get(1L, () -> Flux.just("tag").doOnSubscribe(s -> loadCount.incrementAndGet())).blockLast();
+        changes.tryEmitNext(1L);
+        cache.get(1L, () -> Flux.just("tag").doOnSubscribe(s -> loadCount.incrementAndGet())).blockLast();
+        assertEquals(2, loadCount.get());
+    }
+
+    @Test
+    void shouldInvalidateCacheAgainAfterCompletionOfTransaction() {
+        TaskCollectionCache<String> cache = cacheManager.createCache(TaskCollection.TAGS, UnaryOperator.identity());
+        TransactionalOperator transactionalOperator = TransactionalOperator.create(
+                new TestReactiveTransactionManager());
+        AtomicInteger loadCount = new AtomicInteger();
+
+        // Collection loaded concurrently after invalidation but before commit must not stay in cache
+        cache.invalidateOnCompletion(1L)
+                .thenMany(cache.get(1L, () -> Flux.just("old tag").doOnSubscribe(s -> loadCount.incrementAndGet())))
+                .then()
+                .as(transactionalOperator::transactional)
+                .block();
+        String result = cache.get(1L, () -> Flux.just("new tag").doOnSubscribe(s -> loadCount.incrementAndGet()))
+                .blockFirst();
+        assertEquals("new tag", result);
+        assertEquals(2, loadCount.get());
+    }
+
+    @Test
+    void shouldThrowExceptionOnCacheCreateWhenCacheOfCollectionIsAlreadyCreated() {
+        cacheManager.createCache(TaskCollection.TAGS, UnaryOperator.identity());
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> cacheManager.createCache(TaskCollection.TAGS, UnaryOperator.identity()));
+        assertEquals("Cache of collection TAGS is already created", e.getMessage());
+    }
+}
@@ -0,0 +1,107 @@
+package org.briarheart.tictactask.user;
+
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.briarheart.tictactask.config.TestR2dbcConnectionFactoryConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.data.r2dbc.R2dbcDataAutoConfiguration;
+import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, classes = {
+        TestR2dbcConnectionFactoryConfig.class,
+        R2dbcAutoConfiguration.class,
+        R2dbcDataAutoConfiguration.class,
+        FlywayAutoConfiguration.class
+})
+@ActiveProfiles("test")
+@AutoConfigureEmbeddedDatabase
+class CustomizedUserRepositoryImplTest {
+    @Autowired
+    private R2dbcEntityTemplate entityTemplate;
+    private CustomizedUserRepositoryImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new CustomizedUserRepositoryImpl(entityTemplate);
+    }
+
+    @Test
+    void shouldThrowExceptionOnConstructWhenEntityTemplateIsNull() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> new CustomizedUserRepositoryImpl(null));
+        assertEquals("Entity template must not be null", e.getMessage());
+    }
+
+    @Test
+    void shouldFindUserByEmailWithAuthorities() {
+        User user = insertUser("alice@mail.com");
+        insertAuthority(user, "ROLE_USER");
+        insertAuthority(user, "ROLE_ADMIN");
+
+        User result = repository.findByEmailWithAuthorities(user.getEmail()).block();
+        assertNotNull(result);
+        assertEquals(user.getId(), result.getId());
+        assertEquals(user.getEmail(), result.getEmail());
+        Set<String> authorities = result.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toSet());
+        assertEquals(Set.of("ROLE_USER", "ROLE_ADMIN"), authorities);
+    }
+
+    @Test
+    void shouldFindUserWithoutAuthoritiesByEmail() {
+        User user = insertUser("bob@mail.com");
+        User result = repository.findByEmailWithAuthorities(user.getEmail()).block();
+        assertNotNull(result);
+        assertTrue(result.getAuthorities().isEmpty());
+    }
+
+    @Test
+    void shouldReturnEmptyMonoWhenUserIsNotFoundByEmail() {
+        assertNull(repository.findByEmailWithAuthorities("nobody@mail.com").block());
+    }
+
+    @Test
+    void shouldFindUserByIdWithAuthorities() {
+        User user = insertUser("carol@mail.com");
+        insertAuthority(user, "ROLE_ADMIN");
+
+        User result = repository.findByIdWithAuthorities(user.getId()).block();
+        assertNotNull(result);
+        assertEquals(user.getEmail(), result.getEmail());
+        Set<String> authorities = result.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toSet());
+        assertEquals(Set.of("ROLE_ADMIN"), authorities);
+    }
+
+    @Test
+    void shouldReturnEmptyMonoWhenUserIsNotFoundById() {
+        assertNull(repository.findByIdWithAuthorities(Long.MAX_VALUE).block());
+    }
+
+    private User insertUser(String email) {
+        User user = User.builder().email(email).fullName("Test User").enabled(true).build();
+        return entityTemplate.insert(user).block();
+    }
+
+    private void insertAuthority(User user, String authority) {
+        entityTemplate.getDatabaseClient()
+                .sql("INSERT INTO authorities (user_id, authority) VALUES (:userId, :authority)")
+                .bind("userId", user.getId())
+                .bind("authority", authority)
+                .then()
+                .block();
+    }
+}
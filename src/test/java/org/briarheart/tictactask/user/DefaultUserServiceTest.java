@@ -1,27 +1,40 @@
 package org.briarheart.tictactask.user;
 
+import com.google.common.hash.Hashing;
 import org.briarheart.tictactask.data.EntityAlreadyExistsException;
 import org.briarheart.tictactask.data.EntityNotFoundException;
+import org.briarheart.tictactask.security.crypto.password.ReactivePasswordEncoder;
 import org.briarheart.tictactask.user.email.EmailConfirmationService;
 import org.briarheart.tictactask.user.email.EmailConfirmationToken;
 import org.briarheart.tictactask.user.profilepicture.ProfilePicture;
 import org.briarheart.tictactask.user.profilepicture.ProfilePictureRepository;
+import org.briarheart.tictactask.user.profilepicture.ProfilePictureStore;
+import org.briarheart.tictactask.user.profilepicture.ProfilePictureThumbnailGenerator;
+import org.briarheart.tictactask.user.profilepicture.StoredContent;
 import org.briarheart.tictactask.util.DateTimeUtils;
+import org.briarheart.tictactask.util.TestReactiveTransactionManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.springframework.context.support.MessageSourceAccessor;
 import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -34,9 +47,12 @@ class DefaultUserServiceTest {
     private DefaultUserService service;
     private UserRepository userRepository;
     private ProfilePictureRepository profilePictureRepository;
+    private ProfilePictureStore profilePictureStore;
+    private ProfilePictureThumbnailGenerator thumbnailGenerator;
     private EmailConfirmationService emailConfirmationService;
-    private PasswordEncoder passwordEncoder;
+    private ReactivePasswordEncoder passwordEncoder;
     private MessageSourceAccessor messages;
+    private TransactionalOperator transactionalOperator;
 
     @BeforeEach
     void setUp() {
@@ -60,54 +76,101 @@ class DefaultUserServiceTest {
                     return Mono.just(emailConfirmationToken);
                 });
 
-        passwordEncoder = mock(PasswordEncoder.class);
-        when(passwordEncoder.encode(anyString())).thenAnswer(args -> args.getArgument(0));
+        passwordEncoder = mock(ReactivePasswordEncoder.class);
+        when(passwordEncoder.encode(anyString())).thenAnswer(args -> Mono.just(args.getArgument(0)));
 
         ResourceBundleMessageSource messageSource = new ResourceBundleMessageSource();
         messageSource.setBasename("messages");
         messages = new MessageSourceAccessor(messageSource);
 
-        service = new DefaultUserService(userRepository, profilePictureRepository, emailConfirmationService,
-                passwordEncoder, messages);
+        transactionalOperator = TransactionalOperator.create(new TestReactiveTransactionManager());
+
+        profilePictureStore = mock(ProfilePictureStore.class);
+        when(profilePictureStore.save(any())).thenAnswer(args -> {
+            Flux<DataBuffer> content = args.getArgument(0);
+            return DataBufferUtils.join(content).map(buffer -> {
+                try {
+                    byte[] bytes = new byte[buffer.readableByteCount()];
+                    buffer.read(bytes);
+                    return new StoredContent(Hashing.sha256().hashBytes(bytes).toString(), bytes.length);
+                } finally {
+                    DataBufferUtils.release(buffer);
+                }
+            });
+        });
+
+        thumbnailGenerator = mock(ProfilePictureThumbnailGenerator.class);
+        when(thumbnailGenerator.getThumbnailVariant(any(ProfilePicture.class), anyInt()))
+                .thenAnswer(args -> args.getArgument(1) + ".png");
+
+        service = new DefaultUserService(userRepository, profilePictureRepository, profilePictureStore,
+                thumbnailGenerator, emailConfirmationService, passwordEncoder, messages, transactionalOperator);
     }
 
     @Test
     void shouldThrowExceptionOnConstructWhenUserRepositoryIsNull() {
         IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> new DefaultUserService(null,
-                profilePictureRepository, emailConfirmationService, passwordEncoder, messages));
+                profilePictureRepository, profilePictureStore, thumbnailGenerator, emailConfirmationService,
+                passwordEncoder, messages, transactionalOperator));
         assertEquals("User repository must not be null", e.getMessage());
     }
 
     @Test
     void shouldThrowExceptionOnConstructWhenProfilePictureRepositoryIsNull() {
         IllegalArgumentException e = assertThrows(IllegalArgumentException.class, ()
-                -> new DefaultUserService(userRepository, null, emailConfirmationService, passwordEncoder, messages));
+                -> new DefaultUserService(userRepository, null, profilePictureStore, thumbnailGenerator,
+                emailConfirmationService, passwordEncoder, messages, transactionalOperator));
         assertEquals("Profile picture repository must not be null", e.getMessage());
     }
 
+    @Test
+    void shouldThrowExceptionOnConstructWhenProfilePictureStoreIsNull() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, ()
+                -> new DefaultUserService(userRepository, profilePictureRepository, null, thumbnailGenerator,
+                emailConfirmationService, passwordEncoder, messages, transactionalOperator));
+        assertEquals("Profile picture store must not be null", e.getMessage());
+    }
+
+    @Test
+    void shouldThrowExceptionOnConstructWhenThumbnailGeneratorIsNull() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, ()
+                -> new DefaultUserService(userRepository, profilePictureRepository, profilePictureStore, null,
+                emailConfirmationService, passwordEncoder, messages, transactionalOperator));
+        assertEquals("Thumbnail generator must not be null", e.getMessage());
+    }
+
     @Test
     void shouldThrowExceptionOnConstructWhenEmailConfirmationServiceIsNull() {
         IllegalArgumentException e = assertThrows(IllegalArgumentException.class, ()
-                -> new DefaultUserService(userRepository, profilePictureRepository, null, passwordEncoder, messages));
+                -> new DefaultUserService(userRepository, profilePictureRepository, profilePictureStore,
+                thumbnailGenerator, null, passwordEncoder, messages, transactionalOperator));
         assertEquals("Email confirmation service must not be null", e.getMessage());
     }
 
     @Test
     void shouldThrowExceptionOnConstructWhenPasswordEncoderIsNull() {
         IllegalArgumentException e = assertThrows(IllegalArgumentException.class, ()
-                -> new DefaultUserService(userRepository, profilePictureRepository, emailConfirmationService, null,
-                messages));
+                -> new DefaultUserService(userRepository, profilePictureRepository, profilePictureStore,
+                thumbnailGenerator, emailConfirmationService, null, messages, transactionalOperator));
         assertEquals("Password encoder must not be null", e.getMessage());
     }
 
     @Test
     void shouldThrowExceptionOnConstructWhenMessageSourceAccessorIsNull() {
         IllegalArgumentException e = assertThrows(IllegalArgumentException.class, ()
-                -> new DefaultUserService(userRepository, profilePictureRepository, emailConfirmationService,
-                passwordEncoder, null));
+                -> new DefaultUserService(userRepository, profilePictureRepository, profilePictureStore,
+                thumbnailGenerator, emailConfirmationService, passwordEncoder, null, transactionalOperator));
         assertEquals("Message source accessor must not be null", e.getMessage());
     }
 
+    @Test
+    void shouldThrowExceptionOnConstructWhenTransactionalOperatorIsNull() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, ()
+                -> new DefaultUserService(userRepository, profilePictureRepository, profilePictureStore,
+                thumbnailGenerator, emailConfirmationService, passwordEncoder, messages, null));
+        assertEquals("Transactional operator must not be null", e.getMessage());
+    }
+
     @Test
     void shouldReturnNumberOfAllUsers() {
         long userCount = 3L;
@@ -397,7 +460,7 @@ class DefaultUserServiceTest {
     void shouldReturnProfilePicture() {
         Long userId = 1L;
         ProfilePicture profilePicture = ProfilePicture.builder().userId(userId).build();
-        when(profilePictureRepository.findById(userId)).thenReturn(Mono.just(profilePicture));
+        when(profilePictureRepository.findMetadataByUserId(userId)).thenReturn(Mono.just(profilePicture));
 
         ProfilePicture result = service.getProfilePicture(profilePicture.getUserId()).block();
         assertEquals(profilePicture, result);
@@ -406,52 +469,193 @@ class DefaultUserServiceTest {
     @Test
     void shouldThrowExceptionOnProfilePictureGetWhenProfilePictureIsNotFound() {
         Long userId = 1L;
-        when(profilePictureRepository.findById(userId)).thenReturn(Mono.empty());
+        when(profilePictureRepository.findMetadataByUserId(userId)).thenReturn(Mono.empty());
         EntityNotFoundException e = assertThrows(EntityNotFoundException.class,
                 () -> service.getProfilePicture(userId).block());
         assertEquals("Profile picture associated with user with id " + userId + " is not found", e.getMessage());
     }
 
+    @Test
+    void shouldReturnProfilePictureContent() {
+        String contentHash = Hashing.sha256().hashBytes(new byte[] {0}).toString();
+        ProfilePicture profilePicture = ProfilePicture.builder().userId(1L).contentHash(contentHash).build();
+        Resource content = new ByteArrayResource(new byte[] {0});
+        when(profilePictureStore.load(contentHash)).thenReturn(Mono.just(content));
+
+        Resource result = service.getProfilePictureContent(profilePicture).block();
+        assertSame(content, result);
+    }
+
+    @Test
+    void shouldThrowExceptionOnProfilePictureContentGetWhenProfilePictureIsNull() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> service.getProfilePictureContent(null));
+        assertEquals("Profile picture must not be null", e.getMessage());
+    }
+
+    @Test
+    void shouldThrowExceptionOnProfilePictureContentGetWhenContentIsNotFound() {
+        String contentHash = Hashing.sha256().hashBytes(new byte[] {0}).toString();
+        ProfilePicture profilePicture = ProfilePicture.builder().userId(1L).contentHash(contentHash).build();
+        when(profilePictureStore.load(contentHash)).thenReturn(Mono.empty());
+
+        EntityNotFoundException e = assertThrows(EntityNotFoundException.class,
+                () -> service.getProfilePictureContent(profilePicture).block());
+        assertEquals("Content of profile picture associated with user with id 1 is not found", e.getMessage());
+    }
+
+    @Test
+    void shouldThrowExceptionOnProfilePictureContentGetWhenContentIsNotMovedToStoreYet() {
+        ProfilePicture profilePicture = ProfilePicture.builder().userId(1L).build();
+        assertThrows(EntityNotFoundException.class,
+                () -> service.getProfilePictureContent(profilePicture).block());
+        verify(profilePictureStore, never()).load(anyString());
+    }
+
+    @Test
+    void shouldReturnProfilePictureThumbnail() {
+        String contentHash = Hashing.sha256().hashBytes(new byte[] {0}).toString();
+        ProfilePicture profilePicture = ProfilePicture.builder().userId(1L).contentHash(contentHash).build();
+        Resource thumbnail = new ByteArrayResource(new byte[] {1});
+        when(thumbnailGenerator.getThumbnailSize(30)).thenReturn(32);
+        when(profilePictureStore.loadVariant(contentHash, "32.png")).thenReturn(Mono.just(thumbnail));
+
+        Resource result = service.getProfilePictureThumbnail(profilePicture, 30).block();
+        assertSame(thumbnail, result);
+        verify(thumbnailGenerator, never()).generateThumbnails(any(ProfilePicture.class));
+    }
+
+    @Test
+    void shouldGenerateThumbnailsWhenThumbnailIsNotFound() {
+        String contentHash = Hashing.sha256().hashBytes(new byte[] {0}).toString();
+        ProfilePicture profilePicture = ProfilePicture.builder().userId(1L).contentHash(contentHash).build();
+        when(thumbnailGenerator.getThumbnailSize(32)).thenReturn(32);
+        when(profilePictureStore.loadVariant(contentHash, "32.png")).thenReturn(Mono.empty());
+
+        Resource result = service.getProfilePictureThumbnail(profilePicture, 32).block();
+        assertNull(result);
+        verify(thumbnailGenerator, times(1)).generateThumbnails(profilePicture);
+    }
+
+    @Test
+    void shouldNotReturnThumbnailWhenRequestedSizeIsGreaterThanThumbnailSizes() {
+        String contentHash = Hashing.sha256().hashBytes(new byte[] {0}).toString();
+        ProfilePicture profilePicture = ProfilePicture.builder().userId(1L).contentHash(contentHash).build();
+        when(thumbnailGenerator.getThumbnailSize(1024)).thenReturn(null);
+
+        Resource result = service.getProfilePictureThumbnail(profilePicture, 1024).block();
+        assertNull(result);
+        verify(profilePictureStore, never()).loadVariant(anyString(), anyString());
+    }
+
+    @Test
+    void shouldThrowExceptionOnProfilePictureThumbnailGetWhenProfilePictureIsNull() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> service.getProfilePictureThumbnail(null, 32));
+        assertEquals("Profile picture must not be null", e.getMessage());
+    }
+
     @Test
     void shouldCreateProfilePicture() {
         long userId = 1L;
-        when(profilePictureRepository.findById(userId)).thenReturn(Mono.empty());
-        when(profilePictureRepository.create(any(ProfilePicture.class)))
+        when(profilePictureRepository.createOrUpdate(any(ProfilePicture.class)))
                 .thenAnswer(args -> Mono.just(args.getArgument(0)));
 
-        ProfilePicture profilePicture = ProfilePicture.builder().userId(userId).data(new byte[] {0}).build();
-
-        ProfilePicture result = service.saveProfilePicture(profilePicture).block();
+        ProfilePicture result = service.saveProfilePicture(userId, createData(new byte[] {0}), "image/png").block();
         assertNotNull(result);
-        verify(profilePictureRepository, times(1)).create(profilePicture);
+        ProfilePicture expectedPicture = ProfilePicture.builder()
+                .userId(userId)
+                .type("image/png")
+                .contentHash(Hashing.sha256().hashBytes(new byte[] {0}).toString())
+                .contentLength(1L)
+                .build();
+        verify(profilePictureRepository, times(1)).createOrUpdate(expectedPicture);
     }
 
     @Test
     void shouldUpdateProfilePicture() {
         long userId = 1L;
-        ProfilePicture profilePicture = ProfilePicture.builder().userId(userId).data(new byte[] {0}).build();
-        when(profilePictureRepository.findById(userId)).thenReturn(Mono.just(profilePicture));
-        when(profilePictureRepository.save(any(ProfilePicture.class)))
+        when(profilePictureRepository.createOrUpdate(any(ProfilePicture.class)))
                 .thenAnswer(args -> Mono.just(args.getArgument(0)));
 
-        ProfilePicture result = service.saveProfilePicture(profilePicture).block();
+        ProfilePicture result = service.saveProfilePicture(userId, createData(new byte[] {1}, new byte[] {2}), null)
+                .block();
+        assertNotNull(result);
+        ProfilePicture expectedPicture = ProfilePicture.builder()
+                .userId(userId)
+                .contentHash(Hashing.sha256().hashBytes(new byte[] {1, 2}).toString())
+                .contentLength(2L)
+                .build();
+        verify(profilePictureRepository, times(1)).createOrUpdate(expectedPicture);
+    }
+
+    @Test
+    void shouldSaveProfilePictureInTransaction() {
+        when(profilePictureRepository.createOrUpdate(any(ProfilePicture.class))).thenAnswer(args -> {
+            ProfilePicture picture = args.getArgument(0);
+            return TransactionSynchronizationManager.forCurrentTransaction()
+                    .filter(TransactionSynchronizationManager::isActualTransactionActive)
+                    .map(synchronizationManager -> picture);
+        });
+
+        ProfilePicture result = service.saveProfilePicture(1L, createData(new byte[] {0}), null).block();
         assertNotNull(result);
-        verify(profilePictureRepository, times(1)).save(profilePicture);
     }
 
     @Test
-    void shouldThrowExceptionOnProfilePictureSaveWhenProfilePictureIsNull() {
+    void shouldThrowExceptionOnProfilePictureSaveWhenUserIdIsNull() {
         IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
-                () -> service.saveProfilePicture(null));
-        assertEquals("Profile picture must not be null", e.getMessage());
+                () -> service.saveProfilePicture(null, createData(new byte[] {0}), null));
+        assertEquals("User id must not be null", e.getMessage());
+    }
+
+    @Test
+    void shouldThrowExceptionOnProfilePictureSaveWhenProfilePictureDataIsNull() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> service.saveProfilePicture(1L, null, null));
+        assertEquals("Profile picture data must not be null", e.getMessage());
     }
 
     @Test
     void shouldThrowExceptionOnProfilePictureSaveWhenProfilePictureFileIsTooLarge() {
         service.setProfilePictureFileMaxSize(1);
-        ProfilePicture profilePicture = ProfilePicture.builder().data(new byte[] {0, 1}).build();
         FileTooLargeException e = assertThrows(FileTooLargeException.class,
-                () -> service.saveProfilePicture(profilePicture).block());
+                () -> service.saveProfilePicture(1L, createData(new byte[] {0, 1}), null).block());
         assertEquals("Profile picture file size must not be greater than 1 byte(s)", e.getMessage());
     }
+
+    @Test
+    void shouldStopReadingProfilePictureDataAsSoonAsFileSizeLimitIsExceeded() {
+        service.setProfilePictureFileMaxSize(2);
+        AtomicInteger readChunks = new AtomicInteger();
+        Flux<DataBuffer> data = createData(new byte[] {0, 1}, new byte[] {2}, new byte[] {3}, new byte[] {4})
+                .doOnNext(buffer -> readChunks.incrementAndGet());
+        assertThrows(FileTooLargeException.class, () -> service.saveProfilePicture(1L, data, null).block());
+        assertEquals(2, readChunks.get());
+        verify(profilePictureRepository, never()).createOrUpdate(any(ProfilePicture.class));
+    }
+
+    @Test
+    void shouldWriteProfilePictureToStore() {
+        long userId = 1L;
+        when(profilePictureRepository.createOrUpdate(any(ProfilePicture.class)))
+                .thenAnswer(args -> Mono.just(args.getArgument(0)));
+
+        service.saveProfilePicture(userId, createData(new byte[] {0}), null).block();
+        verify(profilePictureStore, times(1)).save(any());
+    }
+
+    @Test
+    void shouldGenerateThumbnailsOnProfilePictureSave() {
+        long userId = 1L;
+        when(profilePictureRepository.createOrUpdate(any(ProfilePicture.class)))
+                .thenAnswer(args -> Mono.just(args.getArgument(0)));
+
+        ProfilePicture result = service.saveProfilePicture(userId, createData(new byte[] {0}), null).block();
+        verify(thumbnailGenerator, times(1)).generateThumbnails(result);
+    }
+
+    private Flux<DataBuffer> createData(byte[]... chunks) {
+        return Flux.fromArray(chunks).map(DefaultDataBufferFactory.sharedInstance::wrap);
+    }
 }
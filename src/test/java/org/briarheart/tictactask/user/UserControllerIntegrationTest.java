@@ -101,6 +101,18 @@ class UserControllerIntegrationTest {
 
     @Test
     void shouldSaveProfilePicture() {
+        ResponseEntity<Void> response = saveProfilePicture();
+        assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+    }
+
+    @Test
+    void shouldReplaceProfilePicture() {
+        saveProfilePicture();
+        ResponseEntity<Void> response = saveProfilePicture();
+        assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+    }
+
+    private ResponseEntity<Void> saveProfilePicture() {
         long userId = TestUsers.JOHN_DOE.getId();
         String url = "http://localhost:{port}/api/v1/users/{userId}/profile-picture";
 
@@ -114,9 +126,7 @@ class UserControllerIntegrationTest {
                 .contentType(MediaType.IMAGE_PNG);
         MultiValueMap<String, HttpEntity<?>> form = multipartBodyBuilder.build();
 
-        ResponseEntity<Void> response = restTemplate.exchange(url, HttpMethod.PUT, new HttpEntity<>(form, headers),
-                Void.class, port, userId);
-        assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+        return restTemplate.exchange(url, HttpMethod.PUT, new HttpEntity<>(form, headers), Void.class, port, userId);
     }
 
     private void addCookieHeader(HttpHeaders headers) {
@@ -19,7 +19,11 @@ import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.client.MultipartBodyBuilder;
 import org.springframework.security.core.Authentication;
@@ -49,6 +53,8 @@ import static org.springframework.security.test.web.reactive.server.SecurityMock
 @ActiveProfiles("test")
 class UserControllerTest {
     private static final Locale DEFAULT_LOCALE = Locale.getDefault();
+    private static final String PROFILE_PICTURE_HASH
+            = "039058c6f2c0cb492c533b0a4d14ef77cc0f78abccced5287d84a1a2011cfb81";
 
     @Autowired
     private WebTestClient testClient;
@@ -332,10 +338,12 @@ class UserControllerTest {
         byte[] imageData = new ClassPathResource("test-image.png").getInputStream().readAllBytes();
         ProfilePicture profilePicture = ProfilePicture.builder()
                 .userId(user.getId())
-                .data(imageData)
                 .type(MediaType.IMAGE_PNG_VALUE)
+                .contentLength((long) imageData.length)
                 .build();
         when(userService.getProfilePicture(user.getId())).thenReturn(Mono.just(profilePicture));
+        when(userService.getProfilePictureContent(profilePicture))
+                .thenReturn(Mono.just(new ClassPathResource("test-image.png")));
 
         testClient.mutateWith(mockAuthentication(authenticationMock))
                 .get().uri("/api/v1/users/{userId}/profile-picture", user.getId())
@@ -343,7 +351,143 @@ class UserControllerTest {
 
                 .expectStatus().isOk()
                 .expectHeader().contentType(MediaType.IMAGE_PNG)
-                .expectBody(byte[].class).isEqualTo(profilePicture.getData());
+                .expectHeader().contentLength(imageData.length)
+                .expectBody(byte[].class).isEqualTo(imageData);
+    }
+
+    @Test
+    void shouldReturnProfilePictureThumbnail() {
+        User user = User.builder().id(1L).email("alice@mail.com").build();
+        Authentication authenticationMock = createAuthentication(user);
+
+        ProfilePicture profilePicture = ProfilePicture.builder()
+                .userId(user.getId())
+                .type(MediaType.IMAGE_GIF_VALUE)
+                .build();
+        when(userService.getProfilePicture(user.getId())).thenReturn(Mono.just(profilePicture));
+        when(userService.getProfilePictureThumbnail(profilePicture, 32))
+                .thenReturn(Mono.just(new ClassPathResource("test-image.png")));
+
+        testClient.mutateWith(mockAuthentication(authenticationMock))
+                .get().uri("/api/v1/users/{userId}/profile-picture?size=32", user.getId())
+                .exchange()
+
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.IMAGE_PNG);
+        verify(userService, never()).getProfilePictureContent(any(ProfilePicture.class));
+    }
+
+    @Test
+    void shouldReturnOriginalProfilePictureWhenThumbnailIsNotAvailable() {
+        User user = User.builder().id(1L).email("alice@mail.com").build();
+        Authentication authenticationMock = createAuthentication(user);
+
+        ProfilePicture profilePicture = ProfilePicture.builder()
+                .userId(user.getId())
+                .type(MediaType.IMAGE_PNG_VALUE)
+                .contentHash(PROFILE_PICTURE_HASH)
+                .build();
+        when(userService.getProfilePicture(user.getId())).thenReturn(Mono.just(profilePicture));
+        when(userService.getProfilePictureThumbnail(profilePicture, 32)).thenReturn(Mono.empty());
+        when(userService.getProfilePictureContent(profilePicture))
+                .thenReturn(Mono.just(new ClassPathResource("test-image.png")));
+
+        testClient.mutateWith(mockAuthentication(authenticationMock))
+                .get().uri("/api/v1/users/{userId}/profile-picture?size=32", user.getId())
+                .exchange()
+
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist(HttpHeaders.ETAG)
+                .expectHeader().cacheControl(CacheControl.noStore());
+    }
+
+    @Test
+    void shouldReturnProfilePictureWithETag() {
+        User user = User.builder().id(1L).email("alice@mail.com").build();
+        Authentication authenticationMock = createAuthentication(user);
+
+        ProfilePicture profilePicture = ProfilePicture.builder()
+                .userId(user.getId())
+                .type(MediaType.IMAGE_PNG_VALUE)
+                .contentHash(PROFILE_PICTURE_HASH)
+                .build();
+        when(userService.getProfilePicture(user.getId())).thenReturn(Mono.just(profilePicture));
+        when(userService.getProfilePictureContent(profilePicture))
+                .thenReturn(Mono.just(new ClassPathResource("test-image.png")));
+
+        testClient.mutateWith(mockAuthentication(authenticationMock))
+                .get().uri("/api/v1/users/{userId}/profile-picture", user.getId())
+                .exchange()
+
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"" + PROFILE_PICTURE_HASH + "\"")
+                .expectHeader().cacheControl(CacheControl.noCache().cachePrivate());
+    }
+
+    @Test
+    void shouldReturnNotModifiedStatusCodeWhenProfilePictureIsNotModified() {
+        User user = User.builder().id(1L).email("alice@mail.com").build();
+        Authentication authenticationMock = createAuthentication(user);
+
+        ProfilePicture profilePicture = ProfilePicture.builder()
+                .userId(user.getId())
+                .type(MediaType.IMAGE_PNG_VALUE)
+                .contentHash(PROFILE_PICTURE_HASH)
+                .build();
+        when(userService.getProfilePicture(user.getId())).thenReturn(Mono.just(profilePicture));
+
+        testClient.mutateWith(mockAuthentication(authenticationMock))
+                .get().uri("/api/v1/users/{userId}/profile-picture?size=32", user.getId())
+                .ifNoneMatch("\"" + PROFILE_PICTURE_HASH + "-32\"")
+                .exchange()
+
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"" + PROFILE_PICTURE_HASH + "-32\"")
+                .expectBody().isEmpty();
+        verify(userService, never()).getProfilePictureThumbnail(any(ProfilePicture.class), anyInt());
+        verify(userService, never()).getProfilePictureContent(any(ProfilePicture.class));
+    }
+
+    @Test
+    void shouldReturnNotModifiedStatusCodeWhenProfilePictureMatchesWeakETag() {
+        User user = User.builder().id(1L).email("alice@mail.com").build();
+        Authentication authenticationMock = createAuthentication(user);
+
+        ProfilePicture profilePicture = ProfilePicture.builder()
+                .userId(user.getId())
+                .type(MediaType.IMAGE_PNG_VALUE)
+                .contentHash(PROFILE_PICTURE_HASH)
+                .build();
+        when(userService.getProfilePicture(user.getId())).thenReturn(Mono.just(profilePicture));
+
+        testClient.mutateWith(mockAuthentication(authenticationMock))
+                .get().uri("/api/v1/users/{userId}/profile-picture", user.getId())
+                .ifNoneMatch("W/\"" + PROFILE_PICTURE_HASH + "\"")
+                .exchange()
+
+                .expectStatus().isNotModified();
+        verify(userService, never()).getProfilePictureContent(any(ProfilePicture.class));
+    }
+
+    @Test
+    void shouldReturnNotModifiedStatusCodeWhenAnyProfilePictureIsAccepted() {
+        User user = User.builder().id(1L).email("alice@mail.com").build();
+        Authentication authenticationMock = createAuthentication(user);
+
+        ProfilePicture profilePicture = ProfilePicture.builder()
+                .userId(user.getId())
+                .type(MediaType.IMAGE_PNG_VALUE)
+                .contentHash(PROFILE_PICTURE_HASH)
+                .build();
+        when(userService.getProfilePicture(user.getId())).thenReturn(Mono.just(profilePicture));
+
+        testClient.mutateWith(mockAuthentication(authenticationMock))
+                .get().uri("/api/v1/users/{userId}/profile-picture", user.getId())
+                .ifNoneMatch("*")
+                .exchange()
+
+                .expectStatus().isNotModified();
+        verify(userService, never()).getProfilePictureContent(any(ProfilePicture.class));
     }
 
     @Test
@@ -367,8 +511,14 @@ class UserControllerTest {
         User user = User.builder().id(1L).email("alice@mail.com").build();
         Authentication authenticationMock = createAuthentication(user);
 
-        when(userService.saveProfilePicture(any(ProfilePicture.class)))
-                .thenAnswer(args -> Mono.just(args.getArgument(0)));
+        when(userService.saveProfilePicture(eq(user.getId()), any(), eq(MediaType.IMAGE_PNG_VALUE)))
+                .thenAnswer(args -> {
+                    Flux<DataBuffer> data = args.getArgument(1);
+                    return DataBufferUtils.join(data).map(buffer -> {
+                        DataBufferUtils.release(buffer);
+                        return ProfilePicture.builder().userId(user.getId()).build();
+                    });
+                });
 
         MultipartBodyBuilder multipartBodyBuilder = new MultipartBodyBuilder();
         multipartBodyBuilder.part("profilePicture", new ClassPathResource("test-image.png"))
@@ -390,8 +540,14 @@ class UserControllerTest {
         User user = User.builder().id(1L).email("alice@mail.com").build();
         Authentication authenticationMock = createAuthentication(user);
 
-        when(userService.saveProfilePicture(any(ProfilePicture.class)))
-                .thenAnswer(args -> Mono.just(args.getArgument(0)));
+        when(userService.saveProfilePicture(eq(user.getId()), any(), eq(MediaType.IMAGE_PNG_VALUE)))
+                .thenAnswer(args -> {
+                    Flux<DataBuffer> data = args.getArgument(1);
+                    return DataBufferUtils.join(data).map(buffer -> {
+                        DataBufferUtils.release(buffer);
+                        return ProfilePicture.builder().userId(user.getId()).build();
+                    });
+                });
 
         MultipartBodyBuilder multipartBodyBuilder = new MultipartBodyBuilder();
         multipartBodyBuilder.part("profilePicture", new ClassPathResource("test-image.png"))
@@ -408,6 +564,33 @@ class UserControllerTest {
         assertEquals("/api/v1/users/" + user.getId() + "/profile-picture", user.getProfilePictureUrl());
     }
 
+    @Test
+    void shouldReturnBadRequestStatusCodeOnProfilePictureSaveWhenProfilePictureFileIsTooLarge() {
+        User user = User.builder().id(1L).email("alice@mail.com").build();
+        Authentication authenticationMock = createAuthentication(user);
+
+        String errorMessage = "Profile picture file size must not be greater than 1 byte(s)";
+        when(userService.saveProfilePicture(eq(user.getId()), any(), any()))
+                .thenReturn(Mono.error(new FileTooLargeException(errorMessage)));
+
+        MultipartBodyBuilder multipartBodyBuilder = new MultipartBodyBuilder();
+        multipartBodyBuilder.part("profilePicture", new ClassPathResource("test-image.png"))
+                .filename("test-image.png")
+                .contentType(MediaType.IMAGE_PNG);
+        MultiValueMap<String, HttpEntity<?>> form = multipartBodyBuilder.build();
+
+        testClient.mutateWith(mockAuthentication(authenticationMock)).mutateWith(csrf())
+                .put().uri("/api/v1/users/{userId}/profile-picture", user.getId())
+                .contentType(MediaType.MULTIPART_FORM_DATA)
+                .bodyValue(form)
+                .exchange()
+
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo(errorMessage);
+        assertNull(user.getProfilePictureUrl());
+    }
+
     private Authentication createAuthentication(User user) {
         Authentication authenticationMock = mock(Authentication.class);
         when(authenticationMock.getName()).thenReturn(user.getEmail());
@@ -4,7 +4,6 @@ import org.briarheart.tictactask.config.ApplicationProperties;
 import org.briarheart.tictactask.data.EntityNotFoundException;
 import org.briarheart.tictactask.email.EmailService;
 import org.briarheart.tictactask.user.TokenExpiredException;
-import org.briarheart.tictactask.user.UnableToSendMessageException;
 import org.briarheart.tictactask.user.User;
 import org.briarheart.tictactask.user.UserRepository;
 import org.briarheart.tictactask.util.DateTimeUtils;
@@ -13,7 +12,6 @@ import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.springframework.context.support.MessageSourceAccessor;
 import org.springframework.context.support.ResourceBundleMessageSource;
-import org.springframework.mail.MailSendException;
 import reactor.core.publisher.Mono;
 
 import java.time.temporal.ChronoUnit;
@@ -50,6 +48,7 @@ class DefaultEmailConfirmationServiceTest {
         MessageSourceAccessor messages = new MessageSourceAccessor(messageSource);
 
         emailService = mock(EmailService.class);
+        when(emailService.sendEmail(anyString(), anyString(), anyString())).thenReturn(Mono.empty());
         service = new DefaultEmailConfirmationService(tokenRepository, userRepository, appProps, messages, emailService);
     }
 
@@ -87,15 +86,6 @@ class DefaultEmailConfirmationServiceTest {
         assertEquals("User must not be null", e.getMessage());
     }
 
-    @Test
-    void shouldThrowExceptionOnEmailConfirmationLinkSendWhenMailExceptionIsThrown() {
-        User user = User.builder().email("alice@mail.com").emailConfirmed(true).enabled(true).fullName("Alice").build();
-        doThrow(new MailSendException("Something went wrong")).when(emailService)
-                .sendEmail(eq(user.getEmail()), anyString(), anyString());
-        assertThrows(UnableToSendMessageException.class,
-                () -> service.sendEmailConfirmationLink(user, Locale.ENGLISH).block());
-    }
-
     @Test
     void shouldConfirmEmail() {
         User user = User.builder().id(1L).email("alice@mail.com").emailConfirmed(false).enabled(false).build();
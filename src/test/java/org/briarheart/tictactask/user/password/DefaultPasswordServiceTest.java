@@ -3,8 +3,8 @@ package org.briarheart.tictactask.user.password;
 import org.briarheart.tictactask.config.ApplicationProperties;
 import org.briarheart.tictactask.data.EntityNotFoundException;
 import org.briarheart.tictactask.email.EmailService;
+import org.briarheart.tictactask.security.crypto.password.ReactivePasswordEncoder;
 import org.briarheart.tictactask.user.TokenExpiredException;
-import org.briarheart.tictactask.user.UnableToSendMessageException;
 import org.briarheart.tictactask.user.User;
 import org.briarheart.tictactask.user.UserRepository;
 import org.briarheart.tictactask.util.DateTimeUtils;
@@ -13,8 +13,6 @@ import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.springframework.context.support.MessageSourceAccessor;
 import org.springframework.context.support.ResourceBundleMessageSource;
-import org.springframework.mail.MailSendException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import reactor.core.publisher.Mono;
 
@@ -37,7 +35,7 @@ class DefaultPasswordServiceTest {
     private PasswordResetConfirmationTokenRepository tokenRepository;
     private UserRepository userRepository;
     private EmailService emailService;
-    private PasswordEncoder passwordEncoder;
+    private ReactivePasswordEncoder passwordEncoder;
 
     @BeforeEach
     void setUp() {
@@ -56,13 +54,14 @@ class DefaultPasswordServiceTest {
         MessageSourceAccessor messages = new MessageSourceAccessor(messageSource);
 
         emailService = mock(EmailService.class);
+        when(emailService.sendEmail(anyString(), anyString(), anyString())).thenReturn(Mono.empty());
 
-        passwordEncoder = mock(PasswordEncoder.class);
-        when(passwordEncoder.encode(anyString())).thenAnswer(args -> args.getArgument(0));
+        passwordEncoder = mock(ReactivePasswordEncoder.class);
+        when(passwordEncoder.encode(anyString())).thenAnswer(args -> Mono.just(args.getArgument(0)));
         when(passwordEncoder.matches(anyString(), anyString())).thenAnswer(args -> {
             String rawPassword = args.getArgument(0);
             String encodedPassword = args.getArgument(1);
-            return rawPassword.equals(encodedPassword);
+            return Mono.just(rawPassword.equals(encodedPassword));
         });
 
         service = new DefaultPasswordService(tokenRepository, userRepository, appProps, messages, emailService,
@@ -138,23 +137,6 @@ class DefaultPasswordServiceTest {
         assertEquals("Email address must not be null or empty", e.getMessage());
     }
 
-    @Test
-    void shouldThrowExceptionOnPasswordResetWhenMailExceptionIsThrown() {
-        User user = User.builder()
-                .id(1L)
-                .email("alice@mail.com")
-                .emailConfirmed(true)
-                .enabled(true)
-                .fullName("Alice")
-                .build();
-        when(userRepository.findByEmailAndEnabled(user.getEmail(), true)).thenReturn(Mono.just(user));
-
-        doThrow(new MailSendException("Something went wrong")).when(emailService).sendEmail(eq(user.getEmail()),
-                anyString(), anyString());
-        assertThrows(UnableToSendMessageException.class,
-                () -> service.resetPassword("alice@mail.com", Locale.ENGLISH).block());
-    }
-
     @Test
     void shouldConfirmPasswordReset() {
         User user = User.builder().id(1L).email("alice@mail.com").emailConfirmed(true).enabled(true).build();
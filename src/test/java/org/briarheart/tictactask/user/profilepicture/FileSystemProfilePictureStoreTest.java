@@ -0,0 +1,185 @@
+package org.briarheart.tictactask.user.profilepicture;
+
+import com.google.common.hash.Hashing;
+import org.briarheart.tictactask.config.ApplicationProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Roman Chigvintsev
+ */
+class FileSystemProfilePictureStoreTest {
+    @TempDir
+    Path directory;
+
+    private FileSystemProfilePictureStore store;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getProfilePictureStorage().setDirectory(directory.toString());
+        store = new FileSystemProfilePictureStore(applicationProperties);
+    }
+
+    @Test
+    void shouldThrowExceptionOnConstructWhenApplicationPropertiesIsNull() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> new FileSystemProfilePictureStore(null));
+        assertEquals("Application properties must not be null", e.getMessage());
+    }
+
+    @Test
+    void shouldSaveContent() throws IOException {
+        StoredContent result = store.save(createContent(new byte[] {1, 2}, new byte[] {3})).block();
+        assertNotNull(result);
+        assertEquals(Hashing.sha256().hashBytes(new byte[] {1, 2, 3}).toString(), result.getHash());
+        assertEquals(3, result.getLength());
+
+        Resource resource = store.load(result.getHash()).block();
+        assertNotNull(resource);
+        assertArrayEquals(new byte[] {1, 2, 3}, resource.getInputStream().readAllBytes());
+    }
+
+    @Test
+    void shouldStoreIdenticalContentOnce() throws IOException {
+        StoredContent result1 = store.save(createContent(new byte[] {1, 2, 3})).block();
+        StoredContent result2 = store.save(createContent(new byte[] {1}, new byte[] {2, 3})).block();
+        assertNotNull(result1);
+        assertNotNull(result2);
+        assertEquals(result1.getHash(), result2.getHash());
+        assertEquals(1, countStoredFiles());
+    }
+
+    @Test
+    void shouldDeleteTemporaryFileWhenContentIsNotSaved() throws IOException {
+        Flux<DataBuffer> content = createContent(new byte[] {1}).concatWith(Flux.error(new IllegalStateException()));
+        assertThrows(IllegalStateException.class, () -> store.save(content).block());
+        assertEquals(0, countStoredFiles());
+    }
+
+    @Test
+    void shouldReturnEmptyResultWhenContentIsNotFound() {
+        Resource result = store.load(Hashing.sha256().hashBytes(new byte[] {1}).toString()).block();
+        assertNull(result);
+    }
+
+    @Test
+    void shouldReturnEmptyResultWhenHashIsInvalid() {
+        Resource result = store.load("../../etc/passwd").block();
+        assertNull(result);
+    }
+
+    @Test
+    void shouldSaveVariant() throws IOException {
+        StoredContent content = store.save(createContent(new byte[] {1, 2, 3})).block();
+        assertNotNull(content);
+        store.saveVariant(content.getHash(), "32.png", createContent(new byte[] {4})).block();
+
+        Resource resource = store.loadVariant(content.getHash(), "32.png").block();
+        assertNotNull(resource);
+        assertEquals(content.getHash() + "-32.png", resource.getFilename());
+        assertArrayEquals(new byte[] {4}, resource.getInputStream().readAllBytes());
+    }
+
+    @Test
+    void shouldReplaceExistingVariant() throws IOException {
+        String hash = Hashing.sha256().hashBytes(new byte[] {1}).toString();
+        store.saveVariant(hash, "32.png", createContent(new byte[] {4})).block();
+        store.saveVariant(hash, "32.png", createContent(new byte[] {5})).block();
+
+        Resource resource = store.loadVariant(hash, "32.png").block();
+        assertNotNull(resource);
+        assertArrayEquals(new byte[] {5}, resource.getInputStream().readAllBytes());
+    }
+
+    @Test
+    void shouldThrowExceptionOnVariantSaveWhenVariantIsInvalid() {
+        String hash = Hashing.sha256().hashBytes(new byte[] {1}).toString();
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> store.saveVariant(hash, "../32.png", createContent(new byte[] {4})));
+        assertEquals("Invalid variant", e.getMessage());
+    }
+
+    @Test
+    void shouldReturnEmptyResultWhenVariantIsNotFound() {
+        Resource result = store.loadVariant(Hashing.sha256().hashBytes(new byte[] {1}).toString(), "32.png").block();
+        assertNull(result);
+    }
+
+    @Test
+    void shouldFindHashesOfContentSavedBeforeGivenTime() {
+        StoredContent content = store.save(createContent(new byte[] {1, 2, 3})).block();
+        assertNotNull(content);
+        store.saveVariant(content.getHash(), "32.png", createContent(new byte[] {4})).block();
+
+        Instant now = Instant.now();
+        assertEquals(List.of(content.getHash()),
+                store.findHashesSavedBefore(now.plusSeconds(60)).collectList().block());
+        assertEquals(List.of(), store.findHashesSavedBefore(now.minusSeconds(60)).collectList().block());
+    }
+
+    @Test
+    void shouldUpdateSaveTimeOfContentThatIsAlreadyStored() throws IOException {
+        StoredContent content = store.save(createContent(new byte[] {1, 2, 3})).block();
+        assertNotNull(content);
+        Path file = findStoredFile(content.getHash());
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(1, ChronoUnit.DAYS)));
+
+        store.save(createContent(new byte[] {1, 2, 3})).block();
+        assertEquals(List.of(), store.findHashesSavedBefore(Instant.now().minus(1, ChronoUnit.HOURS))
+                .collectList().block());
+    }
+
+    @Test
+    void shouldDeleteContentWithVariants() throws IOException {
+        StoredContent content = store.save(createContent(new byte[] {1, 2, 3})).block();
+        assertNotNull(content);
+        store.saveVariant(content.getHash(), "32.png", createContent(new byte[] {4})).block();
+
+        assertEquals(true, store.delete(content.getHash(), Instant.now().plusSeconds(60)).block());
+        assertNull(store.load(content.getHash()).block());
+        assertNull(store.loadVariant(content.getHash(), "32.png").block());
+        assertEquals(0, countStoredFiles());
+    }
+
+    @Test
+    void shouldNotDeleteContentSavedAfterGivenTime() {
+        StoredContent content = store.save(createContent(new byte[] {1, 2, 3})).block();
+        assertNotNull(content);
+
+        assertEquals(false, store.delete(content.getHash(), Instant.now().minusSeconds(60)).block());
+        assertNotNull(store.load(content.getHash()).block());
+    }
+
+    private Flux<DataBuffer> createContent(byte[]... chunks) {
+        return Flux.fromArray(chunks).map(DefaultDataBufferFactory.sharedInstance::wrap);
+    }
+
+    private Path findStoredFile(String hash) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(file -> file.getFileName().toString().equals(hash)).findFirst().orElseThrow();
+        }
+    }
+
+    private long countStoredFiles() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile).count();
+        }
+    }
+}
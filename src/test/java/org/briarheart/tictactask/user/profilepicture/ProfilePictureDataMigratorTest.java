@@ -0,0 +1,86 @@
+package org.briarheart.tictactask.user.profilepicture;
+
+import org.briarheart.tictactask.util.TestReactiveTransactionManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author Roman Chigvintsev
+ */
+class ProfilePictureDataMigratorTest {
+    private static final String CONTENT_HASH = "039058c6f2c0cb492c533b0a4d14ef77cc0f78abccced5287d84a1a2011cfb81";
+
+    private ProfilePictureRepository profilePictureRepository;
+    private ProfilePictureStore profilePictureStore;
+    private TransactionalOperator transactionalOperator;
+    private ProfilePictureDataMigrator migrator;
+
+    @BeforeEach
+    void setUp() {
+        profilePictureRepository = mock(ProfilePictureRepository.class);
+        profilePictureStore = mock(ProfilePictureStore.class);
+        when(profilePictureStore.save(any())).thenAnswer(args -> DataBufferUtils.join(args.getArgument(0))
+                .map(buffer -> {
+                    int length = buffer.readableByteCount();
+                    DataBufferUtils.release(buffer);
+                    return new StoredContent(CONTENT_HASH, length);
+                }));
+        transactionalOperator = TransactionalOperator.create(new TestReactiveTransactionManager());
+        migrator = new ProfilePictureDataMigrator(profilePictureRepository, profilePictureStore, transactionalOperator);
+    }
+
+    @Test
+    void shouldThrowExceptionOnConstructWhenProfilePictureRepositoryIsNull() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> new ProfilePictureDataMigrator(null, profilePictureStore, transactionalOperator));
+        assertEquals("Profile picture repository must not be null", e.getMessage());
+    }
+
+    @Test
+    void shouldThrowExceptionOnConstructWhenProfilePictureStoreIsNull() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> new ProfilePictureDataMigrator(profilePictureRepository, null, transactionalOperator));
+        assertEquals("Profile picture store must not be null", e.getMessage());
+    }
+
+    @Test
+    void shouldThrowExceptionOnConstructWhenTransactionalOperatorIsNull() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> new ProfilePictureDataMigrator(profilePictureRepository, profilePictureStore, null));
+        assertEquals("Transactional operator must not be null", e.getMessage());
+    }
+
+    @Test
+    void shouldMoveProfilePicturesToStore() {
+        when(profilePictureRepository.findUserIdsWithLegacyData()).thenReturn(Flux.just(1L, 2L));
+        when(profilePictureRepository.findLegacyDataByUserIdForUpdateSkipLocked(1L))
+                .thenReturn(Mono.just(new byte[] {1, 2, 3}));
+        when(profilePictureRepository.findLegacyDataByUserIdForUpdateSkipLocked(2L))
+                .thenReturn(Mono.just(new byte[] {1, 2, 3}));
+        when(profilePictureRepository.updateLegacyDataByUserId(any(), any(), any())).thenReturn(Mono.just(1));
+
+        Integer result = migrator.migrate().block();
+        assertEquals(2, result);
+        verify(profilePictureRepository, times(1)).updateLegacyDataByUserId(1L, CONTENT_HASH, 3L);
+        verify(profilePictureRepository, times(1)).updateLegacyDataByUserId(2L, CONTENT_HASH, 3L);
+    }
+
+    @Test
+    void shouldSkipProfilePictureThatIsAlreadyMoved() {
+        when(profilePictureRepository.findUserIdsWithLegacyData()).thenReturn(Flux.just(1L));
+        when(profilePictureRepository.findLegacyDataByUserIdForUpdateSkipLocked(1L)).thenReturn(Mono.empty());
+
+        Integer result = migrator.migrate().block();
+        assertEquals(0, result);
+        verify(profilePictureStore, never()).save(any());
+    }
+}
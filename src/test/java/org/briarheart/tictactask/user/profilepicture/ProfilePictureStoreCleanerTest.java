@@ -0,0 +1,86 @@
+package org.briarheart.tictactask.user.profilepicture;
+
+import org.briarheart.tictactask.config.ApplicationProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author Roman Chigvintsev
+ */
+class ProfilePictureStoreCleanerTest {
+    private static final String REFERENCED_HASH
+            = "039058c6f2c0cb492c533b0a4d14ef77cc0f78abccced5287d84a1a2011cfb81";
+    private static final String UNREFERENCED_HASH
+            = "4bf5122f344554c53bde2ebb8cd2b7e3d1600ad631c385a5d7cce23c7785459a";
+    private static final Instant CURRENT_TIME = Instant.parse("2022-03-01T12:00:00Z");
+
+    private ProfilePictureRepository profilePictureRepository;
+    private ProfilePictureStore profilePictureStore;
+    private ApplicationProperties applicationProperties;
+    private ProfilePictureStoreCleaner cleaner;
+
+    @BeforeEach
+    void setUp() {
+        profilePictureRepository = mock(ProfilePictureRepository.class);
+        profilePictureStore = mock(ProfilePictureStore.class);
+        when(profilePictureStore.delete(anyString(), any(Instant.class))).thenReturn(Mono.just(true));
+
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getProfilePictureStorage().setCleanupGracePeriod(Duration.ofHours(1));
+        cleaner = new ProfilePictureStoreCleaner(profilePictureRepository, profilePictureStore,
+                applicationProperties) {
+            @Override
+            protected Instant getCurrentTime() {
+                return CURRENT_TIME;
+            }
+        };
+    }
+
+    @Test
+    void shouldThrowExceptionOnConstructWhenProfilePictureRepositoryIsNull() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> new ProfilePictureStoreCleaner(null, profilePictureStore, applicationProperties));
+        assertEquals("Profile picture repository must not be null", e.getMessage());
+    }
+
+    @Test
+    void shouldThrowExceptionOnConstructWhenProfilePictureStoreIsNull() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> new ProfilePictureStoreCleaner(profilePictureRepository, null, applicationProperties));
+        assertEquals("Profile picture store must not be null", e.getMessage());
+    }
+
+    @Test
+    void shouldDeleteUnreferencedContentSavedBeforeGracePeriod() {
+        Instant savedBefore = CURRENT_TIME.minus(Duration.ofHours(1));
+        when(profilePictureStore.findHashesSavedBefore(savedBefore))
+                .thenReturn(Flux.just(REFERENCED_HASH, UNREFERENCED_HASH));
+        when(profilePictureRepository.existsByContentHash(REFERENCED_HASH)).thenReturn(Mono.just(true));
+        when(profilePictureRepository.existsByContentHash(UNREFERENCED_HASH)).thenReturn(Mono.just(false));
+
+        assertEquals(1, cleaner.cleanUp().block());
+        verify(profilePictureStore, times(1)).delete(UNREFERENCED_HASH, savedBefore);
+        verify(profilePictureStore, never()).delete(eq(REFERENCED_HASH), any(Instant.class));
+    }
+
+    @Test
+    void shouldNotCountContentThatWasSavedAgain() {
+        Instant savedBefore = CURRENT_TIME.minus(Duration.ofHours(1));
+        when(profilePictureStore.findHashesSavedBefore(savedBefore)).thenReturn(Flux.just(UNREFERENCED_HASH));
+        when(profilePictureRepository.existsByContentHash(UNREFERENCED_HASH)).thenReturn(Mono.just(false));
+        when(profilePictureStore.delete(UNREFERENCED_HASH, savedBefore)).thenReturn(Mono.just(false));
+
+        assertEquals(0, cleaner.cleanUp().block());
+    }
+}
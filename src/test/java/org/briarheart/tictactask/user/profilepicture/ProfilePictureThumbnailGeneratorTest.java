@@ -0,0 +1,110 @@
+package org.briarheart.tictactask.user.profilepicture;
+
+import org.briarheart.tictactask.config.ApplicationProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Flux;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Roman Chigvintsev
+ */
+class ProfilePictureThumbnailGeneratorTest {
+    @TempDir
+    Path directory;
+
+    private FileSystemProfilePictureStore store;
+    private ProfilePictureThumbnailGenerator generator;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getProfilePictureStorage().setDirectory(directory.toString());
+        applicationProperties.getProfilePictureThumbnails().setSizes(List.of(64, 16));
+        store = new FileSystemProfilePictureStore(applicationProperties);
+        generator = new ProfilePictureThumbnailGenerator(store, applicationProperties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        generator.destroy();
+    }
+
+    @Test
+    void shouldThrowExceptionOnConstructWhenProfilePictureStoreIsNull() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> new ProfilePictureThumbnailGenerator(null, new ApplicationProperties()));
+        assertEquals("Profile picture store must not be null", e.getMessage());
+    }
+
+    @Test
+    void shouldReturnSmallestThumbnailSizeThatIsNotLessThanRequestedSize() {
+        assertEquals(16, generator.getThumbnailSize(10));
+        assertEquals(16, generator.getThumbnailSize(16));
+        assertEquals(64, generator.getThumbnailSize(17));
+        assertNull(generator.getThumbnailSize(65));
+    }
+
+    @Test
+    void shouldUseJpegFormatForThumbnailsOfJpegPictures() {
+        ProfilePicture picture = ProfilePicture.builder().type(MediaType.IMAGE_JPEG_VALUE).build();
+        assertEquals("16.jpg", generator.getThumbnailVariant(picture, 16));
+    }
+
+    @Test
+    void shouldUsePngFormatForThumbnailsOfPicturesInOtherFormats() {
+        ProfilePicture picture = ProfilePicture.builder().type(MediaType.IMAGE_GIF_VALUE).build();
+        assertEquals("16.png", generator.getThumbnailVariant(picture, 16));
+    }
+
+    @Test
+    void shouldGenerateThumbnails() throws IOException {
+        ProfilePicture picture = savePicture(new ClassPathResource("test-image.png"));
+        Long result = generator.generate(picture).block();
+        assertEquals(2, result);
+
+        for (int size : List.of(16, 64)) {
+            Resource thumbnail = store.loadVariant(picture.getContentHash(), size + ".png").block();
+            assertNotNull(thumbnail);
+            try (InputStream inputStream = thumbnail.getInputStream()) {
+                BufferedImage image = ImageIO.read(inputStream);
+                assertTrue(image.getWidth() <= size && image.getHeight() <= size);
+            }
+        }
+    }
+
+    @Test
+    void shouldNotGenerateThumbnailsOfUnsupportedPictures() {
+        ProfilePicture picture = savePicture(new ClassPathResource("application-test.yml"));
+        Long result = generator.generate(picture).block();
+        assertEquals(0, result);
+    }
+
+    private ProfilePicture savePicture(Resource resource) {
+        Flux<DataBuffer> content = DataBufferUtils.read(resource, DefaultDataBufferFactory.sharedInstance, 4096);
+        StoredContent storedContent = store.save(content).block();
+        assertNotNull(storedContent);
+        return ProfilePicture.builder()
+                .userId(1L)
+                .type(MediaType.IMAGE_PNG_VALUE)
+                .contentHash(storedContent.getHash())
+                .contentLength(storedContent.getLength())
+                .build();
+    }
+}
@@ -0,0 +1,43 @@
+package org.briarheart.tictactask.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Roman Chigvintsev
+ */
+class TransactionsTest {
+    @Test
+    void shouldRunActionImmediatelyWhenThereIsNoTransaction() {
+        AtomicBoolean actionRun = new AtomicBoolean();
+        Transactions.runAfterCompletion(() -> actionRun.set(true)).block();
+        assertTrue(actionRun.get());
+    }
+
+    @Test
+    void shouldRunActionAfterCompletionOfTransaction() {
+        AtomicBoolean actionRun = new AtomicBoolean();
+        AtomicBoolean actionRunBeforeCompletion = new AtomicBoolean();
+        TransactionalOperator transactionalOperator = TransactionalOperator.create(
+                new TestReactiveTransactionManager());
+
+        Transactions.runAfterCompletion(() -> actionRun.set(true))
+                .then(Mono.fromRunnable(() -> actionRunBeforeCompletion.set(actionRun.get())))
+                .as(transactionalOperator::transactional)
+                .block();
+        assertFalse(actionRunBeforeCompletion.get());
+        assertTrue(actionRun.get());
+    }
+
+    @Test
+    void shouldThrowExceptionWhenActionIsNull() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> Transactions.runAfterCompletion(null));
+        assertEquals("Action must not be null", e.getMessage());
+    }
+}